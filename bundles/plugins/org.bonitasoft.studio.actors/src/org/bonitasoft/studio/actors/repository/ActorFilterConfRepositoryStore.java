@@ -225,4 +225,9 @@ public class ActorFilterConfRepositoryStore extends AbstractEMFRepositoryStore<D
         adapterFactory.addAdapterFactory(new ConnectorConfigurationAdapterFactory());
     }
 
+    @Override
+    protected boolean canMigrateConcurrently() {
+        return true;
+    }
+
 }
@@ -31,6 +31,7 @@ import org.bonitasoft.studio.common.repository.core.ActiveOrganizationProvider;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
 import org.bonitasoft.studio.common.repository.model.IRepositoryStore;
 import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
+import org.bonitasoft.studio.engine.BOSWebServerManager;
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
@@ -71,6 +72,7 @@ public class InstallOrganizationHandler extends AbstractHandler {
             }
 
             final PublishOrganizationOperation op = publishOperation(organization);
+            BOSWebServerManager.getInstance().invalidateTenantSnapshot();
             try {
                 op.run(Repository.NULL_PROGRESS_MONITOR);
             } catch (final Exception e) {
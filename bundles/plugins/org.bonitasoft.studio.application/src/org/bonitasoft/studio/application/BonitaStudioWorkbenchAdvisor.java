@@ -40,6 +40,7 @@ import org.bonitasoft.studio.common.ProjectUtil;
 import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManager;
 import org.bonitasoft.studio.common.extension.IPostStartupContribution;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.PhaseTimings;
 import org.bonitasoft.studio.common.perspectives.PerspectiveIDRegistry;
 import org.bonitasoft.studio.common.platform.tools.PlatformUtil;
 import org.bonitasoft.studio.common.repository.CommonRepositoryPlugin;
@@ -403,15 +404,21 @@ public class BonitaStudioWorkbenchAdvisor extends WorkbenchAdvisor implements IS
 
         disableInternalWebBrowser();
         disableGroovyDSL();
+        long start = System.nanoTime();
         checkCurrentRepository(monitor);
+        PhaseTimings.STUDIO_STARTUP.record("repository.check", start);
 
+        start = System.nanoTime();
         final List<IConfigurationElement> sortedConfigElems = retrievePreStartupContribution();
         sortConfigurationElementsByPriority(sortedConfigElems);
         executeConfigurationElement(sortedConfigElems);
+        PhaseTimings.STUDIO_STARTUP.record("preStartup.contributions", start);
 
         doInitWorkspace();
         doStartEngine();
+        start = System.nanoTime();
         executeContributions();
+        PhaseTimings.STUDIO_STARTUP.record("contributions", start);
     }
 
     protected void disableGroovyDSL() {
@@ -647,10 +654,13 @@ public class BonitaStudioWorkbenchAdvisor extends WorkbenchAdvisor implements IS
             contrib.execute();
         }
 
+        final long start = System.nanoTime();
         preLoad();
+        PhaseTimings.STUDIO_STARTUP.record("preLoad", start);
 
         final long startupDuration = System.currentTimeMillis() - BonitaStudioApplication.START_TIME;
         BonitaStudioLog.info("Startup duration : " + DateUtil.getDisplayDuration(startupDuration), ApplicationPlugin.PLUGIN_ID);
+        BonitaStudioLog.info("Startup phases : " + PhaseTimings.STUDIO_STARTUP, ApplicationPlugin.PLUGIN_ID);
     }
 
     private void preLoad() {
@@ -681,10 +691,12 @@ public class BonitaStudioWorkbenchAdvisor extends WorkbenchAdvisor implements IS
     @Override
     public void postStartup() {
         super.postStartup();
+        final long start = System.nanoTime();
         try {
             Job.getJobManager().join(WorkspaceInitializationJob.WORKSPACE_INIT_FAMILY, monitor);
         } catch (final OperationCanceledException | InterruptedException e) {
             BonitaStudioLog.error(e);
         }
+        PhaseTimings.STUDIO_STARTUP.record("workspace.join", start);
     }
 }
@@ -36,6 +36,7 @@ import org.bonitasoft.studio.common.platform.tools.PlatformUtil;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
 import org.bonitasoft.studio.common.repository.store.AbstractRepositoryStore;
+import org.bonitasoft.studio.engine.BOSWebServerManager;
 import org.bonitasoft.studio.pics.Pics;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.IClasspathEntry;
@@ -149,6 +150,7 @@ public class BusinessObjectModelRepositoryStore extends AbstractRepositoryStore<
 
     protected void deploy(final BusinessObjectModelFileStore fileStore) {
         try {
+            BOSWebServerManager.getInstance().invalidateTenantSnapshot();
             new DeployBDMOperation(fileStore).run(Repository.NULL_PROGRESS_MONITOR);
         } catch (final InvocationTargetException e) {
             BonitaStudioLog.error(e);
@@ -31,6 +31,7 @@ import org.bonitasoft.studio.common.NamingUtils;
 import org.bonitasoft.studio.common.jface.BonitaErrorDialog;
 import org.bonitasoft.studio.common.jface.MessageDialogWithPrompt;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.engine.BOSWebServerManager;
 import org.bonitasoft.studio.engine.EnginePlugin;
 import org.bonitasoft.studio.engine.preferences.EnginePreferenceConstants;
 import org.bonitasoft.studio.pics.Pics;
@@ -152,6 +153,7 @@ public class ManageBusinessDataModelWizard extends Wizard {
 
                 @Override
                 public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+                    BOSWebServerManager.getInstance().invalidateTenantSnapshot();
                     new DeployBDMOperation(fStore).run(monitor);
                 }
             });
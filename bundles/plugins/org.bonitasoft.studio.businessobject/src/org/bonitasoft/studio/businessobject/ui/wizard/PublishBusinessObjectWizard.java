@@ -25,6 +25,7 @@ import org.bonitasoft.studio.businessobject.core.repository.BusinessObjectModelR
 import org.bonitasoft.studio.businessobject.i18n.Messages;
 import org.bonitasoft.studio.common.jface.BonitaErrorDialog;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.engine.BOSWebServerManager;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
@@ -98,6 +99,7 @@ public class PublishBusinessObjectWizard extends SelectBusinessObjectWizard {
     protected void deployBDR(BusinessObjectModelFileStore fileStore, IProgressMonitor monitor) throws IOException, InvocationTargetException,
             InterruptedException {
         DeployBDMOperation deployBDROperation = createDeployBDROperation(fileStore);
+        BOSWebServerManager.getInstance().invalidateTenantSnapshot();
         deployBDROperation.run(monitor);
     }
 
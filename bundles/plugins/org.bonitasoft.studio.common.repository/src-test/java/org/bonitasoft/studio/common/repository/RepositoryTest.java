@@ -16,19 +16,32 @@ package org.bonitasoft.studio.common.repository;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
 
 import org.bonitasoft.studio.common.extension.ExtensionContextInjectionFactory;
 import org.bonitasoft.studio.common.repository.core.BonitaHomeHandler;
 import org.bonitasoft.studio.common.repository.core.ProjectClasspathFactory;
 import org.bonitasoft.studio.common.repository.core.ProjectManifestFactory;
 import org.bonitasoft.studio.common.repository.jdt.JDTTypeHierarchyManager;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.IRepositoryStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -92,9 +105,112 @@ public class RepositoryTest {
         verify(project).refreshLocal(anyInt(), any(IProgressMonitor.class));
     }
 
+    @Test
+    public void should_not_create_repository_stores_with_an_existing_folder_when_opening_the_repository() throws Exception {
+        final Repository repository = newRepository(false);
+        final IRepositoryStore<?> store = mock(IRepositoryStore.class);
+        doReturn(new IConfigurationElement[] { storeConfiguration(store.getClass().getName(), "diagrams") }).when(repository)
+                .getRepositoryStoreConfigurationElements();
+        storeFolder("diagrams", true);
+
+        repository.open(monitor);
+
+        verify(extensionContextInjectionFactory, never()).make(any(IConfigurationElement.class), eq("class"), eq(IRepositoryStore.class));
+    }
+
+    @Test
+    public void should_create_repository_stores_without_folder_when_opening_the_repository() throws Exception {
+        final Repository repository = newRepository(false);
+        final IRepositoryStore<?> store = mock(IRepositoryStore.class);
+        final IConfigurationElement configuration = storeConfiguration(store.getClass().getName(), "diagrams");
+        doReturn(new IConfigurationElement[] { configuration }).when(repository).getRepositoryStoreConfigurationElements();
+        doReturn(store).when(extensionContextInjectionFactory).make(configuration, "class", IRepositoryStore.class);
+        storeFolder("diagrams", false);
+
+        repository.open(monitor);
+
+        verify(store).createRepositoryStore(repository);
+    }
+
+    @Test
+    public void should_create_a_repository_store_once_on_first_access() throws Exception {
+        final Repository repository = newRepository(false);
+        final IRepositoryStore<?> store = mock(IRepositoryStore.class);
+        final IConfigurationElement configuration = storeConfiguration(store.getClass().getName(), "diagrams");
+        storeFolder("diagrams", true);
+        doReturn(new IConfigurationElement[] { configuration }).when(repository).getRepositoryStoreConfigurationElements();
+        doReturn(store).when(extensionContextInjectionFactory).make(configuration, "class", IRepositoryStore.class);
+        repository.open(monitor);
+
+        assertThat(repository.getRepositoryStore(store.getClass())).isSameAs(store);
+        assertThat(repository.getRepositoryStore(store.getClass())).isSameAs(store);
+
+        verify(extensionContextInjectionFactory, times(1)).make(configuration, "class", IRepositoryStore.class);
+        verify(store).createRepositoryStore(repository);
+    }
+
+    @Test
+    public void should_only_create_the_store_containing_a_resource() throws Exception {
+        final Repository repository = newRepository(false);
+        final IRepositoryStore<?> store = mock(IRepositoryStore.class);
+        final IConfigurationElement configuration = storeConfiguration(store.getClass().getName(), "diagrams");
+        final IConfigurationElement otherConfiguration = storeConfiguration("org.acme.OtherRepositoryStore", "lib");
+        doReturn(new IConfigurationElement[] { configuration, otherConfiguration }).when(repository).getRepositoryStoreConfigurationElements();
+        doReturn(store).when(extensionContextInjectionFactory).make(configuration, "class", IRepositoryStore.class);
+        storeFolder("diagrams", true);
+        storeFolder("lib", true);
+        repository.open(monitor);
+
+        assertThat(repository.getRepositoryStore(aProjectFile("diagrams/MyDiagram-1.0.proc"))).isSameAs(store);
+        assertThat(repository.getRepositoryStore(aProjectFile("other/MyDiagram-1.0.proc"))).isNull();
+
+        verify(extensionContextInjectionFactory, never()).make(otherConfiguration, "class", IRepositoryStore.class);
+    }
+
+    @Test
+    public void should_keep_the_stores_read_before_the_repository_is_closed() throws Exception {
+        final Repository repository = newRepository(false);
+        final IRepositoryStore<?> store = mock(IRepositoryStore.class);
+        final IConfigurationElement configuration = storeConfiguration(store.getClass().getName(), "diagrams");
+        doReturn(new IConfigurationElement[] { configuration }).when(repository).getRepositoryStoreConfigurationElements();
+        doReturn(store).when(extensionContextInjectionFactory).make(configuration, "class", IRepositoryStore.class);
+        storeFolder("diagrams", true);
+        repository.open(monitor);
+        final List<IRepositoryStore<? extends IRepositoryFileStore>> stores = repository.getAllStores();
+
+        repository.close();
+
+        assertThat(stores).containsOnly(store);
+        assertThat(repository.isLoaded()).isFalse();
+    }
+
+    private void storeFolder(final String path, final boolean exists) {
+        final IFolder folder = mock(IFolder.class);
+        when(folder.exists()).thenReturn(exists);
+        when(project.getFolder(Path.fromPortableString(path))).thenReturn(folder);
+    }
+
+    private IFile aProjectFile(final String path) {
+        final IFile file = mock(IFile.class);
+        when(file.getProject()).thenReturn(project);
+        when(file.getProjectRelativePath()).thenReturn(Path.fromPortableString(path));
+        return file;
+    }
+
+    private IConfigurationElement storeConfiguration(final String className, final String folder) {
+        final IConfigurationElement configuration = mock(IConfigurationElement.class);
+        when(configuration.getAttribute("class")).thenReturn(className);
+        when(configuration.getAttribute("folder")).thenReturn(folder);
+        return configuration;
+    }
+
     private Repository newRepository() {
+        return newRepository(true);
+    }
+
+    private Repository newRepository(final boolean migrationEnabled) {
         final Repository repo = spy(new Repository(workspace, project, extensionContextInjectionFactory, jdtTypeHierarchyManager, projectManifestFactory,
-                bonitaBPMProjectClasspath, true));
+                bonitaBPMProjectClasspath, migrationEnabled));
         doReturn(bonitaHomeHandler).when(repo).getBonitaHomeHandler();
         return repo;
     }
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.repository.store;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.edapt.migration.MigrationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class AbstractRepositoryStoreTest {
+
+    private AbstractRepositoryStore<IRepositoryFileStore> store;
+    private IFile upToDateFile;
+    private IFile oldFile;
+    private IProgressMonitor monitor;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        store = mock(AbstractRepositoryStore.class);
+        doCallRealMethod().when(store).migrate(any(IProgressMonitor.class));
+        doReturn(true).when(store).canMigrateConcurrently();
+        upToDateFile = aFile("upToDate.proc");
+        oldFile = aFile("old.proc");
+        doReturn(Arrays.asList(aFileStore(upToDateFile), aFileStore(oldFile))).when(store).getChildren();
+        doAnswer(new Answer<InputStream>() {
+
+            @Override
+            public InputStream answer(final InvocationOnMock invocation) throws Throwable {
+                return (InputStream) invocation.getArguments()[1];
+            }
+        }).when(store).handlePreImport(eq("upToDate.proc"), any(InputStream.class));
+        monitor = new NullProgressMonitor();
+    }
+
+    @Test
+    public void should_migrate_files_concurrently_and_only_update_changed_contents() throws Exception {
+        final InputStream migratedContent = new ByteArrayInputStream(new byte[0]);
+        doReturn(migratedContent).when(store).handlePreImport(eq("old.proc"), any(InputStream.class));
+
+        store.migrate(monitor);
+
+        verify(oldFile).setContents(migratedContent, IResource.FORCE, monitor);
+        verify(upToDateFile, never()).setContents(any(InputStream.class), anyInt(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void should_migrate_files_sequentially_when_store_does_not_support_concurrency() throws Exception {
+        doReturn(false).when(store).canMigrateConcurrently();
+        final InputStream migratedContent = new ByteArrayInputStream(new byte[0]);
+        doReturn(migratedContent).when(store).handlePreImport(eq("old.proc"), any(InputStream.class));
+
+        store.migrate(monitor);
+
+        verify(oldFile).setContents(migratedContent, IResource.FORCE, monitor);
+        verify(upToDateFile, never()).setContents(any(InputStream.class), anyInt(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void should_not_update_a_file_without_migrated_content() throws Exception {
+        doReturn(null).when(store).handlePreImport(eq("old.proc"), any(InputStream.class));
+
+        store.migrate(monitor);
+
+        verify(oldFile, never()).setContents(any(InputStream.class), anyInt(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void should_close_the_original_and_migrated_contents() throws Exception {
+        final InputStream originalContent = spy(new ByteArrayInputStream(new byte[0]));
+        when(oldFile.getContents()).thenReturn(originalContent);
+        final InputStream migratedContent = spy(new ByteArrayInputStream(new byte[0]));
+        doReturn(migratedContent).when(store).handlePreImport(eq("old.proc"), any(InputStream.class));
+
+        store.migrate(monitor);
+
+        verify(originalContent).close();
+        verify(migratedContent).close();
+    }
+
+    @Test(expected = MigrationException.class)
+    public void should_throw_the_migration_exception_of_a_failing_file() throws Exception {
+        doThrow(new MigrationException("Invalid content", null)).when(store).handlePreImport(eq("old.proc"), any(InputStream.class));
+
+        store.migrate(monitor);
+    }
+
+    private IFile aFile(final String name) throws Exception {
+        final IFile file = mock(IFile.class);
+        when(file.getName()).thenReturn(name);
+        when(file.exists()).thenReturn(true);
+        when(file.getContents()).thenReturn(new ByteArrayInputStream(name.getBytes()));
+        return file;
+    }
+
+    private IRepositoryFileStore aFileStore(final IFile file) {
+        final IRepositoryFileStore fileStore = mock(IRepositoryFileStore.class);
+        when(fileStore.getResource()).thenReturn(file);
+        when(fileStore.canBeShared()).thenReturn(true);
+        return fileStore;
+    }
+
+}
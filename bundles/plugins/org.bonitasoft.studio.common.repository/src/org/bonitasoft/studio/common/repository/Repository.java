@@ -16,6 +16,7 @@ package org.bonitasoft.studio.common.repository;
 
 import static com.google.common.collect.Iterables.tryFind;
 import static org.eclipse.core.runtime.Path.fromOSString;
+import static org.eclipse.core.runtime.Path.fromPortableString;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -27,11 +28,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.apache.xbean.classloader.NonLockingJarFileClassLoader;
 import org.bonitasoft.engine.bpm.bar.BusinessArchive;
@@ -39,6 +43,9 @@ import org.bonitasoft.studio.common.DateUtil;
 import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManager;
 import org.bonitasoft.studio.common.extension.ExtensionContextInjectionFactory;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.PhaseTimings;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.repository.core.BonitaBPMProjectMigrationOperation;
 import org.bonitasoft.studio.common.repository.core.BonitaHomeHandler;
 import org.bonitasoft.studio.common.repository.core.CreateBonitaBPMProjectOperation;
@@ -102,9 +109,19 @@ public class Repository implements IRepository, IJavaContainer {
 
     private static final String CLASS = "class";
 
+    private static final String FOLDER = "folder";
+
     private final IProject project;
 
-    private SortedMap<Class<?>, IRepositoryStore<? extends IRepositoryFileStore>> stores;
+    /**
+     * Replaced as a whole when the repository is closed, so that a lookup running meanwhile keeps a consistent view
+     */
+    private volatile RepositoryStores repositoryStores;
+
+    /**
+     * Held while a repository store is created instead of the repository, so that the stores already created stay available
+     */
+    private final Object storeCreationLock = new Object();
 
     private final JDTTypeHierarchyManager jdtTypeHierarchyManager;
 
@@ -118,7 +135,7 @@ public class Repository implements IRepository, IJavaContainer {
 
     private final ProjectClasspathFactory bonitaBPMProjectClasspath;
 
-    private boolean isLoaded = false;
+    private volatile boolean isLoaded = false;
 
     public Repository(final IWorkspace workspace,
             final IProject project,
@@ -152,11 +169,13 @@ public class Repository implements IRepository, IJavaContainer {
             BonitaStudioLog.error(e);
         } finally {
             enableBuild();
+            final long buildStart = System.nanoTime();
             try {
                 getProject().build(IncrementalProjectBuilder.FULL_BUILD, monitor);
             } catch (final CoreException e) {
                 BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
             }
+            PhaseTimings.STUDIO_STARTUP.record("repository.build", buildStart);
             if (BonitaStudioLog.isLoggable(IStatus.OK)) {
                 final long duration = System.currentTimeMillis() - init;
                 BonitaStudioLog.debug("Repository " + project.getName() + " created in " + DateUtil.getDisplayDuration(duration),
@@ -265,11 +284,17 @@ public class Repository implements IRepository, IJavaContainer {
      */
     @Override
     public void close() {
+        final RepositoryStores closedStores;
+        synchronized (this) {
+            closedStores = repositoryStores;
+            repositoryStores = null;
+            isLoaded = false;
+        }
         try {
             BonitaStudioLog.debug("Closing repository " + project.getName(), CommonRepositoryPlugin.PLUGIN_ID);
             if (project.isOpen()) {
-                if (stores != null) {
-                    for (final IRepositoryStore<? extends IRepositoryFileStore> store : stores.values()) {
+                if (closedStores != null) {
+                    for (final IRepositoryStore<? extends IRepositoryFileStore> store : closedStores.stores.values()) {
                         store.close();
                     }
                 }
@@ -278,44 +303,102 @@ public class Repository implements IRepository, IJavaContainer {
         } catch (final CoreException e) {
             BonitaStudioLog.error(e);
         }
-        if (stores != null) {
-            stores.clear();
-            stores = null;
-        }
-        isLoaded = false;
     }
 
+    /**
+     * Reads the repository store contributions. The stores whose folder does not exist yet are created right away, so that their folder
+     * and default content are never created from a later lookup. The other stores are created on first access, or all at once when the
+     * repository is migrated, as each store must be migrated.
+     */
     protected synchronized void initRepositoryStores(final IProgressMonitor monitor) {
         isLoaded = false;
-        if (stores == null || stores.isEmpty()) {
-            disableBuild();
-            stores = new TreeMap<Class<?>, IRepositoryStore<? extends IRepositoryFileStore>>(new Comparator<Class<?>>() {
+        if (repositoryStores == null) {
+            final long start = System.nanoTime();
+            final Map<String, IConfigurationElement> configurations = new LinkedHashMap<String, IConfigurationElement>();
+            for (final IConfigurationElement configuration : getRepositoryStoreConfigurationElements()) {
+                configurations.put(configuration.getAttribute(CLASS), configuration);
+            }
+            final RepositoryStores newStores = new RepositoryStores(configurations);
+            repositoryStores = newStores;
+            if (migrationEnabled()) {
+                disableBuild();
+                createAllRepositoryStores(newStores, monitor);
+            } else {
+                createStoresWithoutFolder(newStores, monitor);
+            }
+            PhaseTimings.STUDIO_STARTUP.record("repository.stores", start);
+        }
+        isLoaded = true;
+    }
+
+    protected IConfigurationElement[] getRepositoryStoreConfigurationElements() {
+        return BonitaStudioExtensionRegistryManager.getInstance().getConfigurationElements(REPOSITORY_STORE_EXTENSION_POINT_ID);
+    }
+
+    private RepositoryStores loadRepositoryStores() {
+        RepositoryStores currentStores = repositoryStores;
+        if (currentStores == null || !isLoaded()) {
+            synchronized (this) {
+                if (!isLoaded()) {
+                    initRepositoryStores(NULL_PROGRESS_MONITOR);
+                    enableBuild();
+                }
+                currentStores = repositoryStores;
+            }
+        }
+        return currentStores;
+    }
+
+    private void createAllRepositoryStores(final RepositoryStores currentStores, final IProgressMonitor monitor) {
+        for (final IConfigurationElement configuration : currentStores.configurations.values()) {
+            getOrCreateRepositoryStore(currentStores, configuration, monitor);
+        }
+    }
 
-                @Override
-                public int compare(final Class<?> o1, final Class<?> o2) {
-                    return o1.getName().compareTo(o2.getName());
+    private void createStoresWithoutFolder(final RepositoryStores currentStores, final IProgressMonitor monitor) {
+        for (final IConfigurationElement configuration : currentStores.configurations.values()) {
+            final String folder = configuration.getAttribute(FOLDER);
+            if (folder == null || !project.getFolder(fromPortableString(folder)).exists()) {
+                getOrCreateRepositoryStore(currentStores, configuration, monitor);
+            }
+        }
+    }
+
+    /**
+     * Creates the store of the given contribution once. Stores are created one at a time, under the store creation lock only.
+     */
+    private IRepositoryStore<? extends IRepositoryFileStore> getOrCreateRepositoryStore(final RepositoryStores currentStores,
+            final IConfigurationElement configuration, final IProgressMonitor monitor) {
+        final String className = configuration.getAttribute(CLASS);
+        IRepositoryStore<? extends IRepositoryFileStore> store = currentStores.getCreatedStore(className);
+        if (store == null) {
+            synchronized (storeCreationLock) {
+                store = currentStores.getCreatedStore(className);
+                if (store == null) {
+                    store = addRepositoryStore(currentStores, configuration, monitor);
                 }
+            }
+        }
+        return store;
+    }
 
-            });
-            final IConfigurationElement[] repositoryStoreConfigurationElements = BonitaStudioExtensionRegistryManager.getInstance().getConfigurationElements(
-                    REPOSITORY_STORE_EXTENSION_POINT_ID);
-            for (final IConfigurationElement configuration : repositoryStoreConfigurationElements) {
+    private IRepositoryStore<? extends IRepositoryFileStore> addRepositoryStore(final RepositoryStores currentStores,
+            final IConfigurationElement configuration, final IProgressMonitor monitor) {
+        try {
+            final IRepositoryStore<? extends IRepositoryFileStore> store = createRepositoryStore(configuration, monitor);
+            if (migrationEnabled()) {
                 try {
-                    final IRepositoryStore<? extends IRepositoryFileStore> store = createRepositoryStore(configuration, monitor);
-                    if (migrationEnabled()) {
-                        try {
-                            store.migrate(monitor);
-                        } catch (final MigrationException e) {
-                            BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
-                        }
-                    }
-                    stores.put(store.getClass(), store);
-                } catch (final CoreException e) {
-                    BonitaStudioLog.error(e);
+                    store.migrate(monitor);
+                } catch (final MigrationException e) {
+                    BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
                 }
             }
+            currentStores.stores.put(store.getClass(), store);
+            return store;
+        } catch (final CoreException e) {
+            BonitaStudioLog.error(e);
+            return null;
         }
-        isLoaded = true;
     }
 
     private boolean migrationEnabled() {
@@ -422,11 +505,14 @@ public class Repository implements IRepository, IJavaContainer {
 
     @Override
     public <T> T getRepositoryStore(final Class<T> repositoryStoreClass) {
-        if (!isLoaded()) {
-            initRepositoryStores(NULL_PROGRESS_MONITOR);
-            enableBuild();
+        final RepositoryStores currentStores = loadRepositoryStores();
+        final IRepositoryStore<? extends IRepositoryFileStore> store = currentStores.stores.get(repositoryStoreClass);
+        if (store != null) {
+            return repositoryStoreClass.cast(store);
         }
-        return repositoryStoreClass.cast(stores.get(repositoryStoreClass));
+        final IConfigurationElement configuration = currentStores.configurations.get(repositoryStoreClass.getName());
+        return configuration != null ? repositoryStoreClass.cast(getOrCreateRepositoryStore(currentStores, configuration, NULL_PROGRESS_MONITOR))
+                : null;
     }
 
     @Override
@@ -464,12 +550,11 @@ public class Repository implements IRepository, IJavaContainer {
     }
 
     @Override
-    public synchronized List<IRepositoryStore<? extends IRepositoryFileStore>> getAllStores() {
-        if (stores == null) {
-            initRepositoryStores(NULL_PROGRESS_MONITOR);
-            enableBuild();
-        }
-        final List<IRepositoryStore<? extends IRepositoryFileStore>> result = new ArrayList<IRepositoryStore<? extends IRepositoryFileStore>>(stores.values());
+    public List<IRepositoryStore<? extends IRepositoryFileStore>> getAllStores() {
+        final RepositoryStores currentStores = loadRepositoryStores();
+        createAllRepositoryStores(currentStores, NULL_PROGRESS_MONITOR);
+        final List<IRepositoryStore<? extends IRepositoryFileStore>> result = new ArrayList<IRepositoryStore<? extends IRepositoryFileStore>>(
+                currentStores.stores.values());
         Collections.sort(result, new RepositoryStoreComparator());
         return result;
     }
@@ -541,29 +626,47 @@ public class Repository implements IRepository, IJavaContainer {
 
     @Override
     public IRepositoryFileStore getFileStore(final IResource resource) {
-        for (final IRepositoryStore<? extends IRepositoryFileStore> store : getAllStores()) {
-            final IRepositoryFileStore file = store.getChild(resource.getName());
-            if (file != null) {
-                return file;
-            }
-        }
-        return null;
+        final IRepositoryStore<? extends IRepositoryFileStore> store = findRepositoryStore(resource, false);
+        return store != null ? store.getChild(resource.getName()) : null;
     }
 
     @Override
     public IRepositoryStore<? extends IRepositoryFileStore> getRepositoryStore(final IResource resource) {
-        for (final IRepositoryStore<? extends IRepositoryFileStore> store : getAllStores()) {
-            if (resource instanceof IFile) {
-                final IResource storeResource = store.getResource();
-                IResource parent = resource.getParent();
-                while (parent != null && !storeResource.equals(parent)) {
-                    parent = parent.getParent();
-                }
-                if (parent != null) {
-                    return store;
+        return findRepositoryStore(resource, !(resource instanceof IFile));
+    }
+
+    /**
+     * Finds the store of a resource with the folders declared by the store contributions, so that only this store is created. The stores
+     * contributed without a folder are created to be compared.
+     *
+     * @param exact true to only accept the folder of the store, false to accept any resource below it
+     */
+    private IRepositoryStore<? extends IRepositoryFileStore> findRepositoryStore(final IResource resource, final boolean exact) {
+        final RepositoryStores currentStores = loadRepositoryStores();
+        if (resource == null || !project.equals(resource.getProject())) {
+            return null;
+        }
+        final IPath path = resource.getProjectRelativePath();
+        IConfigurationElement found = null;
+        int foundSegments = -1;
+        for (final IConfigurationElement configuration : currentStores.configurations.values()) {
+            final String folder = configuration.getAttribute(FOLDER);
+            if (folder != null) {
+                final IPath folderPath = fromPortableString(folder);
+                if (belongsTo(folderPath, path, exact) && folderPath.segmentCount() > foundSegments) {
+                    found = configuration;
+                    foundSegments = folderPath.segmentCount();
                 }
-            } else {
-                if (store.getResource() != null && store.getResource().equals(resource)) {
+            }
+        }
+        if (found != null) {
+            return getOrCreateRepositoryStore(currentStores, found, NULL_PROGRESS_MONITOR);
+        }
+        for (final IConfigurationElement configuration : currentStores.configurations.values()) {
+            if (configuration.getAttribute(FOLDER) == null) {
+                final IRepositoryStore<? extends IRepositoryFileStore> store = getOrCreateRepositoryStore(currentStores, configuration,
+                        NULL_PROGRESS_MONITOR);
+                if (store != null && store.getResource() != null && belongsTo(store.getResource().getProjectRelativePath(), path, exact)) {
                     return store;
                 }
             }
@@ -571,6 +674,13 @@ public class Repository implements IRepository, IJavaContainer {
         return null;
     }
 
+    private static boolean belongsTo(final IPath storePath, final IPath path, final boolean exact) {
+        if (exact) {
+            return storePath.equals(path);
+        }
+        return storePath.segmentCount() < path.segmentCount() && storePath.isPrefixOf(path);
+    }
+
     @Override
     public void handleFileStoreEvent(final FileStoreChangeEvent event) {
         jdtTypeHierarchyManager.handleFileStoreEvent(event);
@@ -672,6 +782,17 @@ public class Repository implements IRepository, IJavaContainer {
 
     @Override
     public IRepositoryStore<? extends IRepositoryFileStore> getRepositoryStoreByName(final String storeName) throws CoreException {
+        final RepositoryStores currentStores = loadRepositoryStores();
+        for (final IConfigurationElement configuration : currentStores.configurations.values()) {
+            final String folder = configuration.getAttribute(FOLDER);
+            if (folder != null && fromPortableString(folder).equals(fromOSString(storeName))) {
+                final IRepositoryStore<? extends IRepositoryFileStore> store = getOrCreateRepositoryStore(currentStores, configuration,
+                        NULL_PROGRESS_MONITOR);
+                if (store != null && store.getName().equals(storeName)) {
+                    return store;
+                }
+            }
+        }
         final Optional<IRepositoryStore<? extends IRepositoryFileStore>> foundStore = tryFind(getAllStores(), storeWithName(storeName));
         if (!foundStore.isPresent()) {
             throw new CoreException(new Status(IStatus.ERROR, CommonRepositoryPlugin.PLUGIN_ID, String.format("No repository store found with name: %s",
@@ -705,10 +826,15 @@ public class Repository implements IRepository, IJavaContainer {
     @Override
     public void migrate(final IProgressMonitor monitor) throws CoreException, MigrationException {
         Assert.isNotNull(project);
-        for (final IRepositoryStore<?> store : getAllStores()) {
-            store.migrate(monitor);
+        final Timer.Context context = StudioMetrics.time("repository.migrate");
+        try {
+            for (final IRepositoryStore<?> store : getAllStores()) {
+                store.migrate(monitor);
+            }
+            workspace.run(newProjectMigrationOperation(project), monitor);
+        } finally {
+            context.stop();
         }
-        workspace.run(newProjectMigrationOperation(project), monitor);
     }
 
     protected BonitaBPMProjectMigrationOperation newProjectMigrationOperation(final IProject project) {
@@ -748,4 +874,35 @@ public class Repository implements IRepository, IJavaContainer {
         return new BonitaHomeHandler(getProject());
     }
 
+    /**
+     * The store contributions of an opened repository and the stores created so far
+     */
+    private static class RepositoryStores {
+
+        private final Map<String, IConfigurationElement> configurations;
+
+        private final SortedMap<Class<?>, IRepositoryStore<? extends IRepositoryFileStore>> stores = new ConcurrentSkipListMap<Class<?>, IRepositoryStore<? extends IRepositoryFileStore>>(
+                new Comparator<Class<?>>() {
+
+                    @Override
+                    public int compare(final Class<?> o1, final Class<?> o2) {
+                        return o1.getName().compareTo(o2.getName());
+                    }
+
+                });
+
+        RepositoryStores(final Map<String, IConfigurationElement> configurations) {
+            this.configurations = Collections.unmodifiableMap(configurations);
+        }
+
+        IRepositoryStore<? extends IRepositoryFileStore> getCreatedStore(final String className) {
+            for (final Entry<Class<?>, IRepositoryStore<? extends IRepositoryFileStore>> entry : stores.entrySet()) {
+                if (entry.getKey().getName().equals(className)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
 }
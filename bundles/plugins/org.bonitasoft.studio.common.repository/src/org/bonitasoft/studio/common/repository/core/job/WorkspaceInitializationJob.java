@@ -16,6 +16,7 @@ package org.bonitasoft.studio.common.repository.core.job;
 
 import javax.inject.Inject;
 
+import org.bonitasoft.studio.common.metrics.PhaseTimings;
 import org.bonitasoft.studio.common.repository.RepositoryAccessor;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
@@ -48,7 +49,9 @@ public class WorkspaceInitializationJob extends WorkspaceJob {
      */
     @Override
     public IStatus runInWorkspace(final IProgressMonitor monitor) throws CoreException {
+        final long start = System.nanoTime();
         repositoryAccessor.start(monitor);
+        PhaseTimings.STUDIO_STARTUP.record("workspace.init", start);
         return Status.OK_STATUS;
     }
 
@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.util.Collections;
 
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.repository.CommonRepositoryPlugin;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
@@ -57,7 +59,12 @@ public abstract class EMFFileStore extends AbstractFileStore implements IReposit
             final EditingDomain editingDomain = getParentStore().getEditingDomain(uri);
             final ResourceSet resourceSet = editingDomain.getResourceSet();
             if (getResource().exists()) {
-                return resourceSet.getResource(uri,true) ;
+                final Timer.Context context = StudioMetrics.time("emf.load");
+                try {
+                    return resourceSet.getResource(uri, true);
+                } finally {
+                    context.stop();
+                }
             }else{
                 return resourceSet.createResource(uri);
             }
@@ -92,6 +99,7 @@ public abstract class EMFFileStore extends AbstractFileStore implements IReposit
         if(eResource != null){
             final boolean loaded = eResource.isLoaded();
             if(!loaded){
+                final Timer.Context context = StudioMetrics.time("emf.load");
                 try {
                     final TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(eResource);
                     if (editingDomain != null) {
@@ -103,6 +111,8 @@ public abstract class EMFFileStore extends AbstractFileStore implements IReposit
                     BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
                 } catch (final InterruptedException e) {
                     BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
+                } finally {
+                    context.stop();
                 }
             }
         }
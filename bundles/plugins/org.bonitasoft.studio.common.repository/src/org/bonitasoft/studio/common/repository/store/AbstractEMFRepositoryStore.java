@@ -29,11 +29,15 @@ import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.filestore.EMFFileStore;
 import org.bonitasoft.studio.common.repository.model.IRepositoryStore;
 import org.bonitasoft.studio.migration.MigrationPlugin;
+import org.bonitasoft.studio.migration.migrator.MigratorPool;
+import org.bonitasoft.studio.migration.migrator.MigratorWarmUpJob;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.command.BasicCommandStack;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.edapt.internal.migration.execution.BundleClassLoader;
+import org.eclipse.emf.edapt.internal.migration.execution.IClassLoader;
 import org.eclipse.emf.edapt.internal.migration.execution.ValidationLevel;
 import org.eclipse.emf.edapt.migration.MigrationException;
 import org.eclipse.emf.edapt.migration.ReleaseUtils;
@@ -80,13 +84,10 @@ public abstract class AbstractEMFRepositoryStore<T extends EMFFileStore>
      *
      * @return
      */
-    public Migrator initializeMigrator() {
+    public synchronized Migrator initializeMigrator() {
         if (migrator == null) {
-            final URI migratorURI = URI.createPlatformPluginURI(
-                    getMigrationHistoryPath(), true);
             try {
-                migrator = new Migrator(migratorURI, new BundleClassLoader(
-                        MigrationPlugin.getDefault().getBundle()));
+                migrator = MigratorPool.getInstance().getSharedMigrator(getMigrationHistoryURI(), newMigratorClassLoader());
             } catch (final MigrationException e) {
                 BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
             }
@@ -94,7 +95,27 @@ public abstract class AbstractEMFRepositoryStore<T extends EMFFileStore>
         return migrator;
     }
 
+    /**
+     * Builds the migrators of the default history in the background, they are shared by all the stores using it
+     */
+    public static Job newMigratorWarmUpJob() {
+        return new MigratorWarmUpJob(Migrator.class, URI.createPlatformPluginURI(defaultMigrationHistoryPath(), true),
+                newMigratorClassLoader());
+    }
+
+    private static IClassLoader newMigratorClassLoader() {
+        return new BundleClassLoader(MigrationPlugin.getDefault().getBundle());
+    }
+
+    private URI getMigrationHistoryURI() {
+        return URI.createPlatformPluginURI(getMigrationHistoryPath(), true);
+    }
+
     protected String getMigrationHistoryPath() {
+        return defaultMigrationHistoryPath();
+    }
+
+    private static String defaultMigrationHistoryPath() {
         return "/"
                 + Platform.getBundle("org.bonitasoft.studio-models")
                         .getSymbolicName()
@@ -160,39 +181,26 @@ public abstract class AbstractEMFRepositoryStore<T extends EMFFileStore>
             throw new IOException(fileName);
         }
 
-        final Migrator targetMigrator = getMigrator(nsURI);
-        if (targetMigrator != null) {
-            final Release release = getRelease(targetMigrator, resource);
-            if (release != null && !release.isLatestRelease()) {
-                try {
-                    BonitaStudioLog.debug("Performing migration on " + fileName + " from " + release.getLabel() + " to latest...",
-                            CommonRepositoryPlugin.PLUGIN_ID);
-                    performMigration(targetMigrator, resourceURI, release);
-                } catch (final MigrationException e) {
-                    if (tmpFile != null) {
-                        tmpFile.delete();
-                    }
-                    if (copyIs != null) {
-                        copyIs.close();
-                    }
-                    throw e;
-                }
-                try {
-                    copyIs.close();
-                    final FileInputStream newIs = new FileInputStream(tmpFile);
-                    tmpFile.delete();
-                    return newIs;
-                } catch (final Exception e) {
-                    BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
-                    return null;
-                } finally {
-                    if (tmpFile != null) {
-                        tmpFile.delete();
-                    }
-                    if (copyIs != null) {
-                        copyIs.close();
-                    }
-                }
+        final boolean migrated;
+        try {
+            migrated = migrate(fileName, resource, nsURI);
+        } catch (final MigrationException e) {
+            tmpFile.delete();
+            copyIs.close();
+            throw e;
+        }
+        if (migrated) {
+            try {
+                copyIs.close();
+                final FileInputStream newIs = new FileInputStream(tmpFile);
+                tmpFile.delete();
+                return newIs;
+            } catch (final Exception e) {
+                BonitaStudioLog.error(e, CommonRepositoryPlugin.PLUGIN_ID);
+                return null;
+            } finally {
+                tmpFile.delete();
+                copyIs.close();
             }
         }
 
@@ -215,6 +223,57 @@ public abstract class AbstractEMFRepositoryStore<T extends EMFFileStore>
         return targetMigrator;
     }
 
+    /**
+     * Lends a migrator of the history of this store for the exclusive use of a migration, it must be given back with
+     * {@link #releaseMigrator(Migrator)}. Unlike {@link #getMigrator(String)}, the returned migrator can be used to migrate.
+     *
+     * @return null when the history of this store does not contain the given namespace
+     */
+    public Migrator acquireMigrator(final String nsURI) throws MigrationException {
+        final Migrator storeMigrator = initializeMigrator();
+        if (storeMigrator != null && storeMigrator.getNsURIs().contains(nsURI)) {
+            return MigratorPool.getInstance().acquire(Migrator.class, getMigrationHistoryURI(), newMigratorClassLoader());
+        }
+        return null;
+    }
+
+    public void releaseMigrator(final Migrator migrator) {
+        MigratorPool.getInstance().release(migrator);
+    }
+
+    /**
+     * @return true if the resource has been migrated to the latest release
+     */
+    private boolean migrate(final String fileName, final Resource resource, final String nsURI) throws MigrationException {
+        //Migrators are not thread safe: each migration borrows its own instance
+        final Migrator storeMigrator = acquireMigrator(nsURI);
+        if (storeMigrator != null) {
+            try {
+                return migrate(storeMigrator, fileName, resource);
+            } finally {
+                releaseMigrator(storeMigrator);
+            }
+        }
+        final Migrator targetMigrator = MigratorRegistry.getInstance().getMigrator(nsURI);
+        if (targetMigrator == null) {
+            return false;
+        }
+        synchronized (targetMigrator) {
+            return migrate(targetMigrator, fileName, resource);
+        }
+    }
+
+    private boolean migrate(final Migrator targetMigrator, final String fileName, final Resource resource) throws MigrationException {
+        final Release release = getRelease(targetMigrator, resource);
+        if (release != null && !release.isLatestRelease()) {
+            BonitaStudioLog.debug("Performing migration on " + fileName + " from " + release.getLabel() + " to latest...",
+                    CommonRepositoryPlugin.PLUGIN_ID);
+            performMigration(targetMigrator, resource.getURI(), release);
+            return true;
+        }
+        return false;
+    }
+
     protected Release getRelease(final Migrator targetMigrator,
             final Resource resource) {
         return targetMigrator.getRelease(resource.getURI()).iterator().next();
@@ -228,6 +287,21 @@ public abstract class AbstractEMFRepositoryStore<T extends EMFFileStore>
                 release, null, Repository.NULL_PROGRESS_MONITOR);
     }
 
+    /**
+     * Same as {@link #getTmpEMFResource(String, File)} but moves the given file instead of copying it when possible.
+     * The given file must not be used afterwards.
+     */
+    protected Resource moveToTmpEMFResource(final String fileName,
+            final File originalFile) throws IOException {
+        final File tmpFile = new File(originalFile.getParentFile(), originalFile.getName() + fileName);
+        if (!originalFile.renameTo(tmpFile)) {
+            return getTmpEMFResource(fileName, originalFile);
+        }
+        return getEditingDomain().getResourceSet()
+                .createResource(
+                        URI.createFileURI(tmpFile.getAbsolutePath()));
+    }
+
     protected Resource getTmpEMFResource(final String fileName,
             final File originalFile) throws IOException {
         final EditingDomain editingDomain = getEditingDomain();
@@ -20,17 +20,33 @@ import static com.google.common.collect.Iterables.toArray;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManager;
 import org.bonitasoft.studio.common.jface.BonitaErrorDialog;
 import org.bonitasoft.studio.common.jface.FileActionDialog;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
+import org.bonitasoft.studio.common.repository.CommonRepositoryPlugin;
 import org.bonitasoft.studio.common.repository.Messages;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.filestore.RepositoryFileStoreComparator;
@@ -238,13 +254,17 @@ public abstract class AbstractRepositoryStore<T extends IRepositoryFileStore> im
 
     @Override
     public List<T> getChildren() {
+        final Timer.Context context = StudioMetrics.time("store.children");
         try {
             final List<T> result = newArrayList(filter(transform(listChildren(), toFileStore()), notNull()));
             Collections.sort(result, new RepositoryFileStoreComparator());
+            StudioMetrics.record("store.children.size", result.size());
             return result;
         } catch (final CoreException e1) {
             BonitaStudioLog.error("Failed to retrieve store children", e1);
             return Collections.emptyList();
+        } finally {
+            context.stop();
         }
     }
 
@@ -307,29 +327,181 @@ public abstract class AbstractRepositoryStore<T extends IRepositoryFileStore> im
 
     @Override
     public void migrate(final IProgressMonitor monitor) throws CoreException, MigrationException {
+        final List<IFile> files = new ArrayList<IFile>();
         for (final IRepositoryFileStore fs : getChildren()) {
             if (!fs.isReadOnly() && fs.canBeShared()) {
                 final IResource r = fs.getResource();
                 if (r instanceof IFile && r.exists()) {
-                    final IFile iFile = (IFile) r;
-                    final InputStream is = iFile.getContents();
-                    InputStream newIs;
-                    try {
-                        newIs = handlePreImport(r.getName(), is);
-                        if (!is.equals(newIs)) {
-                            iFile.setContents(newIs, IResource.FORCE, monitor);
-                            iFile.refreshLocal(IResource.DEPTH_ONE, monitor);
-                        }
-                    } catch (final IOException e) {
-                        throw new MigrationException("Cannot migrate resource " + r.getName() + " (not a valid file)", e);
-                    }
-
+                    files.add((IFile) r);
                 } else {
                     throw new MigrationException("Cannot migrate resource " + r.getName() + " (not a file)", new IOException("Not an existing file :"
                             + r.getLocation()));
                 }
             }
         }
+        final long startTime = System.currentTimeMillis();
+        final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+        //Workers may need the UI thread (eg: to open a dialog), so it must not be blocked waiting for them
+        if (files.size() > 1 && canMigrateConcurrently() && Display.getCurrent() == null) {
+            migrateConcurrently(files, timings, monitor);
+        } else {
+            for (final IFile file : files) {
+                final MigratedContent content = migrateContent(file, timings);
+                try {
+                    updateContent(content, monitor);
+                } finally {
+                    content.close();
+                }
+            }
+        }
+        logMigrationTimings(timings, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * @return true when {@link #handlePreImport(String, InputStream)} can be called concurrently for different files of this store
+     */
+    protected boolean canMigrateConcurrently() {
+        return false;
+    }
+
+    private void migrateConcurrently(final List<IFile> files, final Map<String, Long> timings, final IProgressMonitor monitor) throws CoreException,
+            MigrationException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+        final CompletionService<MigratedContent> completionService = new ExecutorCompletionService<MigratedContent>(executor);
+        int pending = 0;
+        try {
+            for (final IFile file : files) {
+                completionService.submit(new Callable<MigratedContent>() {
+
+                    @Override
+                    public MigratedContent call() throws Exception {
+                        return migrateContent(file, timings);
+                    }
+                });
+                pending++;
+            }
+            //Contents are updated from the calling thread which may own the workspace scheduling rule
+            while (pending > 0) {
+                final MigratedContent content = completionService.take().get();
+                pending--;
+                try {
+                    updateContent(content, monitor);
+                } finally {
+                    content.close();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MigrationException("Migration of " + getName() + " has been interrupted", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof MigrationException) {
+                throw (MigrationException) cause;
+            }
+            if (cause instanceof CoreException) {
+                throw (CoreException) cause;
+            }
+            throw new MigrationException("Migration of " + getName() + " has failed", cause);
+        } finally {
+            executor.shutdownNow();
+            closeCompletedContents(completionService, pending);
+        }
+    }
+
+    /**
+     * Closes the streams of the files already migrated when the migration stops on a failure.
+     */
+    private void closeCompletedContents(final CompletionService<MigratedContent> completionService, final int pending) {
+        for (int i = 0; i < pending; i++) {
+            final Future<MigratedContent> future = completionService.poll();
+            if (future == null) {
+                return;
+            }
+            try {
+                future.get().close();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException e) {
+                //Already reported by the failed migration
+            } catch (final CancellationException e) {
+                //Not migrated
+            }
+        }
+    }
+
+    private MigratedContent migrateContent(final IFile file, final Map<String, Long> timings) throws CoreException, MigrationException {
+        final long startTime = System.currentTimeMillis();
+        //Mark support lets handlePreImport peek at the content and return the very same stream when nothing changed
+        final InputStream is = new BufferedInputStream(file.getContents());
+        boolean migrated = false;
+        try {
+            final MigratedContent content = new MigratedContent(file, is, handlePreImport(file.getName(), is));
+            migrated = true;
+            return content;
+        } catch (final IOException e) {
+            throw new MigrationException("Cannot migrate resource " + file.getName() + " (not a valid file)", e);
+        } finally {
+            if (!migrated) {
+                close(is);
+            }
+            timings.put(file.getName(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void updateContent(final MigratedContent content, final IProgressMonitor monitor) throws CoreException {
+        if (content.isChanged()) {
+            content.file.setContents(content.migratedContent, IResource.FORCE, monitor);
+            content.file.refreshLocal(IResource.DEPTH_ONE, monitor);
+        }
+    }
+
+    private void logMigrationTimings(final Map<String, Long> timings, final long duration) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        final StringBuilder report = new StringBuilder("Migration of " + getName() + " (" + timings.size() + " files) took " + duration + " ms");
+        synchronized (timings) {
+            for (final Entry<String, Long> timing : timings.entrySet()) {
+                report.append(System.lineSeparator()).append("  ").append(timing.getKey()).append(": ").append(timing.getValue()).append(" ms");
+            }
+        }
+        BonitaStudioLog.info(report.toString(), CommonRepositoryPlugin.PLUGIN_ID);
+    }
+
+    private static class MigratedContent {
+
+        private final IFile file;
+        private final InputStream originalContent;
+        private final InputStream migratedContent;
+
+        MigratedContent(final IFile file, final InputStream originalContent, final InputStream migratedContent) {
+            this.file = file;
+            this.originalContent = originalContent;
+            this.migratedContent = migratedContent;
+        }
+
+        /**
+         * @return false when nothing has been migrated or when the migration returned no content
+         */
+        boolean isChanged() {
+            return migratedContent != null && !originalContent.equals(migratedContent);
+        }
+
+        void close() {
+            AbstractRepositoryStore.close(originalContent);
+            if (isChanged()) {
+                AbstractRepositoryStore.close(migratedContent);
+            }
+        }
+    }
+
+    private static void close(final InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (final IOException e) {
+            BonitaStudioLog.error(e);
+        }
     }
 
     @Override
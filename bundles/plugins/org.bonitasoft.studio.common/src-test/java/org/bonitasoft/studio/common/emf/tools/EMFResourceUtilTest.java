@@ -20,6 +20,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.bonitasoft.studio.model.process.ProcessPackage;
 import org.eclipse.core.runtime.AssertionFailedException;
@@ -27,7 +30,9 @@ import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
 import org.eclipse.gmf.runtime.notation.NotationPackage;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 
 /**
@@ -36,6 +41,9 @@ import org.junit.Test;
  */
 public class EMFResourceUtilTest {
 
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
     private File modelFile;
     private EMFResourceUtil eObjectIDUtil;
 
@@ -112,4 +120,40 @@ public class EMFResourceUtilTest {
                 entry("_5CIyYKXvEeOHX5ykhwuMLg", new String[] { "EP3.PR.N1001 Šalutiniai gyvūniniai produktai" }));
     }
 
+    @Test
+    public void shouldExecute_AnswerSeveralQueries() throws Exception {
+        final EObjectQuery mainProcessQuery = EObjectQuery.firstOfType("process:MainProcess", "name", "bonitaModelVersion");
+        final EObjectQuery poolQuery = EObjectQuery.byType("process:Pool", "name", "version");
+        final EObjectQuery idQuery = EObjectQuery.byId("_5CIyaqXvEeOHX5ykhwuMLg", "measurementUnit");
+
+        eObjectIDUtil.execute(mainProcessQuery, poolQuery, idQuery);
+
+        assertThat(mainProcessQuery.getFirstResult()).containsExactly("EP3.PR.N1001 Šalutiniai gyvūniniai produktai", "6.3.0-001");
+        assertThat(poolQuery.getResult()).containsOnly(
+                entry("_5NaOQKXvEeOHX5ykhwuMLg", new String[] { "Poolū", null }), entry("_8mseQKXvEeOHX5ykhwuMLg", new String[] { "Pool1", null }));
+        assertThat(idQuery.getFirstResult()).containsExactly("Pixel");
+    }
+
+    @Test
+    public void shouldGetFeatureValuesFromFirstEObjectOfType_Return_FeatureValues() throws Exception {
+        assertThat(eObjectIDUtil.getFeatureValuesFromFirstEObjectOfType("process:Pool", ProcessPackage.Literals.ELEMENT__NAME,
+                ProcessPackage.Literals.ABSTRACT_PROCESS__VERSION)).containsExactly("Poolū", "1.0");
+        assertThat(eObjectIDUtil.getFeatureValuesFromFirstEObjectOfType("report:Report", ProcessPackage.Literals.ELEMENT__NAME)).isNull();
+    }
+
+    @Test
+    public void shouldGetFeatureValuesFromEObjectId_ReadFile_WhenModificationStampChanged() throws Exception {
+        final File file = tmpFolder.newFile("diagram.proc");
+        Files.copy(modelFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        final EMFResourceUtil emfResourceUtil = new EMFResourceUtil(file);
+        assertThat(emfResourceUtil.getFeatureValuesFromEObjectId("_8mseQKXvEeOHX5ykhwuMLg", "name")).containsExactly("Pool1");
+
+        final Charset utf8 = Charset.forName("UTF-8");
+        final String content = new String(Files.readAllBytes(file.toPath()), utf8);
+        Files.write(file.toPath(), content.replace("name=\"Pool1\"", "name=\"Pool2\"").getBytes(utf8));
+        file.setLastModified(file.lastModified() + 2000);
+
+        assertThat(new EMFResourceUtil(file).getFeatureValuesFromEObjectId("_8mseQKXvEeOHX5ykhwuMLg", "name")).containsExactly("Pool2");
+    }
+
 }
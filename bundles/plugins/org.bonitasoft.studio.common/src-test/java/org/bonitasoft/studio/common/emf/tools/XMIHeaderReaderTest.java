@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.emf.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.bonitasoft.studio.common.FileUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XMIHeaderReaderTest {
+
+    private File modelFile;
+
+    @Before
+    public void setUp() throws Exception {
+        modelFile = new File(XMIHeaderReaderTest.class.getResource("/EP3.PR.N1001 Šalutiniai gyvūniniai produktai-1.0.proc").toURI());
+    }
+
+    @Test
+    public void should_read_attributes_of_the_main_process() throws Exception {
+        try (InputStream is = new FileInputStream(modelFile)) {
+            final XMIHeaderReader reader = new XMIHeaderReader(is);
+
+            assertThat(reader.readAttributes("process:MainProcess")).contains(
+                    entry("xmi:id", "_5CIyYKXvEeOHX5ykhwuMLg"),
+                    entry("name", "EP3.PR.N1001 Šalutiniai gyvūniniai produktai"),
+                    entry("bonitaModelVersion", "6.3.0-001"),
+                    entry("bonitaVersion", "6.3.0"));
+        }
+    }
+
+    @Test
+    public void should_read_attributes_of_an_element_identified_by_its_xmi_type() throws Exception {
+        try (InputStream is = new FileInputStream(modelFile)) {
+            assertThat(new XMIHeaderReader(is).readAttributes("process:Pool")).contains(entry("name", "Poolū"));
+        }
+    }
+
+    @Test
+    public void should_return_null_when_element_is_not_in_header() throws Exception {
+        try (InputStream is = new FileInputStream(modelFile)) {
+            assertThat(new XMIHeaderReader(is, 256).readAttributes("process:Pool")).isNull();
+        }
+    }
+
+    @Test
+    public void should_keep_the_whole_content_readable_after_reading_header() throws Exception {
+        try (InputStream is = new FileInputStream(modelFile)) {
+            final XMIHeaderReader reader = new XMIHeaderReader(is);
+            reader.readAttributes("process:MainProcess");
+
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            FileUtil.copy(reader.getInputStream(), content);
+            assertThat(content.size()).isEqualTo((int) modelFile.length());
+        }
+    }
+
+}
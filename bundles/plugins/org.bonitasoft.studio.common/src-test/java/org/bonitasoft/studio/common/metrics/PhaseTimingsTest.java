@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PhaseTimingsTest {
+
+    @After
+    public void tearDown() throws Exception {
+        StudioMetrics.setEnabled(false);
+        StudioMetrics.getInstance().reset();
+    }
+
+    @Test
+    public void should_record_phases_in_prefixed_histograms() throws Exception {
+        StudioMetrics.setEnabled(true);
+        final PhaseTimings timings = new PhaseTimings("studio.startup.");
+
+        timings.record("repository.stores", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(15));
+
+        assertThat(timings.getDuration("repository.stores")).isGreaterThanOrEqualTo(15L);
+        assertThat(StudioMetrics.getInstance().histogram("studio.startup.repository.stores").getCount()).isEqualTo(1);
+        assertThat(timings.toString()).matches("repository.stores=\\d+ms");
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StudioMetricsTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @After
+    public void tearDown() throws Exception {
+        StudioMetrics.setEnabled(false);
+        StudioMetrics.getInstance().reset();
+    }
+
+    @Test
+    public void should_not_record_anything_when_disabled() throws Exception {
+        StudioMetrics.setEnabled(false);
+
+        final Timer.Context context = StudioMetrics.time("deploy");
+        StudioMetrics.increment("import");
+        StudioMetrics.record("children", 12);
+
+        assertThat(context.stop()).isEqualTo(0L);
+        assertThat(StudioMetrics.getInstance().toCSV()).isEqualTo("type,name,count,sum,min,max,mean,p50,p95,p99\n");
+    }
+
+    @Test
+    public void should_record_timers_counters_and_histograms_when_enabled() throws Exception {
+        StudioMetrics.setEnabled(true);
+
+        StudioMetrics.time("deploy").stop();
+        StudioMetrics.time("deploy").stop();
+        StudioMetrics.increment("import");
+        StudioMetrics.increment("import", 2);
+        StudioMetrics.record("children", 12);
+
+        final StudioMetrics metrics = StudioMetrics.getInstance();
+        assertThat(metrics.timer("deploy").getHistogram().getCount()).isEqualTo(2);
+        assertThat(metrics.counter("import").getCount()).isEqualTo(3);
+        assertThat(metrics.histogram("children").getMax()).isEqualTo(12);
+    }
+
+    @Test
+    public void should_keep_sub_millisecond_durations_and_write_them_in_milliseconds() throws Exception {
+        StudioMetrics.setEnabled(true);
+        final Timer timer = StudioMetrics.getInstance().timer("children");
+
+        timer.update(250, TimeUnit.MICROSECONDS);
+
+        assertThat(timer.getHistogram().getMax()).isEqualTo(250000L);
+        assertThat(StudioMetrics.getInstance().toCSV()).contains("timer,children,1,0.250,0.250,0.250,0.250,0.250,0.250,0.250\n");
+        assertThat(StudioMetrics.getInstance().toJSON()).contains(
+                "\"children\":{\"count\":1,\"sum\":0.250,\"min\":0.250,\"max\":0.250,\"mean\":0.250,\"p50\":0.250,\"p95\":0.250,\"p99\":0.250}");
+    }
+
+    @Test
+    public void should_compute_histogram_statistics() throws Exception {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.update(i);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getSum()).isEqualTo(5050);
+        assertThat(histogram.getMin()).isEqualTo(1);
+        assertThat(histogram.getMax()).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+        assertThat(histogram.getPercentile(0.5)).isEqualTo(50);
+        assertThat(histogram.getPercentile(0.99)).isEqualTo(99);
+    }
+
+    @Test
+    public void should_keep_a_bounded_sample() throws Exception {
+        final Histogram histogram = new Histogram();
+        for (int i = 0; i < Histogram.RESERVOIR_SIZE * 10; i++) {
+            histogram.update(5);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(Histogram.RESERVOIR_SIZE * 10);
+        assertThat(histogram.getPercentile(0.95)).isEqualTo(5);
+    }
+
+    @Test
+    public void should_write_snapshot_as_json_or_csv() throws Exception {
+        StudioMetrics.setEnabled(true);
+        StudioMetrics.record("children", 3);
+        StudioMetrics.increment("import");
+
+        final File json = new File(tmpFolder.getRoot(), "metrics.json");
+        final File csv = new File(tmpFolder.getRoot(), "metrics.csv");
+        StudioMetrics.getInstance().write(json);
+        StudioMetrics.getInstance().write(csv);
+
+        assertThat(new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8))
+                .contains("\"children\":{\"count\":1,\"sum\":3,\"min\":3,\"max\":3,\"mean\":3.000,\"p50\":3,\"p95\":3,\"p99\":3}")
+                .contains("\"import\":1");
+        assertThat(new String(Files.readAllBytes(csv.toPath()), StandardCharsets.UTF_8))
+                .contains("histogram,children,1,3,3,3,3.000,3,3,3\n")
+                .contains("counter,import,1,,,,,,,\n");
+    }
+
+}
@@ -1,5 +1,10 @@
 package org.bonitasoft.studio.common;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
 import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
@@ -38,10 +43,22 @@ public class Activator extends AbstractUIPlugin {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        writeMetrics();
         plugin = null;
         super.stop(context);
     }
 
+    private void writeMetrics() {
+        final String output = System.getProperty(StudioMetrics.OUTPUT_PROPERTY);
+        if (StudioMetrics.isEnabled() && output != null) {
+            try {
+                StudioMetrics.getInstance().write(new File(output));
+            } catch (final IOException e) {
+                BonitaStudioLog.error("Failed to write metrics to " + output, e);
+            }
+        }
+    }
+
     /**
      * Returns the shared instance
      *
@@ -16,13 +16,22 @@
  */
 package org.bonitasoft.studio.common.emf.tools;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Map.Entry;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -30,11 +39,28 @@ import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
 
 
 /**
+ * Reads feature values of an EMF resource without loading it.
+ * The file is streamed once for all the pending {@link EObjectQuery}, reading stops as soon as they are all complete.
+ * Results are cached until the modification stamp of the file changes.
+ *
  * @author Romain Bioteau
  *
  */
 public class EMFResourceUtil {
 
+    private static final String XMI_NS_URI = "http://www.omg.org/XMI";
+    private static final String XSI_NS_URI = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String XMI_ID = "xmi:id";
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<String, CachedResults> CACHE = new LinkedHashMap<String, CachedResults>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(final Entry<String, CachedResults> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     private File eResourceFile;
 
     public EMFResourceUtil(File eResourceFile){
@@ -44,6 +70,28 @@ public class EMFResourceUtil {
 
     }
 
+    /**
+     * Answers all the given queries, reading the file at most once
+     */
+    public void execute(final EObjectQuery... queries) {
+        final CachedResults cachedResults = getCachedResults();
+        final List<EObjectQuery> pendingQueries = new ArrayList<EObjectQuery>();
+        for (final EObjectQuery query : queries) {
+            final Map<String, String[]> result = cachedResults.get(query.getKey());
+            if (result != null) {
+                query.setResult(result);
+            } else {
+                pendingQueries.add(query);
+            }
+        }
+        if (!pendingQueries.isEmpty()) {
+            scan(pendingQueries);
+            for (final EObjectQuery query : pendingQueries) {
+                cachedResults.put(query.getKey(), query.getResult());
+            }
+        }
+    }
+
     /**
      * 
      * @param xmiId
@@ -51,27 +99,18 @@ public class EMFResourceUtil {
      * @return return string values of featureNames for EObject with id xmiId 
      */
     public String[] getFeatureValuesFromEObjectId(String xmiId, String... featureNames) throws FeatureNotFoundException{
-        Scanner scanner = null;
-        try {
-            scanner = new Scanner(eResourceFile, "UTF-8");
-            List<String> values = new ArrayList<String>();
-            while(scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if(line.contains(toXMIIdPattern(xmiId))){
-                    for(String featureName : featureNames){
-                        values.add(getFeatureValue(line, featureName));
-                    }
-                    return values.toArray(new String[values.size()]);
-                }
-            }
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        } finally{
-            if(scanner != null){
-                scanner.close();
+        final EObjectQuery query = EObjectQuery.byId(xmiId, featureNames);
+        execute(query);
+        final String[] values = query.getFirstResult();
+        if (values == null) {
+            return null;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                throw new FeatureNotFoundException(featureNames[i], null, eResourceFile.getName(), 0, 0);
             }
         }
-        return null;
+        return Arrays.copyOf(values, values.length);
     }
 
     /**
@@ -89,141 +128,145 @@ public class EMFResourceUtil {
     }
 
     public String[] getFeatureValuesFromEObjectId(String xmiId, EStructuralFeature... features) {
-        Scanner scanner = null;
-        try {
-            scanner = new Scanner(eResourceFile, "UTF-8");
-            List<String> values = new ArrayList<String>();
-            String xmiIdPattern = toXMIIdPattern(xmiId);
-            while(scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if(line.contains(xmiIdPattern)){
-                    for(EStructuralFeature feature : features){
-                        values.add(getFeatureValue(line,feature));
-                    }
-                    return values.toArray(new String[values.size()]);
-                }
-            }
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        } finally{
-            if(scanner != null){
-                scanner.close();
+        final EObjectQuery query = EObjectQuery.byId(xmiId, EObjectQuery.featureNames(features));
+        execute(query);
+        final String[] values = query.getFirstResult();
+        return values != null ? withDefaultValues(values, features) : null;
+    }
+
+    /**
+     * @return the values of the features for the first EObject of type xmiType, null if there is no such EObject
+     */
+    public String[] getFeatureValuesFromFirstEObjectOfType(final String xmiType, final EStructuralFeature... features) {
+        final EObjectQuery query = EObjectQuery.firstOfType(xmiType, EObjectQuery.featureNames(features));
+        execute(query);
+        final String[] values = query.getFirstResult();
+        return values != null ? withDefaultValues(values, features) : null;
+    }
+
+    public Map<String, String[]> getFeatureValueFromEObjectType(String xmiType, EStructuralFeature... features) {
+        final EObjectQuery query = EObjectQuery.byType(xmiType, EObjectQuery.featureNames(features));
+        execute(query);
+        final Map<String, String[]> featureValuesByObjectId = new HashMap<String, String[]>();
+        for (final Entry<String, String[]> entry : query.getResult().entrySet()) {
+            if (entry.getKey() == null) {
+                throw new RuntimeException(new FeatureNotFoundException(XMI_ID, null, eResourceFile.getName(), 0, 0));
             }
+            featureValuesByObjectId.put(entry.getKey(), withDefaultValues(entry.getValue(), features));
         }
-        return null;
+        return featureValuesByObjectId;
     }
 
-    private String toXMIIdPattern(String xmiId) {
-        return toFeaturePattern("xmi:id") + "\""+xmiId+"\"";
+    public String[] getEObectIfFromEObjectType(String xmiType) throws FeatureNotFoundException {
+        final EObjectQuery query = EObjectQuery.byType(xmiType);
+        execute(query);
+        if (query.getResult().containsKey(null)) {
+            throw new FeatureNotFoundException(XMI_ID, null, eResourceFile.getName(), 0, 0);
+        }
+        return query.getResult().keySet().toArray(new String[query.getResult().size()]);
     }
 
-    private String toXMITypePattern(String xmiType) {
-        return toFeaturePattern("xmi:type") + "\""+xmiType+"\"";
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
     }
 
-    private String toXSITypePattern(String xmiType) {
-        return toFeaturePattern("xsi:type") + "\""+xmiType+"\"";
+    private String[] withDefaultValues(final String[] values, final EStructuralFeature... features) {
+        final String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] != null ? values[i] : defaultValue(features[i]);
+        }
+        return result;
     }
 
-    private String toFeaturePattern(String featureName) {
-        return featureName+"=";
+    private String defaultValue(final EStructuralFeature feature) {
+        final Object defaultValue = feature.getDefaultValue();
+        return defaultValue != null ? defaultValue.toString() : "";
     }
 
-
-    public Map<String, String[]> getFeatureValueFromEObjectType(String xmiType, EStructuralFeature... features) {
-        Scanner scanner = null;
-        Map<String, String[]> featureValuesByObjectId = new HashMap<String, String[]>();
+    private void scan(final List<EObjectQuery> queries) {
+        InputStream inputStream = null;
         try {
-            scanner = new Scanner(eResourceFile, "UTF-8");
-            String xmiTypePattern = toXMITypePattern(xmiType);
-            String xsiTypePattern = toXSITypePattern(xmiType);
-            String tagTypePattern = toTagTypePattern(xmiType);
-            while(scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if(line.contains(xmiTypePattern) || line.contains(xsiTypePattern) || line.contains(tagTypePattern)){
-                    List<String> values = new ArrayList<String>();
-                    for(EStructuralFeature feature : features){
-                        values.add(getFeatureValue(line, feature));
-                    }
-                    String id;
-                    try {
-                        id = getFeatureValue(line, "xmi:id");
-                    } catch (FeatureNotFoundException e) {
-                        throw new RuntimeException(e);
+            inputStream = new BufferedInputStream(new FileInputStream(eResourceFile));
+            final XMLStreamReader reader = XMIHeaderReader.getInputFactory().createXMLStreamReader(inputStream);
+            try {
+                int pending = queries.size();
+                while (pending > 0 && reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        pending = collect(reader, queries);
                     }
-                    featureValuesByObjectId.put(id, values.toArray(new String[values.size()]));
                 }
+            } finally {
+                reader.close();
             }
-        } catch (FileNotFoundException e) {
+        } catch (final IOException e) {
             throw new RuntimeException(e);
-        } finally{
-            if(scanner != null){
-                scanner.close();
+        } catch (final XMLStreamException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                }
             }
         }
-        return featureValuesByObjectId;
-
-    }
-
-    /**
-     * @param xmiType
-     * @return
-     */
-    private String toTagTypePattern(String xmiType) {
-        return "<"+xmiType;
     }
 
-    private String getFeatureValue(String line, String featureName) throws FeatureNotFoundException {
-        String featurePattern = toFeaturePattern(featureName);
-        int indexOf = line.indexOf(featurePattern);
-        if(indexOf == -1){//Retrieve default value
-            throw new FeatureNotFoundException(featureName, null, eResourceFile.getName(),0,0);
+    private int collect(final XMLStreamReader reader, final List<EObjectQuery> queries) {
+        final String qualifiedName = EObjectQuery.qualifiedName(reader.getPrefix(), reader.getLocalName());
+        final String id = reader.getAttributeValue(XMI_NS_URI, "id");
+        final String xmiType = reader.getAttributeValue(XMI_NS_URI, "type");
+        final String xsiType = reader.getAttributeValue(XSI_NS_URI, "type");
+        int pending = 0;
+        for (final EObjectQuery query : queries) {
+            if (!query.isComplete() && query.matches(qualifiedName, id, xmiType, xsiType)) {
+                query.collect(id, reader);
+            }
+            if (!query.isComplete()) {
+                pending++;
+            }
         }
-        int nextIndex = indexOf+featurePattern.length();
-        String value = line.substring(nextIndex+1, line.indexOf('"', nextIndex+1));
-        return value;
-
+        return pending;
     }
 
-    protected String getFeatureValue(String line, EStructuralFeature feature) {
-        String featurePattern = toFeaturePattern(feature.getName());
-        int indexOf = line.indexOf(featurePattern);
-        if(indexOf == -1){//Retrieve default value
-            Object defaultValue = feature.getDefaultValue();
-            if(defaultValue != null){
-                return defaultValue.toString();
-            }else{
-                return "";
+    private CachedResults getCachedResults() {
+        final String path = eResourceFile.getAbsolutePath();
+        final long modificationStamp = eResourceFile.lastModified();
+        final long length = eResourceFile.length();
+        synchronized (CACHE) {
+            CachedResults cachedResults = CACHE.get(path);
+            if (cachedResults == null || !cachedResults.isValid(modificationStamp, length)) {
+                cachedResults = new CachedResults(modificationStamp, length);
+                CACHE.put(path, cachedResults);
             }
-        }else{
-            int nextIndex = indexOf+featurePattern.length();
-            String value = line.substring(nextIndex+1, line.indexOf('"', nextIndex+1));
-            return value;
+            return cachedResults;
         }
     }
 
+    private static class CachedResults {
 
-    public String[] getEObectIfFromEObjectType(String xmiType) throws FeatureNotFoundException {
-        Scanner scanner = null;
-        try {
-            scanner = new Scanner(eResourceFile, "UTF-8");
-            List<String> values = new ArrayList<String>();
-            String xmiTypePattern = toXMITypePattern(xmiType);
-            String xsiTypePattern = toXSITypePattern(xmiType);
-            String tagTypePattern = toTagTypePattern(xmiType);
-            while(scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if(line.contains(xmiTypePattern) || line.contains(xsiTypePattern) || line.contains(tagTypePattern)){
-                    values.add(getFeatureValue(line, "xmi:id"));
-                }
-            }
-            return values.toArray(new String[values.size()]);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        } finally{
-            if(scanner != null){
-                scanner.close();
-            }
+        private final long modificationStamp;
+        private final long length;
+        private final Map<String, Map<String, String[]>> results = new HashMap<String, Map<String, String[]>>();
+
+        CachedResults(final long modificationStamp, final long length) {
+            this.modificationStamp = modificationStamp;
+            this.length = length;
+        }
+
+        boolean isValid(final long modificationStamp, final long length) {
+            return this.modificationStamp == modificationStamp && this.length == length;
+        }
+
+        synchronized Map<String, String[]> get(final String key) {
+            return results.get(key);
+        }
+
+        synchronized void put(final String key, final Map<String, String[]> result) {
+            results.put(key, result);
         }
     }
 }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.emf.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * A query on the raw XMI content of a resource, executed by {@link EMFResourceUtil#execute(EObjectQuery...)}.
+ * Several queries are answered with a single read of the file, which stops as soon as all of them are complete.
+ * Results map the xmi:id of each matching element to the raw values of the requested features, a value is null when the attribute is
+ * not serialized.
+ */
+public class EObjectQuery {
+
+    private final String xmiId;
+    private final String eObjectType;
+    private final int limit;
+    private final String[] featureNames;
+    private Map<String, String[]> result = new LinkedHashMap<String, String[]>();
+
+    private EObjectQuery(final String xmiId, final String eObjectType, final int limit, final String... featureNames) {
+        this.xmiId = xmiId;
+        this.eObjectType = eObjectType;
+        this.limit = limit;
+        this.featureNames = featureNames;
+    }
+
+    /**
+     * Query the element with the given xmi:id
+     */
+    public static EObjectQuery byId(final String xmiId, final String... featureNames) {
+        Assert.isNotNull(xmiId);
+        return new EObjectQuery(xmiId, null, 1, featureNames);
+    }
+
+    /**
+     * Query all the elements of the given type (eg: process:Pool), the whole resource has to be read
+     */
+    public static EObjectQuery byType(final String eObjectType, final String... featureNames) {
+        Assert.isNotNull(eObjectType);
+        return new EObjectQuery(null, eObjectType, -1, featureNames);
+    }
+
+    /**
+     * Query the first element of the given type (eg: process:MainProcess), reading stops once it is found
+     */
+    public static EObjectQuery firstOfType(final String eObjectType, final String... featureNames) {
+        Assert.isNotNull(eObjectType);
+        return new EObjectQuery(null, eObjectType, 1, featureNames);
+    }
+
+    public static String[] featureNames(final EStructuralFeature... features) {
+        final String[] names = new String[features.length];
+        for (int i = 0; i < features.length; i++) {
+            names[i] = features[i].getName();
+        }
+        return names;
+    }
+
+    public Map<String, String[]> getResult() {
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the feature values of the first matching element or null if none has been found
+     */
+    public String[] getFirstResult() {
+        return result.isEmpty() ? null : result.values().iterator().next();
+    }
+
+    String getKey() {
+        return (xmiId != null ? "id:" + xmiId : "type:" + eObjectType + ":" + limit) + Arrays.toString(featureNames);
+    }
+
+    void setResult(final Map<String, String[]> result) {
+        this.result = new LinkedHashMap<String, String[]>(result);
+    }
+
+    boolean isComplete() {
+        return limit > 0 && result.size() >= limit;
+    }
+
+    boolean matches(final String qualifiedName, final String id, final String xmiType, final String xsiType) {
+        if (xmiId != null) {
+            return xmiId.equals(id);
+        }
+        return eObjectType.equals(qualifiedName) || eObjectType.equals(xmiType) || eObjectType.equals(xsiType);
+    }
+
+    void collect(final String id, final XMLStreamReader reader) {
+        final String[] values = new String[featureNames.length];
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final int index = indexOf(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+            if (index != -1) {
+                values[index] = reader.getAttributeValue(i);
+            }
+        }
+        result.put(id, values);
+    }
+
+    private int indexOf(final String attributeName) {
+        for (int i = 0; i < featureNames.length; i++) {
+            if (featureNames[i].equals(attributeName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static String qualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.emf.tools;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Reads the attributes of an element located at the beginning of an XMI stream (like the MainProcess of a .proc file) without loading
+ * nor copying the whole resource.
+ * Only the first {@link #DEFAULT_HEADER_SIZE} bytes are read, the stream returned by {@link #getInputStream()} still delivers the
+ * complete content.
+ */
+public class XMIHeaderReader {
+
+    public static final int DEFAULT_HEADER_SIZE = 16 * 1024;
+
+    private static final String XMI_TYPE = "xmi:type";
+    private static final String XSI_TYPE = "xsi:type";
+
+    private static XMLInputFactory inputFactory;
+
+    private final InputStream inputStream;
+    private final int headerSize;
+
+    public XMIHeaderReader(final InputStream inputStream) {
+        this(inputStream, DEFAULT_HEADER_SIZE);
+    }
+
+    /**
+     * @param inputStream the stream is only wrapped when it does not support mark/reset
+     */
+    public XMIHeaderReader(final InputStream inputStream, final int headerSize) {
+        Assert.isNotNull(inputStream);
+        this.inputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, headerSize);
+        this.headerSize = headerSize;
+    }
+
+    /**
+     * @param eObjectType the qualified type of the element, eg: process:MainProcess
+     * @return the attributes (qualified name to value) of the first element of the given type, or null if no such element has been found
+     *         in the header or if the header is not a well-formed XML
+     */
+    public Map<String, String> readAttributes(final String eObjectType) throws IOException {
+        final byte[] header = readHeader();
+        try {
+            final XMLStreamReader reader = getInputFactory().createXMLStreamReader(new ByteArrayInputStream(header));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && isOfType(reader, eObjectType)) {
+                        return attributes(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            //Header has been truncated before finding the element
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * @return a stream delivering the complete content, including the bytes read by {@link #readAttributes(String)}
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    private byte[] readHeader() throws IOException {
+        inputStream.mark(headerSize);
+        try {
+            final byte[] buffer = new byte[headerSize];
+            int offset = 0;
+            int read = 0;
+            while (offset < headerSize && (read = inputStream.read(buffer, offset, headerSize - offset)) != -1) {
+                offset = offset + read;
+            }
+            if (offset == headerSize) {
+                return buffer;
+            }
+            final byte[] result = new byte[offset];
+            System.arraycopy(buffer, 0, result, 0, offset);
+            return result;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    private boolean isOfType(final XMLStreamReader reader, final String eObjectType) {
+        if (eObjectType.equals(qualifiedName(reader.getPrefix(), reader.getLocalName()))) {
+            return true;
+        }
+        final Map<String, String> attributes = attributes(reader);
+        return eObjectType.equals(attributes.get(XMI_TYPE)) || eObjectType.equals(attributes.get(XSI_TYPE));
+    }
+
+    private Map<String, String> attributes(final XMLStreamReader reader) {
+        final Map<String, String> attributes = new LinkedHashMap<String, String>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    private String qualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    static synchronized XMLInputFactory getInputFactory() {
+        if (inputFactory == null) {
+            inputFactory = XMLInputFactory.newInstance();
+            inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        }
+        return inputFactory;
+    }
+
+}
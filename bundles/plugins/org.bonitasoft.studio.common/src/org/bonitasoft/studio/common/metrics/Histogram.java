@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribution of recorded values. Count, sum, min and max are exact; percentiles are computed on a uniform sample of at most
+ * {@link #RESERVOIR_SIZE} values so that memory stays bounded whatever the number of updates.
+ */
+public class Histogram {
+
+    static final int RESERVOIR_SIZE = 1024;
+
+    private final long[] reservoir = new long[RESERVOIR_SIZE];
+    private final Random random = new Random();
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public synchronized void update(final long value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (count <= RESERVOIR_SIZE) {
+            reservoir[(int) count - 1] = value;
+        } else {
+            final long index = (long) (random.nextDouble() * count);
+            if (index < RESERVOIR_SIZE) {
+                reservoir[(int) index] = value;
+            }
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     */
+    public synchronized long getPercentile(final double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long[] values = Arrays.copyOf(reservoir, (int) Math.min(count, RESERVOIR_SIZE));
+        Arrays.sort(values);
+        final int index = (int) Math.ceil(quantile * values.length) - 1;
+        return values[Math.max(0, Math.min(index, values.length - 1))];
+    }
+
+}
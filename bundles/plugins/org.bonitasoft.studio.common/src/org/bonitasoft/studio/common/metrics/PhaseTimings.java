@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the phases of a long operation, in the order they completed. Each duration is also recorded in the histogram of
+ * {@link StudioMetrics} named after the prefix and the phase.
+ */
+public class PhaseTimings {
+
+    /**
+     * Phases of the Studio startup, logged with the startup duration
+     */
+    public static final PhaseTimings STUDIO_STARTUP = new PhaseTimings("studio.startup.");
+
+    private final String prefix;
+    private final Map<String, Long> durations = new LinkedHashMap<String, Long>();
+
+    public PhaseTimings(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * @param startNanos the {@link System#nanoTime()} at the beginning of the phase
+     */
+    public synchronized void record(final String phase, final long startNanos) {
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        durations.put(phase, duration);
+        StudioMetrics.record(prefix + phase, duration);
+    }
+
+    public synchronized Long getDuration(final String phase) {
+        return durations.get(phase);
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (final Entry<String, Long> entry : durations.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append("ms");
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the timers, counters and histograms measuring Studio operations.
+ * Metrics are disabled by default: the static helpers then return immediately without looking up nor allocating anything. They are
+ * enabled with the <code>bonita.studio.metrics</code> system property or {@link #setEnabled(boolean)}, and the snapshot is written
+ * on shutdown to the file given by <code>bonita.studio.metrics.output</code> (JSON when the file name ends with .json, CSV otherwise).
+ * Timer values are written in milliseconds.
+ */
+public class StudioMetrics {
+
+    public static final String ENABLED_PROPERTY = "bonita.studio.metrics";
+    public static final String OUTPUT_PROPERTY = "bonita.studio.metrics.output";
+
+    private static final StudioMetrics INSTANCE = new StudioMetrics();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+    StudioMetrics() {
+    }
+
+    public static StudioMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        StudioMetrics.enabled = enabled;
+    }
+
+    /**
+     * Starts timing an operation, the returned context must be stopped in a finally block.
+     */
+    public static Timer.Context time(final String name) {
+        return enabled ? INSTANCE.timer(name).start() : Timer.NOOP;
+    }
+
+    public static void increment(final String name) {
+        if (enabled) {
+            INSTANCE.counter(name).increment();
+        }
+    }
+
+    public static void increment(final String name, final long n) {
+        if (enabled) {
+            INSTANCE.counter(name).increment(n);
+        }
+    }
+
+    public static void record(final String name, final long value) {
+        if (enabled) {
+            INSTANCE.histogram(name).update(value);
+        }
+    }
+
+    public Timer timer(final String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            final Timer newTimer = new Timer();
+            timer = timers.putIfAbsent(name, newTimer);
+            if (timer == null) {
+                timer = newTimer;
+            }
+        }
+        return timer;
+    }
+
+    public Counter counter(final String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            final Counter newCounter = new Counter();
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    public Histogram histogram(final String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            final Histogram newHistogram = new Histogram();
+            histogram = histograms.putIfAbsent(name, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    public void reset() {
+        timers.clear();
+        counters.clear();
+        histograms.clear();
+    }
+
+    public String toJSON() {
+        final StringBuilder sb = new StringBuilder("{\n  \"timers\":{");
+        boolean firstTimer = true;
+        for (final Entry<String, Histogram> entry : timerHistograms().entrySet()) {
+            final Histogram h = entry.getValue();
+            sb.append(firstTimer ? "\n    " : ",\n    ");
+            sb.append(String.format(Locale.ENGLISH,
+                    "\"%s\":{\"count\":%d,\"sum\":%.3f,\"min\":%.3f,\"max\":%.3f,\"mean\":%.3f,\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f}",
+                    entry.getKey(), h.getCount(), toMillis(h.getSum()), toMillis(h.getMin()), toMillis(h.getMax()), toMillis(h.getMean()),
+                    toMillis(h.getPercentile(0.5)), toMillis(h.getPercentile(0.95)), toMillis(h.getPercentile(0.99))));
+            firstTimer = false;
+        }
+        sb.append("},\n  \"histograms\":{");
+        appendJSON(sb, new TreeMap<String, Histogram>(histograms));
+        sb.append("},\n  \"counters\":{");
+        boolean first = true;
+        for (final Entry<String, Counter> entry : new TreeMap<String, Counter>(counters).entrySet()) {
+            sb.append(first ? "\n    " : ",\n    ");
+            sb.append(String.format(Locale.ENGLISH, "\"%s\":%d", entry.getKey(), entry.getValue().getCount()));
+            first = false;
+        }
+        sb.append("}\n}\n");
+        return sb.toString();
+    }
+
+    public String toCSV() {
+        final StringBuilder sb = new StringBuilder("type,name,count,sum,min,max,mean,p50,p95,p99\n");
+        for (final Entry<String, Histogram> entry : timerHistograms().entrySet()) {
+            final Histogram h = entry.getValue();
+            sb.append(String.format(Locale.ENGLISH, "timer,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n", entry.getKey(), h.getCount(),
+                    toMillis(h.getSum()), toMillis(h.getMin()), toMillis(h.getMax()), toMillis(h.getMean()), toMillis(h.getPercentile(0.5)),
+                    toMillis(h.getPercentile(0.95)), toMillis(h.getPercentile(0.99))));
+        }
+        for (final Entry<String, Histogram> entry : new TreeMap<String, Histogram>(histograms).entrySet()) {
+            appendCSV(sb, "histogram", entry.getKey(), entry.getValue());
+        }
+        for (final Entry<String, Counter> entry : new TreeMap<String, Counter>(counters).entrySet()) {
+            sb.append(String.format(Locale.ENGLISH, "counter,%s,%d,,,,,,,\n", entry.getKey(), entry.getValue().getCount()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes a snapshot of all metrics, as JSON when the file name ends with .json and as CSV otherwise.
+     */
+    public void write(final File file) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            writer.write(file.getName().endsWith(".json") ? toJSON() : toCSV());
+        }
+    }
+
+    /**
+     * Timers record nanoseconds, they are written in milliseconds
+     */
+    private static double toMillis(final double nanos) {
+        return nanos / 1000000d;
+    }
+
+    private SortedMap<String, Histogram> timerHistograms() {
+        final SortedMap<String, Histogram> result = new TreeMap<String, Histogram>();
+        for (final Entry<String, Timer> entry : timers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getHistogram());
+        }
+        return result;
+    }
+
+    private void appendJSON(final StringBuilder sb, final SortedMap<String, Histogram> histograms) {
+        boolean first = true;
+        for (final Entry<String, Histogram> entry : histograms.entrySet()) {
+            final Histogram h = entry.getValue();
+            sb.append(first ? "\n    " : ",\n    ");
+            sb.append(String.format(Locale.ENGLISH,
+                    "\"%s\":{\"count\":%d,\"sum\":%d,\"min\":%d,\"max\":%d,\"mean\":%.3f,\"p50\":%d,\"p95\":%d,\"p99\":%d}",
+                    entry.getKey(), h.getCount(), h.getSum(), h.getMin(), h.getMax(), h.getMean(), h.getPercentile(0.5),
+                    h.getPercentile(0.95), h.getPercentile(0.99)));
+            first = false;
+        }
+    }
+
+    private void appendCSV(final StringBuilder sb, final String type, final String name, final Histogram h) {
+        sb.append(String.format(Locale.ENGLISH, "%s,%s,%d,%d,%d,%d,%.3f,%d,%d,%d\n", type, name, h.getCount(), h.getSum(), h.getMin(),
+                h.getMax(), h.getMean(), h.getPercentile(0.5), h.getPercentile(0.95), h.getPercentile(0.99)));
+    }
+
+}
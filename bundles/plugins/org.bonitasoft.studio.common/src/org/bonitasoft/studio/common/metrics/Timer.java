@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records durations, in nanoseconds, in a {@link Histogram} so that sub-millisecond operations are not recorded as 0. They are
+ * converted to milliseconds when the snapshot is written.
+ * Usage:
+ *
+ * <pre>
+ * final Timer.Context context = StudioMetrics.time(&quot;my.operation&quot;);
+ * try {
+ *     ...
+ * } finally {
+ *     context.stop();
+ * }
+ * </pre>
+ */
+public class Timer {
+
+    /**
+     * Context returned when metrics are disabled, stopping it does nothing.
+     */
+    static final Context NOOP = new Context(null);
+
+    private final Histogram histogram = new Histogram();
+
+    public Context start() {
+        return new Context(this);
+    }
+
+    public void update(final long duration, final TimeUnit unit) {
+        histogram.update(unit.toNanos(duration));
+    }
+
+    /**
+     * @return the recorded durations, in nanoseconds
+     */
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public static class Context {
+
+        private final Timer timer;
+        private final long start;
+
+        private Context(final Timer timer) {
+            this.timer = timer;
+            this.start = timer != null ? System.nanoTime() : 0L;
+        }
+
+        /**
+         * @return the elapsed time in milliseconds, 0 when metrics are disabled
+         */
+        public long stop() {
+            if (timer == null) {
+                return 0L;
+            }
+            final long elapsed = System.nanoTime() - start;
+            timer.update(elapsed, TimeUnit.NANOSECONDS);
+            return TimeUnit.NANOSECONDS.toMillis(elapsed);
+        }
+    }
+
+}
@@ -215,4 +215,9 @@ public abstract class AbstractDefinitionRepositoryStore<T extends EMFFileStore>
         }
     }
 
+    @Override
+    protected boolean canMigrateConcurrently() {
+        return true;
+    }
+
 }
@@ -190,4 +190,9 @@ public abstract class AbstractConnectorImplRepositoryStore<T extends EMFFileStor
     private boolean hasSources(final ConnectorImplementation content, final IRepositoryStore<? extends IRepositoryFileStore> sourceRepositoryStore) {
         return sourceRepositoryStore.getChild(content.getImplementationClassname()) != null;
     }
+
+    @Override
+    protected boolean canMigrateConcurrently() {
+        return true;
+    }
 }
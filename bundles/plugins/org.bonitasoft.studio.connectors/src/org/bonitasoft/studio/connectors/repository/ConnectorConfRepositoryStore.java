@@ -241,4 +241,9 @@ public class ConnectorConfRepositoryStore extends AbstractEMFRepositoryStore<Def
         }
     }
 
+    @Override
+    protected boolean canMigrateConcurrently() {
+        return true;
+    }
+
 }
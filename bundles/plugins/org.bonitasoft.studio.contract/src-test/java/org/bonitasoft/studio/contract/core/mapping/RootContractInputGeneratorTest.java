@@ -17,13 +17,19 @@ package org.bonitasoft.studio.contract.core.mapping;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.studio.model.businessObject.BusinessObjectBuilder.aBO;
+import static org.bonitasoft.studio.model.expression.builders.ExpressionBuilder.aGroovyScriptExpression;
+import static org.bonitasoft.studio.model.expression.builders.OperationBuilder.anOperation;
+import static org.bonitasoft.studio.model.process.builders.ContractInputBuilder.aContractInput;
 import static org.bonitasoft.studio.model.process.builders.BusinessObjectDataBuilder.aBusinessData;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.List;
 
 import org.bonitasoft.engine.bdm.model.BusinessObject;
 import org.bonitasoft.engine.bdm.model.field.Field;
@@ -35,14 +41,41 @@ import org.bonitasoft.studio.contract.core.mapping.expression.FieldToContractInp
 import org.bonitasoft.studio.contract.core.mapping.operation.FieldToContractInputMappingOperationBuilder;
 import org.bonitasoft.studio.contract.core.mapping.operation.OperationCreationException;
 import org.bonitasoft.studio.model.businessObject.FieldBuilder.SimpleFieldBuilder;
+import org.bonitasoft.studio.model.expression.Operation;
 import org.bonitasoft.studio.model.process.BusinessObjectData;
+import org.bonitasoft.studio.model.process.ContractInput;
 import org.bonitasoft.studio.model.process.ContractInputType;
 import org.bonitasoft.studio.model.process.assertions.ContractInputAssert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.emf.ecore.EObject;
+import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
 
+@RunWith(MockitoJUnitRunner.class)
 public class RootContractInputGeneratorTest {
 
+    @Mock
+    private RepositoryAccessor repositoryAccessor;
+    @Mock
+    private BusinessObjectModelRepositoryStore businessStore;
+    @Mock
+    private FieldToContractInputMappingOperationBuilder operationBuilder;
+    @Mock
+    private FieldToContractInputMappingExpressionBuilder expressionBuilder;
+    private BusinessObjectData employee;
+
+    @Before
+    public void setUp() throws Exception {
+        when(repositoryAccessor.getRepositoryStore(BusinessObjectModelRepositoryStore.class)).thenReturn(businessStore);
+        employee = aBusinessData().withName("employee").build();
+    }
+
     @Test
     public void should_create_a_complex_contract_input_with_root_input_name() throws Exception {
         final RepositoryAccessor repositoryAccessor = mock(RepositoryAccessor.class);
@@ -90,7 +123,7 @@ public class RootContractInputGeneratorTest {
         final BusinessObjectData businessObjectData = aBusinessData().withName("employee").build();
         rootContractInputGenerator.build(businessObjectData);
 
-        verify(operationBuilder).toOperation(businessObjectData, mapping);
+        verify(operationBuilder).toOperation(businessObjectData, mapping, false);
     }
 
     @Test
@@ -144,7 +177,7 @@ public class RootContractInputGeneratorTest {
         rootContractInputGenerator.build(businessObjectData);
 
         final ArgumentCaptor<FieldToContractInputMapping> argumentCaptor = ArgumentCaptor.forClass(FieldToContractInputMapping.class);
-        verify(operationBuilder).toOperation(eq(businessObjectData), argumentCaptor.capture());
+        verify(operationBuilder).toOperation(eq(businessObjectData), argumentCaptor.capture(), eq(false));
         final Field field = argumentCaptor.getValue().getField();
         assertThat(field).isInstanceOf(RelationField.class);
         assertThat(field.getName()).isEqualTo("employeesInput");
@@ -169,7 +202,7 @@ public class RootContractInputGeneratorTest {
         rootContractInputGenerator.build(businessObjectData);
 
         final ArgumentCaptor<FieldToContractInputMapping> argumentCaptor = ArgumentCaptor.forClass(FieldToContractInputMapping.class);
-        verify(expressionBuilder).toExpression(eq(businessObjectData), argumentCaptor.capture(), eq(false));
+        verify(expressionBuilder).toExpression(eq(businessObjectData), argumentCaptor.capture(), eq(false), eq(false));
         final FieldToContractInputMapping fieldToContractInputMapping = argumentCaptor.getValue();
         assertThat(fieldToContractInputMapping.getField().getName()).isEqualTo("rootInputName");
         assertThat(fieldToContractInputMapping.getField().isCollection()).isFalse();
@@ -192,10 +225,90 @@ public class RootContractInputGeneratorTest {
         rootContractInputGenerator.build(businessObjectData);
 
         final ArgumentCaptor<FieldToContractInputMapping> argumentCaptor = ArgumentCaptor.forClass(FieldToContractInputMapping.class);
-        verify(expressionBuilder).toExpression(eq(businessObjectData), argumentCaptor.capture(), eq(false));
+        verify(expressionBuilder).toExpression(eq(businessObjectData), argumentCaptor.capture(), eq(false), eq(false));
         final FieldToContractInputMapping fieldToContractInputMapping = argumentCaptor.getValue();
         assertThat(fieldToContractInputMapping.getField().getName()).isEqualTo("rootInputName");
         assertThat(fieldToContractInputMapping.getField().isCollection()).isTrue();
         assertThat(fieldToContractInputMapping.getChildren()).hasSize(1);
     }
+
+    @Test
+    public void should_not_rebuild_when_built_twice_with_same_data_and_mappings() throws Exception {
+        final SimpleFieldToContractInputMapping mapping = aStringMapping("firstName");
+        final RootContractInputGenerator rootContractInputGenerator = newGenerator(mapping);
+
+        rootContractInputGenerator.build(employee);
+        rootContractInputGenerator.build(employee);
+
+        verify(operationBuilder, times(1)).toOperation(employee, mapping, false);
+        assertThat(rootContractInputGenerator.getMappingOperations()).hasSize(1);
+    }
+
+    @Test
+    public void should_create_mapping_operations_for_instantiation() throws Exception {
+        final SimpleFieldToContractInputMapping mapping = aStringMapping("firstName");
+        final RootContractInputGenerator rootContractInputGenerator = newGenerator(mapping);
+
+        rootContractInputGenerator.buildForInstanciation(employee);
+
+        verify(operationBuilder).toOperation(employee, mapping, false);
+        assertThat(rootContractInputGenerator.getRootContractInput().getInputs()).hasSize(1);
+    }
+
+    @Test
+    public void should_only_rebuild_the_operations_of_changed_mappings() throws Exception {
+        final SimpleFieldToContractInputMapping firstName = aStringMapping("firstName");
+        final SimpleFieldToContractInputMapping lastName = aStringMapping("lastName");
+        final RootContractInputGenerator rootContractInputGenerator = newGenerator(firstName, lastName);
+
+        rootContractInputGenerator.build(employee);
+        lastName.setGenerated(false);
+        rootContractInputGenerator.build(employee);
+        lastName.setGenerated(true);
+        rootContractInputGenerator.build(employee);
+
+        verify(operationBuilder, times(1)).toOperation(employee, firstName, false);
+        verify(operationBuilder, times(1)).toOperation(employee, lastName, false);
+        verify(expressionBuilder, times(2)).toExpression(eq(employee), any(FieldToContractInputMapping.class), eq(false), eq(false));
+        assertThat(rootContractInputGenerator.getMappingOperations()).hasSize(2);
+        assertThat(rootContractInputGenerator.getRootContractInput().getInputs()).hasSize(2);
+    }
+
+    @Test
+    public void should_refresh_the_root_contract_input_referenced_by_reused_operations() throws Exception {
+        final SimpleFieldToContractInputMapping firstName = aStringMapping("firstName");
+        final SimpleFieldToContractInputMapping lastName = aStringMapping("lastName");
+        final Operation firstNameOperation = anOperationReferencing(aContractInput().withName("rootInputName").build());
+        when(operationBuilder.toOperation(employee, firstName, false)).thenReturn(firstNameOperation);
+        final RootContractInputGenerator rootContractInputGenerator = newGenerator(firstName, lastName);
+
+        rootContractInputGenerator.build(employee);
+        lastName.setGenerated(false);
+        rootContractInputGenerator.build(employee);
+
+        verify(operationBuilder, times(1)).toOperation(employee, firstName, false);
+        final List<EObject> dependencies = firstNameOperation.getRightOperand().getReferencedElements();
+        assertThat(dependencies).hasSize(1);
+        assertThat(((ContractInput) dependencies.get(0)).getInputs()).hasSize(1);
+    }
+
+    @Test(expected = OperationCanceledException.class)
+    public void should_throw_an_OperationCanceledException_when_monitor_is_canceled() throws Exception {
+        final IProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+
+        newGenerator(aStringMapping("firstName")).build(employee, monitor);
+    }
+
+    private RootContractInputGenerator newGenerator(final FieldToContractInputMapping... mappings) {
+        return new RootContractInputGenerator("rootInputName", newArrayList(mappings), repositoryAccessor, operationBuilder, expressionBuilder);
+    }
+
+    private SimpleFieldToContractInputMapping aStringMapping(final String name) {
+        return new SimpleFieldToContractInputMapping(SimpleFieldBuilder.aStringField(name).build());
+    }
+
+    private Operation anOperationReferencing(final ContractInput rootContractInput) {
+        return anOperation().havingRightOperand(aGroovyScriptExpression().havingReferencedElements(rootContractInput)).build();
+    }
 }
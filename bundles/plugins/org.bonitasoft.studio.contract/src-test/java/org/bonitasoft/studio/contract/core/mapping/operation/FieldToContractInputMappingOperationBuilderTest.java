@@ -82,7 +82,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
         final SimpleField lastNameField = aSimpleField().withName("lastName").ofType(FieldType.STRING).build();
         final FieldToContractInputMapping mapping = aSimpleMapping(lastNameField).build();
         final BusinessObjectData data = aBusinessData().withName("myEmployee").build();
-        when(expressionBuilder.toExpression(data, mapping, false)).thenReturn(anExpression().build());
+        when(expressionBuilder.toExpression(data, mapping, false, true)).thenReturn(anExpression().build());
         final Operation operation = inputToOperation.toOperation(data,
                 mapping);
 
@@ -96,7 +96,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
                 .hasType(ExpressionConstants.VARIABLE_TYPE);
         assertThat(operation.getLeftOperand().getReferencedElements()).hasSize(1);
 
-        verify(expressionBuilder).toExpression(data, mapping, false);
+        verify(expressionBuilder).toExpression(data, mapping, false, true);
     }
 
     @Test
@@ -109,7 +109,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
                 .withName("employee").build());
 
         final BusinessObjectData data = aBusinessData().withName("myEmployee").build();
-        when(expressionBuilder.toExpression(data, mapping, false)).thenReturn(anExpression().build());
+        when(expressionBuilder.toExpression(data, mapping, false, true)).thenReturn(anExpression().build());
         final Operation operation = inputToOperation.toOperation(data,
                 mapping);
 
@@ -122,7 +122,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
                 .hasName("myEmployee").hasContent("myEmployee")
                 .hasType(ExpressionConstants.VARIABLE_TYPE);
         assertThat(operation.getLeftOperand().getReferencedElements()).hasSize(1);
-        verify(expressionBuilder).toExpression(data, mapping, false);
+        verify(expressionBuilder).toExpression(data, mapping, false, true);
     }
 
     @Test
@@ -133,7 +133,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
         final FieldToContractInputMapping mapping = aRelationMapping(address).build();
         mapping.toContractInput(aContractInput().withName("employee").withType(ContractInputType.COMPLEX).build());
         final BusinessObjectData businessObjectData = aBusinessData().withName("myEmployee").build();
-        when(expressionBuilder.toExpression(businessObjectData, mapping, false)).thenReturn(anExpression().build());
+        when(expressionBuilder.toExpression(businessObjectData, mapping, false, true)).thenReturn(anExpression().build());
         final Operation operation = inputToOperation.toOperation(businessObjectData,
                 mapping);
 
@@ -146,7 +146,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
                 .hasType(ExpressionConstants.VARIABLE_TYPE);
         assertThat(operation.getLeftOperand().getReferencedElements()).hasSize(1);
 
-        verify(expressionBuilder).toExpression(businessObjectData, mapping, false);
+        verify(expressionBuilder).toExpression(businessObjectData, mapping, false, true);
     }
 
     @Test
@@ -154,7 +154,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
         final FieldToContractInputMappingOperationBuilder inputToOperation = createFixture();
         when(expressionReturnTypeFilter.compatibleReturnTypes(anyString(), anyString())).thenReturn(false);
         final SimpleField lastNameField = aSimpleField().withName("lastName").ofType(FieldType.STRING).build();
-        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
+        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean(), anyBoolean())).thenReturn(
                 anExpression().build());
         thrown.expect(OperationCreationException.class);
         inputToOperation.toOperation(aBusinessData().withName("myEmployee").build(),
@@ -172,7 +172,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
         final MappingOperationScriptBuilder fakeScriptBuilder = mock(MappingOperationScriptBuilder.class);
         when(fakeScriptBuilder.toScript()).thenThrow(BusinessObjectInstantiationException.class);
         doReturn(fakeScriptBuilder).when(mapping).getScriptBuilder(any(BusinessObjectData.class));
-        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
+        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean(), anyBoolean())).thenReturn(
                 anExpression().build());
         thrown.expect(OperationCreationException.class);
         inputToOperation.toOperation(aBusinessData().withName("myEmployee").build(),
@@ -185,7 +185,7 @@ public class FieldToContractInputMappingOperationBuilderTest {
 
         final SimpleField lastNameField = aSimpleField().withName("lastName").ofType(FieldType.STRING).build();
         final FieldToContractInputMapping mapping = aSimpleMapping(lastNameField).build();
-        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
+        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean(), anyBoolean())).thenReturn(
                 anExpression().build());
         final Operation operation = inputToOperation.toOperation(aBusinessData().multiple().withName("employees").build(),
                 mapping);
@@ -23,6 +23,7 @@ import static org.bonitasoft.studio.model.process.builders.PoolBuilder.aPool;
 import static org.bonitasoft.studio.model.process.builders.TaskBuilder.aTask;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -45,8 +46,10 @@ import org.bonitasoft.studio.model.process.ProcessFactory;
 import org.bonitasoft.studio.model.process.Task;
 import org.bonitasoft.studio.model.process.provider.ProcessItemProviderAdapterFactory;
 import org.bonitasoft.studio.swt.rules.RealmWithDisplay;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.transaction.impl.TransactionalEditingDomainImpl;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.source.SourceViewer;
@@ -58,7 +61,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ContractInputGenerationWizardTest {
@@ -141,7 +146,7 @@ public class ContractInputGenerationWizardTest {
                 expressionBuilder,
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -170,7 +175,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -191,7 +196,7 @@ public class ContractInputGenerationWizardTest {
                 BusinessObjectBuilder.aBO("org.company.Employee").withField(SimpleFieldBuilder.aStringField("firstName").build()).build());
         when(repositoryAccessor.getRepositoryStore(BusinessObjectModelRepositoryStore.class)).thenReturn(store);
         when(preferenceStore.getString(ContractInputGenerationInfoDialogFactory.SHOW_GENERATION_SUCCESS_DIALOG)).thenReturn("always");
-        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
+        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean(), anyBoolean())).thenReturn(
                 aGroovyScriptExpression().build());
         when(sourceViewerFactory.createSourceViewer(any(Composite.class), any(Boolean.class))).thenReturn(groovyViewer);
         when(groovyViewer.getSourceViewer()).thenReturn(sourceViewer);
@@ -202,7 +207,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -230,7 +235,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -253,7 +258,7 @@ public class ContractInputGenerationWizardTest {
                 BusinessObjectBuilder.aBO("org.company.Employee").withField(SimpleFieldBuilder.aStringField("firstName").build()).build());
         when(repositoryAccessor.getRepositoryStore(BusinessObjectModelRepositoryStore.class)).thenReturn(store);
         when(preferenceStore.getString(ContractInputGenerationInfoDialogFactory.SHOW_GENERATION_SUCCESS_DIALOG)).thenReturn("always");
-        when(operationBuilder.toOperation(any(BusinessObjectData.class), any(FieldToContractInputMapping.class))).thenReturn(
+        when(operationBuilder.toOperation(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
                 anOperation().build());
 
         final ContractInputGenerationWizard wizard = new ContractInputGenerationWizard(task, editingDomain(), repositoryAccessor, operationBuilder,
@@ -261,7 +266,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -271,7 +276,7 @@ public class ContractInputGenerationWizardTest {
     }
 
     @Test
-    public void should_add_DocumentUpdateOperation_whenDataIsDocument_onFinish() {
+    public void should_add_DocumentUpdateOperation_whenDataIsDocument_onFinish() throws Exception {
         final Task task = aTask().havingContract(aContract()).build();
         final Pool process = aPool().havingContract(aContract()).build();
         final Document document1 = ProcessFactory.eINSTANCE.createDocument();
@@ -284,7 +289,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -297,7 +302,7 @@ public class ContractInputGenerationWizardTest {
     }
 
     @Test
-    public void should_add_FileInput_whenDataIsDocument_onFinish() {
+    public void should_add_FileInput_whenDataIsDocument_onFinish() throws Exception {
         final Pool process = aPool().havingContract(aContract()).build();
         process.getDocuments().add(ProcessFactory.eINSTANCE.createDocument());
         when(sourceViewerFactory.createSourceViewer(any(Composite.class), any(Boolean.class))).thenReturn(groovyViewer);
@@ -309,7 +314,7 @@ public class ContractInputGenerationWizardTest {
                 preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -320,7 +325,7 @@ public class ContractInputGenerationWizardTest {
     }
 
     @Test
-    public void should_canFinish_return_false_when_no_data_is_defined() {
+    public void should_canFinish_return_false_when_no_data_is_defined() throws Exception {
         final Pool process = aPool().havingContract(aContract()).build();
         when(sourceViewerFactory.createSourceViewer(any(Composite.class), any(Boolean.class))).thenReturn(groovyViewer);
         when(groovyViewer.getSourceViewer()).thenReturn(sourceViewer);
@@ -330,7 +335,7 @@ public class ContractInputGenerationWizardTest {
                 expressionBuilder, preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -339,7 +344,7 @@ public class ContractInputGenerationWizardTest {
     }
 
     @Test
-    public void should_canFinish_return_true_when_data_is_selected() {
+    public void should_canFinish_return_true_when_data_is_selected() throws Exception {
         final Pool process = aPool().havingContract(aContract()).build();
         final BusinessObjectData data = aBusinessData().withName("employee").withClassname("com.company.Employee").build();
         process.getData().add(data);
@@ -356,7 +361,7 @@ public class ContractInputGenerationWizardTest {
                 expressionBuilder, preferenceStore, sharedImages, dialogFactory, new ContractInputGenerationWizardPagesFactory(), sourceViewerFactory);
         wizard.addPages();
 
-        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        final IWizardContainer wizardContainer = newWizardContainer();
         when(wizardContainer.getShell()).thenReturn(realmWithDisplay.getShell());
         wizard.setContainer(wizardContainer);
         wizard.createPageControls(realmWithDisplay.createComposite());
@@ -364,6 +369,19 @@ public class ContractInputGenerationWizardTest {
         assertThat(wizard.canFinish()).isTrue();
     }
 
+    private IWizardContainer newWizardContainer() throws Exception {
+        final IWizardContainer wizardContainer = Mockito.mock(IWizardContainer.class);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                ((IRunnableWithProgress) invocation.getArguments()[2]).run(new NullProgressMonitor());
+                return null;
+            }
+        }).when(wizardContainer).run(anyBoolean(), anyBoolean(), any(IRunnableWithProgress.class));
+        return wizardContainer;
+    }
+
     private EditingDomain editingDomain() {
         return new TransactionalEditingDomainImpl(new ProcessItemProviderAdapterFactory());
     }
@@ -111,7 +111,7 @@ public class GeneratedScriptPreviewPageTest {
         when(sourceViewerFactory.createSourceViewer(any(Composite.class), any(Boolean.class))).thenReturn(groovyViewer);
         when(groovyViewer.getSourceViewer()).thenReturn(sourceViewer);
         when(groovyViewer.getDocument()).thenReturn(document);
-        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean())).thenReturn(
+        when(expressionBuilder.toExpression(any(BusinessObjectData.class), any(FieldToContractInputMapping.class), anyBoolean(), anyBoolean())).thenReturn(
                 aGroovyScriptExpression().build());
 
         final GeneratedScriptPreviewPage previewPage = new GeneratedScriptPreviewPage(rootNameObservable, fieldToContactInputMappingsObservable,
@@ -15,22 +15,34 @@
 package org.bonitasoft.studio.contract.core.mapping;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.bonitasoft.engine.bdm.model.field.RelationField;
 import org.bonitasoft.engine.bdm.model.field.RelationField.Type;
 import org.bonitasoft.studio.businessobject.core.repository.BusinessObjectModelRepositoryStore;
+import org.bonitasoft.studio.common.emf.tools.ExpressionHelper;
 import org.bonitasoft.studio.common.repository.RepositoryAccessor;
 import org.bonitasoft.studio.contract.core.mapping.expression.FieldToContractInputMappingExpressionBuilder;
 import org.bonitasoft.studio.contract.core.mapping.operation.BusinessObjectInstantiationException;
 import org.bonitasoft.studio.contract.core.mapping.operation.FieldToContractInputMappingOperationBuilder;
+import org.bonitasoft.studio.contract.core.mapping.operation.MappingOperationScriptBuilder;
 import org.bonitasoft.studio.contract.core.mapping.operation.OperationCreationException;
+import org.bonitasoft.studio.contract.i18n.Messages;
 import org.bonitasoft.studio.model.expression.Expression;
 import org.bonitasoft.studio.model.expression.Operation;
 import org.bonitasoft.studio.model.process.BusinessObjectData;
 import org.bonitasoft.studio.model.process.ContractInput;
 import org.bonitasoft.studio.model.process.ContractInputType;
 import org.bonitasoft.studio.model.process.ProcessFactory;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jdt.core.JavaModelException;
 
 public class RootContractInputGenerator {
@@ -44,6 +56,9 @@ public class RootContractInputGenerator {
     private final FieldToContractInputMappingExpressionBuilder expressionBuilder;
     private Expression initialValueExpression;
     private boolean allAttributesGenerated = true;
+    private final Map<GenerationKey, Operation> operationsCache = new HashMap<GenerationKey, Operation>();
+    private final Map<GenerationKey, Expression> initialValueExpressionsCache = new HashMap<GenerationKey, Expression>();
+    private final Set<Expression> formattedExpressions = new HashSet<Expression>();
 
     public RootContractInputGenerator(final String rootContractInputName, final List<? extends FieldToContractInputMapping> children,
             final RepositoryAccessor repositoryAccessor, final FieldToContractInputMappingOperationBuilder operationBuilder,
@@ -56,35 +71,132 @@ public class RootContractInputGenerator {
     }
 
     public void buildForInstanciation(final BusinessObjectData data) throws OperationCreationException {
-        build(data, true);
+        buildForInstanciation(data, new NullProgressMonitor());
+    }
+
+    /**
+     * @throws OperationCanceledException if the monitor is canceled
+     */
+    public void buildForInstanciation(final BusinessObjectData data, final IProgressMonitor monitor) throws OperationCreationException {
+        build(data, true, monitor);
     }
 
     public void build(final BusinessObjectData data) throws OperationCreationException {
-        build(data, false);
-    }
-    
-    private void build(final BusinessObjectData data, final boolean isOnPool) throws OperationCreationException {
-        contractInput = ProcessFactory.eINSTANCE.createContractInput();
-        contractInput.setName(rootContractInputName);
-        contractInput.setType(ContractInputType.COMPLEX);
-        contractInput.setMultiple(data.isMultiple());
-        for (final FieldToContractInputMapping mapping : children) {
-            if (mapping.isGenerated()) {
-                mapping.toContractInput(contractInput);
-                if (!contractInput.isMultiple()) {
-                    mappingOperations.add(operationBuilder.toOperation(data, mapping));
+        build(data, new NullProgressMonitor());
+    }
+
+    /**
+     * @throws OperationCanceledException if the monitor is canceled
+     */
+    public void build(final BusinessObjectData data, final IProgressMonitor monitor) throws OperationCreationException {
+        build(data, false, monitor);
+    }
+
+    private void build(final BusinessObjectData data, final boolean isOnPool, final IProgressMonitor monitor) throws OperationCreationException {
+        reset();
+        final boolean multiple = data.isMultiple();
+        monitor.beginTask(Messages.generatingContractFromData, children.size() + (multiple ? 2 : 1));
+        try {
+            contractInput = ProcessFactory.eINSTANCE.createContractInput();
+            contractInput.setName(rootContractInputName);
+            contractInput.setType(ContractInputType.COMPLEX);
+            contractInput.setMultiple(multiple);
+            for (final FieldToContractInputMapping mapping : children) {
+                checkCanceled(monitor);
+                if (mapping.isGenerated()) {
+                    mapping.toContractInput(contractInput);
+                    if (!multiple) {
+                        mappingOperations.add(toOperation(data, mapping));
+                    }
+                } else {
+                    allAttributesGenerated = false;
                 }
-            } else {
-                allAttributesGenerated = false;
+                monitor.worked(1);
+            }
+            if (multiple) {
+                checkCanceled(monitor);
+                mappingOperations.add(toOperation(data, null));
+                monitor.worked(1);
             }
+            refreshRootContractInputDependencies();
+            checkCanceled(monitor);
+            initialValueExpression = toInitialValueExpression(data, isOnPool);
+            monitor.worked(1);
+        } catch (final OperationCreationException | RuntimeException e) {
+            reset();
+            throw e;
+        } finally {
+            monitor.done();
+        }
+    }
+
+    /**
+     * The operation of a mapping only depends on the business data, the mapping and its generated children: it is reused as long as
+     * they do not change. A null mapping stands for the operation of the whole multiple business data.
+     */
+    private Operation toOperation(final BusinessObjectData data, final FieldToContractInputMapping mapping) throws OperationCreationException {
+        final GenerationKey key = mapping != null ? new GenerationKey(data, false, mapping, generatedMappings(mapping.getChildren()))
+                : new GenerationKey(data, false, null, generatedMappings(children));
+        if (!operationsCache.containsKey(key)) {
+            operationsCache.put(key,
+                    operationBuilder.toOperation(data, mapping != null ? mapping : createParentMapping(data, rootContractInputName), false));
         }
-        if (contractInput.isMultiple()) {
-            mappingOperations.add(operationBuilder.toOperation(data, createParentMapping(data, rootContractInputName)));
+        return operationsCache.get(key);
+    }
+
+    /**
+     * A script references a copy of the root contract input taken when it was generated. It is replaced by a copy of the root contract
+     * input of this build, which also holds the inputs of the mappings generated after it and of the siblings selected since then.
+     */
+    private void refreshRootContractInputDependencies() {
+        for (final Operation operation : mappingOperations) {
+            final Expression script = operation != null ? operation.getRightOperand() : null;
+            if (script != null) {
+                final List<EObject> dependencies = script.getReferencedElements();
+                for (int i = 0; i < dependencies.size(); i++) {
+                    if (dependencies.get(i) instanceof ContractInput) {
+                        dependencies.set(i, ExpressionHelper.createDependencyFromEObject(contractInput));
+                    }
+                }
+            }
         }
-        try {
-            initialValueExpression = expressionBuilder.toExpression(data, createParentMapping(data, rootContractInputName), isOnPool);
-        } catch (JavaModelException | BusinessObjectInstantiationException e) {
-            throw new OperationCreationException("Failed to create initial value expression", e);
+    }
+
+    private Expression toInitialValueExpression(final BusinessObjectData data, final boolean isOnPool) throws OperationCreationException {
+        final GenerationKey key = new GenerationKey(data, isOnPool, null, generatedMappings(children));
+        if (!initialValueExpressionsCache.containsKey(key)) {
+            try {
+                initialValueExpressionsCache.put(key,
+                        expressionBuilder.toExpression(data, createParentMapping(data, rootContractInputName), isOnPool, false));
+            } catch (JavaModelException | BusinessObjectInstantiationException e) {
+                throw new OperationCreationException("Failed to create initial value expression", e);
+            }
+        }
+        return initialValueExpressionsCache.get(key);
+    }
+
+    private void reset() {
+        contractInput = null;
+        mappingOperations.clear();
+        initialValueExpression = null;
+        allAttributesGenerated = true;
+    }
+
+    private List<FieldToContractInputMapping> generatedMappings(final List<? extends FieldToContractInputMapping> mappings) {
+        final List<FieldToContractInputMapping> result = new ArrayList<FieldToContractInputMapping>();
+        for (final FieldToContractInputMapping mapping : mappings) {
+            if (mapping.isGenerated()) {
+                result.add(mapping);
+                result.addAll(generatedMappings(mapping.getChildren()));
+            }
+        }
+        return result;
+    }
+
+    private void checkCanceled(final IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            reset();
+            throw new OperationCanceledException();
         }
     }
 
@@ -102,22 +214,90 @@ public class RootContractInputGenerator {
         return mapping;
     }
 
+    public String getRootContractInputName() {
+        return rootContractInputName;
+    }
+
+    /**
+     * Replaces the mappings to generate. The results of the mappings that did not change are reused by the next build.
+     */
+    public void setChildren(final List<? extends FieldToContractInputMapping> children) {
+        this.children = children;
+    }
+
     public ContractInput getRootContractInput() {
         return contractInput;
     }
 
+    /**
+     * The scripts of the mapping operations are formatted on first access only, as they are only needed when they are saved.
+     */
     public List<Operation> getMappingOperations() {
+        for (final Operation operation : mappingOperations) {
+            if (operation != null) {
+                format(operation.getRightOperand());
+            }
+        }
         return mappingOperations;
     }
 
+    /**
+     * The script of the initial value expression is formatted on first access only, as it is only needed when it is displayed or saved.
+     */
     public Expression getInitialValueExpression() {
+        format(initialValueExpression);
         return initialValueExpression;
     }
 
+    private void format(final Expression expression) {
+        if (expression != null && formattedExpressions.add(expression)) {
+            final String content = expression.getContent();
+            if (content != null && !content.isEmpty()) {
+                expression.setContent(MappingOperationScriptBuilder.format(content));
+            }
+        }
+    }
+
     /**
      * @return the allAttributesGenerated
      */
     public boolean isAllAttributesGenerated() {
         return allAttributesGenerated;
     }
+
+    /**
+     * Identifies a generated result by the business data, the mapping it is generated from and the generated mappings it depends on
+     */
+    private static class GenerationKey {
+
+        private final BusinessObjectData data;
+        private final boolean isOnPool;
+        private final FieldToContractInputMapping mapping;
+        private final List<FieldToContractInputMapping> generatedMappings;
+
+        GenerationKey(final BusinessObjectData data, final boolean isOnPool, final FieldToContractInputMapping mapping,
+                final List<FieldToContractInputMapping> generatedMappings) {
+            this.data = data;
+            this.isOnPool = isOnPool;
+            this.mapping = mapping;
+            this.generatedMappings = generatedMappings;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof GenerationKey)) {
+                return false;
+            }
+            final GenerationKey other = (GenerationKey) obj;
+            return data == other.data
+                    && isOnPool == other.isOnPool
+                    && mapping == other.mapping
+                    && generatedMappings.equals(other.generatedMappings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(data, isOnPool, mapping, generatedMappings);
+        }
+    }
 }
@@ -49,6 +49,7 @@ public class FieldToContractInputMappingExpressionBuilder {
 
     private final ExpressionEditorService expressionEditorService;
     private final RepositoryAccessor repositoryAccessor;
+    private List<ScriptVariable> availableDao;
 
     @Inject
     public FieldToContractInputMappingExpressionBuilder(final RepositoryAccessor repositoryAccessor, final ExpressionEditorService expressionEditorService) {
@@ -58,21 +59,32 @@ public class FieldToContractInputMappingExpressionBuilder {
 
     public Expression toExpression(final BusinessObjectData data, final FieldToContractInputMapping mapping, final boolean isOnPool)
             throws BusinessObjectInstantiationException, JavaModelException {
+        return toExpression(data, mapping, isOnPool, true);
+    }
+
+    /**
+     * @param formatScript when false, the script content is left unformatted and it is up to the caller to format it with
+     *        {@link MappingOperationScriptBuilder#format(String)} once it is displayed or saved
+     */
+    public Expression toExpression(final BusinessObjectData data, final FieldToContractInputMapping mapping, final boolean isOnPool,
+            final boolean formatScript)
+            throws BusinessObjectInstantiationException, JavaModelException {
         final ContractInput contractInput = mapping.getContractInput();
         final MappingOperationScriptBuilder mappingOperationScriptBuilder = mapping.getScriptBuilder(data);
-        final String script = getScriptText(isOnPool, mappingOperationScriptBuilder);
+        final String script = getScriptText(isOnPool, formatScript, mappingOperationScriptBuilder);
         final Expression scriptExpression = ExpressionHelper.createGroovyScriptExpression(script, mapping.getFieldType());
         addScriptDependencies(mappingOperationScriptBuilder, mapping.getContractInput(), data, scriptExpression, isOnPool);
         setGroovyScriptName(scriptExpression, data, contractInput, isOnPool);
         return scriptExpression;
     }
 
-    protected String getScriptText(final boolean isOnPool, final MappingOperationScriptBuilder mappingOperationScriptBuilder)
+    protected String getScriptText(final boolean isOnPool, final boolean formatScript,
+            final MappingOperationScriptBuilder mappingOperationScriptBuilder)
             throws BusinessObjectInstantiationException {
         if (isOnPool) {
-            return mappingOperationScriptBuilder.toInstanciationScript();
+            return formatScript ? mappingOperationScriptBuilder.toInstanciationScript() : mappingOperationScriptBuilder.toRawInstanciationScript();
         } else {
-            return mappingOperationScriptBuilder.toScript();
+            return formatScript ? mappingOperationScriptBuilder.toScript() : mappingOperationScriptBuilder.toRawScript();
         }
     }
 
@@ -102,7 +114,17 @@ public class FieldToContractInputMappingExpressionBuilder {
         groovyCompilationUnit.delete(true, Repository.NULL_PROGRESS_MONITOR);
     }
 
+    /**
+     * DAO variables only depend on the deployed business object model: resolve them once for all the scripts generated by this builder
+     */
     private List<ScriptVariable> availableDao() {
+        if (availableDao == null) {
+            availableDao = computeAvailableDao();
+        }
+        return availableDao;
+    }
+
+    private List<ScriptVariable> computeAvailableDao() {
         final List<ScriptVariable> scriptVariables = new ArrayList<ScriptVariable>();
         final IExpressionProvider daoExpressionProvider = expressionEditorService.getExpressionProvider(ExpressionConstants.DAO_TYPE);
         if (daoExpressionProvider != null) {
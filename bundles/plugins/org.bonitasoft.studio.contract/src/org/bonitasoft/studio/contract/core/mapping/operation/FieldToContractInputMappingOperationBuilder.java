@@ -45,11 +45,20 @@ public class FieldToContractInputMappingOperationBuilder {
 
     public Operation toOperation(final BusinessObjectData data, final FieldToContractInputMapping mapping)
             throws OperationCreationException {
+        return toOperation(data, mapping, true);
+    }
+
+    /**
+     * @param formatScript when false, the script of the right operand is left unformatted and it is up to the caller to format it with
+     *        {@link MappingOperationScriptBuilder#format(String)} once it is saved
+     */
+    public Operation toOperation(final BusinessObjectData data, final FieldToContractInputMapping mapping, final boolean formatScript)
+            throws OperationCreationException {
         final Operation operation = ExpressionFactory.eINSTANCE.createOperation();
         operation.setLeftOperand(ExpressionHelper.createVariableExpression(data));
         operation.setOperator(operator(mapping, data));
         try {
-            operation.setRightOperand(expressionBuilder.toExpression(data, mapping, false));
+            operation.setRightOperand(expressionBuilder.toExpression(data, mapping, false, formatScript));
         } catch (final BusinessObjectInstantiationException | JavaModelException e) {
             throw new OperationCreationException("Failed to create right operand expression", e);
         }
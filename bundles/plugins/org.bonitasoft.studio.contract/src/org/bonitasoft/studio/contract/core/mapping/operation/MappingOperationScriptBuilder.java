@@ -60,12 +60,30 @@ public class MappingOperationScriptBuilder {
         return toScript(false);
     }
 
+    /**
+     * Same as {@link #toInstanciationScript()} without running the Groovy formatter, see {@link #format(String)}
+     */
+    public String toRawInstanciationScript() throws BusinessObjectInstantiationException {
+        return toRawScript(true);
+    }
+
+    /**
+     * Same as {@link #toScript()} without running the Groovy formatter, see {@link #format(String)}
+     */
+    public String toRawScript() throws BusinessObjectInstantiationException {
+        return toRawScript(false);
+    }
+
     private String toScript(final boolean isOnPool) throws BusinessObjectInstantiationException {
+        return format(toRawScript(isOnPool));
+    }
+
+    private String toRawScript(final boolean isOnPool) throws BusinessObjectInstantiationException {
         mapping.getContractInput();
-        return format(buildPropertyInitializerTree(mapping, businessObjectInitializerFactory, data, isOnPool).getInitialValue());
+        return buildPropertyInitializerTree(mapping, businessObjectInitializerFactory, data, isOnPool).getInitialValue();
     }
 
-    private String format(final String initialValue) {
+    public static String format(final String initialValue) {
         final Document document = new Document(initialValue);
         try {
             new DefaultGroovyFormatter(document, DEFAULT_FORMATTER_PREFS, FORMAT_LEVEL).format().apply(document);
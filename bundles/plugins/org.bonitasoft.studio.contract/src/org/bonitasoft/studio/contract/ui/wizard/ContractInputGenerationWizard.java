@@ -18,6 +18,7 @@ import static com.google.common.base.Predicates.instanceOf;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,12 +57,15 @@ import org.bonitasoft.studio.model.process.Task;
 import org.bonitasoft.studio.pics.Pics;
 import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.common.command.CompoundCommand;
 import org.eclipse.emf.edit.command.AddCommand;
 import org.eclipse.emf.edit.command.SetCommand;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.dialogs.MessageDialogWithToggle;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.wizard.Wizard;
 import org.eclipse.ui.ISharedImages;
@@ -103,6 +107,7 @@ public class ContractInputGenerationWizard extends Wizard {
             final GroovySourceViewerFactory sourceViewerFactory) {
         setWindowTitle(Messages.contractInputGenerationTitle);
         setDefaultPageImageDescriptor(Pics.getWizban());
+        setNeedsProgressMonitor(true);
         this.contractContainer = contractContainer;
         generationOptions = new GenerationOptions();
         this.editingDomain = editingDomain;
@@ -191,14 +196,12 @@ public class ContractInputGenerationWizard extends Wizard {
         final int returnCode = openInfoDialog();
         if (returnCode == MessageDialogWithToggle.OK || returnCode == ContractInputGenerationInfoDialogFactory.NOT_OPENED) {
             try {
-                if (contractContainer instanceof Pool) {
-                    contractInputGenerator.buildForInstanciation(data);
-                } else {
-                    contractInputGenerator.build(data);
-                }
-            } catch (final OperationCreationException e) {
-                BonitaStudioLog.error("Failed to create Operations from contract", e);
-                new BonitaErrorDialog(getShell(), Messages.errorTitle, Messages.contractFromDataCreationErrorMessage, e).open();
+                getContainer().run(true, true, newGenerationRunnable(contractInputGenerator, data));
+            } catch (final InvocationTargetException e) {
+                BonitaStudioLog.error("Failed to create Operations from contract", e.getCause());
+                new BonitaErrorDialog(getShell(), Messages.errorTitle, Messages.contractFromDataCreationErrorMessage, e.getCause()).open();
+                return false;
+            } catch (final InterruptedException e) {
                 return false;
             }
             editingDomain.getCommandStack().execute(createCommand(contractInputGenerator, data));
@@ -211,6 +214,29 @@ public class ContractInputGenerationWizard extends Wizard {
         return false;
     }
 
+    private IRunnableWithProgress newGenerationRunnable(final RootContractInputGenerator contractInputGenerator, final BusinessObjectData data) {
+        final boolean isOnPool = contractContainer instanceof Pool;
+        return new IRunnableWithProgress() {
+
+            @Override
+            public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+                try {
+                    if (isOnPool) {
+                        contractInputGenerator.buildForInstanciation(data, monitor);
+                        //Format the generated script outside of the UI thread
+                        contractInputGenerator.getInitialValueExpression();
+                    } else {
+                        contractInputGenerator.build(data, monitor);
+                    }
+                } catch (final OperationCreationException e) {
+                    throw new InvocationTargetException(e);
+                } catch (final OperationCanceledException e) {
+                    throw new InterruptedException();
+                }
+            }
+        };
+    }
+
     private boolean performFinishForDocument() {
         final Document document = (Document) selectedDataObservable.getValue();
         final ContractInput input = ProcessFactory.eINSTANCE.createContractInput();
@@ -252,8 +278,10 @@ public class ContractInputGenerationWizard extends Wizard {
         if (generatedScriptPreviewPage != null && generatedScriptPreviewPage.getRootContractInputGenerator() != null) {
             contractInputGenerator = generatedScriptPreviewPage.getRootContractInputGenerator();
         } else {
+            //Snapshot of the mappings taken in the UI thread, the generation runs outside of it
             contractInputGenerator = new RootContractInputGenerator((String) rootNameObservable.getValue(),
-                    contractInputFromBusinessObjectWizardPage.getMappings(), repositoryAccessor, operationBuilder, expressionBuilder);
+                    new ArrayList<FieldToContractInputMapping>(contractInputFromBusinessObjectWizardPage.getMappings()), repositoryAccessor,
+                    operationBuilder, expressionBuilder);
         }
         return contractInputGenerator;
     }
@@ -14,8 +14,10 @@
  */
 package org.bonitasoft.studio.contract.ui.wizard;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.bonitasoft.studio.common.jface.BonitaErrorDialog;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
@@ -39,12 +41,17 @@ import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.databinding.EMFObservables;
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IEventConsumer;
 import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.jface.wizard.IWizardContainer;
 import org.eclipse.jface.wizard.WizardPage;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.VerifyEvent;
@@ -161,7 +168,9 @@ public class GeneratedScriptPreviewPage extends WizardPage {
     @Override
     public void setVisible(final boolean visible) {
         super.setVisible(visible);
-        generateExpressionScript();
+        if (visible) {
+            generateExpressionScript();
+        }
     }
 
     /**
@@ -173,27 +182,63 @@ public class GeneratedScriptPreviewPage extends WizardPage {
             rootContractInputGenerator = createRootContractInputGenerator();
             if (!fieldToContractInputMappingsObservable.isEmpty()) {
                 try {
-                    rootContractInputGenerator.buildForInstanciation((BusinessObjectData) selectedDataObservable.getValue());
+                    runWithProgress(newGenerationRunnable(rootContractInputGenerator, (BusinessObjectData) selectedDataObservable.getValue()));
                     generatedExpression = rootContractInputGenerator.getInitialValueExpression();
                     document.set(generatedExpression.getContent());
                     if (generatedExpression.getName() != null) {
                         scriptNameText.setText(generatedExpression.getName());
                     }
+                } catch (final InvocationTargetException e) {
+                    BonitaStudioLog.error("Failed to create Operations from contract", e.getCause());
+                    new BonitaErrorDialog(getShell(), Messages.errorTitle, Messages.contractFromDataCreationErrorMessage, e.getCause()).open();
+                } catch (final InterruptedException e) {
+                    //Generation canceled, keep the previous preview
+                }
+            }
+        }
+    }
+
+    private IRunnableWithProgress newGenerationRunnable(final RootContractInputGenerator generator, final BusinessObjectData data) {
+        return new IRunnableWithProgress() {
+
+            @Override
+            public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+                try {
+                    generator.buildForInstanciation(data, monitor);
+                    //Format the generated script outside of the UI thread
+                    generator.getInitialValueExpression();
                 } catch (final OperationCreationException e) {
-                    BonitaStudioLog.error("Failed to create Operations from contract", e);
-                    new BonitaErrorDialog(getShell(), Messages.errorTitle, Messages.contractFromDataCreationErrorMessage, e).open();
+                    throw new InvocationTargetException(e);
+                } catch (final OperationCanceledException e) {
+                    throw new InterruptedException();
                 }
             }
+        };
+    }
+
+    private void runWithProgress(final IRunnableWithProgress runnable) throws InvocationTargetException, InterruptedException {
+        final IWizardContainer container = getContainer();
+        if (container != null) {
+            container.run(true, true, runnable);
+        } else {
+            runnable.run(new NullProgressMonitor());
         }
     }
 
+    /**
+     * The generator is kept while the root input name does not change so that the scripts of unchanged mappings are not generated again
+     */
     protected RootContractInputGenerator createRootContractInputGenerator() {
         final List<FieldToContractInputMapping> mappings = new ArrayList<FieldToContractInputMapping>();
         for (final Object mapping : fieldToContractInputMappingsObservable) {
             mappings.add((FieldToContractInputMapping) mapping);
         }
-        return new RootContractInputGenerator((String) rootNameObservable.getValue(), mappings,
-                repositoryAccessor, operationBuilder, expressionBuilder);
+        final String rootName = (String) rootNameObservable.getValue();
+        if (rootContractInputGenerator != null && Objects.equals(rootContractInputGenerator.getRootContractInputName(), rootName)) {
+            rootContractInputGenerator.setChildren(mappings);
+            return rootContractInputGenerator;
+        }
+        return new RootContractInputGenerator(rootName, mappings, repositoryAccessor, operationBuilder, expressionBuilder);
     }
 
     public RootContractInputGenerator getRootContractInputGenerator() {
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarContentIndexTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void should_index_version_packages_and_classes() throws Exception {
+        final File jar = aJar("commons-lang-2.6.jar", "2.6", "org/apache/commons/lang/StringUtils.class",
+                "org/apache/commons/lang/StringUtils$1.class", "org/apache/commons/lang/text/StrBuilder.class");
+
+        final JarContent content = new JarContentIndex(new File(tmpFolder.getRoot(), "index")).getContent(jar);
+
+        assertThat(content.getVersion()).isEqualTo("2.6");
+        assertThat(content.getPackages()).containsOnly("org.apache.commons.lang", "org.apache.commons.lang.text");
+        assertThat(content.getClasses()).containsOnly("org.apache.commons.lang.StringUtils", "org.apache.commons.lang.text.StrBuilder");
+        assertThat(content.getSha1()).hasSize(40);
+    }
+
+    @Test
+    public void should_detect_classes_provided_by_two_different_jars() throws Exception {
+        final JarContentIndex index = new JarContentIndex(new File(tmpFolder.getRoot(), "index"));
+        final JarContent myLib = index.getContent(aJar("my-lib.jar", "1.0", "com/acme/Util.class", "com/acme/Other.class"));
+        final JarContent runtimeLib = index.getContent(aJar("acme-runtime.jar", "2.0", "com/acme/Util.class"));
+
+        assertThat(myLib.getConflictingClasses(runtimeLib)).containsOnly("com.acme.Util");
+        assertThat(myLib.getConflictingClasses(myLib)).isEmpty();
+    }
+
+    @Test
+    public void should_reuse_the_persisted_index() throws Exception {
+        final File indexFile = new File(tmpFolder.getRoot(), "index");
+        final File jar = aJar("my-lib.jar", "1.0", "com/acme/Util.class");
+        final JarContentIndex index = new JarContentIndex(indexFile);
+        final String sha1 = index.getContent(jar).getSha1();
+        index.save();
+
+        assertThat(indexFile).exists();
+        assertThat(new JarContentIndex(indexFile).getContent(jar).getSha1()).isEqualTo(sha1);
+    }
+
+    @Test
+    public void should_tell_whether_a_script_references_the_jar() throws Exception {
+        final JarContent content = new JarContentIndex(new File(tmpFolder.getRoot(), "index")).getContent(aJar("my-lib.jar", "1.0",
+                "com/acme/Util.class"));
+
+        assertThat(content.isReferencedBy("import com.acme.Util\nreturn Util.format(name)")).isTrue();
+        assertThat(content.isReferencedBy("return new com.acme.Util()")).isTrue();
+        assertThat(content.isReferencedBy("return name.toUpperCase()")).isFalse();
+        assertThat(content.isReferencedBy(null)).isFalse();
+    }
+
+    private File aJar(final String name, final String version, final String... entries) throws Exception {
+        final File jar = tmpFolder.newFile(name);
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, version);
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar), manifest);
+        try {
+            for (final String entry : entries) {
+                jos.putNextEntry(new JarEntry(entry));
+                jos.write(new byte[] { (byte) 0xCA, (byte) 0xFE });
+                jos.closeEntry();
+            }
+        } finally {
+            jos.close();
+        }
+        return jar;
+    }
+
+}
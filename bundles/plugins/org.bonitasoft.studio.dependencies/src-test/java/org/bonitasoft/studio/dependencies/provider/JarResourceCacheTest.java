@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+public class JarResourceCacheTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void should_share_the_content_of_an_unchanged_file() throws Exception {
+        final File jar = tmpFolder.newFile("lib.jar");
+        Files.write(new byte[] { 1, 2, 3 }, jar);
+        final JarResourceCache cache = new JarResourceCache();
+
+        final byte[] content = cache.getContent(jar);
+
+        assertThat(content).containsOnly((byte) 1, (byte) 2, (byte) 3);
+        assertThat(cache.getContent(jar)).isSameAs(content);
+    }
+
+    @Test
+    public void should_read_the_file_again_when_it_changed() throws Exception {
+        final File jar = tmpFolder.newFile("lib.jar");
+        Files.write(new byte[] { 1, 2, 3 }, jar);
+        final JarResourceCache cache = new JarResourceCache();
+        final byte[] content = cache.getContent(jar);
+
+        Files.write(new byte[] { 4, 5 }, jar);
+
+        assertThat(cache.getContent(jar)).isNotSameAs(content).containsOnly((byte) 4, (byte) 5);
+    }
+
+}
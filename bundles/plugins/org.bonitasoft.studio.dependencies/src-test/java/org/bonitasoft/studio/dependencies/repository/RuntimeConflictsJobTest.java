@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.bonitasoft.studio.dependencies.index.JarContentIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RuntimeConflictsJobTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File indexFile;
+    private File myLib;
+    private RuntimeConflictsJob job;
+
+    @Before
+    public void setUp() throws Exception {
+        indexFile = new File(tmpFolder.getRoot(), "index");
+        myLib = aJar("my-lib.jar", "com/acme/Util.class", "com/acme/Other.class");
+        final DependencyRepositoryStore store = mock(DependencyRepositoryStore.class);
+        doReturn(Arrays.asList(aJar("acme-runtime.jar", "com/acme/Util.class"))).when(store).getRuntimeJarFiles();
+        doReturn(new JarContentIndex(indexFile)).when(store).getJarContentIndex();
+        job = new RuntimeConflictsJob(store);
+    }
+
+    @Test
+    public void should_compute_the_conflicting_classes_in_background() throws Exception {
+        assertThat(job.getConflictingClasses(myLib)).isNull();
+
+        job.join();
+
+        assertThat(job.getConflictingClasses(myLib)).containsOnly("com.acme.Util");
+        assertThat(indexFile).exists();
+    }
+
+    @Test
+    public void should_compute_the_conflicting_classes_again_when_the_jar_changes() throws Exception {
+        job.getConflictingClasses(myLib);
+        job.join();
+
+        myLib.delete();
+        aJar("my-lib.jar", "com/acme/Other.class");
+        myLib.setLastModified(myLib.lastModified() + 1000);
+
+        assertThat(job.getConflictingClasses(myLib)).isNull();
+        job.join();
+        assertThat(job.getConflictingClasses(myLib)).isEmpty();
+    }
+
+    private File aJar(final String name, final String... entries) throws Exception {
+        final File jar = new File(tmpFolder.getRoot(), name);
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (final String entry : entries) {
+                jos.putNextEntry(new JarEntry(entry));
+                jos.write(new byte[] { (byte) 0xCA, (byte) 0xFE });
+                jos.closeEntry();
+            }
+        } finally {
+            jos.close();
+        }
+        return jar;
+    }
+
+}
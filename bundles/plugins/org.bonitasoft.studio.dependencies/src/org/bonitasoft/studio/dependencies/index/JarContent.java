@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.index;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * What a jar contains: its SHA-1, the version declared in its manifest, and the packages and top level classes it provides.
+ */
+public class JarContent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final String sha1;
+    private final String version;
+    private final Set<String> packages;
+    private final Set<String> classes;
+
+    public JarContent(final String name, final String sha1, final String version, final Set<String> packages, final Set<String> classes) {
+        this.name = name;
+        this.sha1 = sha1;
+        this.version = version;
+        this.packages = packages;
+        this.classes = classes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+    /**
+     * @return the Implementation-Version or Bundle-Version of the manifest, null when none is declared
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public Set<String> getPackages() {
+        return Collections.unmodifiableSet(packages);
+    }
+
+    public Set<String> getClasses() {
+        return Collections.unmodifiableSet(classes);
+    }
+
+    public boolean isSameContentAs(final JarContent other) {
+        return sha1.equals(other.sha1);
+    }
+
+    /**
+     * @return the classes provided by both jars, empty when both jars are the same file
+     */
+    public Set<String> getConflictingClasses(final JarContent other) {
+        if (isSameContentAs(other)) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new TreeSet<String>(classes);
+        result.retainAll(other.classes);
+        return result;
+    }
+
+    /**
+     * @return true if the given source text mentions one of the classes of this jar, either fully qualified or through an import of
+     *         its package
+     */
+    public boolean isReferencedBy(final String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        for (final String packageName : packages) {
+            if (!packageName.isEmpty() && text.contains(packageName + ".")) {
+                return true;
+            }
+        }
+        for (final String className : classes) {
+            if (className.indexOf('.') == -1 && text.contains(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
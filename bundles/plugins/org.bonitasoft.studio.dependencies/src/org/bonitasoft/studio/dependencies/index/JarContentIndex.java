@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.index;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.dependencies.DependenciesPlugin;
+
+/**
+ * Persistent index of the content of jar files. A jar is read again only when its size or modification date changed, and the index
+ * is kept in the state location of the plugin between sessions.
+ */
+public class JarContentIndex {
+
+    private static final String INDEX_FILE_NAME = "jar-content.index";
+
+    private static JarContentIndex INSTANCE;
+
+    private final File indexFile;
+    private Map<String, Entry> entries;
+    private boolean dirty;
+
+    public JarContentIndex(final File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public static synchronized JarContentIndex getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new JarContentIndex(DependenciesPlugin.getDefault().getStateLocation().append(INDEX_FILE_NAME).toFile());
+        }
+        return INSTANCE;
+    }
+
+    public synchronized JarContent getContent(final File jarFile) throws IOException {
+        final Map<String, Entry> entries = getEntries();
+        final String key = jarFile.getAbsolutePath();
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.lastModified == jarFile.lastModified() && entry.length == jarFile.length()) {
+            return entry.content;
+        }
+        final JarContent content = read(jarFile);
+        entries.put(key, new Entry(jarFile.lastModified(), jarFile.length(), content));
+        dirty = true;
+        return content;
+    }
+
+    /**
+     * Writes the index if jars were indexed since it was loaded.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        final File parent = indexFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        ObjectOutputStream oos = null;
+        try {
+            oos = new ObjectOutputStream(new FileOutputStream(indexFile));
+            oos.writeObject(new HashMap<String, Entry>(entries));
+            dirty = false;
+        } catch (final IOException e) {
+            BonitaStudioLog.error("Failed to save the jar content index", e);
+        } finally {
+            close(oos);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Entry> getEntries() {
+        if (entries == null) {
+            entries = new HashMap<String, Entry>();
+            if (indexFile.exists()) {
+                ObjectInputStream ois = null;
+                try {
+                    ois = new ObjectInputStream(new FileInputStream(indexFile));
+                    entries.putAll((Map<String, Entry>) ois.readObject());
+                } catch (final Exception e) {
+                    BonitaStudioLog.error("Failed to read the jar content index, jars will be indexed again", e);
+                    entries.clear();
+                } finally {
+                    close(ois);
+                }
+            }
+        }
+        return entries;
+    }
+
+    static JarContent read(final File jarFile) throws IOException {
+        final MessageDigest digest = newDigest();
+        final Set<String> packages = new HashSet<String>();
+        final Set<String> classes = new HashSet<String>();
+        String version = null;
+        final DigestInputStream dis = new DigestInputStream(new FileInputStream(jarFile), digest);
+        try {
+            final JarInputStream jis = new JarInputStream(dis);
+            final Manifest manifest = jis.getManifest();
+            if (manifest != null) {
+                final Attributes attributes = manifest.getMainAttributes();
+                version = attributes.getValue(Attributes.Name.IMPLEMENTATION_VERSION);
+                if (version == null) {
+                    version = attributes.getValue("Bundle-Version");
+                }
+            }
+            JarEntry entry;
+            while ((entry = jis.getNextJarEntry()) != null) {
+                final String entryName = entry.getName();
+                if (entryName.endsWith(".class") && entryName.indexOf('$') == -1 && !entryName.endsWith("module-info.class")) {
+                    final String className = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+                    classes.add(className);
+                    final int lastDot = className.lastIndexOf('.');
+                    packages.add(lastDot == -1 ? "" : className.substring(0, lastDot));
+                }
+            }
+            consume(dis);
+        } finally {
+            dis.close();
+        }
+        return new JarContent(jarFile.getName(), toHex(digest.digest()), version, packages, classes);
+    }
+
+    private static void consume(final InputStream is) throws IOException {
+        final byte[] buffer = new byte[8192];
+        while (is.read(buffer) != -1) {
+            //read the remaining bytes, like the central directory, to hash the whole file
+        }
+    }
+
+    private static void close(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                BonitaStudioLog.error(e);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long lastModified;
+        private final long length;
+        private final JarContent content;
+
+        Entry(final long lastModified, final long length, final JarContent content) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = content;
+        }
+    }
+
+}
@@ -27,21 +27,31 @@ import org.bonitasoft.studio.common.extension.BARResourcesProvider;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.common.repository.RepositoryManager;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.dependencies.DependenciesPlugin;
+import org.bonitasoft.studio.dependencies.index.JarContentIndex;
 import org.bonitasoft.studio.dependencies.repository.DependencyRepositoryStore;
 import org.bonitasoft.studio.model.configuration.Configuration;
 import org.bonitasoft.studio.model.configuration.ConfigurationPackage;
 import org.bonitasoft.studio.model.configuration.Fragment;
 import org.bonitasoft.studio.model.configuration.FragmentContainer;
+import org.bonitasoft.studio.model.expression.Expression;
+import org.bonitasoft.studio.model.expression.ExpressionPackage;
 import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.bonitasoft.studio.model.process.JavaObjectData;
+import org.bonitasoft.studio.model.process.ProcessPackage;
 import org.eclipse.emf.ecore.EObject;
 
-import com.google.common.io.Files;
-
 /**
  * @author Romain Bioteau
  */
 public class JarBarResourceProvider implements BARResourcesProvider {
 
+    /**
+     * When true, the jars added by the user in the other dependencies of the configuration are left out of the BAR when none of their
+     * classes is mentioned by the scripts, expressions or data types of the process.
+     */
+    public static final String PRUNE_UNUSED_JARS_PROPERTY = "bonita.bar.pruneUnusedJars";
+
     @Override
     public void addResourcesForConfiguration(final BusinessArchiveBuilder builder, final AbstractProcess process, final Configuration configuration,
             final Set<EObject> excludedObjects) {
@@ -50,6 +60,7 @@ public class JarBarResourceProvider implements BARResourcesProvider {
         }
         final List<BarResource> resources = new ArrayList<BarResource>();
         final DependencyRepositoryStore store = RepositoryManager.getInstance().getRepositoryStore(DependencyRepositoryStore.class);
+        final String processReferences = isPruneUnusedJars() ? collectReferences(process) : null;
         for (final FragmentContainer fc : configuration.getProcessDependencies()) {
             final List<Fragment> fragments = ModelHelper.getAllItemsOfType(fc, ConfigurationPackage.Literals.FRAGMENT);
             for (final Fragment fragment : fragments) {
@@ -59,7 +70,13 @@ public class JarBarResourceProvider implements BARResourcesProvider {
                         if (jarArtifact != null) {
                             final File file = jarArtifact.getResource().getLocation().toFile();
                             try {
-                                resources.add(new BarResource(file.getName(), Files.toByteArray(file)));
+                                if (processReferences != null && FragmentTypes.OTHER.equals(fc.getId())
+                                        && !getJarContentIndex().getContent(file).isReferencedBy(processReferences)) {
+                                    BonitaStudioLog.debug(file.getName() + " is not used by " + process.getName() + ", it is not added to the bar",
+                                            DependenciesPlugin.PLUGIN_ID);
+                                    continue;
+                                }
+                                resources.add(new BarResource(file.getName(), getJarResourceCache().getContent(file)));
                             } catch (final Exception e) {
                                 BonitaStudioLog.error(e);
                             }
@@ -69,9 +86,40 @@ public class JarBarResourceProvider implements BARResourcesProvider {
             }
         }
 
+        if (processReferences != null) {
+            getJarContentIndex().save();
+        }
         for (final BarResource barResource : resources) {
             builder.addClasspathResource(barResource);
         }
     }
 
+    /**
+     * @return the text of the expressions of the process and the class names of its Java data, where the classes of a used jar are
+     *         mentioned
+     */
+    protected String collectReferences(final AbstractProcess process) {
+        final StringBuilder sb = new StringBuilder();
+        for (final Expression expression : ModelHelper.<Expression> getAllItemsOfType(process, ExpressionPackage.Literals.EXPRESSION)) {
+            sb.append(expression.getContent()).append('\n');
+            sb.append(expression.getReturnType()).append('\n');
+        }
+        for (final JavaObjectData data : ModelHelper.<JavaObjectData> getAllItemsOfType(process, ProcessPackage.Literals.JAVA_OBJECT_DATA)) {
+            sb.append(data.getClassName()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    protected boolean isPruneUnusedJars() {
+        return Boolean.getBoolean(PRUNE_UNUSED_JARS_PROPERTY);
+    }
+
+    protected JarContentIndex getJarContentIndex() {
+        return JarContentIndex.getInstance();
+    }
+
+    protected JarResourceCache getJarResourceCache() {
+        return JarResourceCache.getInstance();
+    }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.io.Files;
+
+/**
+ * Shares the content of the jars added to business archives. All the pools built during a deployment, and the following deployments
+ * as long as a jar is unchanged, get the same byte array instead of reading the file again.
+ * Contents are softly referenced so that they are reclaimed under memory pressure rather than kept for the whole session.
+ */
+public class JarResourceCache {
+
+    private static final JarResourceCache INSTANCE = new JarResourceCache();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    JarResourceCache() {
+    }
+
+    public static JarResourceCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the content of the file, read again only when its size or modification date changed since the last call
+     */
+    public byte[] getContent(final File file) throws IOException {
+        final String key = file.getAbsolutePath();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.lastModified == lastModified && entry.length == length) {
+            final byte[] content = entry.content.get();
+            if (content != null) {
+                return content;
+            }
+        }
+        final byte[] content = Files.toByteArray(file);
+        entries.put(key, new Entry(lastModified, length, content));
+        return content;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+
+        private final long lastModified;
+        private final long length;
+        private final SoftReference<byte[]> content;
+
+        Entry(final long lastModified, final long length, final byte[] content) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = new SoftReference<byte[]>(content);
+        }
+    }
+
+}
@@ -16,6 +16,7 @@ package org.bonitasoft.studio.dependencies.repository;
 
 import java.io.InputStream;
 import java.util.Map;
+import java.util.Set;
 
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.common.repository.Repository;
@@ -152,4 +153,11 @@ public class DependencyFileStore extends AbstractFileStore {
         return false;
     }
 
+    /**
+     * @return the classes of this jar also provided by a different jar of the runtime container, or null if they are not computed yet
+     */
+    public Set<String> getConflictingRuntimeClasses() {
+        return getParentStore().getConflictingRuntimeClasses(getResource().getLocation().toFile());
+    }
+
 }
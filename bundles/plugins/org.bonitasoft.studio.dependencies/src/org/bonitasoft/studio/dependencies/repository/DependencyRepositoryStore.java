@@ -15,13 +15,16 @@
 package org.bonitasoft.studio.dependencies.repository;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.bonitasoft.studio.common.repository.store.AbstractRepositoryStore;
 import org.bonitasoft.studio.dependencies.DependenciesPlugin;
+import org.bonitasoft.studio.dependencies.index.JarContentIndex;
 import org.bonitasoft.studio.dependencies.i18n.Messages;
 import org.bonitasoft.studio.pics.Pics;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -44,6 +47,7 @@ public class DependencyRepositoryStore extends AbstractRepositoryStore<Dependenc
     }
 
     private Map<String, String> runtimeDependencies;
+    private RuntimeConflictsJob runtimeConflictsJob;
 
     /*
      * (non-Javadoc)
@@ -119,6 +123,51 @@ public class DependencyRepositoryStore extends AbstractRepositoryStore<Dependenc
         return runtimeDependencies;
     }
 
+    /**
+     * @return the jar files of the bundled Tomcat libraries and web applications
+     */
+    public List<File> getRuntimeJarFiles() {
+        final List<File> result = new ArrayList<File>();
+        final File tomcatRoot = getTomcatRootFile();
+        collectJarFiles(new File(tomcatRoot, "lib"), result);
+        collectJarFiles(new File(tomcatRoot, "webapps"), result);
+        return result;
+    }
+
+    private static void collectJarFiles(final File root, final List<File> result) {
+        final File[] listFiles = root.listFiles();
+        if (listFiles != null) {
+            for (final File f : listFiles) {
+                if (f.isDirectory()) {
+                    collectJarFiles(f, result);
+                } else if (f.getName().endsWith(".jar")) {
+                    result.add(f);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the content of the given jar with the runtime jars, whatever their file names. The comparison runs in the
+     * {@link RuntimeConflictsJob}: listen to its completion to refresh the results.
+     *
+     * @return the classes of the jar also provided by a different runtime jar, or null if they are not computed yet
+     */
+    public Set<String> getConflictingRuntimeClasses(final File jarFile) {
+        return getRuntimeConflictsJob().getConflictingClasses(jarFile);
+    }
+
+    public synchronized RuntimeConflictsJob getRuntimeConflictsJob() {
+        if (runtimeConflictsJob == null) {
+            runtimeConflictsJob = new RuntimeConflictsJob(this);
+        }
+        return runtimeConflictsJob;
+    }
+
+    protected JarContentIndex getJarContentIndex() {
+        return JarContentIndex.getInstance();
+    }
+
     protected String getLibVersion(String jarName) {
         if (jarName.endsWith(".jar")) {
             jarName = jarName.replace(".jar", "");
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.dependencies.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.dependencies.index.JarContent;
+import org.bonitasoft.studio.dependencies.index.JarContentIndex;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Computes in the background the classes of the dependencies also provided by a different jar of the runtime container, so that
+ * labels can be decorated without reading any jar in the UI thread.
+ * The classes of the runtime jars are indexed once per session, and the result of a dependency is kept until its size or modification
+ * date changes. The {@link JarContentIndex} is saved once at the end of each run.
+ */
+public class RuntimeConflictsJob extends Job {
+
+    private final DependencyRepositoryStore store;
+    private final Map<String, Conflicts> conflicts = new HashMap<String, Conflicts>();
+    private final Set<File> pendingJars = new LinkedHashSet<File>();
+    private Map<String, Set<String>> runtimeClasses;
+
+    public RuntimeConflictsJob(final DependencyRepositoryStore store) {
+        super("Runtime class conflicts");
+        setPriority(Job.DECORATE);
+        setSystem(true);
+        setUser(false);
+        this.store = store;
+    }
+
+    /**
+     * @return the conflicting classes of the jar if they are known for its current size and modification date, null otherwise: they
+     *         are then computed by this job, and listeners are notified when it is done
+     */
+    public synchronized Set<String> getConflictingClasses(final File jarFile) {
+        final Conflicts entry = conflicts.get(jarFile.getAbsolutePath());
+        if (entry != null && entry.isUpToDate(jarFile)) {
+            return entry.classes;
+        }
+        if (pendingJars.add(jarFile)) {
+            schedule();
+        }
+        return null;
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        final List<File> jars;
+        synchronized (this) {
+            jars = new ArrayList<File>(pendingJars);
+        }
+        monitor.beginTask("Computing runtime class conflicts...", jars.size() + 1);
+        final JarContentIndex index = store.getJarContentIndex();
+        try {
+            final Map<String, Set<String>> runtimeClasses = getRuntimeClasses(index);
+            monitor.worked(1);
+            for (final File jar : jars) {
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                final Set<String> classes = computeConflictingClasses(index, runtimeClasses, jar);
+                synchronized (this) {
+                    conflicts.put(jar.getAbsolutePath(), new Conflicts(jar, classes));
+                    pendingJars.remove(jar);
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            index.save();
+            monitor.done();
+        }
+        return Status.OK_STATUS;
+    }
+
+    private Set<String> computeConflictingClasses(final JarContentIndex index, final Map<String, Set<String>> runtimeClasses, final File jar) {
+        final Set<String> result = new TreeSet<String>();
+        try {
+            final JarContent content = index.getContent(jar);
+            for (final String className : content.getClasses()) {
+                final Set<String> runtimeJarHashes = runtimeClasses.get(className);
+                if (runtimeJarHashes != null && (runtimeJarHashes.size() > 1 || !runtimeJarHashes.contains(content.getSha1()))) {
+                    result.add(className);
+                }
+            }
+        } catch (final IOException e) {
+            BonitaStudioLog.error("Failed to index " + jar.getName(), e);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * @return the SHA-1 of the runtime jars providing each class
+     */
+    private Map<String, Set<String>> getRuntimeClasses(final JarContentIndex index) {
+        if (runtimeClasses == null) {
+            final Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+            for (final File runtimeJar : store.getRuntimeJarFiles()) {
+                try {
+                    final JarContent content = index.getContent(runtimeJar);
+                    for (final String className : content.getClasses()) {
+                        Set<String> hashes = result.get(className);
+                        if (hashes == null) {
+                            hashes = new HashSet<String>();
+                            result.put(className, hashes);
+                        }
+                        hashes.add(content.getSha1());
+                    }
+                } catch (final IOException e) {
+                    BonitaStudioLog.error("Failed to index " + runtimeJar.getName(), e);
+                }
+            }
+            runtimeClasses = result;
+        }
+        return runtimeClasses;
+    }
+
+    private static class Conflicts {
+
+        private final long lastModified;
+        private final long length;
+        private final Set<String> classes;
+
+        Conflicts(final File jarFile, final Set<String> classes) {
+            lastModified = jarFile.lastModified();
+            length = jarFile.length();
+            this.classes = classes;
+        }
+
+        boolean isUpToDate(final File jarFile) {
+            return lastModified == jarFile.lastModified() && length == jarFile.length();
+        }
+    }
+
+}
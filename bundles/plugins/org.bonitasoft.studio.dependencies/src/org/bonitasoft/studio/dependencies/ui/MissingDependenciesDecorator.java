@@ -16,20 +16,28 @@
  */
 package org.bonitasoft.studio.dependencies.ui;
 
+import java.util.Set;
+
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
 import org.bonitasoft.studio.dependencies.i18n.Messages;
 import org.bonitasoft.studio.dependencies.repository.DependencyFileStore;
 import org.bonitasoft.studio.dependencies.repository.DependencyRepositoryStore;
 import org.bonitasoft.studio.model.configuration.Fragment;
 import org.bonitasoft.studio.model.configuration.FragmentContainer;
+import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.fieldassist.FieldDecorationRegistry;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.DecorationOverlayIcon;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.ILabelDecorator;
 import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
 
 
 /**
@@ -43,9 +51,29 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 	private DependencyRepositoryStore store;
 	private Image warningDecoratorImage = FieldDecorationRegistry.getDefault().getFieldDecoration(FieldDecorationRegistry.DEC_WARNING).getImage();
 	private Image errorDecoratorImage = FieldDecorationRegistry.getDefault().getFieldDecoration(FieldDecorationRegistry.DEC_ERROR).getImage();
+	private final ListenerList listeners = new ListenerList();
+	private final IJobChangeListener conflictsListener = new JobChangeAdapter() {
+
+		@Override
+		public void done(IJobChangeEvent event) {
+			final Display display = Display.getDefault();
+			if (!display.isDisposed()) {
+				display.asyncExec(new Runnable() {
+
+					@Override
+					public void run() {
+						fireLabelProviderChanged();
+					}
+				});
+			}
+		}
+	};
 	
 	public MissingDependenciesDecorator(DependencyRepositoryStore store){
 		this.store = store;
+		if(store != null){
+			store.getRuntimeConflictsJob().addJobChangeListener(conflictsListener);
+		}
 	}
 	
 	public MissingDependenciesDecorator(){
@@ -56,8 +84,8 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 	 * @see org.eclipse.jface.viewers.IBaseLabelProvider#addListener(org.eclipse.jface.viewers.ILabelProviderListener)
 	 */
 	@Override
-	public void addListener(ILabelProviderListener arg0) {
-
+	public void addListener(ILabelProviderListener listener) {
+		listeners.add(listener);
 	}
 
 	/* (non-Javadoc)
@@ -65,6 +93,9 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 	 */
 	@Override
 	public void dispose() {
+		if(store != null){
+			store.getRuntimeConflictsJob().removeJobChangeListener(conflictsListener);
+		}
 		if(errorIcon != null){
 			errorIcon.dispose() ;
 		}
@@ -85,9 +116,18 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 	 * @see org.eclipse.jface.viewers.IBaseLabelProvider#removeListener(org.eclipse.jface.viewers.ILabelProviderListener)
 	 */
 	@Override
-	public void removeListener(ILabelProviderListener arg0) {
-
+	public void removeListener(ILabelProviderListener listener) {
+		listeners.remove(listener);
+	}
 
+	/**
+	 * Refreshes the labels once the runtime class conflicts are computed
+	 */
+	protected void fireLabelProviderChanged() {
+		final LabelProviderChangedEvent event = new LabelProviderChangedEvent(this);
+		for (Object listener : listeners.getListeners()) {
+			((ILabelProviderListener) listener).labelProviderChanged(event);
+		}
 	}
 
 	/* (non-Javadoc)
@@ -105,6 +145,8 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 					return getWarningDecoratedImage(image);
 				}else if(isInRuntimeContainerWithAnotherVersion(lib,fragment)){
 					return getWarningDecoratedImage(image);
+				}else if(hasConflictingClassesInRuntimeContainer(lib,fragment)){
+					return getWarningDecoratedImage(image);
 				}else{
 					return image;
 				}
@@ -147,6 +189,15 @@ public class MissingDependenciesDecorator implements ILabelDecorator {
 		return false;
 	}
 
+	protected boolean hasConflictingClassesInRuntimeContainer(String lib, Fragment fragment) {
+		DependencyFileStore fileStore = store.getChild(lib);
+		if(fileStore != null){
+			Set<String> conflictingClasses = fileStore.getConflictingRuntimeClasses();
+			return conflictingClasses != null && !conflictingClasses.isEmpty();
+		}
+		return false;
+	}
+
 	protected boolean isInRuntimeContainer(String lib, Fragment fragment) {
 		DependencyFileStore fileStore = store.getChild(lib);
 		if(fileStore != null){
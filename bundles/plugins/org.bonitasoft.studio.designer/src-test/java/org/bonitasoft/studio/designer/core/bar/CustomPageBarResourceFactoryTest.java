@@ -15,26 +15,46 @@
 package org.bonitasoft.studio.designer.core.bar;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.notNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
 
 import org.bonitasoft.engine.bpm.bar.BarResource;
+import org.bonitasoft.studio.common.repository.RepositoryAccessor;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
 import org.bonitasoft.studio.designer.core.PageDesignerURLFactory;
 import org.bonitasoft.studio.designer.core.bar.CustomPageBarResourceFactory;
+import org.bonitasoft.studio.designer.core.bos.PageDependencyIndex;
+import org.bonitasoft.studio.designer.core.repository.WebPageFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebPageRepositoryStore;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
+import com.google.common.base.Charsets;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 
 /**
  * @author Romain Bioteau
@@ -42,9 +62,21 @@ import com.google.common.io.ByteStreams;
 @RunWith(MockitoJUnitRunner.class)
 public class CustomPageBarResourceFactoryTest {
 
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
     @Mock
     private PageDesignerURLFactory pageDesignerURLFactory;
 
+    @Mock
+    private RepositoryAccessor repositoryAccessor;
+
+    @Mock
+    private PageDependencyIndex pageDependencyIndex;
+
+    @Mock
+    private WebPageRepositoryStore pageRepositoryStore;
+
     @Spy
     @InjectMocks
     private CustomPageBarResourceFactory customPageBarResourceFactory;
@@ -62,6 +94,8 @@ public class CustomPageBarResourceFactoryTest {
         doReturn(new URL("http://localhost:8080/page-designer/export/")).when(pageDesignerURLFactory).exportPage(notNull(String.class));
         is = new ByteArrayInputStream(ByteStreams.toByteArray(this.getClass().getResourceAsStream("/page-Step1.zip")));
         doReturn(is).when(customPageBarResourceFactory).get(notNull(String.class));
+        doReturn(pageRepositoryStore).when(repositoryAccessor).getRepositoryStore(WebPageRepositoryStore.class);
+        doReturn(new CustomPageCache()).when(customPageBarResourceFactory).getCache();
     }
 
     @After
@@ -81,4 +115,32 @@ public class CustomPageBarResourceFactoryTest {
         assertThat(taskFormCustomPage.getName()).isEqualTo("customPages/Pool1--1.0--StepForm.zip");
         assertThat(processFormCustomPage.getContent()).isNotEmpty();
     }
+
+    @Test
+    public void should_export_a_page_again_only_when_its_files_changed() throws Exception {
+        final File pageFolder = tmpFolder.newFolder("cached-page-id");
+        final File pageJSON = new File(pageFolder, "cached-page-id.json");
+        Files.write("{\"rows\":[]}", pageJSON, Charsets.UTF_8);
+        final WebPageFileStore page = mock(WebPageFileStore.class, RETURNS_DEEP_STUBS);
+        when(page.getResource().getLocation().toFile()).thenReturn(pageFolder);
+        when(pageRepositoryStore.getChild("cached-page-id")).thenReturn(page);
+        when(pageDependencyIndex.getRelatedFileStores(page)).thenReturn(Collections.<IRepositoryFileStore> emptySet());
+        doAnswer(new Answer<InputStream>() {
+
+            @Override
+            public InputStream answer(final InvocationOnMock invocation) throws Throwable {
+                return new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+            }
+        }).when(customPageBarResourceFactory).get(anyString());
+
+        customPageBarResourceFactory.newBarResource("Pool1--1.0--processForm", "cached-page-id");
+        final BarResource cachedPage = customPageBarResourceFactory.newBarResource("Pool1--1.0--processForm", "cached-page-id");
+        verify(customPageBarResourceFactory, times(1)).get(anyString());
+
+        Files.write("{\"rows\":[[]]}", pageJSON, Charsets.UTF_8);
+        customPageBarResourceFactory.newBarResource("Pool1--1.0--processForm", "cached-page-id");
+
+        verify(customPageBarResourceFactory, times(2)).get(anyString());
+        assertThat(cachedPage.getContent()).isEqualTo(new byte[] { 1, 2, 3 });
+    }
 }
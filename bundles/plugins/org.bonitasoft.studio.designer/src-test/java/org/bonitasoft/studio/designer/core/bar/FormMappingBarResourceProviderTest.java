@@ -23,6 +23,7 @@ import static org.bonitasoft.studio.model.process.builders.PoolBuilder.aPool;
 import static org.bonitasoft.studio.model.process.builders.TaskBuilder.aTask;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -140,6 +141,33 @@ public class FormMappingBarResourceProviderTest {
         verify(builder).addExternalResource(taskFormCustomPage);
     }
 
+    @Test
+    public void should_add_all_form_custom_pages_exported_concurrently() throws Exception {
+        //Given
+        doReturn(processFormCustomPage).when(customPageBarResourceFactory).newBarResource("custompage_ProcessForm", "process-form-id");
+        doReturn(taskFormCustomPage).when(customPageBarResourceFactory).newBarResource("custompage_StepForm", "step-form-id");
+
+        //When
+        formMappingBarResourceProvider.addResourcesForConfiguration(builder, aPoolAndTaskWithInternalFormMappings(), aConfiguration()
+                .build(),
+                Collections.<EObject> emptySet());
+
+        //Then
+        verify(builder).addExternalResource(processFormCustomPage);
+        verify(builder).addExternalResource(taskFormCustomPage);
+    }
+
+    @Test
+    public void should_throw_the_BarResourceCreationException_of_a_concurrent_export() throws Exception {
+        doReturn(processFormCustomPage).when(customPageBarResourceFactory).newBarResource("custompage_ProcessForm", "process-form-id");
+        doThrow(new BarResourceCreationException("export failed", null)).when(customPageBarResourceFactory).newBarResource("custompage_StepForm",
+                "step-form-id");
+
+        thrown.expect(BarResourceCreationException.class);
+
+        formMappingBarResourceProvider.newFormMappingModel(builder, aPoolAndTaskWithInternalFormMappings());
+    }
+
     @Test
     public void should_not_add_form_custom_page_if_target_form_is_empty() throws Exception {
         //When
@@ -183,6 +211,17 @@ public class FormMappingBarResourceProviderTest {
                 .build();
     }
 
+    private Pool aPoolAndTaskWithInternalFormMappings() {
+        return aPool()
+                .withName("Pool1")
+                .withVersion("1.0")
+                .havingFormMapping(aFormMapping().havingTargetForm(anExpression().withName("ProcessForm").withContent("process-form-id")))
+                .havingElements(
+                        aTask().withName("Step1").havingFormMapping(
+                                aFormMapping().havingTargetForm(anExpression().withName("StepForm").withContent("step-form-id"))))
+                .build();
+    }
+
     private Pool aPoolWithEmptyFormMappings() {
         return aPool()
                 .withName("Pool1")
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.designer.core.bos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Paths;
+
+import org.bonitasoft.studio.common.repository.RepositoryAccessor;
+import org.bonitasoft.studio.designer.core.bos.PageDependencyIndex.PageDependencies;
+import org.bonitasoft.studio.designer.core.repository.InFolderJSONFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebFragmentFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebFragmentRepositoryStore;
+import org.bonitasoft.studio.designer.core.repository.WebWidgetFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebWidgetRepositoryStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.Path;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class PageDependencyIndexTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private RepositoryAccessor repositoryAccessor;
+    private PageDependencyIndex index;
+    private File pageFile;
+    private InFolderJSONFileStore page;
+
+    @Before
+    public void setUp() throws Exception {
+        repositoryAccessor = mock(RepositoryAccessor.class);
+        index = new PageDependencyIndex(repositoryAccessor, mock(IWorkspace.class));
+        pageFile = Paths.get(PageDependencyIndexTest.class.getResource("/pageWithDependencies.json").toURI()).toFile();
+        page = aJSONFileStore(InFolderJSONFileStore.class, pageFile);
+    }
+
+    @Test
+    public void should_find_widgets_and_fragments_in_nested_containers() throws Exception {
+        final PageDependencies dependencies = index.getDependencies(page);
+
+        assertThat(dependencies.getWidgets()).containsOnly("pbInput", "customRating");
+        assertThat(dependencies.getFragments()).containsOnly("addressFragment");
+    }
+
+    @Test
+    public void should_find_fragments_used_by_fragments_and_their_custom_widgets() throws Exception {
+        final WebFragmentFileStore addressFragment = aJSONFileStore(WebFragmentFileStore.class,
+                write("addressFragment.json",
+                        "{\"type\":\"fragment\",\"id\":\"addressFragment\",\"rows\":[[{\"type\":\"fragment\",\"id\":\"countryFragment\"}]]}"));
+        final WebFragmentFileStore countryFragment = aJSONFileStore(WebFragmentFileStore.class,
+                write("countryFragment.json", "{\"rows\":[[{\"type\":\"component\",\"id\":\"customMap\"}]]}"));
+        final WebFragmentRepositoryStore fragmentStore = mock(WebFragmentRepositoryStore.class);
+        doReturn(fragmentStore).when(repositoryAccessor).getRepositoryStore(WebFragmentRepositoryStore.class);
+        when(fragmentStore.getChild("addressFragment")).thenReturn(addressFragment);
+        when(fragmentStore.getChild("countryFragment")).thenReturn(countryFragment);
+        final WebWidgetFileStore customRating = aWidget(true);
+        final WebWidgetFileStore customMap = aWidget(true);
+        final WebWidgetRepositoryStore widgetStore = mock(WebWidgetRepositoryStore.class);
+        doReturn(widgetStore).when(repositoryAccessor).getRepositoryStore(WebWidgetRepositoryStore.class);
+        when(widgetStore.getChild("pbInput")).thenReturn(aWidget(false));
+        when(widgetStore.getChild("customRating")).thenReturn(customRating);
+        when(widgetStore.getChild("customMap")).thenReturn(customMap);
+
+        assertThat(index.getRelatedFileStores(page)).containsOnly(addressFragment, countryFragment, customRating, customMap);
+    }
+
+    @Test
+    public void should_not_read_an_unchanged_page_twice() throws Exception {
+        index.getDependencies(page);
+        index.getDependencies(page);
+
+        verify(page, times(1)).getContent();
+    }
+
+    @Test
+    public void should_read_a_page_again_once_its_json_file_changed_in_workspace() throws Exception {
+        index.getDependencies(page);
+
+        index.resourceChanged(anEventChanging(pageFile));
+        index.getDependencies(page);
+
+        assertThat(index.size()).isEqualTo(1);
+        verify(page, times(2)).getContent();
+    }
+
+    @Test
+    public void should_keep_pages_not_changed_in_workspace() throws Exception {
+        index.getDependencies(page);
+
+        index.resourceChanged(anEventChanging(new File(pageFile.getParentFile(), "otherPage.json")));
+
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private <T extends InFolderJSONFileStore> T aJSONFileStore(final Class<T> type, final File file) throws Exception {
+        final T fileStore = mock(type);
+        final IFile jsonFile = mock(IFile.class, RETURNS_DEEP_STUBS);
+        when(jsonFile.getLocation().toFile()).thenReturn(file);
+        when(fileStore.getJSONIFile()).thenReturn(jsonFile);
+        when(fileStore.getContent()).thenReturn(new JSONObject(Files.toString(file, Charsets.UTF_8)));
+        return fileStore;
+    }
+
+    private WebWidgetFileStore aWidget(final boolean custom) {
+        final WebWidgetFileStore widget = mock(WebWidgetFileStore.class);
+        when(widget.canBeExported()).thenReturn(custom);
+        return widget;
+    }
+
+    private File write(final String fileName, final String content) throws Exception {
+        final File file = tmpFolder.newFile(fileName);
+        Files.write(content, file, Charsets.UTF_8);
+        return file;
+    }
+
+    private IResourceChangeEvent anEventChanging(final File file) throws Exception {
+        final IResource resource = mock(IResource.class);
+        when(resource.getType()).thenReturn(IResource.FILE);
+        when(resource.getFileExtension()).thenReturn("json");
+        when(resource.getLocation()).thenReturn(Path.fromOSString(file.getAbsolutePath()));
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getResource()).thenReturn(resource);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                ((IResourceDeltaVisitor) invocation.getArguments()[0]).visit(delta);
+                return null;
+            }
+        }).when(delta).accept(any(IResourceDeltaVisitor.class));
+        final IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        when(event.getDelta()).thenReturn(delta);
+        return event;
+    }
+
+}
@@ -25,12 +25,14 @@ import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Set;
 
 import org.bonitasoft.studio.common.repository.RepositoryAccessor;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
 import org.bonitasoft.studio.designer.core.repository.WebFragmentFileStore;
 import org.bonitasoft.studio.designer.core.repository.WebFragmentRepositoryStore;
 import org.bonitasoft.studio.designer.core.repository.WebPageFileStore;
@@ -67,6 +69,9 @@ public class WebFormBOSArchiveFileStoreProviderTest {
     @Mock
     private WebFragmentFileStore fragmentFileStore;
 
+    @Mock
+    private PageDependencyIndex pageDependencyIndex;
+
     /**
      * @throws java.lang.Exception
      */
@@ -87,7 +92,11 @@ public class WebFormBOSArchiveFileStoreProviderTest {
         when(widgetRepositoryStore.getChild("customTestWidget")).thenReturn(customWidgetFileStore);
         when(customWidgetFileStore.canBeExported()).thenReturn(true);
 
-        webFormArtifactsFileStoreProvider = spy(new WebFormBOSArchiveFileStoreProvider(repositoryAccessor, null));
+        when(pageDependencyIndex.getRelatedFileStores(processFormFileStore)).thenReturn(
+                newHashSet((IRepositoryFileStore) customWidgetFileStore));
+        when(pageDependencyIndex.getRelatedFileStores(taskFormFileStore)).thenReturn(newHashSet((IRepositoryFileStore) fragmentFileStore));
+
+        webFormArtifactsFileStoreProvider = spy(new WebFormBOSArchiveFileStoreProvider(repositoryAccessor, null, pageDependencyIndex));
         doReturn(newHashSet("resources/widgets/customTestWidget/customTestWidget.json")).when(webFormArtifactsFileStoreProvider)
         .findFormRelatedEntries(processFormFileStore);
         doReturn(newHashSet("resources/fragments/fragmentDep/fragmentDep.json")).when(webFormArtifactsFileStoreProvider)
@@ -103,6 +112,16 @@ public class WebFormBOSArchiveFileStoreProviderTest {
         assertThat(fileStores).contains(processFormFileStore, taskFormFileStore, customWidgetFileStore, fragmentFileStore);
     }
 
+    @Test
+    public void should_export_page_from_ui_designer_when_its_dependencies_cannot_be_read() throws Exception {
+        when(pageDependencyIndex.getRelatedFileStores(processFormFileStore)).thenThrow(new ReadFileStoreException("invalid json"));
+
+        final Set<IRepositoryFileStore> fileStores = webFormArtifactsFileStoreProvider.getRelatedFileStore(processFormFileStore);
+
+        assertThat(fileStores).containsOnly(customWidgetFileStore);
+        verify(webFormArtifactsFileStoreProvider).findFormRelatedEntries(processFormFileStore);
+    }
+
     @Test
     public void should_not_contains_fileStore_if_file_does_not_exists() throws Exception {
         final Set<IRepositoryFileStore> fileStores = webFormArtifactsFileStoreProvider.getFileStoreForConfiguration(aProcessWithInvalidFormMappings(),
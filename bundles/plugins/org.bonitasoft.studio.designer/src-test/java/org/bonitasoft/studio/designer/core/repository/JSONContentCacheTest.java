@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.designer.core.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+
+import org.eclipse.core.resources.IFile;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class JSONContentCacheTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private JSONContentCache cache;
+    private File file;
+    private IFile jsonFile;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new JSONContentCache();
+        file = tmpFolder.newFile("page.json");
+        Files.write("{\"name\":\"Step1\"}", file, Charsets.UTF_8);
+        jsonFile = mock(IFile.class, RETURNS_DEEP_STUBS);
+        when(jsonFile.getLocation().toFile()).thenReturn(file);
+        when(jsonFile.getModificationStamp()).thenReturn(1L);
+    }
+
+    @Test
+    public void should_parse_an_unchanged_file_once() throws Exception {
+        final JSONObject content = cache.getContent(jsonFile);
+
+        assertThat(cache.getContent(jsonFile)).isSameAs(content);
+        assertThat(content.getString("name")).isEqualTo("Step1");
+    }
+
+    @Test
+    public void should_parse_a_file_again_when_it_changed_on_disk() throws Exception {
+        cache.getContent(jsonFile);
+
+        Files.write("{\"name\":\"Step1 renamed\"}", file, Charsets.UTF_8);
+
+        assertThat(cache.getContent(jsonFile).getString("name")).isEqualTo("Step1 renamed");
+    }
+
+    @Test
+    public void should_parse_a_file_again_when_its_modification_stamp_changed() throws Exception {
+        final JSONObject content = cache.getContent(jsonFile);
+
+        when(jsonFile.getModificationStamp()).thenReturn(2L);
+
+        assertThat(cache.getContent(jsonFile)).isNotSameAs(content);
+    }
+
+    @Test
+    public void should_parse_all_files_again_once_cleared() throws Exception {
+        final JSONObject content = cache.getContent(jsonFile);
+
+        cache.clear();
+
+        assertThat(cache.getContent(jsonFile)).isNotSameAs(content);
+    }
+
+}
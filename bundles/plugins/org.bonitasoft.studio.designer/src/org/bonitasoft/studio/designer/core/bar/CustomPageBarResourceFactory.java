@@ -16,14 +16,25 @@ package org.bonitasoft.studio.designer.core.bar;
 
 import static com.google.common.io.ByteStreams.toByteArray;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Inject;
 
 import org.bonitasoft.engine.bpm.bar.BarResource;
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.repository.RepositoryAccessor;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
+import org.bonitasoft.studio.designer.UIDesignerPlugin;
 import org.bonitasoft.studio.designer.core.PageDesignerURLFactory;
+import org.bonitasoft.studio.designer.core.bos.PageDependencyIndex;
+import org.bonitasoft.studio.designer.core.repository.WebPageFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebPageRepositoryStore;
 import org.eclipse.e4.core.di.annotations.Creatable;
 import org.restlet.representation.Representation;
 import org.restlet.resource.ClientResource;
@@ -39,20 +50,70 @@ public class CustomPageBarResourceFactory {
 
     private final PageDesignerURLFactory pageDesignerURLFactory;
 
+    private final RepositoryAccessor repositoryAccessor;
+
+    private final PageDependencyIndex pageDependencyIndex;
+
     @Inject
-    public CustomPageBarResourceFactory(final PageDesignerURLFactory pageDesignerURLFactory) {
+    public CustomPageBarResourceFactory(final PageDesignerURLFactory pageDesignerURLFactory, final RepositoryAccessor repositoryAccessor,
+            final PageDependencyIndex pageDependencyIndex) {
         this.pageDesignerURLFactory = pageDesignerURLFactory;
+        this.repositoryAccessor = repositoryAccessor;
+        this.pageDependencyIndex = pageDependencyIndex;
     }
 
+    /**
+     * Can be called concurrently, an unchanged page is not exported again.
+     */
     public BarResource newBarResource(final String targetFormCustomPageId, final String formPageTechnicalUUID) throws BarResourceCreationException {
         try {
             return new BarResource(BAR_CUSTOMPAGES_LOCATION + "/" + targetFormCustomPageId + ".zip",
-                    export(formPageTechnicalUUID));
+                    content(formPageTechnicalUUID));
         } catch (ResourceException | IOException e) {
             throw new BarResourceCreationException(String.format("Failed to create a BarResource for form %s", targetFormCustomPageId), e);
         }
     }
 
+    private byte[] content(final String formPageTechnicalUUID) throws IOException {
+        final String key = cacheKey(formPageTechnicalUUID);
+        if (key != null) {
+            final byte[] content = getCache().get(key);
+            if (content != null) {
+                return content;
+            }
+        }
+        final byte[] content = export(formPageTechnicalUUID);
+        if (key != null) {
+            getCache().put(key, content);
+        }
+        return content;
+    }
+
+    /**
+     * @return null when the files of the page or of its dependencies cannot be read, the page is then exported without cache
+     */
+    protected String cacheKey(final String formPageTechnicalUUID) {
+        final WebPageFileStore page = repositoryAccessor.getRepositoryStore(WebPageRepositoryStore.class).getChild(formPageTechnicalUUID);
+        if (page == null) {
+            return null;
+        }
+        try {
+            final List<File> dependencyFolders = new ArrayList<File>();
+            for (final IRepositoryFileStore fileStore : pageDependencyIndex.getRelatedFileStores(page)) {
+                dependencyFolders.add(fileStore.getResource().getLocation().toFile());
+            }
+            return getCache().keyOf(page.getResource().getLocation().toFile(), dependencyFolders);
+        } catch (ReadFileStoreException | IOException e) {
+            BonitaStudioLog.debug(String.format("Page %s is exported without cache: %s", formPageTechnicalUUID, e.getMessage()),
+                    UIDesignerPlugin.PLUGIN_ID);
+            return null;
+        }
+    }
+
+    protected CustomPageCache getCache() {
+        return CustomPageCache.getInstance();
+    }
+
     private byte[] export(final String formPageTechnicalUUID) throws IOException, MalformedURLException {
         try (final InputStream is = get(pageDesignerURLFactory.exportPage(formPageTechnicalUUID).toString());) {
             if (is == null) {
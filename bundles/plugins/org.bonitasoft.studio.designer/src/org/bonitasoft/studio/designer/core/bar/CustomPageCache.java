@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.designer.core.bar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the custom page archives exported by the UI designer, addressed by a hash of the files of the page and of the fragments and
+ * widgets it uses. A page that did not change is then exported once, and not at every BAR build.
+ */
+public class CustomPageCache {
+
+    static final int MAX_ENTRIES = 32;
+
+    private static final CustomPageCache INSTANCE = new CustomPageCache();
+
+    private final Map<String, byte[]> pages = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    CustomPageCache() {
+    }
+
+    public static CustomPageCache getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized byte[] get(final String key) {
+        return pages.get(key);
+    }
+
+    public synchronized void put(final String key, final byte[] content) {
+        pages.put(key, content);
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+    }
+
+    /**
+     * @param pageFolder folder of the page, with its JSON and its assets
+     * @param dependencyFolders folders of the fragments and widgets used by the page, in any order
+     * @return a hash of the path and content of all the files of the given folders
+     */
+    public String keyOf(final File pageFolder, final List<File> dependencyFolders) throws IOException {
+        final MessageDigest digest = newDigest();
+        update(digest, pageFolder.getName());
+        hashFolder(digest, pageFolder, "");
+        final List<File> sortedFolders = new ArrayList<File>(dependencyFolders);
+        Collections.sort(sortedFolders);
+        for (final File folder : sortedFolders) {
+            update(digest, folder.getName());
+            hashFolder(digest, folder, "");
+        }
+        return toHex(digest.digest());
+    }
+
+    private void hashFolder(final MessageDigest digest, final File folder, final String path) throws IOException {
+        final File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        final byte[] buffer = new byte[8192];
+        for (final File file : files) {
+            final String filePath = path + "/" + file.getName();
+            if (file.isDirectory()) {
+                hashFolder(digest, file, filePath);
+            } else {
+                update(digest, filePath);
+                try (InputStream is = Files.newInputStream(file.toPath())) {
+                    int read;
+                    while ((read = is.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+                digest.update((byte) 0);
+            }
+        }
+    }
+
+    private void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+}
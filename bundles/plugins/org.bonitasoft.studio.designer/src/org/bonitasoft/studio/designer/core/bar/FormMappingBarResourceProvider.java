@@ -17,11 +17,21 @@ package org.bonitasoft.studio.designer.core.bar;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.inject.Inject;
 
+import org.bonitasoft.engine.bpm.bar.BarResource;
 import org.bonitasoft.engine.bpm.bar.BusinessArchiveBuilder;
 import org.bonitasoft.engine.bpm.bar.form.model.FormMappingDefinition;
 import org.bonitasoft.engine.bpm.bar.form.model.FormMappingModel;
@@ -49,6 +59,7 @@ public class FormMappingBarResourceProvider implements BARResourcesProvider {
 
     private static final String CUSTOMPAGE_PREFIX = "custompage_";
     private static final String AUTOGENERATED_OVERVIEW_CUSTOM_PAGE = "custompage_caseoverview";
+    private static final int MAX_CONCURRENT_EXPORTS = 4;
 
     private final CustomPageBarResourceFactory customPageBarResourceFactory;
     private final IEclipsePreferences preferenceStore;
@@ -72,20 +83,72 @@ public class FormMappingBarResourceProvider implements BARResourcesProvider {
             FormMappingException {
         final List<FormMapping> allFormMappings = ModelHelper.getAllItemsOfType(process, ProcessPackage.Literals.FORM_MAPPING);
         final FormMappingModel formMappingModel = new FormMappingModel();
+        final Map<String, String> customPages = new LinkedHashMap<String, String>();
         for (final FormMapping formMapping : allFormMappings) {
-            addFormMapping(builder, formMappingModel, formMapping);
+            addFormMapping(formMappingModel, formMapping, customPages);
+        }
+        for (final BarResource customPage : newCustomPageBarResources(customPages)) {
+            builder.addExternalResource(customPage);
         }
         return formMappingModel;
     }
 
-    private void addFormMapping(final BusinessArchiveBuilder builder, final FormMappingModel formMappingModel, final FormMapping formMapping)
-            throws BarResourceCreationException, FormMappingException {
+    private void addFormMapping(final FormMappingModel formMappingModel, final FormMapping formMapping, final Map<String, String> customPages)
+            throws FormMappingException {
         if (shouldAddFormMapping(formMapping)) {
             final FormMappingDefinition mappingDefinition = newFormMappingDefinition(formMapping);
             formMappingModel.addFormMapping(mappingDefinition);
             if (mappingDefinition.getTarget() == FormMappingTarget.INTERNAL && !isNullOrEmpty(formUUID(formMapping))) {
-                builder.addExternalResource(customPageBarResourceFactory.newBarResource(mappingDefinition.getForm(), formUUID(formMapping)));
+                customPages.put(mappingDefinition.getForm(), formUUID(formMapping));
+            }
+        }
+    }
+
+    /**
+     * Each page is exported by the UI designer, several pages are exported at the same time.
+     *
+     * @param customPages form UUID by custom page id
+     */
+    private List<BarResource> newCustomPageBarResources(final Map<String, String> customPages) throws BarResourceCreationException {
+        final List<BarResource> result = new ArrayList<BarResource>();
+        if (customPages.size() <= 1) {
+            for (final Entry<String, String> customPage : customPages.entrySet()) {
+                result.add(customPageBarResourceFactory.newBarResource(customPage.getKey(), customPage.getValue()));
+            }
+            return result;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_CONCURRENT_EXPORTS, customPages.size()));
+        try {
+            final List<Future<BarResource>> futures = new ArrayList<Future<BarResource>>();
+            for (final Entry<String, String> customPage : customPages.entrySet()) {
+                futures.add(executor.submit(new Callable<BarResource>() {
+
+                    @Override
+                    public BarResource call() throws Exception {
+                        return customPageBarResourceFactory.newBarResource(customPage.getKey(), customPage.getValue());
+                    }
+                }));
+            }
+            for (final Future<BarResource> future : futures) {
+                result.add(getBarResource(future));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BarResource getBarResource(final Future<BarResource> future) throws BarResourceCreationException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof BarResourceCreationException) {
+                throw (BarResourceCreationException) e.getCause();
             }
+            throw new BarResourceCreationException("Failed to export a custom page", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BarResourceCreationException("Custom page export has been interrupted", e);
         }
     }
 
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.designer.core.bos;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.repository.RepositoryAccessor;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
+import org.bonitasoft.studio.designer.UIDesignerPlugin;
+import org.bonitasoft.studio.designer.core.repository.InFolderJSONFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebFragmentFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebFragmentRepositoryStore;
+import org.bonitasoft.studio.designer.core.repository.WebWidgetFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebWidgetRepositoryStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.e4.core.di.annotations.Creatable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Widgets and fragments used by the pages and fragments of the UI designer, read from their JSON file instead of an export of the
+ * page. An entry is dropped when its JSON file changes in the workspace, and read again on the next call.
+ */
+@Creatable
+@Singleton
+public class PageDependencyIndex implements IResourceChangeListener {
+
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String COMPONENT_TYPE = "component";
+    private static final String FRAGMENT_TYPE = "fragment";
+
+    private final RepositoryAccessor repositoryAccessor;
+    private final Map<File, PageDependencies> entries = new HashMap<File, PageDependencies>();
+
+    @Inject
+    public PageDependencyIndex(final RepositoryAccessor repositoryAccessor) {
+        this(repositoryAccessor, ResourcesPlugin.getWorkspace());
+    }
+
+    PageDependencyIndex(final RepositoryAccessor repositoryAccessor, final IWorkspace workspace) {
+        this.repositoryAccessor = repositoryAccessor;
+        workspace.addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+    }
+
+    /**
+     * @return the fragments used by the page, directly or through other fragments, and the custom widgets used by the page and these
+     *         fragments
+     * @throws ReadFileStoreException when the JSON of the page cannot be read, a fragment that cannot be read is only logged
+     */
+    public Set<IRepositoryFileStore> getRelatedFileStores(final InFolderJSONFileStore page) throws ReadFileStoreException {
+        final PageDependencies pageDependencies = getDependencies(page);
+        final Set<IRepositoryFileStore> result = new HashSet<IRepositoryFileStore>();
+        final Set<String> widgetIds = new HashSet<String>(pageDependencies.getWidgets());
+        final Deque<String> fragmentIds = new ArrayDeque<String>(pageDependencies.getFragments());
+        final Set<String> visitedFragmentIds = new HashSet<String>();
+        final WebFragmentRepositoryStore fragmentStore = repositoryAccessor.getRepositoryStore(WebFragmentRepositoryStore.class);
+        while (!fragmentIds.isEmpty()) {
+            final String fragmentId = fragmentIds.pop();
+            if (!visitedFragmentIds.add(fragmentId)) {
+                continue;
+            }
+            final WebFragmentFileStore fragment = fragmentStore.getChild(fragmentId);
+            if (fragment == null) {
+                BonitaStudioLog.warning(String.format("Fragment with id %s doesn't exist.", fragmentId), UIDesignerPlugin.PLUGIN_ID);
+                continue;
+            }
+            result.add(fragment);
+            try {
+                final PageDependencies fragmentDependencies = getDependencies(fragment);
+                widgetIds.addAll(fragmentDependencies.getWidgets());
+                fragmentIds.addAll(fragmentDependencies.getFragments());
+            } catch (final ReadFileStoreException e) {
+                BonitaStudioLog.error(String.format("Failed to read dependencies of fragment %s", fragmentId), e);
+            }
+        }
+        final WebWidgetRepositoryStore widgetStore = repositoryAccessor.getRepositoryStore(WebWidgetRepositoryStore.class);
+        for (final String widgetId : widgetIds) {
+            final WebWidgetFileStore widget = widgetStore.getChild(widgetId);
+            if (widget != null && widget.canBeExported()) {
+                result.add(widget);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param fileStore a page or a fragment
+     */
+    public PageDependencies getDependencies(final InFolderJSONFileStore fileStore) throws ReadFileStoreException {
+        final IFile jsonFile = fileStore.getJSONIFile();
+        final File file = jsonFile.getLocation().toFile();
+        synchronized (entries) {
+            final PageDependencies dependencies = entries.get(file);
+            if (dependencies != null && dependencies.lastModified == file.lastModified()) {
+                return dependencies;
+            }
+        }
+        final long lastModified = file.lastModified();
+        final PageDependencies dependencies = parse(fileStore.getContent(), lastModified);
+        synchronized (entries) {
+            entries.put(file, dependencies);
+        }
+        return dependencies;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void resourceChanged(final IResourceChangeEvent event) {
+        if (event.getDelta() == null) {
+            return;
+        }
+        final Set<File> changedFiles = new HashSet<File>();
+        try {
+            event.getDelta().accept(new IResourceDeltaVisitor() {
+
+                @Override
+                public boolean visit(final IResourceDelta delta) throws CoreException {
+                    final IResource resource = delta.getResource();
+                    if (resource.getType() == IResource.FILE && "json".equals(resource.getFileExtension())) {
+                        final IPath location = resource.getLocation();
+                        if (location != null) {
+                            changedFiles.add(location.toFile());
+                        }
+                    }
+                    return true;
+                }
+            });
+        } catch (final CoreException e) {
+            clear();
+            return;
+        }
+        synchronized (entries) {
+            for (final Iterator<File> it = entries.keySet().iterator(); it.hasNext();) {
+                if (changedFiles.contains(it.next())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the components and fragments found at any depth of the rows, containers and tabs of the content
+     */
+    static PageDependencies parse(final JSONObject content, final long lastModified) {
+        final PageDependencies dependencies = new PageDependencies(lastModified);
+        collectChildren(content, dependencies);
+        return dependencies;
+    }
+
+    private static void collectChildren(final JSONObject object, final PageDependencies dependencies) {
+        final Iterator<?> keys = object.keys();
+        while (keys.hasNext()) {
+            collect(object.opt((String) keys.next()), dependencies);
+        }
+    }
+
+    private static void collect(final Object value, final PageDependencies dependencies) {
+        if (value instanceof JSONArray) {
+            final JSONArray array = (JSONArray) value;
+            for (int i = 0; i < array.length(); i++) {
+                collect(array.opt(i), dependencies);
+            }
+        } else if (value instanceof JSONObject) {
+            final JSONObject object = (JSONObject) value;
+            final String type = object.optString(TYPE);
+            final String id = object.optString(ID);
+            if (!id.isEmpty()) {
+                if (COMPONENT_TYPE.equals(type)) {
+                    dependencies.widgets.add(id);
+                } else if (FRAGMENT_TYPE.equals(type)) {
+                    dependencies.fragments.add(id);
+                }
+            }
+            collectChildren(object, dependencies);
+        }
+    }
+
+    public static class PageDependencies {
+
+        private final long lastModified;
+        private final Set<String> widgets = new HashSet<String>();
+        private final Set<String> fragments = new HashSet<String>();
+
+        PageDependencies(final long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Ids of the widgets used directly, standard widgets included
+         */
+        public Set<String> getWidgets() {
+            return Collections.unmodifiableSet(widgets);
+        }
+
+        /**
+         * Ids of the fragments used directly, widgets and fragments used by these fragments are not included
+         */
+        public Set<String> getFragments() {
+            return Collections.unmodifiableSet(fragments);
+        }
+    }
+
+}
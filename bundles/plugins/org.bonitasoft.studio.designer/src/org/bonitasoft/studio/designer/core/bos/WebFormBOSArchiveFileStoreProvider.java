@@ -40,6 +40,7 @@ import org.bonitasoft.engine.bpm.bar.BarResource;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.common.repository.RepositoryAccessor;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
 import org.bonitasoft.studio.common.repository.provider.IBOSArchiveFileStoreProvider;
 import org.bonitasoft.studio.designer.UIDesignerPlugin;
 import org.bonitasoft.studio.designer.core.bar.BarResourceCreationException;
@@ -74,11 +75,14 @@ public class WebFormBOSArchiveFileStoreProvider implements IBOSArchiveFileStoreP
 
     private final CustomPageBarResourceFactory customPageBarResourceFactory;
 
+    private final PageDependencyIndex pageDependencyIndex;
+
     @Inject
     public WebFormBOSArchiveFileStoreProvider(final RepositoryAccessor repositoryAccessor,
-            final CustomPageBarResourceFactory customPageBarResourceFactory) {
+            final CustomPageBarResourceFactory customPageBarResourceFactory, final PageDependencyIndex pageDependencyIndex) {
         this.repositoryAccessor = repositoryAccessor;
         this.customPageBarResourceFactory = customPageBarResourceFactory;
+        this.pageDependencyIndex = pageDependencyIndex;
     }
 
     /*
@@ -206,7 +210,16 @@ public class WebFormBOSArchiveFileStoreProvider implements IBOSArchiveFileStoreP
 
     public Set<IRepositoryFileStore> getRelatedFileStore(final WebPageFileStore webPageFileStore)
             throws BarResourceCreationException, IOException {
-        final Set<String> zipEntries = findFormRelatedEntries(webPageFileStore);
+        try {
+            return pageDependencyIndex.getRelatedFileStores(webPageFileStore);
+        } catch (final ReadFileStoreException e) {
+            BonitaStudioLog.warning(String.format("Failed to read dependencies of page %s, exporting it from the UI designer instead: %s",
+                    webPageFileStore.getName(), e.getMessage()), UIDesignerPlugin.PLUGIN_ID);
+            return relatedFileStores(findFormRelatedEntries(webPageFileStore));
+        }
+    }
+
+    private Set<IRepositoryFileStore> relatedFileStores(final Set<String> zipEntries) {
         final Set<IRepositoryFileStore> result = new HashSet<IRepositoryFileStore>();
         result.addAll(relatedFragments(zipEntries));
         result.addAll(relatedWidgets(zipEntries));
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * BonitaSoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.designer.core.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IFile;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * Shares the parsed content of the JSON files of the UI designer between all the file stores of a file, so that reading the name, id
+ * and type of a page parses it once instead of once per attribute and per listing.
+ * An entry is parsed again when the modification stamp of the file in the workspace, or its size or date on disk, changed: the UI
+ * designer writes the files before the workspace is refreshed. Contents are softly referenced and reclaimed under memory pressure.
+ */
+public class JSONContentCache {
+
+    private static final JSONContentCache INSTANCE = new JSONContentCache();
+
+    private final ConcurrentMap<File, Entry> entries = new ConcurrentHashMap<File, Entry>();
+
+    JSONContentCache() {
+    }
+
+    public static JSONContentCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the parsed content of the file, shared by all callers: it must not be modified
+     */
+    public JSONObject getContent(final IFile jsonFile) throws JSONException, IOException {
+        final File file = jsonFile.getLocation().toFile();
+        final long modificationStamp = jsonFile.getModificationStamp();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        final Entry entry = entries.get(file);
+        if (entry != null && entry.modificationStamp == modificationStamp && entry.lastModified == lastModified && entry.length == length) {
+            final JSONObject content = entry.content.get();
+            if (content != null) {
+                return content;
+            }
+        }
+        final JSONObject content = new JSONObject(Files.toString(file, Charsets.UTF_8));
+        entries.put(file, new Entry(modificationStamp, lastModified, length, content));
+        return content;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+
+        private final long modificationStamp;
+        private final long lastModified;
+        private final long length;
+        private final SoftReference<JSONObject> content;
+
+        Entry(final long modificationStamp, final long lastModified, final long length, final JSONObject content) {
+            this.modificationStamp = modificationStamp;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = new SoftReference<JSONObject>(content);
+        }
+    }
+
+}
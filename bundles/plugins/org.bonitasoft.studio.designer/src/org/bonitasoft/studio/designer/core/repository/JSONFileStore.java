@@ -28,9 +28,6 @@ import org.eclipse.ui.IWorkbenchPart;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-
 /**
  * @author Romain Bioteau
  */
@@ -67,14 +64,21 @@ public class JSONFileStore extends AbstractFileStore {
         return toJSONObject((IFile) getResource());
     }
 
+    /**
+     * The parsed content is shared with the other file stores of the same file, see {@link JSONContentCache}
+     */
     protected JSONObject toJSONObject(final IFile jsonFile) throws ReadFileStoreException {
         try {
-            return new org.json.JSONObject(Files.toString(jsonFile.getLocation().toFile(), Charsets.UTF_8));
+            return getJSONContentCache().getContent(jsonFile);
         } catch (JSONException | IOException e) {
             throw new ReadFileStoreException(String.format("Failed to retrieve JSON content from %s", jsonFile.getName()), e);
         }
     }
 
+    protected JSONContentCache getJSONContentCache() {
+        return JSONContentCache.getInstance();
+    }
+
     /*
      * (non-Javadoc)
      * @see org.bonitasoft.studio.common.repository.filestore.AbstractFileStore#doSave(java.lang.Object)
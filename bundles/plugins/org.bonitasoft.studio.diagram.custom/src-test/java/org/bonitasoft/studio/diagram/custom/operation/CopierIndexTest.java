@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.diagram.custom.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bonitasoft.studio.model.process.MainProcess;
+import org.bonitasoft.studio.model.process.Pool;
+import org.bonitasoft.studio.model.process.ProcessFactory;
+import org.bonitasoft.studio.model.process.Task;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CopierIndexTest {
+
+    private MainProcess diagram;
+    private Pool pool;
+    private Task task;
+    private Copier copier;
+    private XMLResource copyResource;
+
+    @Before
+    public void setUp() throws Exception {
+        diagram = ProcessFactory.eINSTANCE.createMainProcess();
+        pool = ProcessFactory.eINSTANCE.createPool();
+        task = ProcessFactory.eINSTANCE.createTask();
+        pool.getElements().add(task);
+        diagram.getElements().add(pool);
+        final XMLResource resource = new XMIResourceImpl(URI.createFileURI("original.proc"));
+        resource.getContents().add(diagram);
+        resource.setID(diagram, "_diagram");
+        resource.setID(pool, "_pool");
+        resource.setID(task, "_poolTask");
+
+        copier = new Copier(true, false);
+        final MainProcess copy = (MainProcess) copier.copy(diagram);
+        copier.copyReferences();
+        copyResource = new XMIResourceImpl(URI.createFileURI("copy.proc"));
+        copyResource.getContents().add(copy);
+        copyResource.setID(copy, "_newDiagram");
+        copyResource.setID(copier.get(pool), "_newPool");
+        copyResource.setID(copier.get(task), "_newPoolTask");
+    }
+
+    @Test
+    public void should_find_the_original_of_a_copy() throws Exception {
+        final CopierIndex copies = new CopierIndex(copier);
+
+        assertThat(copies.getOriginal(copier.get(task))).isSameAs(task);
+        assertThat(copies.getCopy(pool)).isSameAs(copier.get(pool));
+    }
+
+    @Test
+    public void should_map_original_ids_to_new_ids() throws Exception {
+        final CopierIndex copies = new CopierIndex(copier);
+
+        assertThat(copies.getNewIds()).hasSize(3).containsKey("_diagram").containsKey("_pool").containsKey("_poolTask");
+        assertThat(copies.getNewIds().get("_pool")).isEqualTo("_newPool");
+    }
+
+    @Test
+    public void should_replace_ids_in_content_preferring_the_longest_id() throws Exception {
+        final CopierIndex copies = new CopierIndex(copier);
+
+        assertThat(copies.replaceIds("<div id=\"_poolTask\">_pool</div><span>_diagram_</span>")).isEqualTo(
+                "<div id=\"_newPoolTask\">_newPool</div><span>_newDiagram_</span>");
+    }
+
+    @Test
+    public void should_leave_content_without_ids_unchanged() throws Exception {
+        final CopierIndex copies = new CopierIndex(copier);
+
+        assertThat(copies.replaceIds("<div id=\"_unknown\">pool</div>")).isEqualTo("<div id=\"_unknown\">pool</div>");
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.diagram.custom.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collections;
+
+import org.bonitasoft.studio.model.process.MainProcess;
+import org.bonitasoft.studio.model.process.Pool;
+import org.bonitasoft.studio.model.process.ProcessFactory;
+import org.bonitasoft.studio.model.process.Task;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiagramBinaryCacheTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File diagramFile;
+    private String key;
+    private DiagramBinaryCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        diagramFile = new File(tmpFolder.getRoot(), "MyDiagram-1.0.proc");
+        final MainProcess diagram = ProcessFactory.eINSTANCE.createMainProcess();
+        diagram.setName("MyDiagram");
+        final Pool pool = ProcessFactory.eINSTANCE.createPool();
+        pool.setName("Pool");
+        final Task task = ProcessFactory.eINSTANCE.createTask();
+        task.setName("Step1");
+        pool.getElements().add(task);
+        diagram.getElements().add(pool);
+        final XMLResource resource = new XMIResourceImpl(URI.createFileURI(diagramFile.getAbsolutePath()));
+        resource.getContents().add(diagram);
+        resource.setID(diagram, "_diagram");
+        resource.setID(pool, "_pool");
+        resource.setID(task, "_task");
+        resource.save(Collections.emptyMap());
+        key = DiagramBinaryCache.keyOf(diagramFile);
+
+        cache = new DiagramBinaryCache(tmpFolder.newFolder("cache"));
+    }
+
+    @Test
+    public void should_load_a_stored_diagram_with_its_ids() throws Exception {
+        final XMLResource xmlResource = loadFromXml();
+        cache.store(diagramFile, key, xmlResource);
+
+        final XMLResource binaryResource = newResource();
+        assertThat(cache.load(diagramFile, key, binaryResource)).isTrue();
+
+        assertThat(EcoreUtil.equals(binaryResource.getContents(), xmlResource.getContents())).isTrue();
+        final MainProcess diagram = (MainProcess) binaryResource.getContents().get(0);
+        final Pool pool = (Pool) diagram.getElements().get(0);
+        assertThat(binaryResource.getID(diagram)).isEqualTo("_diagram");
+        assertThat(binaryResource.getID(pool)).isEqualTo("_pool");
+        assertThat(binaryResource.getID(pool.getElements().get(0))).isEqualTo("_task");
+        assertThat(binaryResource.getEObject("_task")).isSameAs(pool.getElements().get(0));
+    }
+
+    @Test
+    public void should_not_load_a_diagram_modified_since_it_was_stored() throws Exception {
+        cache.store(diagramFile, key, loadFromXml());
+
+        final FileOutputStream out = new FileOutputStream(diagramFile, true);
+        try {
+            out.write("\n".getBytes());
+        } finally {
+            out.close();
+        }
+
+        final XMLResource binaryResource = newResource();
+        assertThat(cache.load(diagramFile, DiagramBinaryCache.keyOf(diagramFile), binaryResource)).isFalse();
+        assertThat(binaryResource.isLoaded()).isFalse();
+    }
+
+    @Test
+    public void should_not_load_an_evicted_diagram() throws Exception {
+        cache.store(diagramFile, key, loadFromXml());
+
+        cache.evict(diagramFile);
+
+        assertThat(cache.load(diagramFile, key, newResource())).isFalse();
+    }
+
+    @Test
+    public void should_prune_the_entry_of_a_deleted_diagram() throws Exception {
+        cache.store(diagramFile, key, loadFromXml());
+        final File entryFile = cache.getEntryFile(diagramFile);
+
+        diagramFile.delete();
+        cache.prune(System.currentTimeMillis());
+
+        assertThat(entryFile.exists()).isFalse();
+    }
+
+    @Test
+    public void should_prune_an_entry_unused_for_too_long() throws Exception {
+        cache.store(diagramFile, key, loadFromXml());
+        final File entryFile = cache.getEntryFile(diagramFile);
+
+        cache.prune(entryFile.lastModified() + DiagramBinaryCache.MAX_ENTRY_AGE + 1);
+
+        assertThat(entryFile.exists()).isFalse();
+    }
+
+    @Test
+    public void should_keep_a_recent_entry_of_an_existing_diagram() throws Exception {
+        cache.store(diagramFile, key, loadFromXml());
+
+        cache.prune(System.currentTimeMillis());
+
+        assertThat(cache.load(diagramFile, key, newResource())).isTrue();
+    }
+
+    @Test
+    public void should_not_store_anything_when_disabled() throws Exception {
+        final DiagramBinaryCache disabledCache = new DiagramBinaryCache(null);
+
+        disabledCache.store(diagramFile, key, loadFromXml());
+
+        assertThat(disabledCache.isEnabled()).isFalse();
+        assertThat(disabledCache.load(diagramFile, key, newResource())).isFalse();
+    }
+
+    private XMLResource loadFromXml() throws Exception {
+        final XMLResource resource = newResource();
+        resource.load(Collections.emptyMap());
+        return resource;
+    }
+
+    private XMLResource newResource() {
+        return new XMIResourceImpl(URI.createFileURI(diagramFile.getAbsolutePath()));
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.diagram.custom.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bonitasoft.studio.common.ModelVersion;
+import org.bonitasoft.studio.common.ProductVersion;
+import org.bonitasoft.studio.common.extension.IConfigurationIdProvider;
+import org.bonitasoft.studio.diagram.custom.ConfigurationIdProvider;
+import org.bonitasoft.studio.model.process.MainProcess;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiagramRepositoryStoreTest {
+
+    private DiagramRepositoryStore store;
+    private Map<String, String> upToDateHeader;
+
+    @Before
+    public void setUp() throws Exception {
+        store = spy(new DiagramRepositoryStore());
+        upToDateHeader = new HashMap<String, String>();
+        upToDateHeader.put("name", "MyDiagram");
+        upToDateHeader.put("author", "walter.bates");
+        upToDateHeader.put("bonitaModelVersion", ModelVersion.CURRENT_VERSION);
+        upToDateHeader.put("bonitaVersion", ProductVersion.CURRENT_VERSION);
+        upToDateHeader.put("configId", EcoreUtil.convertToString(EcorePackage.Literals.EJAVA_OBJECT,
+                "MyDiagram" + ModelVersion.CURRENT_VERSION + ProductVersion.CURRENT_VERSION));
+    }
+
+    @Test
+    public void should_check_the_configuration_id_from_the_header_with_the_default_provider() throws Exception {
+        doReturn(new ConfigurationIdProvider()).when(store).getConfigurationIdProvider();
+
+        assertThat(store.isUpToDate(upToDateHeader)).isTrue();
+    }
+
+    @Test
+    public void should_not_consider_a_diagram_up_to_date_from_its_header_with_another_provider() throws Exception {
+        final IConfigurationIdProvider provider = mock(IConfigurationIdProvider.class);
+        when(provider.isConfigurationIdValid(any(MainProcess.class))).thenReturn(true);
+        doReturn(provider).when(store).getConfigurationIdProvider();
+
+        assertThat(store.isUpToDate(upToDateHeader)).isFalse();
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.diagram.custom.operation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.bonitasoft.studio.common.emf.tools.ModelHelper;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+
+/**
+ * Reverse lookups on a {@link Copier}: the original of a copy and the ids of the copies, computed once for the whole copy instead of
+ * scanning the copier for each element.
+ * The ids are read the first time they are needed, so the copies must have been added to their resource before.
+ */
+public class CopierIndex {
+
+    private final Copier copier;
+    private final Map<EObject, EObject> originals;
+    private Map<String, String> newIds;
+    private Set<Integer> idLengths;
+    private Set<Character> idFirstChars;
+
+    public CopierIndex(final Copier copier) {
+        this.copier = copier;
+        originals = new HashMap<EObject, EObject>(copier.size());
+        for (final Entry<EObject, EObject> entry : copier.entrySet()) {
+            originals.put(entry.getValue(), entry.getKey());
+        }
+    }
+
+    public EObject getOriginal(final EObject copy) {
+        return originals.get(copy);
+    }
+
+    public EObject getCopy(final EObject original) {
+        return copier.get(original);
+    }
+
+    /**
+     * @return the ids of the original elements mapped to the ids of their copies, for the elements whose id changed
+     */
+    public Map<String, String> getNewIds() {
+        if (newIds == null) {
+            final Map<String, String> ids = new HashMap<String, String>(copier.size());
+            final Set<Integer> lengths = new TreeSet<Integer>(Collections.reverseOrder());
+            final Set<Character> firstChars = new HashSet<Character>();
+            for (final Entry<EObject, EObject> entry : copier.entrySet()) {
+                final String originalId = ModelHelper.getEObjectID(entry.getKey());
+                final String newId = ModelHelper.getEObjectID(entry.getValue());
+                if (originalId != null && !originalId.isEmpty() && newId != null && !originalId.equals(newId)) {
+                    ids.put(originalId, newId);
+                    lengths.add(originalId.length());
+                    firstChars.add(originalId.charAt(0));
+                }
+            }
+            newIds = ids;
+            idLengths = lengths;
+            idFirstChars = firstChars;
+        }
+        return newIds;
+    }
+
+    /**
+     * Replaces, in a single pass, every id of an original element found in the content by the id of its copy
+     */
+    public String replaceIds(final String content) {
+        final Map<String, String> ids = getNewIds();
+        if (ids.isEmpty()) {
+            return content;
+        }
+        final StringBuilder sb = new StringBuilder(content.length());
+        int i = 0;
+        while (i < content.length()) {
+            String newId = null;
+            int length = 0;
+            if (idFirstChars.contains(content.charAt(i))) {
+                for (final int idLength : idLengths) {
+                    if (i + idLength <= content.length()) {
+                        newId = ids.get(content.substring(i, i + idLength));
+                        if (newId != null) {
+                            length = idLength;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (newId != null) {
+                sb.append(newId);
+                i = i + length;
+            } else {
+                sb.append(content.charAt(i));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -30,6 +30,8 @@ import org.bonitasoft.studio.common.NamingUtils;
 import org.bonitasoft.studio.common.diagram.dialog.ProcessesNameVersion;
 import org.bonitasoft.studio.common.emf.tools.ModelHelper;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.RepositoryManager;
 import org.bonitasoft.studio.diagram.custom.i18n.Messages;
@@ -37,7 +39,6 @@ import org.bonitasoft.studio.diagram.custom.repository.ApplicationResourceFileSt
 import org.bonitasoft.studio.diagram.custom.repository.ApplicationResourceRepositoryStore;
 import org.bonitasoft.studio.diagram.custom.repository.DiagramFileStore;
 import org.bonitasoft.studio.diagram.custom.repository.DiagramRepositoryStore;
-import org.bonitasoft.studio.diagram.custom.repository.ProcessConfigurationFileStore;
 import org.bonitasoft.studio.diagram.custom.repository.ProcessConfigurationRepositoryStore;
 import org.bonitasoft.studio.diagram.custom.repository.WebTemplatesUtil;
 import org.bonitasoft.studio.model.expression.Expression;
@@ -98,7 +99,12 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
         final DiagramRepositoryStore diagramStore = RepositoryManager.getInstance().getRepositoryStore(DiagramRepositoryStore.class);
         DiagramFileStore newFildeStore = null;
         if (!(oldName.equals(diagramName) && oldVersion.equals(diagramVersion))) {
-            newFildeStore = copyDiagram();
+            final Timer.Context context = StudioMetrics.time("diagram.duplicate");
+            try {
+                newFildeStore = copyDiagram();
+            } finally {
+                context.stop();
+            }
         }
         if (newFildeStore == null) {
             newFildeStore = diagramStore.createRepositoryFileStore(NamingUtils.toDiagramFilename(diagramName, diagramVersion));
@@ -142,6 +148,7 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
         copier.copyReferences();//don't forget this line otherwise we loose link between diagrams and model
         final DiagramFileStore store = diagramStore.createRepositoryFileStore(NamingUtils.toDiagramFilename(diagramName, diagramVersion));
         store.save(copiedElements);
+        final CopierIndex copies = new CopierIndex(copier);
 
         final MainProcess newDiagram = store.getContent();
         final TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(newDiagram.eResource());
@@ -156,7 +163,7 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
                         @Override
                         protected CommandResult doExecuteWithResult(final IProgressMonitor arg0, final IAdaptable arg1) throws ExecutionException {
                             try {
-                                changePathAndCopyResources(diagram, newDiagram, editingDomain, copier);
+                                changePathAndCopyResources(diagram, newDiagram, editingDomain, copies);
                             } catch (final IOException e) {
                                 BonitaStudioLog.error(e);
                                 return CommandResult.newErrorCommandResult(e);
@@ -176,30 +183,38 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
         } catch (final ExecutionException e1) {
             BonitaStudioLog.error(e1);
         }
-        duplicateConfigurations(diagram, newDiagram);
+        duplicateConfigurations(diagram, copies);
         return store;
     }
 
-    private void duplicateConfigurations(final MainProcess sourceDiagram, final MainProcess newDiagram) {
+    /**
+     * The configuration files do not reference the ids of the pool, they are copied as is under the id of the new pool.
+     */
+    private void duplicateConfigurations(final MainProcess sourceDiagram, final CopierIndex copies) {
         final ProcessConfigurationRepositoryStore confStore = RepositoryManager.getInstance().getRepositoryStore(
                 ProcessConfigurationRepositoryStore.class);
         final List<Pool> pools = ModelHelper.getAllItemsOfType(sourceDiagram, ProcessPackage.Literals.POOL);
         for (final Pool p : pools) {
-            final ProcessConfigurationFileStore file = confStore.getChild(ModelHelper.getEObjectID(p) + "." + ProcessConfigurationRepositoryStore.CONF_EXT);
-            if (file != null) {
-                final Copier copier = new Copier(true, false);
-                final Collection<EObject> copiedElements = copier.copyAll(file.getContent().eResource().getContents());
-                copier.copyReferences();
-                if (!copiedElements.isEmpty()) {
-                    final int index = sourceDiagram.getElements().indexOf(p);
-                    final Pool newPool = (Pool) newDiagram.getElements().get(index);
-                    final ProcessConfigurationFileStore newFile = confStore.createRepositoryFileStore(ModelHelper.getEObjectID(newPool) + "."
-                            + ProcessConfigurationRepositoryStore.CONF_EXT);
-                    newFile.save(copiedElements.iterator().next());
+            final IFile file = confStore.getResource().getFile(ModelHelper.getEObjectID(p) + "." + ProcessConfigurationRepositoryStore.CONF_EXT);
+            final EObject newPool = copies.getCopy(p);
+            if (file.exists() && newPool != null) {
+                final IFile newFile = confStore.getResource().getFile(ModelHelper.getEObjectID(newPool) + "."
+                        + ProcessConfigurationRepositoryStore.CONF_EXT);
+                try {
+                    copyFile(file, newFile);
+                } catch (final CoreException e) {
+                    BonitaStudioLog.error(e);
                 }
             }
         }
+    }
 
+    private void copyFile(final IFile source, final IFile target) throws CoreException {
+        if (target.exists()) {
+            target.setContents(source.getContents(), IResource.FORCE, Repository.NULL_PROGRESS_MONITOR);
+        } else {
+            source.copy(target.getFullPath(), true, Repository.NULL_PROGRESS_MONITOR);
+        }
     }
 
     /**
@@ -208,24 +223,17 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
      * @param oldProcess
      * @param newProcess
      * @param createEditingDomain
-     * @param copier
+     * @param copies
      * @throws IOException
      * @throws CoreException
      */
     private void changePathAndCopyResources(final MainProcess oldProcess, final MainProcess newProcess,
-            final TransactionalEditingDomain createEditingDomain, final Copier copier) throws IOException, CoreException {
+            final TransactionalEditingDomain createEditingDomain, final CopierIndex copies) throws IOException, CoreException {
 
         final ApplicationResourceRepositoryStore resourceStore = RepositoryManager.getInstance().getRepositoryStore(
                 ApplicationResourceRepositoryStore.class);
         for (final AbstractProcess oldProc : ModelHelper.getAllProcesses(oldProcess)) {
-            AbstractProcess newProc = null;
-            for (final AbstractProcess process : ModelHelper.getAllProcesses(newProcess)) {
-                if (oldProc.getName().equals(process.getName())
-                        && oldProc.getVersion().equals(process.getVersion())) {
-                    newProc = process;
-                    break;
-                }
-            }
+            final AbstractProcess newProc = (AbstractProcess) copies.getCopy(oldProc);
             final String newProcId = ModelHelper.getEObjectID(newProc);
             /* Duplicate Resource Folders */
             newProc.getResourceFolders().clear();
@@ -349,11 +357,11 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
                 }
             }
 
-            updateFormCustomTemplate(copier, resourceStore, oldProc, newProc);
+            updateFormCustomTemplate(copies, resourceStore, oldProc, newProc);
         }
     }
 
-    protected void updateFormCustomTemplate(final Copier copier, final ApplicationResourceRepositoryStore resourceStore, final AbstractProcess oldProc,
+    protected void updateFormCustomTemplate(final CopierIndex copies, final ApplicationResourceRepositoryStore resourceStore, final AbstractProcess oldProc,
             final AbstractProcess newProc)
             throws CoreException, IOException {
         final List<Form> allForms = ModelHelper.getAllItemsOfType(newProc, FormPackage.Literals.FORM);
@@ -363,13 +371,7 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
                 //copy template
                 final String path = htmlTemplate.getPath();
                 final String newFormId = ModelHelper.getEObjectID(form);
-                String originalFormId = null;
-                for (final java.util.Map.Entry<EObject, EObject> entry : copier.entrySet()) {
-                    if (form.equals(entry.getValue())) {
-                        originalFormId = ModelHelper.getEObjectID(entry.getKey());
-                        break;
-                    }
-                }
+                final String originalFormId = ModelHelper.getEObjectID(copies.getOriginal(form));
                 if (originalFormId == null) {
                     throw new RuntimeException("No original object found for " + newFormId);
                 }
@@ -380,16 +382,16 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
                     final IFile newFile = resourceStore.getResource().getFile(newPath);
                     originalFile.copy(newFile.getFullPath(), true, Repository.NULL_PROGRESS_MONITOR);
                     htmlTemplate.setPath(newPath);
-                    replaceIdInFile(newFile, copier);
+                    replaceIdInFile(newFile, copies);
                 }
             }
         }
     }
 
-    private void replaceIdInFile(final IFile file, final Copier copier) throws IOException, CoreException {
+    private void replaceIdInFile(final IFile file, final CopierIndex copies) throws IOException, CoreException {
         final File fileToModify = file.getLocation().toFile();
         final BufferedReader reader = new BufferedReader(new FileReader(fileToModify));
-        StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = new StringBuilder();
         String line = ""; //$NON-NLS-1$
         while ((line = reader.readLine()) != null) {
             sb.append(line);
@@ -397,17 +399,8 @@ public class DuplicateDiagramOperation implements IRunnableWithProgress {
         }
         reader.close();
 
-        for (final java.util.Map.Entry<EObject, EObject> entry : copier.entrySet()) {
-            final String originalId = ModelHelper.getEObjectID(entry.getKey());
-            final String newId = ModelHelper.getEObjectID(entry.getValue());
-            final String content = sb.toString();
-            if (content.contains(originalId)) {
-                sb = new StringBuilder(content.replaceAll(originalId, newId));
-            }
-        }
-
         final FileWriter writer = new FileWriter(fileToModify.getAbsolutePath());
-        writer.write(sb.toString());
+        writer.write(copies.replaceIds(sb.toString()));
         writer.close();
         file.refreshLocal(IResource.DEPTH_ONE, Repository.NULL_PROGRESS_MONITOR);
     }
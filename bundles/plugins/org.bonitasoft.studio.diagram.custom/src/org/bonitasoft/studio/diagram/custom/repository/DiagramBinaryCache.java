@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.diagram.custom.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bonitasoft.studio.common.ModelVersion;
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
+import org.bonitasoft.studio.diagram.custom.Activator;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * Sidecar cache of the diagram files in the EMF binary resource format, with the xmi ids of their elements. Loading a diagram from its
+ * binary form skips the parsing of its xml content.
+ * An entry is used only when it was written from the same content, by the same model version, otherwise the diagram is loaded from the
+ * xml file, which stays the reference, and the entry is written again.
+ * Entries of deleted diagrams and entries unused for {@link #MAX_ENTRY_AGE} are pruned once per session.
+ */
+public class DiagramBinaryCache {
+
+    /**
+     * System property disabling the cache when set to false
+     */
+    public static final String ENABLED_PROPERTY = "bonita.diagram.binaryCache";
+
+    static final String FORMAT_VERSION = "2";
+
+    static final long MAX_ENTRY_AGE = TimeUnit.DAYS.toMillis(30);
+
+    private static final String CACHE_FOLDER_NAME = "diagram-cache";
+
+    private static DiagramBinaryCache INSTANCE;
+
+    private final File cacheFolder;
+
+    public DiagramBinaryCache(final File cacheFolder) {
+        this.cacheFolder = cacheFolder;
+    }
+
+    public static synchronized DiagramBinaryCache getInstance() {
+        if (INSTANCE == null) {
+            final Activator plugin = Activator.getDefault();
+            INSTANCE = new DiagramBinaryCache(plugin != null && Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))
+                    ? plugin.getStateLocation().append(CACHE_FOLDER_NAME).toFile() : null);
+            if (INSTANCE.isEnabled()) {
+                schedulePrune(INSTANCE);
+            }
+        }
+        return INSTANCE;
+    }
+
+    private static void schedulePrune(final DiagramBinaryCache cache) {
+        final Job pruneJob = new Job("Prune diagram cache") {
+
+            @Override
+            protected IStatus run(final IProgressMonitor monitor) {
+                cache.prune(System.currentTimeMillis());
+                return Status.OK_STATUS;
+            }
+        };
+        pruneJob.setSystem(true);
+        pruneJob.setPriority(Job.DECORATE);
+        pruneJob.schedule();
+    }
+
+    public boolean isEnabled() {
+        return cacheFolder != null;
+    }
+
+    /**
+     * Loads the resource from the cache entry of the source file, if it is up to date.
+     *
+     * @param key the {@link #keyOf(File) key} of the source file, also used to {@link #store(File, String, XMLResource) store} the
+     *        resource on a miss
+     * @return true if the resource has been loaded
+     */
+    public boolean load(final File sourceFile, final String key, final XMLResource resource) {
+        final File entryFile = getEntryFile(sourceFile);
+        if (entryFile == null || !entryFile.exists() || !sourceFile.exists()) {
+            return false;
+        }
+        final Timer.Context context = StudioMetrics.time("emf.load.binary");
+        DataInputStream in = null;
+        boolean invalidEntry = false;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)));
+            if (!key.equals(in.readUTF())) {
+                StudioMetrics.increment("diagram.cache.miss");
+                return false;
+            }
+            //Source path, only used to prune the entries of deleted diagrams
+            in.readUTF();
+            final String[] ids = new String[in.readInt()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readBoolean() ? in.readUTF() : null;
+            }
+            final byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+            resource.load(new ByteArrayInputStream(content), binaryOptions());
+            restoreIds(resource, ids);
+            entryFile.setLastModified(System.currentTimeMillis());
+            StudioMetrics.increment("diagram.cache.hit");
+            return true;
+        } catch (final Exception e) {
+            BonitaStudioLog.error("Failed to load " + sourceFile.getName() + " from the diagram cache, it is loaded from its xml content", e,
+                    Activator.PLUGIN_ID);
+            if (resource.isLoaded()) {
+                resource.unload();
+            }
+            invalidEntry = true;
+            return false;
+        } finally {
+            close(in);
+            context.stop();
+            if (invalidEntry) {
+                entryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes the cache entry of a resource freshly loaded from the source file. Resources with load errors or unknown content are not
+     * cached.
+     *
+     * @param key the {@link #keyOf(File) key} of the source file content the resource has been loaded from
+     */
+    public void store(final File sourceFile, final String key, final XMLResource resource) {
+        final File entryFile = getEntryFile(sourceFile);
+        if (entryFile == null || !resource.isLoaded() || !resource.getErrors().isEmpty() || !resource.getEObjectToExtensionMap().isEmpty()) {
+            return;
+        }
+        entryFile.getParentFile().mkdirs();
+        final File tmpFile = new File(entryFile.getParentFile(), entryFile.getName() + ".tmp");
+        DataOutputStream out = null;
+        boolean written = false;
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            resource.save(content, binaryOptions());
+            final List<String> ids = new ArrayList<String>();
+            for (final Iterator<EObject> it = resource.getAllContents(); it.hasNext();) {
+                ids.add(resource.getID(it.next()));
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            out.writeUTF(key);
+            out.writeUTF(sourceFile.getAbsolutePath());
+            out.writeInt(ids.size());
+            for (final String id : ids) {
+                out.writeBoolean(id != null);
+                if (id != null) {
+                    out.writeUTF(id);
+                }
+            }
+            out.writeInt(content.size());
+            content.writeTo(out);
+            written = true;
+        } catch (final IOException e) {
+            BonitaStudioLog.error("Failed to write the diagram cache of " + sourceFile.getName(), e, Activator.PLUGIN_ID);
+        } finally {
+            close(out);
+        }
+        entryFile.delete();
+        if (!written || !tmpFile.renameTo(entryFile)) {
+            tmpFile.delete();
+        }
+    }
+
+    public void evict(final File sourceFile) {
+        final File entryFile = getEntryFile(sourceFile);
+        if (entryFile != null) {
+            entryFile.delete();
+        }
+    }
+
+    /**
+     * Deletes the temporary files, the entries of diagrams which no longer exist and the entries unused since the given time minus
+     * {@link #MAX_ENTRY_AGE}.
+     */
+    void prune(final long now) {
+        final File[] entryFiles = cacheFolder != null ? cacheFolder.listFiles() : null;
+        if (entryFiles == null) {
+            return;
+        }
+        for (final File entryFile : entryFiles) {
+            if (entryFile.isFile() && (now - entryFile.lastModified() > MAX_ENTRY_AGE || !hasSourceFile(entryFile))) {
+                entryFile.delete();
+            }
+        }
+    }
+
+    private boolean hasSourceFile(final File entryFile) {
+        if (entryFile.getName().endsWith(".tmp")) {
+            return false;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)));
+            return in.readUTF().startsWith(FORMAT_VERSION + ";") && new File(in.readUTF()).exists();
+        } catch (final IOException e) {
+            return false;
+        } finally {
+            close(in);
+        }
+    }
+
+    File getEntryFile(final File sourceFile) {
+        if (cacheFolder == null) {
+            return null;
+        }
+        return new File(cacheFolder, sourceFile.getName() + "." + toHex(digest().digest(sourceFile.getAbsolutePath().getBytes())).substring(0, 8));
+    }
+
+    private void restoreIds(final XMLResource resource, final String[] ids) throws IOException {
+        final List<EObject> contents = new ArrayList<EObject>(ids.length);
+        for (final Iterator<EObject> it = resource.getAllContents(); it.hasNext();) {
+            contents.add(it.next());
+        }
+        if (contents.size() != ids.length) {
+            throw new IOException("The cache entry does not match the loaded content");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != null) {
+                resource.setID(contents.get(i), ids[i]);
+            }
+        }
+    }
+
+    private static Map<Object, Object> binaryOptions() {
+        final Map<Object, Object> options = new HashMap<Object, Object>();
+        options.put(XMLResource.OPTION_BINARY, Boolean.TRUE);
+        return options;
+    }
+
+    /**
+     * @return the key identifying the current content of the source file for the current model version
+     */
+    public static String keyOf(final File sourceFile) throws IOException {
+        final MessageDigest digest = digest();
+        final InputStream is = new FileInputStream(sourceFile);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+        return FORMAT_VERSION + ";" + ModelVersion.CURRENT_VERSION + ";" + toHex(digest.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void close(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                BonitaStudioLog.error(e);
+            }
+        }
+    }
+
+}
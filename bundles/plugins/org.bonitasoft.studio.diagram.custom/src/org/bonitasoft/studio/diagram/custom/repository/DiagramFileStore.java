@@ -20,13 +20,12 @@ import static com.google.common.collect.Iterables.find;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Sets.newHashSet;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -65,6 +64,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.transaction.RecordingCommand;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
@@ -361,6 +361,65 @@ public class DiagramFileStore extends EMFFileStore implements IRepositoryFileSto
         }
     }
 
+    @Override
+    protected void doLoad(final Resource eResource) {
+        final File file = getCacheSourceFile();
+        if (file == null || !(eResource instanceof XMLResource) || eResource.isLoaded()) {
+            super.doLoad(eResource);
+            return;
+        }
+        final String key;
+        try {
+            key = DiagramBinaryCache.keyOf(file);
+        } catch (final IOException e) {
+            BonitaStudioLog.error(e, Activator.PLUGIN_ID);
+            super.doLoad(eResource);
+            return;
+        }
+        final DiagramBinaryCache cache = DiagramBinaryCache.getInstance();
+        final TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(eResource);
+        //The xml load joins this exclusive access, so the resource cannot be modified before its binary form is stored
+        final Runnable cacheLoader = new Runnable() {
+
+            @Override
+            public void run() {
+                if (!cache.load(file, key, (XMLResource) eResource)) {
+                    DiagramFileStore.super.doLoad(eResource);
+                    cache.store(file, key, (XMLResource) eResource);
+                }
+            }
+        };
+        if (editingDomain != null) {
+            try {
+                editingDomain.runExclusive(cacheLoader);
+            } catch (final InterruptedException e) {
+                BonitaStudioLog.error(e, Activator.PLUGIN_ID);
+            }
+        } else {
+            cacheLoader.run();
+        }
+        if (!eResource.isLoaded()) {
+            super.doLoad(eResource);
+        }
+    }
+
+    @Override
+    protected void doDelete() {
+        final File file = getCacheSourceFile();
+        super.doDelete();
+        if (file != null) {
+            DiagramBinaryCache.getInstance().evict(file);
+        }
+    }
+
+    private File getCacheSourceFile() {
+        if (!DiagramBinaryCache.getInstance().isEnabled()) {
+            return null;
+        }
+        final IFile file = getResource();
+        return file != null && file.exists() && file.getLocation() != null ? file.getLocation().toFile() : null;
+    }
+
     @Override
     protected void doClose() {
         final IWorkbenchWindow activeWorkbenchWindow = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
@@ -458,13 +517,8 @@ public class DiagramFileStore extends EMFFileStore implements IRepositoryFileSto
 
     public boolean hasMigrationReport() {
         final EMFResourceUtil emfResourceUtil = new EMFResourceUtil(getResource().getLocation().toFile());
-        final Map<String, String[]> featureValueFromEObjectType = emfResourceUtil.getFeatureValueFromEObjectType("report:Report",
+        final String[] values = emfResourceUtil.getFeatureValuesFromFirstEObjectOfType("report:Report",
                 MigrationReportPackage.Literals.REPORT__NAME);
-        if (featureValueFromEObjectType == null || featureValueFromEObjectType.values() == null || featureValueFromEObjectType.values().isEmpty()) {
-            return false;
-        }
-        final Iterator<String[]> iterator = featureValueFromEObjectType.values().iterator();
-        final String[] values = iterator.next();
         return values != null && values[0] != null;
     }
 
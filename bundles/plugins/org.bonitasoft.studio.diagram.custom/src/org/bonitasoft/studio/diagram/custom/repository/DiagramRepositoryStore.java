@@ -31,7 +31,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.bonitasoft.studio.common.ConfigurationIdProvider;
@@ -43,6 +42,8 @@ import org.bonitasoft.studio.common.ProjectUtil;
 import org.bonitasoft.studio.common.editingdomain.BonitaEditingDomainUtil;
 import org.bonitasoft.studio.common.emf.tools.EMFResourceUtil;
 import org.bonitasoft.studio.common.emf.tools.ModelHelper;
+import org.bonitasoft.studio.common.emf.tools.XMIHeaderReader;
+import org.bonitasoft.studio.common.extension.IConfigurationIdProvider;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.common.platform.tools.CopyInputStream;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
@@ -53,6 +54,7 @@ import org.bonitasoft.studio.model.process.AbstractProcess;
 import org.bonitasoft.studio.model.process.Element;
 import org.bonitasoft.studio.model.process.MainProcess;
 import org.bonitasoft.studio.model.process.Pool;
+import org.bonitasoft.studio.model.process.ProcessFactory;
 import org.bonitasoft.studio.model.process.ProcessPackage;
 import org.bonitasoft.studio.model.process.provider.ProcessItemProviderAdapterFactory;
 import org.bonitasoft.studio.pics.Pics;
@@ -62,8 +64,10 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
 import org.eclipse.emf.edapt.migration.MigrationException;
 import org.eclipse.emf.edapt.migration.execution.Migrator;
@@ -85,6 +89,7 @@ public class DiagramRepositoryStore extends
         AbstractEMFRepositoryStore<DiagramFileStore> {
 
     private static final String STORE_NAME = "diagrams";
+    private static final String MAIN_PROCESS_TYPE = "process:MainProcess";
     private static final Set<String> extensions = new HashSet<String>();
     static {
         extensions.add("proc");
@@ -267,13 +272,31 @@ public class DiagramRepositoryStore extends
     @Override
     protected DiagramFileStore doImportInputStream(final String fileName,
             final InputStream inputStream) {
-        final CopyInputStream copyIs = new CopyInputStream(inputStream);
+        final XMIHeaderReader headerReader = new XMIHeaderReader(inputStream);
+        Map<String, String> mainProcessAttributes = null;
+        try {
+            mainProcessAttributes = headerReader.readAttributes(MAIN_PROCESS_TYPE);
+        } catch (final IOException e) {
+            BonitaStudioLog.error(e, Activator.PLUGIN_ID);
+        }
+        if (mainProcessAttributes != null && mainProcessAttributes.containsKey(ProcessPackage.Literals.ELEMENT__NAME.getName())) {
+            return super.doImportInputStream(toDiagramFileName(mainProcessAttributes), headerReader.getInputStream());
+        }
+        final CopyInputStream copyIs = new CopyInputStream(headerReader.getInputStream());
         final InputStream originalStream = copyIs.getCopy();
         final String newFileName = getValidFileName(fileName, copyIs.getCopy());
         copyIs.close();
         return super.doImportInputStream(newFileName, originalStream);
     }
 
+    private String toDiagramFileName(final Map<String, String> mainProcessAttributes) {
+        String version = mainProcessAttributes.get(ProcessPackage.Literals.ABSTRACT_PROCESS__VERSION.getName());
+        if (version == null) {
+            version = ProcessPackage.Literals.ABSTRACT_PROCESS__VERSION.getDefaultValueLiteral();
+        }
+        return NamingUtils.toDiagramFilename(mainProcessAttributes.get(ProcessPackage.Literals.ELEMENT__NAME.getName()), version);
+    }
+
     protected String getValidFileName(final String fileName,
             final InputStream is) {
         FileOutputStream fos = null;
@@ -283,15 +306,12 @@ public class DiagramRepositoryStore extends
                     ProjectUtil.getBonitaStudioWorkFolder());
             fos = new FileOutputStream(tmpFile);
             FileUtil.copy(is, fos);
-            final Map<String, String[]> featureValueFromEObjectType = new EMFResourceUtil(
-                    tmpFile).getFeatureValueFromEObjectType(
-                    "process:MainProcess",
-                    ProcessPackage.Literals.ELEMENT__NAME,
-                    ProcessPackage.Literals.ABSTRACT_PROCESS__VERSION);
-            if (featureValueFromEObjectType.size() == 1) {
-                final String[] next = featureValueFromEObjectType.values()
-                        .iterator().next();
-                return NamingUtils.toDiagramFilename(next[0], next[1]);
+            final String[] values = new EMFResourceUtil(tmpFile)
+                    .getFeatureValuesFromFirstEObjectOfType(MAIN_PROCESS_TYPE,
+                            ProcessPackage.Literals.ELEMENT__NAME,
+                            ProcessPackage.Literals.ABSTRACT_PROCESS__VERSION);
+            if (values != null) {
+                return NamingUtils.toDiagramFilename(values[0], values[1]);
             }
         } catch (final Exception e) {
             BonitaStudioLog.error(e, Activator.PLUGIN_ID);
@@ -387,12 +407,17 @@ public class DiagramRepositoryStore extends
     @Override
     protected InputStream handlePreImport(final String fileName,
             final InputStream inputStream) throws MigrationException, IOException {
+        final XMIHeaderReader headerReader = new XMIHeaderReader(inputStream);
+        if (isUpToDate(headerReader.readAttributes(MAIN_PROCESS_TYPE))) {
+            //Nothing to migrate nor to update, import the content as is
+            return headerReader.getInputStream();
+        }
         CopyInputStream copyIs = null;
         Resource diagramResource = null;
         try {
-            final InputStream is = super.handlePreImport(fileName, inputStream);
+            final InputStream is = super.handlePreImport(fileName, headerReader.getInputStream());
             copyIs = new CopyInputStream(is);
-            diagramResource = getTmpEMFResource("beforeImport.proc",
+            diagramResource = moveToTmpEMFResource("beforeImport.proc",
                     copyIs.getFile());
 
             diagramResource.load(Collections.EMPTY_MAP);
@@ -427,6 +452,50 @@ public class DiagramRepositoryStore extends
         }
     }
 
+    /**
+     * A diagram is up to date when its header shows the current model and product versions, an author and a valid configuration id:
+     * migrating it and updating its configuration id would not change anything.
+     * The configuration id is only checked from the header with the default provider, which only reads header attributes. With any other
+     * provider, the diagram is never considered up to date here and goes through the full load.
+     *
+     * @param mainProcessAttributes attributes of the MainProcess element read from the file header, may be null
+     */
+    protected boolean isUpToDate(final Map<String, String> mainProcessAttributes) {
+        final IConfigurationIdProvider configurationIdProvider = getConfigurationIdProvider();
+        if (mainProcessAttributes == null || !readsHeaderOnly(configurationIdProvider)) {
+            return false;
+        }
+        final MainProcess diagramHeader = toMainProcess(mainProcessAttributes);
+        return ModelVersion.CURRENT_VERSION.equals(diagramHeader.getBonitaModelVersion())
+                && ProductVersion.CURRENT_VERSION.equals(diagramHeader.getBonitaVersion())
+                && diagramHeader.getAuthor() != null
+                && configurationIdProvider.isConfigurationIdValid(diagramHeader);
+    }
+
+    private boolean readsHeaderOnly(final IConfigurationIdProvider configurationIdProvider) {
+        return configurationIdProvider != null
+                && configurationIdProvider.getClass() == org.bonitasoft.studio.diagram.custom.ConfigurationIdProvider.class;
+    }
+
+    protected IConfigurationIdProvider getConfigurationIdProvider() {
+        return ConfigurationIdProvider.getConfigurationIdProvider();
+    }
+
+    private MainProcess toMainProcess(final Map<String, String> attributes) {
+        final MainProcess diagram = ProcessFactory.eINSTANCE.createMainProcess();
+        for (final EAttribute attribute : diagram.eClass().getEAllAttributes()) {
+            final String value = attributes.get(attribute.getName());
+            if (value != null && attribute.isChangeable() && !attribute.isMany()) {
+                try {
+                    diagram.eSet(attribute, EcoreUtil.createFromString(attribute.getEAttributeType(), value));
+                } catch (final RuntimeException e) {
+                    BonitaStudioLog.debug("Failed to read " + attribute.getName() + " from diagram header: " + e.getMessage(), Activator.PLUGIN_ID);
+                }
+            }
+        }
+        return diagram;
+    }
+
     protected void updateConfigurationId(final Resource diagramResource, final MainProcess diagram) {
         final String pVersion = diagram.getBonitaVersion();
         final String mVersion = diagram.getBonitaModelVersion();
@@ -485,17 +554,12 @@ public class DiagramRepositoryStore extends
     }
 
     private String getModelVersion(final Resource resource) {
-        final Map<String, String[]> featureValueFromEObjectType = new EMFResourceUtil(
+        final String[] values = new EMFResourceUtil(
                 new File(resource.getURI().toFileString()))
-                .getFeatureValueFromEObjectType(
-                        "process:MainProcess",
+                .getFeatureValuesFromFirstEObjectOfType(
+                        MAIN_PROCESS_TYPE,
                         ProcessPackage.Literals.MAIN_PROCESS__BONITA_MODEL_VERSION);
-        String modelVersion = null;
-        for (final Entry<String, String[]> e : featureValueFromEObjectType
-                .entrySet()) {
-            modelVersion = e.getValue()[0];
-        }
-        return modelVersion;
+        return values != null ? values[0] : null;
     }
 
     public void updateProcessLabel(final String processId,
@@ -228,4 +228,9 @@ public class ProcessConfigurationRepositoryStore extends AbstractEMFRepositorySt
     protected void addAdapterFactory(final ComposedAdapterFactory adapterFactory) {
         adapterFactory.addAdapterFactory(new ConfigurationAdapterFactory());
     }
+
+    @Override
+    protected boolean canMigrateConcurrently() {
+        return true;
+    }
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.bonitasoft.studio.model.configuration.Configuration;
+import org.bonitasoft.studio.model.configuration.ConfigurationFactory;
+import org.bonitasoft.studio.model.process.Pool;
+import org.bonitasoft.studio.model.process.ProcessFactory;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ConfigurationSynchronizationCacheTest {
+
+    private ConfigurationSynchronizationCache cache;
+    private TransactionalEditingDomain editingDomain;
+    private Pool pool;
+    private Configuration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = spy(new ConfigurationSynchronizationCache());
+        doReturn(new HashSet<String>(Arrays.asList("connectors-impl", "lib", "src-groovy"))).when(cache).getStoreFolders();
+        editingDomain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+        final Resource resource = editingDomain.getResourceSet().createResource(URI.createFileURI("pool.proc"));
+        pool = ProcessFactory.eINSTANCE.createPool();
+        configuration = ConfigurationFactory.eINSTANCE.createConfiguration();
+        configuration.setName("Local");
+        pool.getConfigurations().add(configuration);
+        editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain) {
+
+            @Override
+            protected void doExecute() {
+                resource.getContents().add(pool);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        editingDomain.dispose();
+    }
+
+    @Test
+    public void should_return_the_synchronized_configuration_when_nothing_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isSameAs(configuration);
+    }
+
+    @Test
+    public void should_drop_the_configuration_when_the_process_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain) {
+
+            @Override
+            protected void doExecute() {
+                pool.setName("Renamed");
+            }
+        });
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isNull();
+    }
+
+    @Test
+    public void should_drop_the_configuration_when_the_context_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        assertThat(cache.get(pool, "Local", "helen.kelly")).isNull();
+    }
+
+    @Test
+    public void should_drop_the_configuration_when_a_workspace_file_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        cache.resourceChanged(aResourceChangeEvent("connectors-impl/email-impl-1.0.0.impl", IResourceDelta.CONTENT, false));
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isNull();
+    }
+
+    @Test
+    public void should_drop_the_configuration_when_a_groovy_script_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        cache.resourceChanged(aResourceChangeEvent("src-groovy/MyScript.groovy", IResourceDelta.CONTENT, false));
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isNull();
+    }
+
+    @Test
+    public void should_keep_the_configuration_when_only_markers_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        cache.resourceChanged(aResourceChangeEvent("lib/my-lib.jar", IResourceDelta.MARKERS, false));
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isSameAs(configuration);
+    }
+
+    @Test
+    public void should_keep_the_configuration_when_a_file_outside_of_the_synchronized_stores_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        cache.resourceChanged(aResourceChangeEvent("tmp/Pool--1.0.bar", IResourceDelta.CONTENT, false));
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isSameAs(configuration);
+    }
+
+    @Test
+    public void should_keep_the_configuration_when_a_derived_file_changed() throws Exception {
+        cache.put(pool, "Local", "walter.bates", configuration);
+
+        cache.resourceChanged(aResourceChangeEvent("lib/generated.jar", IResourceDelta.CONTENT, true));
+
+        assertThat(cache.get(pool, "Local", "walter.bates")).isSameAs(configuration);
+    }
+
+    @Test
+    public void should_return_a_copy_of_a_configuration_not_contained_in_the_process() throws Exception {
+        final Configuration localConfiguration = ConfigurationFactory.eINSTANCE.createConfiguration();
+        localConfiguration.setName("Local");
+        cache.put(pool, "Local", "walter.bates", localConfiguration);
+
+        final Configuration cachedConfiguration = cache.get(pool, "Local", "walter.bates");
+
+        assertThat(cachedConfiguration).isNotSameAs(localConfiguration);
+        assertThat(cachedConfiguration.getName()).isEqualTo("Local");
+    }
+
+    @Test
+    public void should_not_cache_configurations_of_a_process_without_editing_domain() throws Exception {
+        final Pool detachedPool = ProcessFactory.eINSTANCE.createPool();
+
+        cache.put(detachedPool, "Local", "walter.bates", configuration);
+
+        assertThat(cache.get(detachedPool, "Local", "walter.bates")).isNull();
+    }
+
+    private IResourceChangeEvent aResourceChangeEvent(final String projectRelativePath, final int flags, final boolean derived)
+            throws Exception {
+        final IResource file = mock(IResource.class);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(file.getProjectRelativePath()).thenReturn(new Path(projectRelativePath));
+        when(file.isDerived()).thenReturn(derived);
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getResource()).thenReturn(file);
+        when(delta.getKind()).thenReturn(IResourceDelta.CHANGED);
+        when(delta.getFlags()).thenReturn(flags);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                ((IResourceDeltaVisitor) invocation.getArguments()[0]).visit(delta);
+                return null;
+            }
+        }).when(delta).accept(any(IResourceDeltaVisitor.class));
+        final IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        when(event.getDelta()).thenReturn(delta);
+        return event;
+    }
+
+}
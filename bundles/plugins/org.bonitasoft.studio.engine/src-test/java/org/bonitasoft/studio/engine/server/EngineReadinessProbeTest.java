@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+public class EngineReadinessProbeTest {
+
+    @Test
+    public void should_not_wait_when_the_engine_is_already_ready() throws Exception {
+        final RecordingProbe probe = new RecordingProbe(readyAfter(1), 1000L);
+
+        assertThat(probe.awaitReady()).isEqualTo(1);
+        assertThat(probe.sleeps).isEmpty();
+    }
+
+    @Test
+    public void should_retry_with_an_increasing_delay() throws Exception {
+        final RecordingProbe probe = new RecordingProbe(readyAfter(7), 60000L);
+
+        assertThat(probe.awaitReady()).isEqualTo(7);
+        assertThat(probe.sleeps).containsExactly(50L, 100L, 200L, 400L, 800L, 1000L);
+    }
+
+    @Test
+    public void should_give_up_after_the_timeout() throws Exception {
+        final EngineReadinessProbe probe = new EngineReadinessProbe(readyAfter(Integer.MAX_VALUE), 200L);
+
+        assertThat(probe.awaitReady()).isEqualTo(-1);
+    }
+
+    private Callable<Boolean> readyAfter(final int attempts) {
+        return new Callable<Boolean>() {
+
+            private int count;
+
+            @Override
+            public Boolean call() throws Exception {
+                count++;
+                if (count < attempts) {
+                    throw new IllegalStateException("Engine not started");
+                }
+                return true;
+            }
+        };
+    }
+
+    private static class RecordingProbe extends EngineReadinessProbe {
+
+        private final List<Long> sleeps = new ArrayList<Long>();
+
+        RecordingProbe(final Callable<Boolean> readinessCheck, final long timeout) {
+            super(readinessCheck, timeout);
+        }
+
+        @Override
+        protected void sleep(final long millis) throws InterruptedException {
+            sleeps.add(millis);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class H2DatabaseSnapshotTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File dbFolder;
+    private H2DatabaseSnapshot snapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        dbFolder = tmpFolder.newFolder("h2_database");
+        write(new File(dbFolder, "bonita_journal.db.h2.db"), "initialized");
+        write(new File(dbFolder, "business_data.db.h2.db"), "business");
+        snapshot = new H2DatabaseSnapshot(dbFolder, new File(tmpFolder.getRoot(), "snapshot"));
+    }
+
+    @Test
+    public void should_restore_engine_database_as_it_was_when_taken() throws Exception {
+        snapshot.take("stamp");
+        write(new File(dbFolder, "bonita_journal.db.h2.db"), "with processes");
+        write(new File(dbFolder, "bonita_journal.db.lock.db"), "lock");
+        write(new File(dbFolder, "business_data.db.h2.db"), "business updated");
+
+        assertThat(snapshot.restore()).isEqualTo(1);
+
+        assertThat(read(new File(dbFolder, "bonita_journal.db.h2.db"))).isEqualTo("initialized");
+        assertThat(new File(dbFolder, "bonita_journal.db.lock.db")).doesNotExist();
+        assertThat(read(new File(dbFolder, "business_data.db.h2.db"))).isEqualTo("business updated");
+    }
+
+    @Test
+    public void should_leave_engine_database_unchanged_when_restore_fails() throws Exception {
+        snapshot.take("stamp");
+        write(new File(dbFolder, "bonita_journal.db.h2.db"), "with processes");
+        write(new File(dbFolder, "bonita_journal.db.h2.db" + H2DatabaseSnapshot.RESTORING_SUFFIX + "/locked"), "locked");
+
+        try {
+            snapshot.restore();
+            fail("restore should fail");
+        } catch (final IOException e) {
+            assertThat(read(new File(dbFolder, "bonita_journal.db.h2.db"))).isEqualTo("with processes");
+        }
+    }
+
+    @Test
+    public void should_fail_to_restore_an_empty_snapshot() throws Exception {
+        try {
+            snapshot.restore();
+            fail("restore should fail");
+        } catch (final IOException e) {
+            assertThat(read(new File(dbFolder, "bonita_journal.db.h2.db"))).isEqualTo("initialized");
+        }
+    }
+
+    @Test
+    public void should_only_be_valid_for_the_stamp_it_was_taken_with() throws Exception {
+        assertThat(snapshot.isValid("stamp")).isFalse();
+
+        snapshot.take("stamp");
+
+        assertThat(snapshot.isValid("stamp")).isTrue();
+        assertThat(snapshot.isValid("other")).isFalse();
+    }
+
+    @Test
+    public void should_not_be_valid_once_invalidated() throws Exception {
+        snapshot.take("stamp");
+
+        snapshot.invalidate();
+
+        assertThat(snapshot.isValid("stamp")).isFalse();
+    }
+
+    @Test
+    public void should_change_stamp_when_a_file_changes() throws Exception {
+        final File organizations = tmpFolder.newFolder("organizations");
+        final File organization = write(new File(organizations, "ACME.organization"), "acme");
+        final String stamp = H2DatabaseSnapshot.stampOf("7.2.0", organizations);
+
+        assertThat(H2DatabaseSnapshot.stampOf("7.2.0", organizations)).isEqualTo(stamp);
+        assertThat(H2DatabaseSnapshot.stampOf("7.3.0", organizations)).isNotEqualTo(stamp);
+
+        write(organization, "acme with more users");
+
+        assertThat(H2DatabaseSnapshot.stampOf("7.2.0", organizations)).isNotEqualTo(stamp);
+    }
+
+    private File write(final File file, final String content) throws Exception {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private String read(final File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class StartupTimingsTest {
+
+    @Test
+    public void should_list_phases_in_completion_order() throws Exception {
+        final StartupTimings timings = new StartupTimings();
+        final long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20);
+
+        timings.record("watchdog", start);
+        timings.record("tomcatStart", start);
+
+        assertThat(timings.getDuration("watchdog")).isGreaterThanOrEqualTo(20L);
+        assertThat(timings.toString()).matches("watchdog=\\d+ms, tomcatStart=\\d+ms");
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.bonitasoft.studio.engine.server.TomcatProvisioner.ProvisioningResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TomcatProvisionerTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File source;
+    private File war;
+    private File target;
+
+    @Before
+    public void setUp() throws Exception {
+        source = tmpFolder.newFolder("install", "tomcat");
+        write(new File(source, "lib/engine.jar"), "engine");
+        write(new File(source, "conf/server.xml"), "<Server/>");
+        write(new File(source, "bonita/readme.txt"), "excluded");
+        war = write(new File(tmpFolder.getRoot(), "install/bonita.war"), "war");
+        target = new File(tmpFolder.getRoot(), "workspace/tomcat");
+    }
+
+    @Test
+    public void should_install_archives_and_copy_other_files() throws Exception {
+        final ProvisioningResult result = provisioner(true).provision();
+
+        assertThat(result.getLinked() + result.getCopied()).isEqualTo(3);
+        assertThat(read(new File(target, "lib/engine.jar"))).isEqualTo("engine");
+        assertThat(read(new File(target, "webapps/bonita.war"))).isEqualTo("war");
+        assertThat(read(new File(target, "conf/server.xml"))).isEqualTo("<Server/>");
+        assertThat(new File(target, "bonita")).doesNotExist();
+        assertThat(new File(target, TomcatProvisioner.MANIFEST_FILE)).exists();
+    }
+
+    @Test
+    public void should_leave_an_intact_installation_unchanged() throws Exception {
+        provisioner(true).provision();
+        write(new File(target, "conf/server.xml"), "<Server port=\"8080\"/>");
+
+        final ProvisioningResult result = provisioner(true).provision();
+
+        assertThat(result.getUnchanged()).isEqualTo(2);
+        assertThat(result.getLinked() + result.getCopied() + result.getRestored()).isEqualTo(0);
+        assertThat(read(new File(target, "conf/server.xml"))).isEqualTo("<Server port=\"8080\"/>");
+    }
+
+    @Test
+    public void should_restore_missing_or_altered_archives_only() throws Exception {
+        provisioner(true).provision();
+        final File engineJar = new File(target, "lib/engine.jar");
+        Files.delete(engineJar.toPath());
+        write(engineJar, "corrupted");
+        Files.delete(new File(target, "webapps/bonita.war").toPath());
+
+        final ProvisioningResult result = provisioner(true).provision();
+
+        assertThat(result.getRestored()).isEqualTo(1);
+        assertThat(result.getLinked() + result.getCopied()).isEqualTo(2);
+        assertThat(read(engineJar)).isEqualTo("engine");
+        assertThat(read(new File(target, "webapps/bonita.war"))).isEqualTo("war");
+        assertThat(read(new File(source, "lib/engine.jar"))).isEqualTo("engine");
+    }
+
+    @Test
+    public void should_reinstall_archives_updated_in_the_installation() throws Exception {
+        provisioner(false).provision();
+        final File sourceJar = new File(source, "lib/engine.jar");
+        Files.delete(sourceJar.toPath());
+        write(sourceJar, "engine 2");
+
+        final ProvisioningResult result = provisioner(false).provision();
+
+        assertThat(result.getRestored()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(read(new File(target, "lib/engine.jar"))).isEqualTo("engine 2");
+    }
+
+    @Test
+    public void should_not_rewrite_the_manifest_of_an_intact_installation() throws Exception {
+        provisioner(true).provision();
+        final File manifest = new File(target, TomcatProvisioner.MANIFEST_FILE);
+        manifest.setLastModified(1000L);
+
+        provisioner(true).provision();
+
+        assertThat(manifest.lastModified()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void should_copy_archives_when_links_are_disabled() throws Exception {
+        final ProvisioningResult result = provisioner(false).provision();
+
+        assertThat(result.getLinked()).isEqualTo(0);
+        assertThat(result.getCopied()).isEqualTo(3);
+    }
+
+    private TomcatProvisioner provisioner(final boolean useLinks) throws Exception {
+        return new TomcatProvisioner(target, useLinks).addTree(source, Collections.singleton("bonita")).addFile(war, "webapps/bonita.war");
+    }
+
+    private File write(final File file, final String content) throws Exception {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private String read(final File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
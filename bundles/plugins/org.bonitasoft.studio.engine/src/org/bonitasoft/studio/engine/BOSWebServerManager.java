@@ -22,13 +22,24 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.studio.common.BonitaHomeUtil;
+import org.bonitasoft.studio.common.ProductVersion;
 import org.bonitasoft.studio.common.ProjectUtil;
 import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManager;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.platform.tools.PlatformUtil;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.RepositoryAccessor;
@@ -38,7 +49,12 @@ import org.bonitasoft.studio.designer.UIDesignerPlugin;
 import org.bonitasoft.studio.designer.core.WorkspaceResourceServerManager;
 import org.bonitasoft.studio.engine.i18n.Messages;
 import org.bonitasoft.studio.engine.preferences.EnginePreferenceConstants;
+import org.bonitasoft.studio.engine.server.EngineReadinessProbe;
+import org.bonitasoft.studio.engine.server.H2DatabaseSnapshot;
 import org.bonitasoft.studio.engine.server.PortConfigurator;
+import org.bonitasoft.studio.engine.server.StartupTimings;
+import org.bonitasoft.studio.engine.server.TomcatProvisioner;
+import org.bonitasoft.studio.engine.server.TomcatProvisioner.ProvisioningResult;
 import org.bonitasoft.studio.engine.server.WatchdogManager;
 import org.bonitasoft.studio.preferences.BonitaPreferenceConstants;
 import org.bonitasoft.studio.preferences.BonitaStudioPreferencesPlugin;
@@ -55,6 +71,7 @@ import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.ILaunchConfiguration;
@@ -100,7 +117,7 @@ public class BOSWebServerManager {
     private static final String TOMCAT_LOG_FILE = "tomcat.log";
 
     private static final int MAX_SERVER_START_TIME = 300000;
-    private static final int MAX_LOGGING_TRY = 50;
+    private static final long MAX_ENGINE_READY_TIME = 30000L;
 
     private static BOSWebServerManager INSTANCE;
     private IServer tomcat;
@@ -129,87 +146,157 @@ public class BOSWebServerManager {
 
     }
 
+    /**
+     * Installs the Tomcat bundle in the workspace on first start. Once provisioned with a {@link TomcatProvisioner}, the archives
+     * of the bundle are checked at every start and only the missing or altered ones are restored.
+     * Workspaces that were provisioned by a full copy are left untouched.
+     */
     public void copyTomcatBundleInWorkspace(final IProgressMonitor monitor) {
-        File tomcatFolder = null;
         try {
             final File targetFolder = new File(tomcatInstanceLocation);
             final File tomcatLib = new File(targetFolder, "lib");
-            if (!tomcatLib.exists()) {
-                BonitaStudioLog.debug("Copying tomcat bundle in workspace...", EnginePlugin.PLUGIN_ID);
+            final TomcatProvisioner provisioner = newTomcatProvisioner(targetFolder);
+            if (!tomcatLib.exists() || provisioner.hasManifest()) {
+                BonitaStudioLog.debug("Provisioning tomcat bundle in workspace...", EnginePlugin.PLUGIN_ID);
                 final URL url = ProjectUtil.getConsoleLibsBundle().getResource("tomcat");
-                tomcatFolder = new File(FileLocator.toFileURL(url).getFile());
-                PlatformUtil.copyResource(targetFolder, tomcatFolder, monitor);
-                PlatformUtil.delete(new File(targetFolder, "bonita"), monitor);
-                BonitaStudioLog.debug("Tomcat bundle copied in workspace.",
+                final File tomcatFolder = new File(FileLocator.toFileURL(url).getFile());
+                provisioner.addTree(tomcatFolder, Collections.singleton("bonita"));
+                addBonitaWar(provisioner);
+                addPageBuilderWar(provisioner);
+                final ProvisioningResult result = provisioner.provision();
+                BonitaStudioLog.debug("Tomcat bundle provisioned in workspace: " + result,
                         EnginePlugin.PLUGIN_ID);
-                addBonitaWar(targetFolder, monitor);
-                addPageBuilderWar(targetFolder, monitor);
             }
-
         } catch (final IOException e) {
             BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
         }
     }
 
-    protected void addPageBuilderWar(final File targetFolder, final IProgressMonitor monitor) throws IOException {
-        BonitaStudioLog.debug("Copying Designer war in tomcat/webapps...", EnginePlugin.PLUGIN_ID);
+    protected TomcatProvisioner newTomcatProvisioner(final File targetFolder) {
+        return new TomcatProvisioner(targetFolder, TomcatProvisioner.isLinkModeEnabled());
+    }
+
+    protected void addPageBuilderWar(final TomcatProvisioner provisioner) throws IOException {
         final URL url = Platform.getBundle(UIDesignerPlugin.PLUGIN_ID).getResource("webapp");
         final File pageBuilderWarFile = new File(FileLocator.toFileURL(url).getFile(), "designer.war");
-        PlatformUtil.copyResource(new File(targetFolder, "webapps"), pageBuilderWarFile, monitor);
-        BonitaStudioLog.debug("Designer war copied in tomcat/webapps.",
-                EnginePlugin.PLUGIN_ID);
-    }
-
-    protected void addBonitaWar(final File targetFolder, final IProgressMonitor monitor) throws IOException {
-        final File webappDir = new File(targetFolder, "webapps");
-        final File targetBonitaWarFile = new File(webappDir, "bonita.war");
-        if (!targetBonitaWarFile.exists()) {
-            BonitaStudioLog.debug("Copying Bonita war in tomcat/webapps...", EnginePlugin.PLUGIN_ID);
-            final URL url = ProjectUtil.getConsoleLibsBundle().getResource("tomcat/webapp");
-            final File bonitaWarFile = new File(FileLocator.toFileURL(url).getFile(), "bonita.war");
-            PlatformUtil.copyResource(webappDir, bonitaWarFile, monitor);
-            BonitaStudioLog.debug("Bonita war copied in tomcat/webapps.",
-                    EnginePlugin.PLUGIN_ID);
-        }
+        provisioner.addFile(pageBuilderWarFile, "webapps/designer.war");
+    }
+
+    protected void addBonitaWar(final TomcatProvisioner provisioner) throws IOException {
+        final URL url = ProjectUtil.getConsoleLibsBundle().getResource("tomcat/webapp");
+        final File bonitaWarFile = new File(FileLocator.toFileURL(url).getFile(), "bonita.war");
+        provisioner.addFile(bonitaWarFile, "webapps/bonita.war");
     }
 
     public synchronized void startServer(final IProgressMonitor monitor) {
         if (!serverIsStarted()) {
-            BonitaHomeUtil.initBonitaHome();
-            copyTomcatBundleInWorkspace(monitor);
+            final long startupStart = System.nanoTime();
+            final StartupTimings timings = new StartupTimings();
             monitor.subTask(Messages.startingWebServer);
-            if (BonitaStudioLog.isLoggable(IStatus.OK)) {
-                BonitaStudioLog.debug("Starting tomcat...",
-                        EnginePlugin.PLUGIN_ID);
-            }
-            WatchdogManager.getInstance().startWatchdog();
+            final ExecutorService executor = Executors.newFixedThreadPool(3, new ThreadFactory() {
+
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Engine Startup " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
             try {
-                WorkspaceResourceServerManager.getInstance().start(org.eclipse.jdt.launching.SocketUtil.findFreePort());
-            } catch (final Exception e1) {
-                BonitaStudioLog.error(e1);
-            }
-            if (tomcat != null) {
+                final Future<?> tomcatBundle = executor.submit(timed(timings, "tomcatBundle", new Runnable() {
+
+                    @Override
+                    public void run() {
+                        BonitaHomeUtil.initBonitaHome();
+                        copyTomcatBundleInWorkspace(new NullProgressMonitor());
+                    }
+                }));
+                final Future<?> watchdog = executor.submit(timed(timings, "watchdog", new Runnable() {
+
+                    @Override
+                    public void run() {
+                        WatchdogManager.getInstance().startWatchdog();
+                    }
+                }));
+                final Future<?> workspaceServer = executor.submit(timed(timings, "workspaceServer", new Runnable() {
+
+                    @Override
+                    public void run() {
+                        try {
+                            WorkspaceResourceServerManager.getInstance().start(org.eclipse.jdt.launching.SocketUtil.findFreePort());
+                        } catch (final Exception e1) {
+                            BonitaStudioLog.error(e1);
+                        }
+                    }
+                }));
+                await(tomcatBundle);
+                // The launch configuration reads the port of the workspace resource server
+                await(workspaceServer);
+                if (BonitaStudioLog.isLoggable(IStatus.OK)) {
+                    BonitaStudioLog.debug("Starting tomcat...",
+                            EnginePlugin.PLUGIN_ID);
+                }
+                if (tomcat != null) {
+                    try {
+                        tomcat.delete();
+                    } catch (final CoreException e) {
+                        BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+                    }
+                }
+                updateRuntimeLocationIfNeeded();
+                final IRuntimeType type = ServerCore.findRuntimeType(TOMCAT_RUNTIME_TYPE);
+
                 try {
-                    tomcat.delete();
+                    long phaseStart = System.nanoTime();
+                    final IProject confProject = createServerConfigurationProject(monitor);
+                    final IRuntime runtime = createServerRuntime(type, monitor);
+                    tomcat = createServer(monitor, confProject, runtime);
+                    createLaunchConfiguration(tomcat, monitor);
+                    confProject.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, monitor);
+                    timings.record("serverConfiguration", phaseStart);
+                    phaseStart = System.nanoTime();
+                    tomcat.start("run", monitor);
+                    timings.record("tomcatStart", phaseStart);
+                    phaseStart = System.nanoTime();
+                    waitServerRunning(monitor);
+                    timings.record("engineReady", phaseStart);
                 } catch (final CoreException e) {
-                    BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+                    handleCoreExceptionWhileStartingTomcat(e);
                 }
+                await(watchdog);
+            } finally {
+                executor.shutdown();
             }
-            updateRuntimeLocationIfNeeded();
-            final IRuntimeType type = ServerCore.findRuntimeType(TOMCAT_RUNTIME_TYPE);
+            timings.record("total", startupStart);
+            BonitaStudioLog.info("Engine startup timings: " + timings, EnginePlugin.PLUGIN_ID);
+        }
+    }
 
-            try {
-                final IProject confProject = createServerConfigurationProject(monitor);
-                final IRuntime runtime = createServerRuntime(type, monitor);
-                tomcat = createServer(monitor, confProject, runtime);
-                createLaunchConfiguration(tomcat, monitor);
-                confProject.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, monitor);
-                tomcat.start("run", monitor);
-                waitServerRunning(monitor);
-            } catch (final CoreException e) {
-                handleCoreExceptionWhileStartingTomcat(e);
+    private Runnable timed(final StartupTimings timings, final String phase, final Runnable runnable) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                try {
+                    runnable.run();
+                } finally {
+                    timings.record(phase, start);
+                }
             }
+        };
+    }
 
+    private void await(final Future<?> future) {
+        try {
+            future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+        } catch (final ExecutionException e) {
+            BonitaStudioLog.error(e.getCause(), EnginePlugin.PLUGIN_ID);
         }
     }
 
@@ -275,28 +362,30 @@ public class BOSWebServerManager {
     }
 
     private void connectWithRetries() {
-        int loginTry = 0;
-        APISession session = null;
-        while (session == null && loginTry < MAX_LOGGING_TRY) {
-            try {
-                session = BOSEngineManager.getInstance().getLoginAPI().login(BOSEngineManager.BONITA_TECHNICAL_USER, BOSEngineManager.BONITA_TECHNICAL_USER);
-            } catch (final Exception e) {
-                loginTry++;
+        final EngineReadinessProbe probe = new EngineReadinessProbe(new Callable<Boolean>() {
+
+            @Override
+            public Boolean call() throws Exception {
+                final APISession session = BOSEngineManager.getInstance().getLoginAPI().login(BOSEngineManager.BONITA_TECHNICAL_USER,
+                        BOSEngineManager.BONITA_TECHNICAL_USER);
                 try {
-                    Thread.sleep(500);
-                } catch (final InterruptedException ex) {
-                    BonitaStudioLog.error(ex, EnginePlugin.PLUGIN_ID);
+                    BOSEngineManager.getInstance().getLoginAPI().logout(session);
+                } catch (final Exception e) {
+                    BonitaStudioLog.error(e);
                 }
+                return true;
             }
-        }
-        if (session != null) {
-            try {
-                BOSEngineManager.getInstance().getLoginAPI().logout(session);
-            } catch (final Exception e) {
-                BonitaStudioLog.error(e);
+        }, MAX_ENGINE_READY_TIME);
+        try {
+            final int attempts = probe.awaitReady();
+            if (attempts < 0) {
+                BonitaStudioLog.error("Failed to login to engine after " + MAX_ENGINE_READY_TIME + " ms", EnginePlugin.PLUGIN_ID);
+            } else {
+                BonitaStudioLog.debug("Engine ready after " + attempts + " login attempt(s)", EnginePlugin.PLUGIN_ID);
             }
-        } else {
-            BonitaStudioLog.error("Failed to login to engine after " + MAX_LOGGING_TRY + " tries", EnginePlugin.PLUGIN_ID);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
         }
     }
 
@@ -434,6 +523,81 @@ public class BOSWebServerManager {
         startServer(monitor);
     }
 
+    /**
+     * Resets the tenant by restoring the engine database saved by {@link #resetServerAndSnapshot(IProgressMonitor)}, instead of
+     * undeploying the processes.
+     *
+     * @return false when there is no snapshot for the organization and business data model of the current repository, or when it could
+     *         not be restored: the server is then left running on its current database
+     */
+    public boolean resetServerFromSnapshot(final IProgressMonitor monitor) {
+        if (!H2DatabaseSnapshot.isEnabled() || !serverIsStarted()) {
+            return false;
+        }
+        final H2DatabaseSnapshot snapshot = getTenantSnapshot();
+        if (!snapshot.isValid(getTenantSnapshotStamp())) {
+            return false;
+        }
+        final Timer.Context context = StudioMetrics.time("engine.reset.snapshot");
+        stopServer(monitor);
+        boolean restored;
+        try {
+            final int files = snapshot.restore();
+            BonitaStudioLog.info(String.format("Engine database restored from snapshot (%s files)", files), EnginePlugin.PLUGIN_ID);
+            restored = true;
+        } catch (final IOException e) {
+            BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+            invalidateTenantSnapshot();
+            restored = false;
+        }
+        startServer(monitor);
+        context.stop();
+        return restored;
+    }
+
+    /**
+     * Discards the engine database snapshot, so that the next reset undeploys the processes. To be called when an organization or a
+     * business data model is deployed, since the snapshot would restore the previous ones.
+     */
+    public void invalidateTenantSnapshot() {
+        try {
+            getTenantSnapshot().invalidate();
+        } catch (final IOException e) {
+            BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+        }
+    }
+
+    /**
+     * Restarts the server, saving the engine database while it is stopped for the next
+     * {@link #resetServerFromSnapshot(IProgressMonitor)}.
+     */
+    public void resetServerAndSnapshot(final IProgressMonitor monitor) {
+        stopServer(monitor);
+        if (H2DatabaseSnapshot.isEnabled()) {
+            try {
+                getTenantSnapshot().take(getTenantSnapshotStamp());
+            } catch (final IOException e) {
+                BonitaStudioLog.error(e, EnginePlugin.PLUGIN_ID);
+            }
+        }
+        startServer(monitor);
+    }
+
+    protected H2DatabaseSnapshot getTenantSnapshot() {
+        final Repository repository = RepositoryManager.getInstance().getCurrentRepository();
+        final File snapshotFolder = EnginePlugin.getDefault().getStateLocation().append("h2_snapshot").append(repository.getName()).toFile();
+        return new H2DatabaseSnapshot(repository.getBonitaHomeHandler().getDBLocation(), snapshotFolder);
+    }
+
+    /**
+     * The deployed organization and business data model come from these folders of the repository
+     */
+    protected String getTenantSnapshotStamp() {
+        final File projectFolder = RepositoryManager.getInstance().getCurrentRepository().getProject().getLocation().toFile();
+        return H2DatabaseSnapshot.stampOf(ProductVersion.CURRENT_VERSION, new File(projectFolder, "organizations"),
+                new File(projectFolder, "bdm"), new File(projectFolder, ".settings"));
+    }
+
     public synchronized void stopServer(final IProgressMonitor monitor) {
         if (serverIsStarted()) {
             monitor.subTask(Messages.stoppingWebServer);
@@ -52,6 +52,10 @@ public class ResetEngineCommand extends AbstractHandler {
             @Override
             public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                 monitor.beginTask(Messages.resetingEngine, IProgressMonitor.UNKNOWN);
+                if (BOSWebServerManager.getInstance().resetServerFromSnapshot(monitor)) {
+                    monitor.done();
+                    return;
+                }
                 APISession session = null;
                 try {
                     session = BOSEngineManager.getInstance().loginDefaultTenant(monitor);
@@ -83,7 +87,7 @@ public class ResetEngineCommand extends AbstractHandler {
                     }
                 }
 
-                BOSWebServerManager.getInstance().resetServer(monitor);
+                BOSWebServerManager.getInstance().resetServerAndSnapshot(monitor);
 
                 monitor.done();
 
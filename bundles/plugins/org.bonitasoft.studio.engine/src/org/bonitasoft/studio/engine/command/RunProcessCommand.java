@@ -37,7 +37,6 @@ import org.bonitasoft.studio.model.process.MainProcess;
 import org.bonitasoft.studio.preferences.BonitaPreferenceConstants;
 import org.bonitasoft.studio.preferences.BonitaStudioPreferencesPlugin;
 import org.bonitasoft.studio.validation.common.operation.BatchValidationOperation;
-import org.bonitasoft.studio.validation.common.operation.OffscreenEditPartFactory;
 import org.bonitasoft.studio.validation.common.operation.RunProcessesValidationOperation;
 import org.bonitasoft.studio.validation.common.operation.ValidationMarkerProvider;
 import org.eclipse.core.commands.AbstractHandler;
@@ -95,7 +94,7 @@ public class RunProcessCommand extends AbstractHandler implements IHandler {
         if (BonitaStudioPreferencesPlugin.getDefault().getPreferenceStore().getBoolean(BonitaPreferenceConstants.VALIDATION_BEFORE_RUN)) {
             final List<AbstractProcess> processes = new ArrayList<AbstractProcess>(executableProcesses);
             final RunProcessesValidationOperation validationOperation = new RunProcessesValidationOperation(new BatchValidationOperation(
-                    new OffscreenEditPartFactory(org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory.getInstance()), new ValidationMarkerProvider()));
+                    new ValidationMarkerProvider()));
             validationOperation.addProcesses(processes);
             try {
                 if (runSynchronously) {
@@ -35,8 +35,11 @@ import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManag
 import org.bonitasoft.studio.common.extension.ExtensionContextInjectionFactory;
 import org.bonitasoft.studio.common.gmf.tools.CopyToImageUtilEx;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.repository.Repository;
 import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.common.repository.core.ActiveOrganizationProvider;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
 import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
 import org.bonitasoft.studio.configuration.ConfigurationPlugin;
@@ -93,7 +96,16 @@ public class BarExporter {
 
     public BusinessArchive createBusinessArchive(final AbstractProcess process, final Configuration configuration, final Set<EObject> excludedObject,
             final boolean addProcessImage) throws Exception {
+        final Timer.Context context = StudioMetrics.time("bar.build");
+        try {
+            return doCreateBusinessArchive(process, configuration, excludedObject, addProcessImage);
+        } finally {
+            context.stop();
+        }
+    }
 
+    private BusinessArchive doCreateBusinessArchive(final AbstractProcess process, final Configuration configuration,
+            final Set<EObject> excludedObject, final boolean addProcessImage) throws Exception {
         checkArgument(configuration != null);
         BonitaStudioLog.info("Building bar for process " + process.getName() + " (" + process.getVersion() + " )...", EnginePlugin.PLUGIN_ID);
         final DesignProcessDefinitionBuilder procBuilder = getProcessDefinitionBuilder();
@@ -172,6 +184,11 @@ public class BarExporter {
         if (configurationId == null) {
             configurationId = ConfigurationPlugin.getDefault().getPreferenceStore().getString(ConfigurationPreferenceConstants.DEFAULT_CONFIGURATION);
         }
+        final String synchronizationContext = synchronizationContext();
+        final Configuration synchronizedConfiguration = getConfigurationSynchronizationCache().get(process, configurationId, synchronizationContext);
+        if (synchronizedConfiguration != null) {
+            return synchronizedConfiguration;
+        }
         if (configurationId.equals(ConfigurationPreferenceConstants.LOCAL_CONFIGURAITON)) {
             final String id = ModelHelper.getEObjectID(process);
             IRepositoryFileStore file = processConfStore.getChild(id + ".conf");
@@ -201,9 +218,22 @@ public class BarExporter {
         }
         //Synchronize configuration with definition
         new ConfigurationSynchronizer(process, configuration).synchronize();
+        getConfigurationSynchronizationCache().put(process, configurationId, synchronizationContext, configuration);
         return configuration;
     }
 
+    protected ConfigurationSynchronizationCache getConfigurationSynchronizationCache() {
+        return ConfigurationSynchronizationCache.getInstance();
+    }
+
+    /**
+     * The default user and password of the active organization are set in configurations without credentials
+     */
+    private String synchronizationContext() {
+        final ActiveOrganizationProvider activeOrganizationProvider = new ActiveOrganizationProvider();
+        return activeOrganizationProvider.getDefaultUser() + ":" + activeOrganizationProvider.getDefaultPassword();
+    }
+
     public Map<String, String> getParameterMapFromConfiguration(final Configuration configuration) {
         final Map<String, String> result = new HashMap<String, String>();
         for (final Parameter p : configuration.getParameters()) {
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.export;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.IRepositoryStore;
+import org.bonitasoft.studio.model.configuration.Configuration;
+import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+
+/**
+ * Remembers the configurations synchronized by {@link BarExporter#getConfiguration(AbstractProcess, String)}.
+ * A synchronized configuration is reused while neither the editing domain of its process nor the stores read by the synchronization
+ * changed since its synchronization. Processes without a transactional editing domain are never cached.
+ */
+public class ConfigurationSynchronizationCache implements IResourceChangeListener {
+
+    private static ConfigurationSynchronizationCache INSTANCE;
+
+    private long workspaceGeneration;
+    /** Folders of the stores of the current repository, null until a configuration is cached */
+    private volatile Set<String> storeFolders;
+    private final Map<TransactionalEditingDomain, DomainChangeListener> domainListeners = new WeakHashMap<TransactionalEditingDomain, DomainChangeListener>();
+    private final Map<AbstractProcess, Map<String, SynchronizedConfiguration>> configurations = new WeakHashMap<AbstractProcess, Map<String, SynchronizedConfiguration>>();
+
+    public static synchronized ConfigurationSynchronizationCache getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new ConfigurationSynchronizationCache();
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(INSTANCE, IResourceChangeEvent.POST_CHANGE);
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * @param context any other input of the synchronization (eg: the default user), the cached configuration is dropped when it differs
+     * @return the configuration synchronized for the given id if nothing changed since then, null otherwise. A configuration not
+     *         contained in the process is returned as a copy.
+     */
+    public synchronized Configuration get(final AbstractProcess process, final String configurationId, final String context) {
+        final Map<String, SynchronizedConfiguration> processConfigurations = configurations.get(process);
+        if (processConfigurations == null) {
+            return null;
+        }
+        final SynchronizedConfiguration synchronizedConfiguration = processConfigurations.get(configurationId);
+        if (synchronizedConfiguration == null) {
+            return null;
+        }
+        if (!synchronizedConfiguration.isUpToDate(domainGeneration(process), workspaceGeneration, context)) {
+            processConfigurations.remove(configurationId);
+            return null;
+        }
+        return synchronizedConfiguration.getConfiguration();
+    }
+
+    /**
+     * To be called right after the synchronization, changes made by the synchronization itself are ignored
+     */
+    public synchronized void put(final AbstractProcess process, final String configurationId, final String context, final Configuration configuration) {
+        final TransactionalEditingDomain domain = TransactionUtil.getEditingDomain(process);
+        if (domain == null) {
+            return;
+        }
+        storeFolders = getStoreFolders();
+        DomainChangeListener listener = domainListeners.get(domain);
+        if (listener == null) {
+            listener = new DomainChangeListener();
+            domain.addResourceSetListener(listener);
+            domainListeners.put(domain, listener);
+        }
+        Map<String, SynchronizedConfiguration> processConfigurations = configurations.get(process);
+        if (processConfigurations == null) {
+            processConfigurations = new HashMap<String, SynchronizedConfiguration>();
+            configurations.put(process, processConfigurations);
+        }
+        processConfigurations.put(configurationId, new SynchronizedConfiguration(configuration, listener.getGeneration(), workspaceGeneration, context));
+    }
+
+    public synchronized void clear() {
+        configurations.clear();
+    }
+
+    /**
+     * Any store may be read by a configuration synchronizer, including the stores contributed by other bundles. Read when a
+     * configuration is cached rather than from the resource change notification, so that no store is created while the workspace is
+     * notifying its listeners.
+     */
+    protected Set<String> getStoreFolders() {
+        final Set<String> folders = new HashSet<String>();
+        for (final IRepositoryStore<? extends IRepositoryFileStore> store : RepositoryManager.getInstance().getCurrentRepository().getAllStores()) {
+            folders.add(store.getName());
+        }
+        return folders;
+    }
+
+    @Override
+    public void resourceChanged(final IResourceChangeEvent event) {
+        if (event.getDelta() != null && hasContentChanges(event.getDelta())) {
+            synchronized (this) {
+                workspaceGeneration++;
+            }
+        }
+    }
+
+    private boolean hasContentChanges(final IResourceDelta delta) {
+        final boolean[] changed = new boolean[1];
+        try {
+            delta.accept(new IResourceDeltaVisitor() {
+
+                @Override
+                public boolean visit(final IResourceDelta child) throws CoreException {
+                    final IResource resource = child.getResource();
+                    if (resource.isDerived() || resource.isTeamPrivateMember() || !isInStore(resource)) {
+                        return false;
+                    }
+                    if (resource.getType() == IResource.FILE && !isMarkersOnly(child)) {
+                        changed[0] = true;
+                    }
+                    return !changed[0];
+                }
+            });
+        } catch (final CoreException e) {
+            return true;
+        }
+        return changed[0];
+    }
+
+    /**
+     * Only the repository stores invalidate the cache: the bars and temporary files written by a deployment must not
+     */
+    private boolean isInStore(final IResource resource) {
+        if (resource.getType() == IResource.ROOT || resource.getType() == IResource.PROJECT) {
+            return true;
+        }
+        final Set<String> folders = storeFolders;
+        return folders == null || folders.contains(resource.getProjectRelativePath().segment(0));
+    }
+
+    /**
+     * Validation markers are updated all the time and are not an input of the synchronization
+     */
+    private boolean isMarkersOnly(final IResourceDelta delta) {
+        return delta.getKind() == IResourceDelta.CHANGED && (delta.getFlags() & ~IResourceDelta.MARKERS) == 0;
+    }
+
+    private long domainGeneration(final AbstractProcess process) {
+        final TransactionalEditingDomain domain = TransactionUtil.getEditingDomain(process);
+        final DomainChangeListener listener = domain != null ? domainListeners.get(domain) : null;
+        return listener != null ? listener.getGeneration() : -1;
+    }
+
+    private static class DomainChangeListener extends ResourceSetListenerImpl {
+
+        private volatile long generation;
+
+        @Override
+        public void resourceSetChanged(final ResourceSetChangeEvent event) {
+            generation++;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+    }
+
+    private static class SynchronizedConfiguration {
+
+        /** A configuration contained in the process must not prevent the process from being garbage collected */
+        private final WeakReference<Configuration> containedConfiguration;
+        /** A configuration stored outside of the process (eg: local configuration) is read again by each caller, we keep our own copy */
+        private final Configuration detachedConfiguration;
+        private final long domainGeneration;
+        private final long workspaceGeneration;
+        private final String context;
+
+        SynchronizedConfiguration(final Configuration configuration, final long domainGeneration, final long workspaceGeneration,
+                final String context) {
+            if (configuration.eContainer() != null) {
+                containedConfiguration = new WeakReference<Configuration>(configuration);
+                detachedConfiguration = null;
+            } else {
+                containedConfiguration = null;
+                detachedConfiguration = EcoreUtil.copy(configuration);
+            }
+            this.domainGeneration = domainGeneration;
+            this.workspaceGeneration = workspaceGeneration;
+            this.context = context;
+        }
+
+        boolean isUpToDate(final long domainGeneration, final long workspaceGeneration, final String context) {
+            return this.domainGeneration == domainGeneration && this.workspaceGeneration == workspaceGeneration
+                    && (this.context == null ? context == null : this.context.equals(context));
+        }
+
+        Configuration getConfiguration() {
+            return detachedConfiguration != null ? EcoreUtil.copy(detachedConfiguration) : containedConfiguration.get();
+        }
+    }
+
+}
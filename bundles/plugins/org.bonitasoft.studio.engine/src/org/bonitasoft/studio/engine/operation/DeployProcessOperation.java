@@ -41,6 +41,8 @@ import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.studio.common.emf.tools.ExpressionHelper;
 import org.bonitasoft.studio.common.emf.tools.ModelHelper;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.engine.BOSEngineManager;
 import org.bonitasoft.studio.engine.EnginePlugin;
 import org.bonitasoft.studio.engine.export.BarExporter;
@@ -106,6 +108,15 @@ public class DeployProcessOperation {
 
     public IStatus run(final IProgressMonitor monitor) {
         Assert.isTrue(!processes.isEmpty());
+        final Timer.Context context = StudioMetrics.time("deploy.run");
+        try {
+            return doRun(monitor);
+        } finally {
+            context.stop();
+        }
+    }
+
+    private IStatus doRun(final IProgressMonitor monitor) {
         IStatus status = null;
         try {
             status = undeploy(processes, monitor);
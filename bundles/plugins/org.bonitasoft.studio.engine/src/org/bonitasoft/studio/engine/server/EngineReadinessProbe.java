@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Waits until the engine answers. The check is run as soon as the server is started and then with an increasing delay, so that a
+ * ready engine is detected at once while a slow one is not flooded with login requests.
+ */
+public class EngineReadinessProbe {
+
+    static final long INITIAL_DELAY = 50L;
+    static final long MAX_DELAY = 1000L;
+
+    private final Callable<Boolean> readinessCheck;
+    private final long timeout;
+
+    /**
+     * @param readinessCheck returns true when the engine is ready, false or an exception otherwise
+     * @param timeout in milliseconds
+     */
+    public EngineReadinessProbe(final Callable<Boolean> readinessCheck, final long timeout) {
+        this.readinessCheck = readinessCheck;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the number of checks run before the engine was ready, or -1 on timeout
+     */
+    public int awaitReady() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeout;
+        long delay = INITIAL_DELAY;
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            if (isReady()) {
+                return attempts;
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return -1;
+            }
+            sleep(Math.min(delay, remaining));
+            delay = Math.min(delay * 2, MAX_DELAY);
+        }
+    }
+
+    private boolean isReady() {
+        try {
+            return Boolean.TRUE.equals(readinessCheck.call());
+        } catch (final Exception e) {
+            return false;
+        }
+    }
+
+    protected void sleep(final long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy of the engine database files of a workspace, taken while the server is stopped, once the platform and the tenant are
+ * initialized and the organization and business data model are deployed.
+ * Restoring it gives back a clean tenant without undeploying the processes and deleting their instances one by one.
+ * The snapshot records a stamp of what was deployed when it was taken, it is only restored for the same stamp.
+ * Business data files are neither saved nor restored.
+ */
+public class H2DatabaseSnapshot {
+
+    /**
+     * Set to <code>false</code> to always reset the engine by undeploying the processes.
+     */
+    public static final String ENABLED_PROPERTY = "bonita.engine.reset.snapshot";
+
+    static final String STAMP_FILE = ".stamp";
+    static final String RESTORING_SUFFIX = ".restoring";
+    static final String BACKUP_SUFFIX = ".backup";
+
+    private final File dbFolder;
+    private final File snapshotFolder;
+
+    public H2DatabaseSnapshot(final File dbFolder, final File snapshotFolder) {
+        this.dbFolder = dbFolder;
+        this.snapshotFolder = snapshotFolder;
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equals(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    public boolean isValid(final String stamp) {
+        final File stampFile = new File(snapshotFolder, STAMP_FILE);
+        if (!stampFile.isFile()) {
+            return false;
+        }
+        try {
+            return stamp.equals(new String(Files.readAllBytes(stampFile.toPath()), StandardCharsets.UTF_8))
+                    && !engineFiles(snapshotFolder).isEmpty();
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the current engine database files. The server must be stopped.
+     */
+    public void take(final String stamp) throws IOException {
+        invalidate();
+        final List<File> files = engineFiles(dbFolder);
+        if (files.isEmpty()) {
+            return;
+        }
+        snapshotFolder.mkdirs();
+        for (final File file : files) {
+            Files.copy(file.toPath(), new File(snapshotFolder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // written last: an interrupted snapshot is never valid
+        Files.write(new File(snapshotFolder, STAMP_FILE).toPath(), stamp.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the engine database files with the snapshot. The server must be stopped.
+     * The snapshot is first copied next to the database files, which are only swapped once all the copies succeeded, and put back if
+     * the swap fails.
+     *
+     * @return the number of restored files
+     * @throws IOException when the snapshot could not be restored, the engine database files are then left as they were
+     */
+    public int restore() throws IOException {
+        final List<File> files = engineFiles(snapshotFolder);
+        if (files.isEmpty()) {
+            throw new IOException("No engine database files in " + snapshotFolder);
+        }
+        dbFolder.mkdirs();
+        final List<File> copies = new ArrayList<File>();
+        try {
+            for (final File file : files) {
+                final File copy = new File(dbFolder, file.getName() + RESTORING_SUFFIX);
+                copies.add(copy);
+                Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            swap(copies);
+        } finally {
+            for (final File copy : copies) {
+                copy.delete();
+            }
+        }
+        return files.size();
+    }
+
+    private void swap(final List<File> copies) throws IOException {
+        final List<File> backups = new ArrayList<File>();
+        try {
+            for (final File file : engineFiles(dbFolder)) {
+                final File backup = new File(dbFolder, file.getName() + BACKUP_SUFFIX);
+                Files.move(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                backups.add(backup);
+            }
+            for (final File copy : copies) {
+                Files.move(copy.toPath(), new File(dbFolder, withoutSuffix(copy, RESTORING_SUFFIX)).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            rollback(backups, e);
+            throw e;
+        }
+        for (final File backup : backups) {
+            backup.delete();
+        }
+    }
+
+    private void rollback(final List<File> backups, final IOException cause) {
+        try {
+            for (final File file : engineFiles(dbFolder)) {
+                Files.delete(file.toPath());
+            }
+            for (final File backup : backups) {
+                Files.move(backup.toPath(), new File(dbFolder, withoutSuffix(backup, BACKUP_SUFFIX)).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static String withoutSuffix(final File file, final String suffix) {
+        final String name = file.getName();
+        return name.substring(0, name.length() - suffix.length());
+    }
+
+    public void invalidate() throws IOException {
+        Files.deleteIfExists(new File(snapshotFolder, STAMP_FILE).toPath());
+        for (final File file : engineFiles(snapshotFolder)) {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Files of the engine database, the business data database excluded.
+     */
+    static List<File> engineFiles(final File folder) {
+        final List<File> result = new ArrayList<File>();
+        final File[] files = folder.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final String name = file.getName();
+                if (file.isFile() && name.contains("bonita") && !name.contains("business") && name.endsWith(".db")) {
+                    result.add(file);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the path, size and date of all the files of the given folders, so that any change in them gives another stamp.
+     */
+    public static String stampOf(final String prefix, final File... folders) {
+        final List<String> entries = new ArrayList<String>();
+        for (final File folder : folders) {
+            collect(folder, entries);
+        }
+        Collections.sort(entries);
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+        for (final String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void collect(final File file, final List<String> entries) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children != null) {
+                for (final File child : children) {
+                    collect(child, entries);
+                }
+            }
+        } else if (file.isFile()) {
+            entries.add(file.getAbsolutePath() + ";" + file.length() + ";" + file.lastModified() + "\n");
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.engine.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Installs the Tomcat bundle of the Studio in a workspace.
+ * Archives (jar, war, zip) are never modified at runtime: they are hard linked to the files of the installation when the file system
+ * allows it, and copied otherwise. Other files, like the configuration, are copied once and then left to the Studio and Tomcat.
+ * A linked archive shares its content with the installation: writing into it would alter the installation as well. Archives of the
+ * target folder must only be replaced, by deleting the file before creating the new one, as {@link #provision()} does.
+ * A manifest of the installed archives, with their hash and the size and date of their source, is kept in the target folder so that
+ * provisioning again only restores the archives that are missing, were altered, or were updated in the installation.
+ */
+public class TomcatProvisioner {
+
+    public static final String MANIFEST_FILE = ".provisioning";
+
+    /**
+     * Set to <code>copy</code> to copy the archives instead of linking them.
+     */
+    public static final String MODE_PROPERTY = "bonita.tomcat.provisioning";
+
+    private final File targetRoot;
+    private final boolean useLinks;
+    private final Map<String, File> files = new LinkedHashMap<String, File>();
+
+    public TomcatProvisioner(final File targetRoot, final boolean useLinks) {
+        this.targetRoot = targetRoot;
+        this.useLinks = useLinks;
+    }
+
+    public static boolean isLinkModeEnabled() {
+        return !"copy".equals(System.getProperty(MODE_PROPERTY));
+    }
+
+    public boolean hasManifest() {
+        return new File(targetRoot, MANIFEST_FILE).exists();
+    }
+
+    /**
+     * Adds all the files of the source folder, except the top level folders with an excluded name.
+     */
+    public TomcatProvisioner addTree(final File sourceFolder, final Set<String> excludedFolders) throws IOException {
+        final Path sourcePath = sourceFolder.toPath();
+        Files.walkFileTree(sourcePath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (dir.getParent() != null && dir.getParent().equals(sourcePath) && excludedFolders.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                files.put(sourcePath.relativize(file).toString().replace(File.separatorChar, '/'), file.toFile());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds a single file, installed at the given path of the target root.
+     *
+     * @param targetPath path relative to the target root, with / separators
+     */
+    public TomcatProvisioner addFile(final File source, final String targetPath) {
+        files.put(targetPath, source);
+        return this;
+    }
+
+    public ProvisioningResult provision() throws IOException {
+        final Properties manifest = loadManifest();
+        final ProvisioningResult result = new ProvisioningResult();
+        boolean manifestChanged = false;
+        for (final Entry<String, File> entry : files.entrySet()) {
+            final String path = entry.getKey();
+            final File source = entry.getValue();
+            final File target = new File(targetRoot, path);
+            if (!isArchive(path)) {
+                if (!target.exists()) {
+                    copy(source, target);
+                    result.copied++;
+                }
+            } else if (isIntact(source, target, manifest.getProperty(path))) {
+                result.unchanged++;
+            } else {
+                if (target.exists()) {
+                    result.restored++;
+                }
+                if (install(source, target)) {
+                    result.linked++;
+                } else {
+                    result.copied++;
+                }
+                manifest.setProperty(path, stampOf(target) + ";" + sha1(target) + ";" + stampOf(source));
+                manifestChanged = true;
+            }
+        }
+        if (manifestChanged) {
+            saveManifest(manifest);
+        }
+        return result;
+    }
+
+    static boolean isArchive(final String path) {
+        return path.endsWith(".jar") || path.endsWith(".war") || path.endsWith(".zip");
+    }
+
+    /**
+     * An archive is intact when its source has the size and date recorded in the manifest, and when it has itself the recorded size and
+     * date, or, when they differ, the recorded hash.
+     */
+    private boolean isIntact(final File source, final File target, final String recorded) throws IOException {
+        if (recorded == null || !target.isFile()) {
+            return false;
+        }
+        final String[] fields = recorded.split(";");
+        if (fields.length != 5 || !(fields[3] + ";" + fields[4]).equals(stampOf(source))) {
+            return false;
+        }
+        if ((fields[0] + ";" + fields[1]).equals(stampOf(target))) {
+            return true;
+        }
+        return fields[2].equals(sha1(target));
+    }
+
+    /**
+     * Deletes the target before linking or copying the source, so that a previous link is replaced instead of being written through.
+     *
+     * @return true if the target is a link to the source, false if it is a copy
+     */
+    private boolean install(final File source, final File target) throws IOException {
+        Files.deleteIfExists(target.toPath());
+        target.getParentFile().mkdirs();
+        if (useLinks) {
+            try {
+                Files.createLink(target.toPath(), source.toPath());
+                return true;
+            } catch (final IOException | UnsupportedOperationException e) {
+                //Another volume or a file system without hard links
+            }
+        }
+        copy(source, target);
+        return false;
+    }
+
+    private void copy(final File source, final File target) throws IOException {
+        target.getParentFile().mkdirs();
+        Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    private String stampOf(final File file) {
+        return file.length() + ";" + file.lastModified();
+    }
+
+    private Properties loadManifest() throws IOException {
+        final Properties manifest = new Properties();
+        final File manifestFile = new File(targetRoot, MANIFEST_FILE);
+        if (manifestFile.exists()) {
+            try (InputStream is = Files.newInputStream(manifestFile.toPath())) {
+                manifest.load(is);
+            }
+        }
+        return manifest;
+    }
+
+    private void saveManifest(final Properties manifest) throws IOException {
+        targetRoot.mkdirs();
+        try (OutputStream os = Files.newOutputStream(new File(targetRoot, MANIFEST_FILE).toPath())) {
+            manifest.store(os, "Archives provisioned from the Studio installation: size;date;sha1;source size;source date");
+        }
+    }
+
+    static String sha1(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] buffer = new byte[65536];
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    public static class ProvisioningResult {
+
+        private int linked;
+        private int copied;
+        private int unchanged;
+        private int restored;
+
+        public int getLinked() {
+            return linked;
+        }
+
+        public int getCopied() {
+            return copied;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public int getRestored() {
+            return restored;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d linked, %d copied, %d unchanged, %d restored", linked, copied, unchanged, restored);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.groovy.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.junit.Test;
+
+public class GroovyScriptJarCacheTest {
+
+    @Test
+    public void should_compute_the_same_key_whatever_the_order_of_the_compilation_units() throws Exception {
+        final GroovyScriptJarCache cache = new GroovyScriptJarCache();
+        final ICompilationUnit script1 = aCompilationUnit("=Groovy/Script1.groovy", "return 1");
+        final ICompilationUnit script2 = aCompilationUnit("=Groovy/Script2.groovy", "return 2");
+
+        assertThat(cache.keyOf(Arrays.asList(script1, script2))).isEqualTo(cache.keyOf(Arrays.asList(script2, script1)));
+    }
+
+    @Test
+    public void should_compute_another_key_when_a_source_changes() throws Exception {
+        final GroovyScriptJarCache cache = new GroovyScriptJarCache();
+
+        final String key = cache.keyOf(Arrays.asList(aCompilationUnit("=Groovy/Script1.groovy", "return 1")));
+
+        assertThat(cache.keyOf(Arrays.asList(aCompilationUnit("=Groovy/Script1.groovy", "return 2")))).isNotEqualTo(key);
+        assertThat(cache.keyOf(Arrays.asList(aCompilationUnit("=Groovy/Other.groovy", "return 1")))).isNotEqualTo(key);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_jars() throws Exception {
+        final GroovyScriptJarCache cache = new GroovyScriptJarCache();
+        cache.put("first", new byte[] { 1 });
+        for (int i = 0; i < GroovyScriptJarCache.MAX_ENTRIES; i++) {
+            cache.get("first");
+            cache.put("jar" + i, new byte[] { 2 });
+        }
+
+        assertThat(cache.get("first")).isNotNull();
+        assertThat(cache.get("jar0")).isNull();
+    }
+
+    private ICompilationUnit aCompilationUnit(final String handle, final String source) throws Exception {
+        final ICompilationUnit unit = mock(ICompilationUnit.class);
+        doReturn(handle).when(unit).getHandleIdentifier();
+        doReturn(source).when(unit).getSource();
+        return unit;
+    }
+
+}
@@ -44,6 +44,7 @@ import org.bonitasoft.studio.model.configuration.ConfigurationPackage;
 import org.bonitasoft.studio.model.configuration.Fragment;
 import org.bonitasoft.studio.model.configuration.FragmentContainer;
 import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -94,22 +95,16 @@ public class GroovyScriptBarResourceProvider implements BARResourcesProvider {
     protected void addGroovyCompilationUnitToClasspath(final BusinessArchiveBuilder builder, final Set<ICompilationUnit> compilationUnits,
             final String exportedProvidedJarName) throws InvocationTargetException, InterruptedException, IOException {
         if (!compilationUnits.isEmpty()) {
-            final File targetJar = new File(ProjectUtil.getBonitaStudioWorkFolder(), exportedProvidedJarName);
-            final CreateJarOperation createJarOperation = new CreateJarOperation(targetJar, toArray(compilationUnits, ICompilationUnit.class));
-            createJarOperation.run(Repository.NULL_PROGRESS_MONITOR);
-            final IStatus status = createJarOperation.getStatus();
-            if (status.isOK()) {
-                builder.addClasspathResource(new BarResource(targetJar.getName(), toByteArray(targetJar)));
-                targetJar.delete();
-            } else {
-                targetJar.delete();
+            try {
+                builder.addClasspathResource(new BarResource(exportedProvidedJarName, createJarContent(compilationUnits, exportedProvidedJarName)));
+            } catch (final CoreException e) {
                 if (GroovyRepositoryStore.EXPORTED_JAR_NAME.equals(exportedProvidedJarName)) {
                     throw new JarExportFailedException(
                             Messages.errorBuildingJarForGroovyScriptsForProcess + " ",
-                            status);
+                            e.getStatus());
                 } else {
                     throw new JarExportFailedException(NLS.bind(Messages.errorBuildingJarForProvidedGroovyScriptsForProcess + " ",
-                            org.bonitasoft.studio.common.Messages.bosProductName), status);
+                            org.bonitasoft.studio.common.Messages.bosProductName), e.getStatus());
                 }
             }
         }
@@ -122,22 +117,52 @@ public class GroovyScriptBarResourceProvider implements BARResourcesProvider {
         final Set<ICompilationUnit> compilationUnits = collectCompilationUnits(configuration, containers);
         final String exportedJarName = GroovyRepositoryStore.EXPORTED_JAR_NAME;
         if (!compilationUnits.isEmpty()) {
-            final File targetJar = new File(ProjectUtil.getBonitaStudioWorkFolder(), exportedJarName);
+            try {
+                builder.addExternalResource(new BarResource(EXTERNAL_LIB_BAR_LOCATION + exportedJarName, createJarContent(compilationUnits,
+                        exportedJarName)));
+            } catch (final CoreException e) {
+                throw new JarExportFailedException(
+                        Messages.errorBuildingJarForGroovyScriptsFor6xApplication + " ",
+                        e.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the jar of the given compilation units, from the {@link GroovyScriptJarCache} when the same sources were
+     * already packaged against the same classpath. The jar is otherwise built in a file of its own, so that concurrent builds do not
+     * overwrite each other.
+     *
+     * @throws CoreException with the status of the failed jar creation
+     */
+    protected byte[] createJarContent(final Set<ICompilationUnit> compilationUnits, final String jarName) throws InvocationTargetException,
+            InterruptedException, IOException, CoreException {
+        final GroovyScriptJarCache cache = getJarCache();
+        final String key = cache.keyOf(compilationUnits);
+        final byte[] cachedContent = cache.get(key);
+        if (cachedContent != null) {
+            return cachedContent;
+        }
+        final File targetJar = File.createTempFile(jarName.replace(".jar", ""), ".jar", ProjectUtil.getBonitaStudioWorkFolder());
+        try {
             final CreateJarOperation createJarOperation = new CreateJarOperation(targetJar, toArray(compilationUnits, ICompilationUnit.class));
             createJarOperation.run(Repository.NULL_PROGRESS_MONITOR);
             final IStatus status = createJarOperation.getStatus();
-            if (status.isOK()) {
-                builder.addExternalResource(new BarResource(EXTERNAL_LIB_BAR_LOCATION + targetJar.getName(), toByteArray(targetJar)));
-                targetJar.delete();
-            } else {
-                targetJar.delete();
-                throw new JarExportFailedException(
-                        Messages.errorBuildingJarForGroovyScriptsFor6xApplication + " ",
-                        status);
+            if (!status.isOK()) {
+                throw new CoreException(status);
             }
+            final byte[] content = toByteArray(targetJar);
+            cache.put(key, content);
+            return content;
+        } finally {
+            targetJar.delete();
         }
     }
 
+    protected GroovyScriptJarCache getJarCache() {
+        return GroovyScriptJarCache.getInstance();
+    }
+
     private Set<ICompilationUnit> collectCompilationUnits(final Configuration configuration, final List<FragmentContainer> containers) {
         final Set<ICompilationUnit> result = new HashSet<ICompilationUnit>();
         if (configuration != null) {
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.groovy.provider;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Keeps the jars built from Groovy scripts, addressed by a hash of the scripts sources and of the classpath they are compiled
+ * against. The provided scripts and the scripts shared by several pools are then packaged once instead of at every BAR build.
+ */
+public class GroovyScriptJarCache {
+
+    static final int MAX_ENTRIES = 32;
+
+    private static final GroovyScriptJarCache INSTANCE = new GroovyScriptJarCache();
+
+    private final Map<String, byte[]> jars = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    GroovyScriptJarCache() {
+    }
+
+    public static GroovyScriptJarCache getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized byte[] get(final String key) {
+        return jars.get(key);
+    }
+
+    public synchronized void put(final String key, final byte[] content) {
+        jars.put(key, content);
+    }
+
+    public synchronized void clear() {
+        jars.clear();
+    }
+
+    /**
+     * @return a hash of the sources of the given compilation units and of the classpath of their projects, independent of the
+     *         iteration order of the collection
+     */
+    public String keyOf(final Collection<ICompilationUnit> compilationUnits) throws JavaModelException {
+        final List<ICompilationUnit> sortedUnits = new ArrayList<ICompilationUnit>(compilationUnits);
+        Collections.sort(sortedUnits, new Comparator<ICompilationUnit>() {
+
+            @Override
+            public int compare(final ICompilationUnit cu1, final ICompilationUnit cu2) {
+                return cu1.getHandleIdentifier().compareTo(cu2.getHandleIdentifier());
+            }
+        });
+        final MessageDigest digest = newDigest();
+        IJavaProject javaProject = null;
+        for (final ICompilationUnit unit : sortedUnits) {
+            update(digest, unit.getHandleIdentifier());
+            update(digest, unit.getSource());
+            if (javaProject == null) {
+                javaProject = unit.getJavaProject();
+            }
+        }
+        if (javaProject != null) {
+            for (final IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+                update(digest, entry.getPath().toString());
+                update(digest, String.valueOf(stampOf(entry)));
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private long stampOf(final IClasspathEntry entry) {
+        if (entry.getEntryKind() != IClasspathEntry.CPE_LIBRARY) {
+            return 0L;
+        }
+        final IResource resource = ResourcesPlugin.getWorkspace().getRoot().findMember(entry.getPath());
+        if (resource != null) {
+            return resource.getModificationStamp();
+        }
+        final File file = entry.getPath().toFile();
+        return file.lastModified() ^ file.length();
+    }
+
+    private void update(final MessageDigest digest, final String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+}
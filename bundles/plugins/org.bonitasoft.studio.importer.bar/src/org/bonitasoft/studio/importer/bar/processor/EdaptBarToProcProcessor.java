@@ -53,6 +53,7 @@ import org.bonitasoft.studio.importer.bar.i18n.Messages;
 import org.bonitasoft.studio.importer.processors.ToProcProcessor;
 import org.bonitasoft.studio.migration.MigrationPlugin;
 import org.bonitasoft.studio.migration.migrator.BOSMigrator;
+import org.bonitasoft.studio.migration.migrator.MigratorPool;
 import org.bonitasoft.studio.migration.model.report.Change;
 import org.bonitasoft.studio.migration.model.report.MigrationReportFactory;
 import org.bonitasoft.studio.migration.model.report.Report;
@@ -112,20 +113,15 @@ public class EdaptBarToProcProcessor extends ToProcProcessor {
 
     private File migratedProc;
 
-    private BOSMigrator migrator;
+    private final URI migratorURI;
 
     private boolean continueImport = true;
 
     private CustomConnectorMigrator customConnectorMigrator;
 
     public EdaptBarToProcProcessor() {
-        final URI migratorURI = URI.createPlatformPluginURI("/" + BarImporterPlugin.getDefault().getBundle().getSymbolicName() + "/" + MIGRATION_HISTORY_PATH,
+        migratorURI = URI.createPlatformPluginURI("/" + BarImporterPlugin.getDefault().getBundle().getSymbolicName() + "/" + MIGRATION_HISTORY_PATH,
                 true);
-        try {
-            migrator = new BOSMigrator(migratorURI, new BundleClassLoader(BarImporterPlugin.getDefault().getBundle()));
-        } catch (final MigrationException e) {
-            BonitaStudioLog.error(e, BarImporterPlugin.PLUGIN_ID);
-        }
     }
 
     /*
@@ -178,18 +174,31 @@ public class EdaptBarToProcProcessor extends ToProcProcessor {
             throw new IncompatibleVersionException(sourceVersion, SUPPORTED_VERSIONS.toString());
         }
         final URI resourceURI = resource.getURI();
-        final Release release = migrator.getRelease(0);
-        performMigration(migrator, resourceURI, release, progressMonitor);// Migrate from 5.9 to 6.0-Alpha
-
-        // Migrate from 6.0-Alpha to current release
-        final DiagramRepositoryStore store = RepositoryManager.getInstance().getRepositoryStore(DiagramRepositoryStore.class);
-        final String nsURI = ReleaseUtils.getNamespaceURI(resourceURI);
-        final Migrator nextMigrator = store.getMigrator(nsURI);
-        nextMigrator.setLevel(ValidationLevel.RELEASE);
-        nextMigrator.migrateAndSave(
-                Collections.singletonList(resourceURI), getAlphaRelease(nextMigrator),
-                null, Repository.NULL_PROGRESS_MONITOR);
-        addMigrationReport(migrator, resourceURI, sourceVersion, progressMonitor);
+        final BOSMigrator migrator = MigratorPool.getInstance().acquire(BOSMigrator.class, migratorURI,
+                new BundleClassLoader(BarImporterPlugin.getDefault().getBundle()));
+        try {
+            final Release release = migrator.getRelease(0);
+            performMigration(migrator, resourceURI, release, progressMonitor);// Migrate from 5.9 to 6.0-Alpha
+
+            // Migrate from 6.0-Alpha to current release
+            final DiagramRepositoryStore store = RepositoryManager.getInstance().getRepositoryStore(DiagramRepositoryStore.class);
+            final String nsURI = ReleaseUtils.getNamespaceURI(resourceURI);
+            final Migrator nextMigrator = store.acquireMigrator(nsURI);
+            if (nextMigrator == null) {
+                throw new MigrationException("No migrator found for " + nsURI, null);
+            }
+            try {
+                nextMigrator.setLevel(ValidationLevel.RELEASE);
+                nextMigrator.migrateAndSave(
+                        Collections.singletonList(resourceURI), getAlphaRelease(nextMigrator),
+                        null, Repository.NULL_PROGRESS_MONITOR);
+            } finally {
+                store.releaseMigrator(nextMigrator);
+            }
+            addMigrationReport(migrator, resourceURI, sourceVersion, progressMonitor);
+        } finally {
+            MigratorPool.getInstance().release(migrator);
+        }
         DeadlineMigrationStore.clearDeadlines();
 
         migratedProc = barProcFile;
@@ -35,6 +35,8 @@ import java.util.Set;
 import org.bonitasoft.studio.common.ProductVersion;
 import org.bonitasoft.studio.common.extension.BonitaStudioExtensionRegistryManager;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.common.platform.tools.PlatformUtil;
 import org.bonitasoft.studio.common.repository.CommonRepositoryPlugin;
 import org.bonitasoft.studio.common.repository.Messages;
@@ -96,6 +98,15 @@ public class ImportBosArchiveOperation implements IRunnableWithProgress {
 
     @Override
     public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        final Timer.Context context = StudioMetrics.time("bos.import");
+        try {
+            doRun(monitor);
+        } finally {
+            context.stop();
+        }
+    }
+
+    private void doRun(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
         Assert.isNotNull(archiveFile);
         Assert.isNotNull(currentRepository);
         final File archive = new File(archiveFile);
@@ -136,11 +147,13 @@ public class ImportBosArchiveOperation implements IRunnableWithProgress {
 
         activateYesNoToAll();
         iResourceImporter.setResourcesToOpen(getResourcesToOpen(rootContainer));
+        final Timer.Context importContext = StudioMetrics.time("bos.import.resources");
         try {
             iResourceImporter.run(rootContainer, currentRepository, monitor);
         } catch (final ResourceImportException e) {
             throw new InvocationTargetException(e, "Failed to import resources in " + currentRepository.getName());
         } finally {
+            importContext.stop();
             restoreBuildState();
         }
 
@@ -150,7 +163,12 @@ public class ImportBosArchiveOperation implements IRunnableWithProgress {
             status.add(ValidationStatus.error(String.format("Failed to import %s", fileName)));
         }
 
-        currentRepository.build(monitor);
+        final Timer.Context buildContext = StudioMetrics.time("bos.import.build");
+        try {
+            currentRepository.build(monitor);
+        } finally {
+            buildContext.stop();
+        }
         currentRepository.handleFileStoreEvent(new FileStoreChangeEvent(EventType.POST_IMPORT, null));
 
         if (launchValidationafterImport) {
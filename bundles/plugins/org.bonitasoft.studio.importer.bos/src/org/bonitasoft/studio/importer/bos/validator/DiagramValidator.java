@@ -22,7 +22,6 @@ import org.bonitasoft.studio.importer.bos.operation.IResourceImporter;
 import org.bonitasoft.studio.importer.bos.status.ImportBosArchiveStatusBuilder;
 import org.bonitasoft.studio.model.process.AbstractProcess;
 import org.bonitasoft.studio.validation.common.operation.BatchValidationOperation;
-import org.bonitasoft.studio.validation.common.operation.OffscreenEditPartFactory;
 import org.bonitasoft.studio.validation.common.operation.RunProcessesValidationOperation;
 import org.bonitasoft.studio.validation.common.operation.ValidationMarkerProvider;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -41,7 +40,6 @@ public class DiagramValidator implements BosImporterValidator {
                 final AbstractProcess process = (AbstractProcess) diagramFileStore.getContent();
                 final RunProcessesValidationOperation validationAction = new RunProcessesValidationOperation(
                         new BatchValidationOperation(
-                                new OffscreenEditPartFactory(org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory.getInstance()),
                                 new ValidationMarkerProvider()));
                 validationAction.addProcess(process);
                 validationAction.run(monitor);
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.migration.migrator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.edapt.internal.migration.execution.IClassLoader;
+import org.eclipse.emf.edapt.migration.MigrationException;
+import org.eclipse.emf.edapt.migration.execution.Migrator;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MigratorPoolTest {
+
+    private MigratorPool pool;
+    private URI historyURI;
+    private IClassLoader classLoader;
+    private int builtMigrators;
+
+    @Before
+    public void setUp() throws Exception {
+        builtMigrators = 0;
+        pool = new MigratorPool(2) {
+
+            @Override
+            protected <T extends Migrator> T newMigrator(final Class<T> type, final URI historyURI, final IClassLoader classLoader)
+                    throws MigrationException {
+                builtMigrators++;
+                return mock(type);
+            }
+        };
+        historyURI = URI.createFileURI("process.history");
+        classLoader = mock(IClassLoader.class);
+    }
+
+    @Test
+    public void should_lend_a_different_migrator_to_each_concurrent_migration() throws Exception {
+        final Migrator migrator1 = pool.acquire(Migrator.class, historyURI, classLoader);
+        final Migrator migrator2 = pool.acquire(Migrator.class, historyURI, classLoader);
+
+        assertThat(migrator1).isNotSameAs(migrator2);
+        assertThat(builtMigrators).isEqualTo(2);
+    }
+
+    @Test
+    public void should_reuse_a_released_migrator() throws Exception {
+        final Migrator migrator = pool.acquire(Migrator.class, historyURI, classLoader);
+        pool.release(migrator);
+
+        assertThat(pool.acquire(Migrator.class, historyURI, classLoader)).isSameAs(migrator);
+        assertThat(builtMigrators).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_mix_migrators_of_different_types() throws Exception {
+        pool.release(pool.acquire(Migrator.class, historyURI, classLoader));
+
+        assertThat(pool.acquire(BOSMigrator.class, historyURI, classLoader)).isInstanceOf(BOSMigrator.class);
+        assertThat(builtMigrators).isEqualTo(2);
+    }
+
+    @Test
+    public void should_drop_released_migrators_beyond_the_idle_limit() throws Exception {
+        final Migrator migrator1 = pool.acquire(Migrator.class, historyURI, classLoader);
+        final Migrator migrator2 = pool.acquire(Migrator.class, historyURI, classLoader);
+        final Migrator migrator3 = pool.acquire(Migrator.class, historyURI, classLoader);
+        pool.release(migrator1);
+        pool.release(migrator2);
+        pool.release(migrator3);
+
+        pool.acquire(Migrator.class, historyURI, classLoader);
+        pool.acquire(Migrator.class, historyURI, classLoader);
+        pool.acquire(Migrator.class, historyURI, classLoader);
+        assertThat(builtMigrators).isEqualTo(4);
+    }
+
+    @Test
+    public void should_build_the_shared_migrator_once() throws Exception {
+        final Migrator sharedMigrator = pool.getSharedMigrator(historyURI, classLoader);
+
+        assertThat(pool.getSharedMigrator(historyURI, classLoader)).isSameAs(sharedMigrator);
+        assertThat(builtMigrators).isEqualTo(1);
+    }
+
+    @Test
+    public void should_prepare_shared_and_idle_migrators() throws Exception {
+        pool.prepare(Migrator.class, historyURI, classLoader);
+
+        pool.getSharedMigrator(historyURI, classLoader);
+        pool.acquire(Migrator.class, historyURI, classLoader);
+        assertThat(builtMigrators).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_release_an_unknown_migrator() throws Exception {
+        pool.release(mock(Migrator.class));
+    }
+
+}
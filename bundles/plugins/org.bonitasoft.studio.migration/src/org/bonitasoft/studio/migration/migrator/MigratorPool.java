@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.migration.migrator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.edapt.internal.migration.execution.IClassLoader;
+import org.eclipse.emf.edapt.migration.MigrationException;
+import org.eclipse.emf.edapt.migration.execution.Migrator;
+
+/**
+ * Keeps the Edapt migrators once built: building one loads its history model and indexes its releases, which costs more than migrating a
+ * small model.
+ * A migrator is not thread safe, {@link #acquire(Class, URI, IClassLoader)} lends an instance for the exclusive use of a migration until
+ * it is given back with {@link #release(Migrator)}. The shared migrator of {@link #getSharedMigrator(URI, IClassLoader)} must only be used
+ * to read the history (releases, namespaces...).
+ * At most one idle migrator per processor is kept for each history, as no more migrations run at the same time.
+ */
+public class MigratorPool {
+
+    private static MigratorPool INSTANCE;
+
+    private final int maxIdleMigrators;
+    private final Map<URI, Migrator> sharedMigrators = new HashMap<URI, Migrator>();
+    private final Map<String, Deque<Migrator>> idleMigrators = new HashMap<String, Deque<Migrator>>();
+    private final Map<Migrator, String> lentMigrators = new IdentityHashMap<Migrator, String>();
+
+    public MigratorPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    MigratorPool(final int maxIdleMigrators) {
+        this.maxIdleMigrators = maxIdleMigrators;
+    }
+
+    public static synchronized MigratorPool getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new MigratorPool();
+        }
+        return INSTANCE;
+    }
+
+    public Migrator getSharedMigrator(final URI historyURI, final IClassLoader classLoader) throws MigrationException {
+        synchronized (this) {
+            final Migrator migrator = sharedMigrators.get(historyURI);
+            if (migrator != null) {
+                return migrator;
+            }
+        }
+        //Built outside of the lock, the first migrator built wins when several callers raced
+        final Migrator migrator = newMigrator(Migrator.class, historyURI, classLoader);
+        synchronized (this) {
+            final Migrator sharedMigrator = sharedMigrators.get(historyURI);
+            if (sharedMigrator != null) {
+                return sharedMigrator;
+            }
+            sharedMigrators.put(historyURI, migrator);
+            return migrator;
+        }
+    }
+
+    /**
+     * @param type {@link Migrator} or {@link BOSMigrator}
+     * @return an idle migrator of the given history, a new one is built when they are all lent
+     */
+    public <T extends Migrator> T acquire(final Class<T> type, final URI historyURI, final IClassLoader classLoader) throws MigrationException {
+        final String key = toKey(type, historyURI);
+        synchronized (this) {
+            final Deque<Migrator> idle = idleMigrators.get(key);
+            if (idle != null && !idle.isEmpty()) {
+                final Migrator migrator = idle.pop();
+                lentMigrators.put(migrator, key);
+                return type.cast(migrator);
+            }
+        }
+        //Built outside of the lock, other migrations are not blocked meanwhile
+        final T migrator = newMigrator(type, historyURI, classLoader);
+        synchronized (this) {
+            lentMigrators.put(migrator, key);
+        }
+        return migrator;
+    }
+
+    public synchronized void release(final Migrator migrator) {
+        final String key = lentMigrators.remove(migrator);
+        Assert.isLegal(key != null, "Migrator has not been acquired from this pool");
+        Deque<Migrator> idle = idleMigrators.get(key);
+        if (idle == null) {
+            idle = new ArrayDeque<Migrator>();
+            idleMigrators.put(key, idle);
+        }
+        if (idle.size() < maxIdleMigrators) {
+            idle.push(migrator);
+        }
+    }
+
+    /**
+     * Builds the shared migrator and an idle one of the given history so that the next migrations do not have to
+     */
+    public void prepare(final Class<? extends Migrator> type, final URI historyURI, final IClassLoader classLoader) throws MigrationException {
+        getSharedMigrator(historyURI, classLoader);
+        release(acquire(type, historyURI, classLoader));
+    }
+
+    protected <T extends Migrator> T newMigrator(final Class<T> type, final URI historyURI, final IClassLoader classLoader) throws MigrationException {
+        if (BOSMigrator.class.equals(type)) {
+            return type.cast(new BOSMigrator(historyURI, classLoader));
+        }
+        return type.cast(new Migrator(historyURI, classLoader));
+    }
+
+    private String toKey(final Class<? extends Migrator> type, final URI historyURI) {
+        return type.getName() + "@" + historyURI;
+    }
+
+}
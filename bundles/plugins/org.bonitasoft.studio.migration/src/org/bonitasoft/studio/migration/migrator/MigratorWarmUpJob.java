@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.migration.migrator;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.migration.MigrationPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.edapt.internal.migration.execution.IClassLoader;
+import org.eclipse.emf.edapt.migration.MigrationException;
+import org.eclipse.emf.edapt.migration.execution.Migrator;
+
+/**
+ * Builds the migrators of a history in the background so that they are ready when a migration is needed.
+ */
+public class MigratorWarmUpJob extends Job {
+
+    private final Class<? extends Migrator> type;
+    private final URI historyURI;
+    private final IClassLoader classLoader;
+
+    public MigratorWarmUpJob(final Class<? extends Migrator> type, final URI historyURI, final IClassLoader classLoader) {
+        super("Preparing migrators of " + historyURI.lastSegment());
+        this.type = type;
+        this.historyURI = historyURI;
+        this.classLoader = classLoader;
+        setSystem(true);
+        setPriority(Job.DECORATE);
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        final long startTime = System.currentTimeMillis();
+        try {
+            MigratorPool.getInstance().prepare(type, historyURI, classLoader);
+            BonitaStudioLog.debug("Migrators of " + historyURI + " prepared in " + (System.currentTimeMillis() - startTime) + " ms",
+                    MigrationPlugin.PLUGIN_ID);
+        } catch (final MigrationException e) {
+            BonitaStudioLog.error(e, MigrationPlugin.PLUGIN_ID);
+        }
+        return Status.OK_STATUS;
+    }
+
+}
@@ -20,6 +20,7 @@ package org.bonitasoft.studio.simulation.commands;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 
 import org.bonitasoft.studio.common.emf.tools.ModelHelper;
 import org.bonitasoft.studio.common.jface.CustomWizardDialog;
@@ -69,7 +70,8 @@ public class RunSimulationHandler extends AbstractHandler {
             if (wizardDialog.open() == IDialogConstants.OK_ID) {
                 IProgressService progressManager = PlatformUI.getWorkbench().getProgressService();
 
-                SimulationWithMonitorRunner runnable = new SimulationWithMonitorRunner(wizard.getSelectedProcess() , wizard.getPath(), wizard.getLoadProfileId(),wizard.getTimespan());
+                SimulationReplicationsRunner runnable = new SimulationReplicationsRunner(wizard.getSelectedProcess(), wizard.getPath(),
+                        Collections.singletonList(wizard.getLoadProfileId()), wizard.getReplications(), wizard.getTimespan());
                 try {
                     progressManager.busyCursorWhile(runnable);
 
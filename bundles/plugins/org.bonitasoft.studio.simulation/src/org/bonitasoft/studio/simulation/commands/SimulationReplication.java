@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.simulation.commands;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import org.bonitasoft.simulation.engine.SimulationEngine;
+import org.bonitasoft.studio.simulation.engine.SimulationModel;
+
+/**
+ * One independent run of a simulation. Each replication owns its engine and its report folder. Replications must not run at the same
+ * time since {@link SimulationEngine} keeps the current simulated time in a static field. The progress is computed from the instances
+ * finished by this engine only.
+ */
+public class SimulationReplication implements Callable<SimulationReplication> {
+
+    private final SimulationModel model;
+    private final String loadProfileId;
+    private final int index;
+    private final File reportFolder;
+    private final long timespan;
+
+    private SimulationEngine simulationEngine;
+    private boolean stopped;
+    private volatile boolean done;
+    private int finishedInstances;
+    private long duration;
+    private String reportFile;
+
+    public SimulationReplication(final SimulationModel model, final String loadProfileId, final int index, final File reportFolder,
+            final long timespan) {
+        this.model = model;
+        this.loadProfileId = loadProfileId;
+        this.index = index;
+        this.reportFolder = reportFolder;
+        this.timespan = timespan;
+    }
+
+    @Override
+    public SimulationReplication call() throws Exception {
+        final Properties executionProperties = new Properties();
+        executionProperties.put(SimulationEngine.REPORT_WORKSPACE, reportFolder.getAbsolutePath());
+        executionProperties.put(SimulationEngine.REPORT_TIMESPAN, timespan);
+        executionProperties.put(SimulationEngine.EXPORT_MODE, SimulationEngine.HTML_MODE);
+
+        final long start = System.currentTimeMillis();
+        final SimulationEngine engine;
+        synchronized (this) {
+            if (stopped) {
+                done = true;
+                return this;
+            }
+            engine = new SimulationEngine(model.getSimProcess(), model.getLoadProfile(), model.getResources(), executionProperties);
+            simulationEngine = engine;
+        }
+        try {
+            engine.start();
+            synchronized (this) {
+                stopped = stopped || engine.isStopped();
+                finishedInstances = engine.getTotalInstances();
+                reportFile = engine.getReportFile();
+                duration = System.currentTimeMillis() - start;
+            }
+        } finally {
+            done = true;
+        }
+        return this;
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (simulationEngine != null) {
+            simulationEngine.stop();
+        }
+    }
+
+    /**
+     * @return the progress of this replication, between 0 and 1
+     */
+    public synchronized double getProgress() {
+        if (done) {
+            return 1d;
+        }
+        if (simulationEngine == null || model.getExpectedInstances() == 0) {
+            return 0d;
+        }
+        return Math.min(1d, (double) simulationEngine.getTotalInstances() / model.getExpectedInstances());
+    }
+
+    public synchronized boolean isGeneratingReport() {
+        return simulationEngine != null && !done && simulationEngine.isGeneratingReport();
+    }
+
+    public synchronized int getExecutedInstances() {
+        if (done) {
+            return finishedInstances;
+        }
+        return simulationEngine != null ? simulationEngine.getTotalInstances() : 0;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    public String getLoadProfileId() {
+        return loadProfileId;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public File getReportFolder() {
+        return reportFolder;
+    }
+
+    public synchronized int getFinishedInstances() {
+        return finishedInstances;
+    }
+
+    /**
+     * @return the wall-clock duration of the run in milliseconds
+     */
+    public synchronized long getDuration() {
+        return duration;
+    }
+
+    public synchronized String getReportFile() {
+        return reportFile;
+    }
+
+}
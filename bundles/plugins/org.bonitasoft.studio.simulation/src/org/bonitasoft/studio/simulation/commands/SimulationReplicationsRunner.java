@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.simulation.commands;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
+import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.bonitasoft.studio.simulation.SimulationPlugin;
+import org.bonitasoft.studio.simulation.engine.SimulationModel;
+import org.bonitasoft.studio.simulation.engine.SimulationModelCache;
+import org.bonitasoft.studio.simulation.i18n.Messages;
+import org.bonitasoft.studio.simulation.repository.SimulationLoadProfileRepositoryStore;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.ErrorDialog;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Runs several independent replications of a simulation, for one or several load profiles, one after the other in a background thread:
+ * the simulation engine keeps its clock in a static field, so two engines cannot run at the same time. Each replication writes its
+ * report in its own sub folder of the report path and the results are merged in a {@link SimulationSummaryReport}.
+ * With a single replication of a single load profile, the report is written in the report path as before.
+ */
+public class SimulationReplicationsRunner implements IRunnableWithProgress {
+
+    private static final int WORK_PER_REPLICATION = 100;
+
+    private final AbstractProcess selectedProcess;
+    private final String path;
+    private final List<String> loadProfileIds;
+    private final int replicationsPerLoadProfile;
+    private final long timespan;
+    private final List<SimulationReplication> replications = new ArrayList<SimulationReplication>();
+    private boolean cancelled = false;
+    private String reportFile;
+
+    public SimulationReplicationsRunner(final AbstractProcess selectedProcess, final String path, final List<String> loadProfileIds,
+            final int replicationsPerLoadProfile, final long timespan) {
+        this.selectedProcess = selectedProcess;
+        this.path = path;
+        this.loadProfileIds = loadProfileIds;
+        this.replicationsPerLoadProfile = Math.max(1, replicationsPerLoadProfile);
+        this.timespan = timespan;
+    }
+
+    @Override
+    public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        new Color(255);//FIX CLASSLOADER ISSUE
+        createReplications();
+        monitor.beginTask(Messages.RunningSimulation, replications.size() * WORK_PER_REPLICATION);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(runnable, "Simulation Runner");
+            }
+        });
+        final List<Future<SimulationReplication>> futures = new ArrayList<Future<SimulationReplication>>();
+        try {
+            for (final SimulationReplication replication : replications) {
+                futures.add(executor.submit(replication));
+            }
+            int worked = 0;
+            while (!allDone(futures)) {
+                final int progress = currentWork();
+                if (progress > worked) {
+                    monitor.worked(progress - worked);
+                    worked = progress;
+                }
+                monitor.subTask(currentTask());
+                if (monitor.isCanceled() && !cancelled) {
+                    cancelled = true;
+                    for (final SimulationReplication replication : replications) {
+                        replication.stop();
+                    }
+                }
+                Thread.sleep(100);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<SimulationReplication> finished = collect(futures);
+        cancelled = cancelled || finished.size() < replications.size();
+        for (final SimulationReplication replication : finished) {
+            cancelled = cancelled || replication.isStopped();
+        }
+        if (!cancelled) {
+            reportFile = createReportFile(finished);
+        }
+        monitor.done();
+    }
+
+    private void createReplications() throws InvocationTargetException {
+        final SimulationLoadProfileRepositoryStore store = RepositoryManager.getInstance().getRepositoryStore(
+                SimulationLoadProfileRepositoryStore.class);
+        final boolean singleRun = loadProfileIds.size() == 1 && replicationsPerLoadProfile == 1;
+        for (final String loadProfileId : loadProfileIds) {
+            final IRepositoryFileStore file = store.getChild(loadProfileId + "." + SimulationLoadProfileRepositoryStore.SIMULATION_LOADPROFILE_EXT);
+            if (file == null) {
+                throw new InvocationTargetException(new IllegalArgumentException(NLS.bind(
+                        Messages.RunSimulationWizard_Error_missingLoadProfile, loadProfileId)));
+            }
+            for (int i = 1; i <= replicationsPerLoadProfile; i++) {
+                final File reportFolder = singleRun ? new File(path) : new File(path, loadProfileId + "-" + i);
+                reportFolder.mkdirs();
+                replications.add(new SimulationReplication(getModel(file), loadProfileId, i, reportFolder, timespan));
+            }
+        }
+    }
+
+    /**
+     * @return a model of its own for each replication, the engines change the objects of their model
+     */
+    private SimulationModel getModel(final IRepositoryFileStore loadProfileFile) throws InvocationTargetException {
+        try {
+            return SimulationModelCache.getInstance().getModel(selectedProcess, loadProfileFile);
+        } catch (final ReadFileStoreException e) {
+            throw new InvocationTargetException(e, "Failed to retrieve load profile content");
+        } catch (final Exception e) {
+            openErrorDialog(e);
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private boolean allDone(final List<Future<SimulationReplication>> futures) {
+        for (final Future<SimulationReplication> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int currentWork() {
+        double work = 0d;
+        for (final SimulationReplication replication : replications) {
+            work = work + replication.getProgress() * WORK_PER_REPLICATION;
+        }
+        return (int) work;
+    }
+
+    private String currentTask() {
+        int done = 0;
+        int instances = 0;
+        boolean generatingReport = false;
+        for (final SimulationReplication replication : replications) {
+            if (replication.isDone()) {
+                done++;
+            }
+            instances = instances + replication.getExecutedInstances();
+            generatingReport = generatingReport || replication.isGeneratingReport();
+        }
+        if (generatingReport && replications.size() == 1) {
+            return Messages.generatingReport;
+        }
+        final String finishedInstances = NLS.bind(Messages.finishedInstances, instances);
+        if (replications.size() == 1) {
+            return finishedInstances;
+        }
+        return NLS.bind(Messages.finishedReplications, done, replications.size()) + "\n" + finishedInstances;
+    }
+
+    private List<SimulationReplication> collect(final List<Future<SimulationReplication>> futures) throws InterruptedException {
+        final List<SimulationReplication> result = new ArrayList<SimulationReplication>();
+        Exception firstError = null;
+        for (final Future<SimulationReplication> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (final ExecutionException e) {
+                BonitaStudioLog.error(e.getCause());
+                if (firstError == null) {
+                    firstError = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (firstError != null) {
+            openErrorDialog(firstError);
+        }
+        return result;
+    }
+
+    private String createReportFile(final List<SimulationReplication> finished) throws InvocationTargetException {
+        if (finished.size() == 1) {
+            return finished.get(0).getReportFile();
+        }
+        try {
+            return new SimulationSummaryReport(selectedProcess.getName(), finished).write(new File(path)).getAbsolutePath();
+        } catch (final IOException e) {
+            throw new InvocationTargetException(e, "Failed to write the simulation summary");
+        }
+    }
+
+    private void openErrorDialog(final Exception e) {
+        Display.getDefault().syncExec(new Runnable() {
+
+            @Override
+            public void run() {
+                ErrorDialog.openError(Display.getCurrent().getActiveShell(), "Error during simulation",
+                        Messages.simulation_Error, new Status(Status.ERROR, SimulationPlugin.PLUGIN_ID, e.getMessage()));
+            }
+        });
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the report of the single replication, or the summary of all the replications
+     */
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public List<SimulationReplication> getReplications() {
+        return replications;
+    }
+
+}
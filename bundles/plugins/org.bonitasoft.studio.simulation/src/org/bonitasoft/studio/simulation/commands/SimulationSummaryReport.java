@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.simulation.commands;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Merges the results of several {@link SimulationReplication}s in a single HTML page: for each load profile, the mean of the finished
+ * instances and of the run duration with their 95% confidence interval, followed by a link to the report of each replication.
+ */
+public class SimulationSummaryReport {
+
+    public static final String SUMMARY_FILE_NAME = "simulation-summary.html";
+
+    /**
+     * Two-sided 95% quantiles of the Student distribution for 1 to 30 degrees of freedom
+     */
+    private static final double[] STUDENT_95 = new double[] { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048,
+            2.045, 2.042 };
+    private static final double NORMAL_95 = 1.960;
+
+    private final String processName;
+    private final List<SimulationReplication> replications;
+
+    public SimulationSummaryReport(final String processName, final List<SimulationReplication> replications) {
+        this.processName = processName;
+        this.replications = replications;
+    }
+
+    public File write(final File folder) throws IOException {
+        final File summaryFile = new File(folder, SUMMARY_FILE_NAME);
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(summaryFile), "UTF-8");
+        try {
+            writer.write(toHTML(folder));
+        } finally {
+            writer.close();
+        }
+        return summaryFile;
+    }
+
+    String toHTML(final File folder) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<html>\n<head><meta charset=\"UTF-8\"><title>").append(escape(processName)).append("</title></head>\n<body>\n");
+        sb.append("<h1>").append(escape(processName)).append("</h1>\n");
+        sb.append("<table border=\"1\" cellpadding=\"4\">\n");
+        sb.append("<tr><th>Load profile</th><th>Replications</th><th>Finished instances</th><th>95% confidence interval</th>")
+                .append("<th>Duration (s)</th><th>95% confidence interval</th></tr>\n");
+        for (final Entry<String, List<SimulationReplication>> entry : byLoadProfile().entrySet()) {
+            final double[] instances = new double[entry.getValue().size()];
+            final double[] durations = new double[entry.getValue().size()];
+            for (int i = 0; i < instances.length; i++) {
+                instances[i] = entry.getValue().get(i).getFinishedInstances();
+                durations[i] = entry.getValue().get(i).getDuration() / 1000d;
+            }
+            sb.append("<tr><td>").append(escape(entry.getKey())).append("</td><td>").append(instances.length).append("</td>");
+            appendStatistics(sb, instances);
+            appendStatistics(sb, durations);
+            sb.append("</tr>\n");
+        }
+        sb.append("</table>\n<h2>Replications</h2>\n<ul>\n");
+        for (final SimulationReplication replication : replications) {
+            sb.append("<li>").append(escape(replication.getLoadProfileId())).append(" #").append(replication.getIndex()).append(" : ");
+            if (replication.getReportFile() != null) {
+                sb.append("<a href=\"").append(escape(relativePath(folder, new File(replication.getReportFile())))).append("\">")
+                        .append(replication.getFinishedInstances()).append(" finished instances</a>");
+            } else {
+                sb.append("no report");
+            }
+            sb.append("</li>\n");
+        }
+        sb.append("</ul>\n</body>\n</html>\n");
+        return sb.toString();
+    }
+
+    private void appendStatistics(final StringBuilder sb, final double[] values) {
+        final double mean = mean(values);
+        final double halfWidth = confidenceHalfWidth(values);
+        sb.append(String.format(Locale.ENGLISH, "<td>%.2f</td><td>[%.2f ; %.2f]</td>", mean, mean - halfWidth, mean + halfWidth));
+    }
+
+    private Map<String, List<SimulationReplication>> byLoadProfile() {
+        final Map<String, List<SimulationReplication>> result = new LinkedHashMap<String, List<SimulationReplication>>();
+        for (final SimulationReplication replication : replications) {
+            if (!result.containsKey(replication.getLoadProfileId())) {
+                result.put(replication.getLoadProfileId(), new ArrayList<SimulationReplication>());
+            }
+            result.get(replication.getLoadProfileId()).add(replication);
+        }
+        return result;
+    }
+
+    static double mean(final double[] values) {
+        if (values.length == 0) {
+            return 0d;
+        }
+        double sum = 0d;
+        for (final double value : values) {
+            sum = sum + value;
+        }
+        return sum / values.length;
+    }
+
+    static double standardDeviation(final double[] values) {
+        if (values.length < 2) {
+            return 0d;
+        }
+        final double mean = mean(values);
+        double sum = 0d;
+        for (final double value : values) {
+            sum = sum + (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+    /**
+     * @return the half width of the 95% confidence interval of the mean, 0 when there is a single value
+     */
+    static double confidenceHalfWidth(final double[] values) {
+        if (values.length < 2) {
+            return 0d;
+        }
+        final int degreesOfFreedom = values.length - 1;
+        final double quantile = degreesOfFreedom <= STUDENT_95.length ? STUDENT_95[degreesOfFreedom - 1] : NORMAL_95;
+        return quantile * standardDeviation(values) / Math.sqrt(values.length);
+    }
+
+    private static String relativePath(final File folder, final File file) {
+        final String folderPath = folder.getAbsolutePath() + File.separator;
+        final String filePath = file.getAbsolutePath();
+        if (filePath.startsWith(folderPath)) {
+            return filePath.substring(folderPath.length()).replace(File.separatorChar, '/');
+        }
+        return file.toURI().toString();
+    }
+
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+}
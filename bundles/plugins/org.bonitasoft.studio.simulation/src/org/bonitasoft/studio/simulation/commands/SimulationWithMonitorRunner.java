@@ -21,7 +21,6 @@ import java.util.Date;
 import java.util.Properties;
 
 import org.bonitasoft.simulation.engine.SimulationEngine;
-import org.bonitasoft.simulation.model.process.SimProcess;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.common.repository.RepositoryManager;
 import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
@@ -29,7 +28,8 @@ import org.bonitasoft.studio.common.repository.model.ReadFileStoreException;
 import org.bonitasoft.studio.model.process.AbstractProcess;
 import org.bonitasoft.studio.model.simulation.InjectionPeriod;
 import org.bonitasoft.studio.model.simulation.LoadProfile;
-import org.bonitasoft.studio.simulation.engine.SimulationExporter;
+import org.bonitasoft.studio.simulation.engine.SimulationModel;
+import org.bonitasoft.studio.simulation.engine.SimulationModelCache;
 import org.bonitasoft.studio.simulation.i18n.Messages;
 import org.bonitasoft.studio.simulation.repository.SimulationLoadProfileRepositoryStore;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -72,21 +72,19 @@ public class SimulationWithMonitorRunner implements IRunnableWithProgress {
         @Override
         public void run() {
             try {
-                final SimulationExporter exporter = new SimulationExporter();
-                final SimProcess simProc = exporter.createSimulationProcess(simulationProcess);
                 final IRepositoryFileStore file = RepositoryManager.getInstance().getRepositoryStore(SimulationLoadProfileRepositoryStore.class)
                         .getChild(loadProfileId + "." + SimulationLoadProfileRepositoryStore.SIMULATION_LOADPROFILE_EXT);
 
                 if (file != null) {
-                    final LoadProfile profile = (LoadProfile) file.getContent();
-                    final org.bonitasoft.simulation.model.loadprofile.LoadProfile loadProfile = exporter.createLoadProfile(profile);
+                    final SimulationModel model = SimulationModelCache.getInstance().getModel(simulationProcess, file);
 
                     final Properties executionProperties = new Properties();
                     executionProperties.put(SimulationEngine.REPORT_WORKSPACE, path);
                     executionProperties.put(SimulationEngine.REPORT_TIMESPAN, timespan);
                     executionProperties.put(SimulationEngine.EXPORT_MODE, SimulationEngine.HTML_MODE);
 
-                    simulationEngine = new SimulationEngine(simProc, loadProfile, exporter.getSimProcessResources(simProc.getName()), executionProperties);
+                    simulationEngine = new SimulationEngine(model.getSimProcess(), model.getLoadProfile(), model.getResources(),
+                            executionProperties);
                     simulationEngine.start();
                     cancelled = simulationEngine.isStopped();
                     reportFile = simulationEngine.getReportFile();
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.simulation.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bonitasoft.simulation.model.loadprofile.LoadProfile;
+import org.bonitasoft.simulation.model.process.SimProcess;
+import org.bonitasoft.simulation.model.resource.Resource;
+import org.bonitasoft.studio.model.simulation.InjectionPeriod;
+
+/**
+ * The input of a simulation engine: a process converted by the {@link SimulationExporter} with the resources it uses and its load profile.
+ * An engine may change the objects of its model while it runs, so a model must only be given to one engine: use
+ * {@link #toBytes()} and {@link #fromBytes(byte[])} to get independent copies.
+ */
+public class SimulationModel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SimProcess simProcess;
+    private final List<Resource> resources;
+    private final LoadProfile loadProfile;
+    private final int expectedInstances;
+
+    public SimulationModel(final SimProcess simProcess, final List<Resource> resources, final LoadProfile loadProfile,
+            final int expectedInstances) {
+        this.simProcess = simProcess;
+        this.resources = new ArrayList<Resource>(resources);
+        this.loadProfile = loadProfile;
+        this.expectedInstances = expectedInstances;
+    }
+
+    public static SimulationModel create(final org.bonitasoft.studio.model.process.AbstractProcess process,
+            final org.bonitasoft.studio.model.simulation.LoadProfile profile) throws Exception {
+        final SimulationExporter exporter = new SimulationExporter();
+        final SimProcess simProcess = exporter.createSimulationProcess(process);
+        int instances = 0;
+        for (final InjectionPeriod injectionPeriod : profile.getInjectionPeriods()) {
+            instances = instances + injectionPeriod.getNbInstances();
+        }
+        return new SimulationModel(simProcess, exporter.getSimProcessResources(simProcess.getName()), exporter.createLoadProfile(profile),
+                instances);
+    }
+
+    public SimProcess getSimProcess() {
+        return simProcess;
+    }
+
+    public List<Resource> getResources() {
+        return resources;
+    }
+
+    public LoadProfile getLoadProfile() {
+        return loadProfile;
+    }
+
+    /**
+     * @return the number of instances started by the load profile
+     */
+    public int getExpectedInstances() {
+        return expectedInstances;
+    }
+
+    /**
+     * @return the serialized form of this model, with the objects shared by the process, the resources and the load profile kept shared
+     * @throws java.io.NotSerializableException when a class of the simulation model is not serializable
+     */
+    public byte[] toBytes() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        try {
+            oos.writeObject(this);
+        } finally {
+            oos.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return a new model read from the result of {@link #toBytes()}, sharing no object with any other model
+     */
+    public static SimulationModel fromBytes(final byte[] bytes) throws IOException, ClassNotFoundException {
+        final ObjectInputStream ois = new ModelInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return (SimulationModel) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+
+    /**
+     * Resolves the classes of the simulation model with the class loader of this bundle
+     */
+    private static class ModelInputStream extends ObjectInputStream {
+
+        ModelInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, SimulationModel.class.getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+}
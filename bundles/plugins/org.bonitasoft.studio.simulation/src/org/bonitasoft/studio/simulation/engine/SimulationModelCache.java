@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.simulation.engine;
+
+import java.io.NotSerializableException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.common.repository.model.IRepositoryFileStore;
+import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.bonitasoft.studio.model.simulation.LoadProfile;
+import org.bonitasoft.studio.simulation.SimulationPlugin;
+import org.bonitasoft.studio.simulation.repository.SimulationResourceRepositoryStore;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Keeps the {@link SimulationModel}s of the last simulated processes, addressed by the modification stamps of the diagram, of the load
+ * profile and of the simulation resources. Running again a simulation that did not change, with another timespan for instance, then
+ * skips the conversion of the process.
+ * The models are kept serialized and every call returns a new copy, so that each engine runs on its own objects. A process of a diagram
+ * with unsaved changes, or whose model cannot be serialized, is always converted again.
+ */
+public class SimulationModelCache {
+
+    static final int MAX_ENTRIES = 8;
+
+    private static final SimulationModelCache INSTANCE = new SimulationModelCache();
+
+    private final Map<String, byte[]> models = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    SimulationModelCache() {
+    }
+
+    public static SimulationModelCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param process the process to simulate
+     * @param loadProfileFile the file store of the load profile
+     * @return a copy of the cached model of the process, or a new one when the process, the load profile or the resources changed. The
+     *         returned model is not shared: it can be given to an engine.
+     */
+    public SimulationModel getModel(final AbstractProcess process, final IRepositoryFileStore loadProfileFile) throws Exception {
+        final String key = keyOf(process, loadProfileFile);
+        if (key != null) {
+            final byte[] bytes = get(key);
+            if (bytes != null) {
+                StudioMetrics.increment("simulation.model.cache.hit");
+                return SimulationModel.fromBytes(bytes);
+            }
+        }
+        StudioMetrics.increment("simulation.model.cache.miss");
+        final SimulationModel model = SimulationModel.create(process, (LoadProfile) loadProfileFile.getContent());
+        if (key != null) {
+            try {
+                put(key, model.toBytes());
+            } catch (final NotSerializableException e) {
+                BonitaStudioLog.debug("Simulation model not cached: " + e.getMessage(), SimulationPlugin.PLUGIN_ID);
+            }
+        }
+        return model;
+    }
+
+    synchronized byte[] get(final String key) {
+        return models.get(key);
+    }
+
+    synchronized void put(final String key, final byte[] model) {
+        models.put(key, model);
+    }
+
+    public synchronized void clear() {
+        models.clear();
+    }
+
+    /**
+     * @return the key of the model, or null when it must not be cached
+     */
+    String keyOf(final AbstractProcess process, final IRepositoryFileStore loadProfileFile) throws CoreException {
+        final Resource resource = process.eResource();
+        if (resource == null || !resource.isTrackingModification() || resource.isModified()) {
+            return null;
+        }
+        final IResource diagramFile = toWorkspaceFile(resource.getURI());
+        final IResource loadProfileResource = loadProfileFile.getResource();
+        if (diagramFile == null || !diagramFile.exists() || loadProfileResource == null || !loadProfileResource.exists()) {
+            return null;
+        }
+        final StringBuilder key = new StringBuilder(EcoreUtil.getURI(process).toString());
+        key.append(';').append(diagramFile.getModificationStamp());
+        key.append(';').append(loadProfileResource.getFullPath()).append(';').append(loadProfileResource.getModificationStamp());
+        final IFolder resourcesFolder = RepositoryManager.getInstance().getRepositoryStore(SimulationResourceRepositoryStore.class).getResource();
+        if (resourcesFolder != null && resourcesFolder.exists()) {
+            for (final IResource member : resourcesFolder.members()) {
+                key.append(';').append(member.getName()).append(';').append(member.getModificationStamp());
+            }
+        }
+        return key.toString();
+    }
+
+    private IResource toWorkspaceFile(final URI uri) {
+        if (uri == null || !uri.isPlatformResource()) {
+            return null;
+        }
+        return ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(uri.toPlatformString(true)));
+    }
+
+}
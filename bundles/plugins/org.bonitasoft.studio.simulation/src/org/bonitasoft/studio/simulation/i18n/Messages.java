@@ -151,6 +151,10 @@ public class Messages extends NLS {
     public static String ExecutionTimePlus;
     public static String resourceAssignmentLabel;
     public static String generatingReport;
+    public static String finishedInstances;
+    public static String finishedReplications;
+    public static String replications;
+    public static String replicationsHint;
     public static String mustBeANumber;
     public static String EditSimulationResourceWizard_ErrorTooManyTargetQuantity;
     public static String allDayPeriod;
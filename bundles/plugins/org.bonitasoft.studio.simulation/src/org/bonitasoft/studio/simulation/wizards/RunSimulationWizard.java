@@ -38,11 +38,14 @@ public class RunSimulationWizard extends Wizard {
 
     protected static final String lastSelectedProcessKey = "lastSelectedProcess";
     protected static final String lastPathKey = "pathForReports";
+    protected static final String lastReplicationsKey = "replications";
+    protected static final int MAX_REPLICATIONS = 100;
 
     private RunSimulationWizardPage page;
     private final AbstractProcess selectedProcess;
     private String path;
     private String loadProfileId;
+    private int replications;
 
     /**
      * @param selectedProcess
@@ -87,7 +90,9 @@ public class RunSimulationWizard extends Wizard {
             return false;
         }
 
+        replications = page.getReplications();
         getDialogSettings().put(lastPathKey, path);
+        getDialogSettings().put(lastReplicationsKey, replications);
         getDialogSettings().put(lastSelectedProcessKey, page.getProcess().getName());
         return true;
     }
@@ -116,6 +121,13 @@ public class RunSimulationWizard extends Wizard {
         return page.getTimespan();
     }
 
+    /**
+     * @return the number of replications of the simulation
+     */
+    public int getReplications() {
+        return replications;
+    }
+
     @Override
     public IDialogSettings getDialogSettings() {
         return SimulationPlugin.getDefault().getDialogSettings();
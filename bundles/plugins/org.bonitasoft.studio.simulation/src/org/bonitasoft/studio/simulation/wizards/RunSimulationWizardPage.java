@@ -56,6 +56,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.DirectoryDialog;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Text;
 
 /**
@@ -69,6 +70,7 @@ public class RunSimulationWizardPage extends WizardPage {
     private Combo combo;
     private ComboViewer processCombo;
     private DurationComposite duration;
+    private Spinner replications;
     private long timespan;
     private final SimulationLoadProfileRepositoryStore loadProfileStore;
 
@@ -262,6 +264,17 @@ public class RunSimulationWizardPage extends WizardPage {
         controlDecoration.setImage(Pics.getImage(PicsConstants.hint));
         controlDecoration.setDescriptionText(Messages.timespanHint);
 
+        final Label replicationsLabel = new Label(pageComposite, SWT.NONE);
+        replicationsLabel.setText(Messages.replications);
+
+        replications = new Spinner(pageComposite, SWT.BORDER);
+        replications.setMinimum(1);
+        replications.setMaximum(RunSimulationWizard.MAX_REPLICATIONS);
+        replications.setSelection(getLastReplications());
+        final ControlDecoration replicationsDecoration = new ControlDecoration(replications, SWT.TOP | SWT.LEFT);
+        replicationsDecoration.setImage(Pics.getImage(PicsConstants.hint));
+        replicationsDecoration.setDescriptionText(Messages.replicationsHint);
+
         combo.addModifyListener(new ModifyListener() {
 
             @Override
@@ -301,6 +314,14 @@ public class RunSimulationWizardPage extends WizardPage {
         setControl(pageComposite);
     }
 
+    private int getLastReplications() {
+        try {
+            return Math.max(1, getDialogSettings().getInt(RunSimulationWizard.lastReplicationsKey));
+        } catch (final NumberFormatException e) {
+            return 1;
+        }
+    }
+
     private long getTotalDuration(final LoadProfile lp) {
         long start = Long.MAX_VALUE;
         long end = 0;
@@ -364,4 +385,8 @@ public class RunSimulationWizardPage extends WizardPage {
     public long getTimespan() {
         return timespan;
     }
+
+    public int getReplications() {
+        return replications.getSelection();
+    }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.validation.common.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bonitasoft.studio.model.process.Data;
+import org.bonitasoft.studio.model.process.MainProcess;
+import org.bonitasoft.studio.model.process.Pool;
+import org.bonitasoft.studio.model.process.ProcessFactory;
+import org.bonitasoft.studio.model.process.SequenceFlow;
+import org.bonitasoft.studio.model.process.Task;
+import org.eclipse.gmf.runtime.notation.Connector;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.NotationFactory;
+import org.eclipse.gmf.runtime.notation.Shape;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ElementToViewResolverTest {
+
+    private Diagram diagram;
+    private MainProcess mainProcess;
+    private Pool pool;
+    private Task task;
+    private Shape poolView;
+    private Shape taskView;
+
+    @Before
+    public void setUp() throws Exception {
+        mainProcess = ProcessFactory.eINSTANCE.createMainProcess();
+        pool = ProcessFactory.eINSTANCE.createPool();
+        task = ProcessFactory.eINSTANCE.createTask();
+        pool.getElements().add(task);
+        mainProcess.getElements().add(pool);
+
+        diagram = NotationFactory.eINSTANCE.createDiagram();
+        diagram.setElement(mainProcess);
+        poolView = NotationFactory.eINSTANCE.createShape();
+        poolView.setElement(pool);
+        diagram.insertChild(poolView);
+        taskView = NotationFactory.eINSTANCE.createShape();
+        taskView.setElement(task);
+        poolView.insertChild(taskView);
+    }
+
+    @Test
+    public void should_find_the_view_of_an_element() throws Exception {
+        final ElementToViewResolver resolver = new ElementToViewResolver(diagram);
+
+        assertThat(resolver.findView(task)).isEqualTo(taskView);
+        assertThat(resolver.findView(pool)).isEqualTo(poolView);
+    }
+
+    @Test
+    public void should_find_the_view_of_the_nearest_container_of_an_element_without_view() throws Exception {
+        final Data data = ProcessFactory.eINSTANCE.createData();
+        task.getData().add(data);
+
+        assertThat(new ElementToViewResolver(diagram).findView(data)).isEqualTo(taskView);
+    }
+
+    @Test
+    public void should_find_the_view_of_a_connection() throws Exception {
+        final SequenceFlow flow = ProcessFactory.eINSTANCE.createSequenceFlow();
+        mainProcess.getConnections().add(flow);
+        final Connector flowView = NotationFactory.eINSTANCE.createConnector();
+        flowView.setElement(flow);
+        diagram.insertEdge(flowView);
+
+        assertThat(new ElementToViewResolver(diagram).findView(flow)).isEqualTo(flowView);
+    }
+
+    @Test
+    public void should_fall_back_to_the_diagram_for_an_element_outside_of_the_diagram() throws Exception {
+        assertThat(new ElementToViewResolver(diagram).findView(ProcessFactory.eINSTANCE.createTask())).isEqualTo(diagram);
+    }
+
+}
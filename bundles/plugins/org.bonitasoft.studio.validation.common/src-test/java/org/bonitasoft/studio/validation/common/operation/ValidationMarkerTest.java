@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.validation.common.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.IStatus;
+import org.junit.Test;
+
+public class ValidationMarkerTest {
+
+    @Test
+    public void should_consider_markers_on_the_same_view_with_the_same_message_as_duplicates() throws Exception {
+        final Set<ValidationMarker> markers = new HashSet<ValidationMarker>();
+
+        markers.add(new ValidationMarker("type", "constraint", "_view", "Pool1::Step1", "message", IMarker.SEVERITY_ERROR));
+        markers.add(new ValidationMarker("type", "constraint", "_view", "Pool1::Step1::data", "message", IMarker.SEVERITY_ERROR));
+
+        assertThat(markers).hasSize(1);
+    }
+
+    @Test
+    public void should_distinguish_markers_by_type_constraint_view_message_and_severity() throws Exception {
+        final ValidationMarker marker = new ValidationMarker("type", "constraint", "_view", "Pool1::Step1", "message", IMarker.SEVERITY_ERROR);
+
+        assertThat(marker).isNotEqualTo(new ValidationMarker("otherType", "constraint", "_view", "Pool1::Step1", "message",
+                IMarker.SEVERITY_ERROR));
+        assertThat(marker).isNotEqualTo(new ValidationMarker("type", null, "_view", "Pool1::Step1", "message", IMarker.SEVERITY_ERROR));
+        assertThat(marker).isNotEqualTo(new ValidationMarker("type", "constraint", "_otherView", "Pool1::Step1", "message",
+                IMarker.SEVERITY_ERROR));
+        assertThat(marker).isNotEqualTo(new ValidationMarker("type", "constraint", "_view", "Pool1::Step1", "other message",
+                IMarker.SEVERITY_ERROR));
+        assertThat(marker).isNotEqualTo(new ValidationMarker("type", "constraint", "_view", "Pool1::Step1", "message",
+                IMarker.SEVERITY_WARNING));
+    }
+
+    @Test
+    public void should_convert_status_severity_to_marker_severity() throws Exception {
+        assertThat(ValidationMarker.toMarkerSeverity(IStatus.ERROR)).isEqualTo(IMarker.SEVERITY_ERROR);
+        assertThat(ValidationMarker.toMarkerSeverity(IStatus.CANCEL)).isEqualTo(IMarker.SEVERITY_ERROR);
+        assertThat(ValidationMarker.toMarkerSeverity(IStatus.WARNING)).isEqualTo(IMarker.SEVERITY_WARNING);
+        assertThat(ValidationMarker.toMarkerSeverity(IStatus.INFO)).isEqualTo(IMarker.SEVERITY_INFO);
+    }
+
+    @Test
+    public void should_write_all_marker_attributes() throws Exception {
+        final ValidationMarker marker = new ValidationMarker("type", "constraint", "_view", "Pool1::Step1", "message", IMarker.SEVERITY_ERROR);
+
+        assertThat(marker.getAttributes()).contains(entry(IMarker.MESSAGE, "message"),
+                entry(IMarker.LOCATION, "Pool1::Step1"),
+                entry(org.eclipse.gmf.runtime.common.ui.resources.IMarker.ELEMENT_ID, "_view"),
+                entry(IMarker.SEVERITY, IMarker.SEVERITY_ERROR),
+                entry(ValidationMarker.CONSTRAINT_ID, "constraint"));
+    }
+
+}
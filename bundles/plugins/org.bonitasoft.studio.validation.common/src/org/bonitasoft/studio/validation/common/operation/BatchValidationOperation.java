@@ -18,12 +18,17 @@ import static org.bonitasoft.studio.model.process.diagram.providers.ProcessValid
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
+import org.bonitasoft.studio.common.metrics.StudioMetrics;
+import org.bonitasoft.studio.common.metrics.Timer;
 import org.bonitasoft.studio.model.form.Form;
 import org.bonitasoft.studio.model.process.MainProcess;
 import org.bonitasoft.studio.model.process.diagram.providers.ProcessMarkerNavigationProvider;
@@ -46,28 +51,22 @@ import org.eclipse.emf.validation.model.EvaluationMode;
 import org.eclipse.emf.validation.service.IBatchValidator;
 import org.eclipse.emf.validation.service.ModelValidationService;
 import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
-import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
-import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramEditor;
 import org.eclipse.gmf.runtime.notation.Diagram;
-import org.eclipse.gmf.runtime.notation.View;
-import org.eclipse.ui.IEditorPart;
-import org.eclipse.ui.IEditorReference;
-import org.eclipse.ui.IWorkbenchPage;
-import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.actions.WorkspaceModifyOperation;
 
 /**
+ * Validates diagrams and places the markers from their notation views, so diagrams that are not opened in an editor are validated
+ * without building any edit part.
+ *
  * @author Romain Bioteau
  */
 public class BatchValidationOperation extends WorkspaceModifyOperation {
 
-    private final Map<Diagram, DiagramEditPart> diagramsToDiagramEditPart = new HashMap<Diagram, DiagramEditPart>();
+    private final Set<Diagram> diagrams = new LinkedHashSet<Diagram>();
     private final List<IFile> fileProcessed = new ArrayList<IFile>(); //Avoid duplicate
-    private final OffscreenEditPartFactory offscreenEditPartFactory;
     private final ValidationMarkerProvider validationMarkerProvider;
 
-    public BatchValidationOperation(final OffscreenEditPartFactory offscreenEditPartFactory, final ValidationMarkerProvider validationMarkerProvider) {
-        this.offscreenEditPartFactory = offscreenEditPartFactory;
+    public BatchValidationOperation(final ValidationMarkerProvider validationMarkerProvider) {
         this.validationMarkerProvider = validationMarkerProvider;
     }
 
@@ -78,29 +77,51 @@ public class BatchValidationOperation extends WorkspaceModifyOperation {
      */
     @Override
     protected void execute(final IProgressMonitor monitor) throws CoreException, InvocationTargetException, InterruptedException {
-        Assert.isLegal(!diagramsToDiagramEditPart.isEmpty());
-        buildEditPart();
-        validationMarkerProvider.clearMarkers(diagramsToDiagramEditPart);
-        for (final Entry<Diagram, DiagramEditPart> entry : diagramsToDiagramEditPart.entrySet()) {
-            final DiagramEditPart diagramEp = entry.getValue();
-            final Diagram diagram = entry.getKey();
-            if (diagramEp != null) {
+        Assert.isLegal(!diagrams.isEmpty());
+        final Timer.Context context = StudioMetrics.time("validation.batch");
+        try {
+            doExecute(monitor);
+        } finally {
+            context.stop();
+        }
+    }
+
+    private void doExecute(final IProgressMonitor monitor) {
+        StudioMetrics.record("validation.batch.diagrams", diagrams.size());
+        final Map<IFile, Set<ValidationMarker>> markersByFile = new LinkedHashMap<IFile, Set<ValidationMarker>>();
+        final Set<IFile> incompleteFiles = new HashSet<IFile>();
+        for (final Diagram diagram : diagrams) {
+            if (diagram.eResource() != null && diagram.getElement() != null) {
+                final IFile target = WorkspaceSynchronizer.getFile(diagram.eResource());
+                if (target == null) {
+                    continue;
+                }
+                if (!markersByFile.containsKey(target)) {
+                    markersByFile.put(target, new LinkedHashSet<ValidationMarker>());
+                }
                 if (!monitor.isCanceled()) {
-                    monitor.setTaskName(subTaskName(diagramEp.resolveSemanticElement()));
+                    monitor.setTaskName(subTaskName(diagram.getElement()));
+                    final Set<ValidationMarker> markers = markersByFile.get(target);
                     final TransactionalEditingDomain txDomain = TransactionUtil.getEditingDomain(diagram);
                     runWithConstraints(txDomain, new Runnable() {
 
                         @Override
                         public void run() {
-                            validate(diagramEp, diagram, monitor);
+                            validate(diagram, markers, monitor);
                         }
                     });
                     monitor.worked(1);
+                } else {
+                    incompleteFiles.add(target);
                 }
             }
         }
-
-        offscreenEditPartFactory.dispose();
+        //Markers of a file are only replaced once all its diagrams have been validated
+        for (final Entry<IFile, Set<ValidationMarker>> entry : markersByFile.entrySet()) {
+            if (!incompleteFiles.contains(entry.getKey())) {
+                validationMarkerProvider.updateMarkers(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
 
@@ -110,77 +131,24 @@ public class BatchValidationOperation extends WorkspaceModifyOperation {
                 ((MainProcess) semanticElement).getVersion());
     }
 
-    private void buildEditPart() {
-        for (final Diagram diagram : diagramsToDiagramEditPart.keySet()) {
-            diagramsToDiagramEditPart.put(diagram, getDiagramEditPart(diagram));
-        }
-
-    }
-
-    protected void validate(final DiagramEditPart diagramEditPart, final View view, final IProgressMonitor monitor) {
-        final IFile target = view.eResource() != null ?
-                WorkspaceSynchronizer.getFile(view.eResource()) : null;
-        final Diagnostic diagnostic = validationMarkerProvider.runEMFValidator(view);
-        validationMarkerProvider.createMarkers(target, diagnostic, diagramEditPart);
+    protected void validate(final Diagram diagram, final Set<ValidationMarker> markers, final IProgressMonitor monitor) {
+        final Diagnostic diagnostic = validationMarkerProvider.runEMFValidator(diagram);
+        validationMarkerProvider.collectMarkers(diagnostic, diagram, markers);
         final IBatchValidator validator =
                 (IBatchValidator)
                 ModelValidationService.getInstance().newValidator(
                         EvaluationMode.BATCH);
         validator.setIncludeLiveConstraints(true);
-        if (view.isSetElement() && view.getElement() != null && view.getElement().eResource() != null) {
-            final IStatus status = validator.validate(view.getElement(), monitor);
-            validationMarkerProvider.createMarkers(target, status, diagramEditPart);
-        }
-    }
-
-    private DiagramEditPart getDiagramEditPart(final Diagram d) {
-        DiagramEditPart res = retrieveEditPartFromOpenedEditors(d);
-        if (res == null) {
-            res = createDiagramEditPart(d);
-        }
-        return res;
-    }
-
-    protected DiagramEditPart retrieveEditPartFromOpenedEditors(final Diagram d) {
-        final IWorkbenchPage activePage = getActivePage();
-        if (activePage != null) {
-            for (final IEditorReference ep : activePage.getEditorReferences()) {
-                final IEditorPart editor = ep.getEditor(false);
-                if (editor instanceof DiagramEditor) {
-                    if (((DiagramEditor) editor).getDiagram().equals(d) && ((DiagramEditor) editor).getDiagramEditPart() != null) {
-                        return ((DiagramEditor) editor).getDiagramEditPart();
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    protected DiagramEditPart createDiagramEditPart(final Diagram d) {
-        if (d != null && d.eResource() != null) {
-            DiagramEditPart offscreenDiagramEditPart = null;
-            try {
-                offscreenDiagramEditPart = offscreenEditPartFactory.createOffscreenDiagramEditPart(d);
-            } catch (final Exception e) {
-                //Need to call twice because sometimes for unknown reasons, the first time is not working
-                offscreenDiagramEditPart = offscreenEditPartFactory.createOffscreenDiagramEditPart(d);
-            }
-            return offscreenDiagramEditPart;
-        }
-        return null;
-    }
-
-    protected IWorkbenchPage getActivePage() {
-        if (PlatformUI.isWorkbenchRunning() && PlatformUI.getWorkbench().getActiveWorkbenchWindow() != null) {
-            return PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+        if (diagram.isSetElement() && diagram.getElement() != null && diagram.getElement().eResource() != null) {
+            final IStatus status = validator.validate(diagram.getElement(), monitor);
+            validationMarkerProvider.collectMarkers(status, diagram, markers);
         }
-        return null;
     }
 
     public IStatus getResult() {
         final MultiStatus result = new MultiStatus(ValidationCommonPlugin.PLUGIN_ID, IStatus.OK, "", null);
         fileProcessed.clear();
-        for (final Diagram d : diagramsToDiagramEditPart.keySet()) {
+        for (final Diagram d : diagrams) {
             final EObject element = d.getElement();
             if (element != null) {
                 final IFile target = d.eResource() != null ? WorkspaceSynchronizer.getFile(d.eResource()) : null;
@@ -246,7 +214,7 @@ public class BatchValidationOperation extends WorkspaceModifyOperation {
     }
 
     public void addDiagram(final Diagram diagramToValidate) {
-        diagramsToDiagramEditPart.put(diagramToValidate, null);
+        diagrams.add(diagramToValidate);
     }
 
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.validation.common.operation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.gmf.runtime.notation.View;
+
+/**
+ * Finds the notation {@link View} of the semantic elements of a {@link Diagram} by walking its views, without any edit part.
+ * An element without a view of its own is placed on the view of its nearest container, or on the diagram itself.
+ */
+public class ElementToViewResolver {
+
+    private final Diagram diagram;
+    private Map<EObject, View> element2View;
+
+    public ElementToViewResolver(final Diagram diagram) {
+        this.diagram = diagram;
+    }
+
+    public View findView(final EObject element) {
+        if (element2View == null) {
+            element2View = new HashMap<EObject, View>();
+            collectViews(diagram);
+        }
+        EObject current = element;
+        while (current != null) {
+            final View view = element2View.get(current);
+            if (view != null) {
+                return view;
+            }
+            current = current.eContainer();
+        }
+        return diagram;
+    }
+
+    private void collectViews(final View view) {
+        if (view.isSetElement() && view.getElement() != null && !element2View.containsKey(view.getElement())) {
+            element2View.put(view.getElement(), view);
+        }
+        for (final Object child : view.getChildren()) {
+            collectViews((View) child);
+        }
+        if (view instanceof Diagram) {
+            for (final Object edge : ((Diagram) view).getEdges()) {
+                collectViews((View) edge);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.validation.common.operation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+
+import com.google.common.base.Objects;
+
+/**
+ * The content of a validation marker, computed before the marker is written. Two markers of the same type, on the same view, for the
+ * same constraint, message and severity are equal, whatever the qualified name of their target.
+ */
+public class ValidationMarker {
+
+    static final String CONSTRAINT_ID = "constraintId";
+
+    private final String markerType;
+    private final String constraintId;
+    private final String elementId;
+    private final String location;
+    private final String message;
+    private final int severity;
+
+    public ValidationMarker(final String markerType, final String constraintId, final String elementId, final String location,
+            final String message, final int markerSeverity) {
+        this.markerType = markerType;
+        this.constraintId = constraintId;
+        this.elementId = elementId;
+        this.location = location;
+        this.message = message;
+        this.severity = markerSeverity;
+    }
+
+    public static ValidationMarker fromMarker(final IMarker marker) throws CoreException {
+        return new ValidationMarker(marker.getType(),
+                marker.getAttribute(CONSTRAINT_ID, null),
+                marker.getAttribute(org.eclipse.gmf.runtime.common.ui.resources.IMarker.ELEMENT_ID, null),
+                marker.getAttribute(IMarker.LOCATION, null),
+                marker.getAttribute(IMarker.MESSAGE, null),
+                marker.getAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO));
+    }
+
+    public static int toMarkerSeverity(final int statusSeverity) {
+        if (statusSeverity == IStatus.WARNING) {
+            return IMarker.SEVERITY_WARNING;
+        } else if (statusSeverity == IStatus.ERROR || statusSeverity == IStatus.CANCEL) {
+            return IMarker.SEVERITY_ERROR;
+        }
+        return IMarker.SEVERITY_INFO;
+    }
+
+    public Map<String, Object> getAttributes() {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put(IMarker.MESSAGE, message);
+        attributes.put(IMarker.LOCATION, location);
+        attributes.put(org.eclipse.gmf.runtime.common.ui.resources.IMarker.ELEMENT_ID, elementId);
+        attributes.put(IMarker.SEVERITY, severity);
+        attributes.put(CONSTRAINT_ID, constraintId);
+        return attributes;
+    }
+
+    public String getMarkerType() {
+        return markerType;
+    }
+
+    public String getConstraintId() {
+        return constraintId;
+    }
+
+    public String getElementId() {
+        return elementId;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getSeverity() {
+        return severity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(markerType, constraintId, elementId, message, severity);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final ValidationMarker other = (ValidationMarker) obj;
+        return severity == other.severity
+                && Objects.equal(markerType, other.markerType)
+                && Objects.equal(constraintId, other.constraintId)
+                && Objects.equal(elementId, other.elementId)
+                && Objects.equal(message, other.message);
+    }
+
+    @Override
+    public String toString() {
+        return markerType + "[" + elementId + "] " + message;
+    }
+
+}
@@ -15,28 +15,31 @@
 package org.bonitasoft.studio.validation.common.operation;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
-import org.bonitasoft.studio.common.Triple;
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.model.form.Form;
 import org.bonitasoft.studio.model.process.MainProcess;
-import org.bonitasoft.studio.model.process.diagram.form.part.ProcessDiagramEditorUtil;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.validation.model.IConstraintStatus;
 import org.eclipse.emf.workspace.util.WorkspaceSynchronizer;
-import org.eclipse.gef.EditPartViewer;
 import org.eclipse.gmf.runtime.diagram.ui.editparts.DiagramEditPart;
 import org.eclipse.gmf.runtime.emf.core.util.EMFCoreUtil;
 import org.eclipse.gmf.runtime.notation.Diagram;
@@ -49,7 +52,8 @@ import org.eclipse.gmf.runtime.notation.View;
  */
 public class ValidationMarkerProvider {
 
-    private static final String CONSTRAINT_ID = "constraintId";
+    private static final String PROCESS_MARKER_TYPE = org.bonitasoft.studio.model.process.diagram.providers.ProcessMarkerNavigationProvider.MARKER_TYPE;
+    private static final String FORM_MARKER_TYPE = org.bonitasoft.studio.model.process.diagram.form.providers.ProcessMarkerNavigationProvider.MARKER_TYPE;
 
     public Diagnostic runEMFValidator(final View target) {
         if (target.isSetElement() && target.getElement() != null) {
@@ -66,96 +70,123 @@ public class ValidationMarkerProvider {
 
     public void createMarkers(final IFile
             target, final IStatus validationStatus, final DiagramEditPart diagramEditPart) {
+        createMarkers(target, validationStatus, diagramEditPart.getDiagramView());
+    }
+
+    public void createMarkers(final IFile
+            target, final IStatus validationStatus, final Diagram diagram) {
+        final Set<ValidationMarker> markers = new LinkedHashSet<ValidationMarker>();
+        collectMarkers(validationStatus, diagram, markers);
+        addMarkers(target, markers);
+    }
+
+    public void createMarkers(final IFile
+            target, final Diagnostic emfValidationStatus, final DiagramEditPart diagramEditPart) {
+        createMarkers(target, emfValidationStatus, diagramEditPart.getDiagramView());
+    }
+
+    public void createMarkers(final IFile
+            target, final Diagnostic emfValidationStatus, final Diagram diagram) {
+        final Set<ValidationMarker> markers = new LinkedHashSet<ValidationMarker>();
+        collectMarkers(emfValidationStatus, diagram, markers);
+        addMarkers(target, markers);
+    }
+
+    /**
+     * Computes the markers of the constraint statuses of a validation, without writing them
+     */
+    public void collectMarkers(final IStatus validationStatus, final Diagram diagram, final Set<ValidationMarker> markers) {
         if (validationStatus.isOK()) {
             return;
         }
-        final IStatus rootStatus = validationStatus;
         final List allStatuses = new ArrayList();
-        final ProcessDiagramEditorUtil.LazyElement2ViewMap element2ViewMap = new ProcessDiagramEditorUtil.LazyElement2ViewMap(
-                diagramEditPart.getDiagramView(),
-                collectTargetElements(rootStatus, new HashSet<EObject>(), allStatuses));
-        final List<Triple<String, String, String>> createdMarkers = new ArrayList<Triple<String, String, String>>();
+        collectConstraintStatuses(validationStatus, allStatuses);
+        final ElementToViewResolver viewResolver = new ElementToViewResolver(diagram);
+        final String markerType = markerType(diagram);
         for (final Iterator it = allStatuses.iterator(); it.hasNext();) {
             final IConstraintStatus nextStatus =
                     (IConstraintStatus) it.next();
-            final String constraintId = nextStatus.getConstraint().getDescriptor().getId();
-            final View view = ProcessDiagramEditorUtil.findView(
-                    diagramEditPart, nextStatus.getTarget(), element2ViewMap);
-            final Triple<String, String, String> triple = new Triple<String, String, String>(constraintId, nextStatus.getMessage(), view.eResource()
-                    .getURIFragment(view));
-            if (!createdMarkers.contains(triple)) {
-                addMarker(diagramEditPart, constraintId, diagramEditPart.getViewer(), target, view.eResource().getURIFragment(view),
-                        EMFCoreUtil.getQualifiedName(nextStatus.getTarget(), true),
-                        nextStatus.getMessage(), nextStatus.getSeverity());
-                createdMarkers.add(triple);
-            }
+            final View view = viewResolver.findView(nextStatus.getTarget());
+            markers.add(new ValidationMarker(markerType, nextStatus.getConstraint().getDescriptor().getId(),
+                    view.eResource().getURIFragment(view),
+                    EMFCoreUtil.getQualifiedName(nextStatus.getTarget(), true),
+                    nextStatus.getMessage(), ValidationMarker.toMarkerSeverity(nextStatus.getSeverity())));
         }
     }
 
-    public void createMarkers(final IFile
-            target, final Diagnostic emfValidationStatus, final DiagramEditPart diagramEditPart) {
+    /**
+     * Computes the markers of the children of an EMF diagnostic, without writing them
+     */
+    public void collectMarkers(final Diagnostic emfValidationStatus, final Diagram diagram, final Set<ValidationMarker> markers) {
         if (emfValidationStatus.getSeverity() == Diagnostic.OK) {
             return;
         }
-        final Diagnostic rootStatus = emfValidationStatus;
-        final List allDiagnostics = new ArrayList();
-        final ProcessDiagramEditorUtil.LazyElement2ViewMap element2ViewMap =
-                new ProcessDiagramEditorUtil.LazyElement2ViewMap(
-                        diagramEditPart.getDiagramView(),
-                        collectTargetElements(rootStatus, new HashSet<EObject>(), allDiagnostics));
+        final ElementToViewResolver viewResolver = new ElementToViewResolver(diagram);
+        final String markerType = markerType(diagram);
         for (final Iterator it = emfValidationStatus.getChildren().iterator(); it.hasNext();) {
             final Diagnostic nextDiagnostic = (Diagnostic) it.next();
             final List data = nextDiagnostic.getData();
             if (data != null && !data.isEmpty() && data.get(0) instanceof EObject) {
                 final EObject element = (EObject) data.get(0);
-                final View view = ProcessDiagramEditorUtil.findView(
-                        diagramEditPart, element, element2ViewMap);
-                addMarker(diagramEditPart, null, diagramEditPart.getViewer(), target, view.eResource().getURIFragment(view),
+                final View view = viewResolver.findView(element);
+                markers.add(new ValidationMarker(markerType, null, view.eResource().getURIFragment(view),
                         EMFCoreUtil.getQualifiedName(element, true),
-                        nextDiagnostic.getMessage(), diagnosticToStatusSeverity(nextDiagnostic.getSeverity()));
+                        nextDiagnostic.getMessage(),
+                        ValidationMarker.toMarkerSeverity(diagnosticToStatusSeverity(nextDiagnostic.getSeverity()))));
             }
         }
     }
 
-    private static synchronized void addMarker(final DiagramEditPart diagramEP, final String constaintId, final EditPartViewer viewer, final IFile
-            target, final String elementId, final String location, final String message, final int statusSeverity) {
-        if (target == null) {
-            return;
-        }
-        if (diagramEP.resolveSemanticElement() instanceof Form) {
-            addFormMarker(constaintId, viewer, target, elementId, location, message, statusSeverity);
-        } else {
-            addProcessMarker(constaintId, viewer, target, elementId, location, message, statusSeverity);
-        }
+    /**
+     * Writes the given markers on the file in a single workspace operation, skipping the ones already there
+     */
+    public void addMarkers(final IFile target, final Collection<ValidationMarker> markers) {
+        writeMarkers(target, markers, false);
     }
 
-    private static void addProcessMarker(final String constraintId, final EditPartViewer viewer, final IFile
-            target, final String elementId, final String location, final String message, final int statusSeverity) {
-        if (target == null) {
-            return;
-        }
-
-        final IMarker marker = org.bonitasoft.studio.model.process.diagram.providers.ProcessMarkerNavigationProvider.addMarker(target, elementId, location,
-                message, statusSeverity);
-        addConstraintId(constraintId, marker);
+    /**
+     * Replaces the validation markers of the file by the given ones in a single workspace operation. The markers that did not change
+     * are left untouched, only the stale ones are deleted and the new ones created.
+     */
+    public void updateMarkers(final IFile target, final Collection<ValidationMarker> markers) {
+        writeMarkers(target, markers, true);
     }
 
-    private static void addConstraintId(final String constraintId, final IMarker marker) {
+    private void writeMarkers(final IFile target, final Collection<ValidationMarker> markers, final boolean deleteStaleMarkers) {
+        if (target == null || !target.exists() || markers.isEmpty() && !deleteStaleMarkers) {
+            return;
+        }
+        final IWorkspace workspace = target.getWorkspace();
         try {
-            marker.setAttribute(CONSTRAINT_ID, constraintId);
+            workspace.run(new IWorkspaceRunnable() {
+
+                @Override
+                public void run(final IProgressMonitor monitor) throws CoreException {
+                    final Set<ValidationMarker> toCreate = new LinkedHashSet<ValidationMarker>(markers);
+                    for (final IMarker marker : existingMarkers(target)) {
+                        if (!toCreate.remove(ValidationMarker.fromMarker(marker)) && deleteStaleMarkers) {
+                            marker.delete();
+                        }
+                    }
+                    for (final ValidationMarker marker : toCreate) {
+                        target.createMarker(marker.getMarkerType()).setAttributes(marker.getAttributes());
+                    }
+                }
+            }, workspace.getRuleFactory().markerRule(target), IWorkspace.AVOID_UPDATE, null);
         } catch (final CoreException e) {
             BonitaStudioLog.error(e);
         }
     }
 
-    private static void addFormMarker(final String constraintId, final EditPartViewer viewer, final IFile
-            target, final String elementId, final String location, final String message, final int statusSeverity) {
-        if (target == null) {
-            return;
-        }
-        final IMarker marker = org.bonitasoft.studio.model.process.diagram.form.providers.ProcessMarkerNavigationProvider.addMarker(
-                target, elementId, location, message, statusSeverity);
-        addConstraintId(constraintId, marker);
+    private static List<IMarker> existingMarkers(final IFile target) throws CoreException {
+        final List<IMarker> markers = new ArrayList<IMarker>();
+        markers.addAll(Arrays.asList(target.findMarkers(PROCESS_MARKER_TYPE, true, IResource.DEPTH_ZERO)));
+        markers.addAll(Arrays.asList(target.findMarkers(FORM_MARKER_TYPE, true, IResource.DEPTH_ZERO)));
+        return markers;
+    }
+
+    private static String markerType(final Diagram diagram) {
+        return diagram.getElement() instanceof Form ? FORM_MARKER_TYPE : PROCESS_MARKER_TYPE;
     }
 
     private static int diagnosticToStatusSeverity(final int diagnosticSeverity) {
@@ -172,54 +203,30 @@ public class ValidationMarkerProvider {
         return IStatus.INFO;
     }
 
-    private static Set<EObject> collectTargetElements(final IStatus status,
-            final Set<EObject> targetElementCollector, final List allConstraintStatuses) {
+    private static void collectConstraintStatuses(final IStatus status, final List allConstraintStatuses) {
         if (status instanceof IConstraintStatus) {
-            targetElementCollector.add(((IConstraintStatus) status).getTarget());
             allConstraintStatuses.add(status);
         }
         if (status.isMultiStatus()) {
             final IStatus[] children = status.getChildren();
             for (int i = 0; i < children.length; i++) {
-                collectTargetElements(children[i], targetElementCollector, allConstraintStatuses);
+                collectConstraintStatuses(children[i], allConstraintStatuses);
             }
         }
-        return targetElementCollector;
     }
 
-    private static Set<EObject> collectTargetElements(final Diagnostic diagnostic,
-            final Set<EObject> targetElementCollector, final List allDiagnostics) {
-        final List data = diagnostic.getData();
-        EObject target = null;
-        if (data != null && !data.isEmpty() && data.get(0) instanceof EObject) {
-            target = (EObject) data.get(0);
-            targetElementCollector.add(target);
-            allDiagnostics.add(diagnostic);
-        }
-        if (diagnostic.getChildren() != null && !diagnostic.getChildren().isEmpty()) {
-            for (final Iterator it = diagnostic.getChildren().iterator(); it.hasNext();) {
-                collectTargetElements((Diagnostic) it.next(),
-                        targetElementCollector, allDiagnostics);
-            }
-        }
-        return targetElementCollector;
-    }
-
-    public void clearMarkers(final Map<Diagram, DiagramEditPart> diagramsToDiagramEditPart) {
-        final Iterator<Entry<Diagram, DiagramEditPart>> iterator = diagramsToDiagramEditPart.entrySet().iterator();
-        while (iterator.hasNext()) {
-            final Entry<Diagram, DiagramEditPart> entry = iterator.next();
-            final Diagram d = entry.getKey();
-            final DiagramEditPart de = entry.getValue();
-            if (de != null) {
-                final EObject resolvedSemanticElement = de.resolveSemanticElement();
-                if (resolvedSemanticElement instanceof Form || resolvedSemanticElement instanceof MainProcess) {
-                    final IFile target = d.eResource() != null ? WorkspaceSynchronizer.getFile(d.eResource()) : null;
-                    if (target != null) {
-                        org.bonitasoft.studio.model.process.diagram.providers.ProcessMarkerNavigationProvider.deleteMarkers(target);
-                        org.bonitasoft.studio.model.process.diagram.form.providers.ProcessMarkerNavigationProvider.deleteMarkers(target);
-                        break;
-                    }
+    /**
+     * Deletes the validation markers of the files of the given diagrams. A validation should rather use
+     * {@link #updateMarkers(IFile, Collection)} to keep the markers that are still valid.
+     */
+    public void clearMarkers(final Collection<Diagram> diagrams) {
+        final Set<IFile> clearedFiles = new HashSet<IFile>();
+        for (final Diagram d : diagrams) {
+            final EObject semanticElement = d.getElement();
+            if (semanticElement instanceof Form || semanticElement instanceof MainProcess) {
+                final IFile target = d.eResource() != null ? WorkspaceSynchronizer.getFile(d.eResource()) : null;
+                if (target != null && clearedFiles.add(target)) {
+                    updateMarkers(target, Collections.<ValidationMarker> emptySet());
                 }
             }
         }
@@ -38,7 +38,6 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.emf.transaction.util.TransactionUtil;
-import org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory;
 import org.eclipse.gmf.runtime.diagram.ui.parts.DiagramEditor;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorPart;
@@ -64,9 +63,7 @@ public class BatchValidationHandler extends AbstractHandler {
             return IStatus.OK;
         }
         final Map<?, ?> parameters = event.getParameters();
-        final BatchValidationOperation validateOperation = new BatchValidationOperation(
-                new org.bonitasoft.studio.validation.common.operation.OffscreenEditPartFactory(OffscreenEditPartFactory.getInstance()),
-                new ValidationMarkerProvider());
+        final BatchValidationOperation validateOperation = new BatchValidationOperation(new ValidationMarkerProvider());
         if (parameters != null && !parameters.isEmpty()) {
             computeDiagramsToValidate(event, validateOperation);
         } else if (currentEditorIsADiagram()) {
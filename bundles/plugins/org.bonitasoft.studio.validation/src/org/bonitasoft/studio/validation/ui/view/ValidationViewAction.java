@@ -18,7 +18,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.bonitasoft.studio.common.log.BonitaStudioLog;
 import org.bonitasoft.studio.validation.common.operation.BatchValidationOperation;
-import org.bonitasoft.studio.validation.common.operation.OffscreenEditPartFactory;
 import org.bonitasoft.studio.validation.common.operation.ValidationMarkerProvider;
 import org.bonitasoft.studio.validation.i18n.Messages;
 import org.eclipse.emf.ecore.EObject;
@@ -67,9 +66,7 @@ public class ValidationViewAction extends Action {
      */
     @Override
     public void run() {
-        final BatchValidationOperation validateOperation = new BatchValidationOperation(new OffscreenEditPartFactory(
-                org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory.getInstance()),
-                new ValidationMarkerProvider());
+        final BatchValidationOperation validateOperation = new BatchValidationOperation(new ValidationMarkerProvider());
         final IEditorPart ieditor = activePage.getActiveEditor();
         if (ieditor instanceof DiagramEditor) {
 
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -43,13 +44,19 @@ import org.bonitasoft.studio.model.process.MainProcess;
 import org.bonitasoft.studio.model.process.ProcessPackage;
 import org.bonitasoft.studio.model.simulation.LoadProfile;
 import org.bonitasoft.studio.model.simulation.SimulationData;
+import org.bonitasoft.studio.simulation.commands.SimulationReplication;
+import org.bonitasoft.studio.simulation.commands.SimulationReplicationsRunner;
+import org.bonitasoft.studio.simulation.commands.SimulationSummaryReport;
 import org.bonitasoft.studio.simulation.commands.SimulationWithMonitorRunner;
 import org.bonitasoft.studio.simulation.engine.SimulationExporter;
+import org.bonitasoft.studio.simulation.engine.SimulationModel;
+import org.bonitasoft.studio.simulation.engine.SimulationModelCache;
 import org.bonitasoft.studio.simulation.repository.SimulationLoadProfileFileStore;
 import org.bonitasoft.studio.simulation.repository.SimulationLoadProfileRepositoryStore;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.progress.IProgressService;
 
@@ -199,4 +206,53 @@ public class TestSimulationExporter extends TestCase {
 
     }
 
+    public void testSimulationModelIsCachedUntilTheDiagramChanges() throws Exception {
+        final SimulationLoadProfileRepositoryStore slprs = RepositoryManager.getInstance().getRepositoryStore(
+                SimulationLoadProfileRepositoryStore.class);
+        final SimulationLoadProfileFileStore lp = slprs.getChild("LoadProfile_1." + SimulationLoadProfileRepositoryStore.SIMULATION_LOADPROFILE_EXT);
+        final Resource resource = processe.eResource();
+        resource.setTrackingModification(true);
+        final SimulationModelCache cache = SimulationModelCache.getInstance();
+        cache.clear();
+
+        final SimulationModel model = cache.getModel(processe, lp);
+        final SimulationModel cachedModel = cache.getModel(processe, lp);
+        assertNotSame(model, cachedModel);
+        assertNotSame(model.getSimProcess(), cachedModel.getSimProcess());
+        assertEquals(model.getSimProcess().getName(), cachedModel.getSimProcess().getName());
+        assertEquals(model.getResources().size(), cachedModel.getResources().size());
+        assertNotSame(cachedModel.getSimProcess(), cache.getModel(processe, lp).getSimProcess());
+
+        resource.setModified(true);
+        try {
+            assertNotSame(model, cache.getModel(processe, lp));
+        } finally {
+            resource.setModified(false);
+        }
+    }
+
+    public void testRunSimulationReplications() throws Exception {
+        final File path = new File(System.getProperty("java.io.tmpdir") + File.separatorChar + "testSimuReplications");
+        path.delete();
+        path.mkdir();
+
+        final SimulationLoadProfileRepositoryStore slprs = RepositoryManager.getInstance().getRepositoryStore(
+                SimulationLoadProfileRepositoryStore.class);
+        final SimulationLoadProfileFileStore lp = slprs.getChild("LoadProfile_1." + SimulationLoadProfileRepositoryStore.SIMULATION_LOADPROFILE_EXT);
+
+        final SimulationReplicationsRunner runnable = new SimulationReplicationsRunner(processe, path.getAbsolutePath(),
+                Collections.singletonList(((LoadProfile) lp.getContent()).getName()), 3, 86400000L * 30L);
+        final IProgressService serive = PlatformUI.getWorkbench().getProgressService();
+        serive.run(true, false, runnable);
+
+        assertFalse("Simulation has been cancelled", runnable.isCancelled());
+        assertEquals(3, runnable.getReplications().size());
+        for (final SimulationReplication replication : runnable.getReplications()) {
+            assertNotNull("No Report has been generated for replication " + replication.getIndex(), replication.getReportFile());
+            assertTrue("Report doesn't exists", new File(replication.getReportFile()).exists());
+        }
+        assertEquals(new File(path, SimulationSummaryReport.SUMMARY_FILE_NAME).getAbsolutePath(), runnable.getReportFile());
+        assertTrue("Summary doesn't exists", new File(runnable.getReportFile()).length() > 0);
+    }
+
 }
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+/**
+ * An operation measured by the {@link BenchmarkRunner}.
+ * {@link #setUp()} and {@link #tearDown()} are called once per fork, around the warm-up and measurement iterations.
+ */
+public abstract class Benchmark {
+
+    private final String name;
+
+    protected Benchmark(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setUp() throws Exception {
+    }
+
+    /**
+     * One measured iteration
+     */
+    public abstract void run() throws Exception;
+
+    public void tearDown() throws Exception {
+    }
+
+}
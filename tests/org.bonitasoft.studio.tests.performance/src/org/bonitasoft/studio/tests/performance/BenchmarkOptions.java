@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import java.io.File;
+
+/**
+ * Benchmark settings, read from the <code>bonita.benchmark.*</code> system properties.
+ */
+public class BenchmarkOptions {
+
+    public static final String PREFIX = "bonita.benchmark.";
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final int forks;
+    private final int pools;
+    private final int tasksPerPool;
+    private final int users;
+    private final int pages;
+    private final long seed;
+    private final int[] scales;
+    private final File outputFolder;
+
+    private BenchmarkOptions(final Builder builder) {
+        warmupIterations = builder.warmupIterations;
+        measurementIterations = builder.measurementIterations;
+        forks = builder.forks;
+        pools = builder.pools;
+        tasksPerPool = builder.tasksPerPool;
+        users = builder.users;
+        pages = builder.pages;
+        seed = builder.seed;
+        scales = builder.scales;
+        outputFolder = builder.outputFolder;
+    }
+
+    public static Builder aBenchmarkOptions() {
+        return new Builder();
+    }
+
+    public static BenchmarkOptions fromSystemProperties() {
+        return aBenchmarkOptions()
+                .withWarmupIterations(Integer.getInteger(PREFIX + "warmup", 3))
+                .withMeasurementIterations(Integer.getInteger(PREFIX + "iterations", 10))
+                .withForks(Integer.getInteger(PREFIX + "forks", 2))
+                .withPools(Integer.getInteger(PREFIX + "pools", 5))
+                .withTasksPerPool(Integer.getInteger(PREFIX + "tasks", 50))
+                .withUsers(Integer.getInteger(PREFIX + "users", 500))
+                .withPages(Integer.getInteger(PREFIX + "pages", 500))
+                .withSeed(Long.getLong(PREFIX + "seed", 42L))
+                .withScales(toIntArray(System.getProperty(PREFIX + "scales", "1,2,4")))
+                .withOutputFolder(new File(System.getProperty(PREFIX + "output", "benchmarks")))
+                .build();
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public int getMeasurementIterations() {
+        return measurementIterations;
+    }
+
+    /**
+     * Number of times a benchmark is set up and measured again. Forks share the same JVM: the runtime of the Studio cannot be started
+     * twice in the same test run.
+     */
+    public int getForks() {
+        return forks;
+    }
+
+    /**
+     * Size of the generated diagram
+     */
+    public int getPools() {
+        return pools;
+    }
+
+    public int getTasksPerPool() {
+        return tasksPerPool;
+    }
+
+    /**
+     * Size of the generated organization
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * Number of generated UI designer pages
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * Seed of the generated repositories, the same seed gives the same repository
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Size factors of the generated repositories, to measure how an operation scales
+     */
+    public int[] getScales() {
+        return scales;
+    }
+
+    public File getOutputFolder() {
+        return outputFolder;
+    }
+
+    public static class Builder {
+
+        private int warmupIterations = 3;
+        private int measurementIterations = 10;
+        private int forks = 2;
+        private int pools = 5;
+        private int tasksPerPool = 50;
+        private int users = 500;
+        private int pages = 500;
+        private long seed = 42L;
+        private int[] scales = new int[] { 1, 2, 4 };
+        private File outputFolder = new File("benchmarks");
+
+        private Builder() {
+        }
+
+        public Builder withWarmupIterations(final int warmupIterations) {
+            this.warmupIterations = warmupIterations;
+            return this;
+        }
+
+        public Builder withMeasurementIterations(final int measurementIterations) {
+            this.measurementIterations = measurementIterations;
+            return this;
+        }
+
+        public Builder withForks(final int forks) {
+            this.forks = forks;
+            return this;
+        }
+
+        public Builder withPools(final int pools) {
+            this.pools = pools;
+            return this;
+        }
+
+        public Builder withTasksPerPool(final int tasksPerPool) {
+            this.tasksPerPool = tasksPerPool;
+            return this;
+        }
+
+        public Builder withUsers(final int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Builder withPages(final int pages) {
+            this.pages = pages;
+            return this;
+        }
+
+        public Builder withSeed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder withScales(final int[] scales) {
+            this.scales = scales;
+            return this;
+        }
+
+        public Builder withOutputFolder(final File outputFolder) {
+            this.outputFolder = outputFolder;
+            return this;
+        }
+
+        public BenchmarkOptions build() {
+            return new BenchmarkOptions(this);
+        }
+    }
+
+    private static int[] toIntArray(final String values) {
+        final String[] split = values.split(",");
+        final int[] result = new int[split.length];
+        for (int i = 0; i < split.length; i++) {
+            result[i] = Integer.parseInt(split[i].trim());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.bonitasoft.studio.common.ProductVersion;
+
+/**
+ * Writes the results of a benchmark run as a JSON file named after the Studio version and the run date, so that runs of different
+ * releases can be compared.
+ */
+public class BenchmarkReport {
+
+    private final BenchmarkOptions options;
+    private final List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+    private final Date date = new Date();
+
+    public BenchmarkReport(final BenchmarkOptions options) {
+        this.options = options;
+    }
+
+    public synchronized void add(final BenchmarkResult result) {
+        results.add(result);
+    }
+
+    public synchronized File write() throws IOException {
+        final File outputFolder = options.getOutputFolder();
+        if (!outputFolder.exists()) {
+            outputFolder.mkdirs();
+        }
+        final File reportFile = new File(outputFolder, String.format("benchmark-%s-%s.json", ProductVersion.CURRENT_VERSION,
+                new SimpleDateFormat("yyyyMMdd-HHmmss").format(date)));
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(reportFile.toPath()), StandardCharsets.UTF_8)) {
+            writer.write(toJSON());
+        }
+        return reportFile;
+    }
+
+    String toJSON() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append(String.format(Locale.ENGLISH, "  \"version\":\"%s\",\n", ProductVersion.CURRENT_VERSION));
+        sb.append(String.format(Locale.ENGLISH, "  \"date\":%d,\n", date.getTime()));
+        sb.append(String.format(Locale.ENGLISH, "  \"java\":\"%s\",\n", System.getProperty("java.version")));
+        sb.append(String.format(Locale.ENGLISH, "  \"os\":\"%s\",\n", System.getProperty("os.name")));
+        sb.append(String.format(Locale.ENGLISH, "  \"processors\":%d,\n", Runtime.getRuntime().availableProcessors()));
+        sb.append(String.format(Locale.ENGLISH,
+                "  \"options\":{\"warmup\":%d,\"iterations\":%d,\"forks\":%d,\"pools\":%d,\"tasks\":%d,\"users\":%d,\"pages\":%d,\"seed\":%d},\n",
+                options.getWarmupIterations(), options.getMeasurementIterations(), options.getForks(), options.getPools(),
+                options.getTasksPerPool(), options.getUsers(), options.getPages(), options.getSeed()));
+        sb.append("  \"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            sb.append(i == 0 ? "\n    " : ",\n    ");
+            sb.append(results.get(i).toJSON());
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+}
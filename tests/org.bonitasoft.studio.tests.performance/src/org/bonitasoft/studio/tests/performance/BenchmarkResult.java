@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measured iterations of a {@link Benchmark}, in nanoseconds.
+ */
+public class BenchmarkResult {
+
+    /** 99.9% confidence, as reported by JMH */
+    private static final double Z_999 = 3.29;
+
+    private final String name;
+    private final List<Long> samples;
+
+    public BenchmarkResult(final String name, final List<Long> samples) {
+        this.name = name;
+        this.samples = new ArrayList<Long>(samples);
+        Collections.sort(this.samples);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSampleCount() {
+        return samples.size();
+    }
+
+    public double getMean() {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        double sum = 0;
+        for (final Long sample : samples) {
+            sum += sample;
+        }
+        return sum / samples.size();
+    }
+
+    public double getStandardDeviation() {
+        if (samples.size() < 2) {
+            return 0;
+        }
+        final double mean = getMean();
+        double sum = 0;
+        for (final Long sample : samples) {
+            sum += (sample - mean) * (sample - mean);
+        }
+        return Math.sqrt(sum / (samples.size() - 1));
+    }
+
+    public double getError() {
+        return samples.isEmpty() ? 0 : Z_999 * getStandardDeviation() / Math.sqrt(samples.size());
+    }
+
+    public long getMin() {
+        return samples.isEmpty() ? 0 : samples.get(0);
+    }
+
+    public long getMax() {
+        return samples.isEmpty() ? 0 : samples.get(samples.size() - 1);
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public long getPercentile(final double percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100d * samples.size()) - 1;
+        return samples.get(Math.min(samples.size() - 1, Math.max(0, index)));
+    }
+
+    public String toJSON() {
+        return String.format(Locale.ENGLISH,
+                "{\"name\":\"%s\",\"unit\":\"ms\",\"samples\":%d,\"mean\":%.3f,\"error\":%.3f,\"stdev\":%.3f,\"min\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"max\":%.3f}",
+                name, getSampleCount(), toMillis(getMean()), toMillis(getError()), toMillis(getStandardDeviation()), toMillis(getMin()),
+                toMillis(getPercentile(50)), toMillis(getPercentile(90)), toMillis(getMax()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "%s: %.3f ms ± %.3f (min %.3f, p90 %.3f, max %.3f, %d samples)", name, toMillis(getMean()),
+                toMillis(getError()), toMillis(getMin()), toMillis(getPercentile(90)), toMillis(getMax()), getSampleCount());
+    }
+
+    private static double toMillis(final double nanos) {
+        return nanos / 1000000d;
+    }
+
+}
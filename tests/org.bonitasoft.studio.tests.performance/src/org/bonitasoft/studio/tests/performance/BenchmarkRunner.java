@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bonitasoft.studio.common.log.BonitaStudioLog;
+
+/**
+ * Runs each fork of a {@link Benchmark}: set up, warm-up iterations (not measured), measured iterations and tear down.
+ */
+public class BenchmarkRunner {
+
+    private static final String PLUGIN_ID = "org.bonitasoft.studio.tests.performance";
+
+    private final BenchmarkOptions options;
+
+    public BenchmarkRunner(final BenchmarkOptions options) {
+        this.options = options;
+    }
+
+    public BenchmarkResult run(final Benchmark benchmark) throws Exception {
+        final List<Long> samples = new ArrayList<Long>();
+        for (int fork = 0; fork < options.getForks(); fork++) {
+            System.gc();
+            benchmark.setUp();
+            try {
+                for (int i = 0; i < options.getWarmupIterations(); i++) {
+                    benchmark.run();
+                }
+                for (int i = 0; i < options.getMeasurementIterations(); i++) {
+                    final long start = System.nanoTime();
+                    benchmark.run();
+                    samples.add(System.nanoTime() - start);
+                }
+            } finally {
+                benchmark.tearDown();
+            }
+        }
+        final BenchmarkResult result = new BenchmarkResult(benchmark.getName(), samples);
+        BonitaStudioLog.info(result.toString(), PLUGIN_ID);
+        return result;
+    }
+
+}
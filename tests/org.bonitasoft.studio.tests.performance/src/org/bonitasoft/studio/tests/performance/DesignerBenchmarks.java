@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.bonitasoft.studio.common.platform.tools.PlatformUtil;
+import org.bonitasoft.studio.common.repository.Repository;
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.designer.core.repository.JSONContentCache;
+import org.bonitasoft.studio.designer.core.repository.WebPageFileStore;
+import org.bonitasoft.studio.designer.core.repository.WebPageRepositoryStore;
+import org.bonitasoft.studio.tests.performance.fixture.PageFixtureGenerator;
+import org.eclipse.core.resources.IResource;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmarks of the UI designer artifacts stores, on a generated set of pages sized with {@link BenchmarkOptions#getPages()}.
+ */
+public class DesignerBenchmarks {
+
+    private static final int COMPONENTS_PER_PAGE = 200;
+
+    private static BenchmarkRunner runner;
+    private static BenchmarkReport report;
+    private static WebPageRepositoryStore pageStore;
+    private static List<File> pageFolders;
+
+    @BeforeClass
+    public static void generateFixtures() throws Exception {
+        final BenchmarkOptions options = BenchmarkOptions.fromSystemProperties();
+        runner = new BenchmarkRunner(options);
+        report = new BenchmarkReport(options);
+        pageStore = RepositoryManager.getInstance().getRepositoryStore(WebPageRepositoryStore.class);
+        pageFolders = new PageFixtureGenerator(options.getPages(), COMPONENTS_PER_PAGE).generate(pageStore.getResource().getLocation().toFile());
+        pageStore.getResource().refreshLocal(IResource.DEPTH_INFINITE, Repository.NULL_PROGRESS_MONITOR);
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        if (pageFolders != null) {
+            for (final File pageFolder : pageFolders) {
+                PlatformUtil.delete(pageFolder, Repository.NULL_PROGRESS_MONITOR);
+            }
+            pageStore.getResource().refreshLocal(IResource.DEPTH_INFINITE, Repository.NULL_PROGRESS_MONITOR);
+        }
+        report.write();
+    }
+
+    /**
+     * Name, id and type of each page, as shown by the explorer and the form mapping dialogs. The uncached variant parses the page for
+     * each attribute, which was the behavior before the JSON content cache.
+     */
+    @Test
+    public void pages_attributes() throws Exception {
+        report.add(runner.run(new PagesAttributesBenchmark("designer.pages.attributes.uncached", true)));
+        report.add(runner.run(new PagesAttributesBenchmark("designer.pages.attributes", false)));
+    }
+
+    private static class PagesAttributesBenchmark extends Benchmark {
+
+        private final boolean uncached;
+
+        PagesAttributesBenchmark(final String name, final boolean uncached) {
+            super(name);
+            this.uncached = uncached;
+        }
+
+        @Override
+        public void setUp() throws Exception {
+            JSONContentCache.getInstance().clear();
+        }
+
+        @Override
+        public void run() throws Exception {
+            for (final WebPageFileStore page : pageStore.getChildren()) {
+                clearIfUncached();
+                assertThat(page.getDisplayName()).isNotNull();
+                clearIfUncached();
+                assertThat(page.getId()).isNotNull();
+                clearIfUncached();
+                assertThat(page.getType()).isNotNull();
+            }
+        }
+
+        private void clearIfUncached() {
+            if (uncached) {
+                JSONContentCache.getInstance().clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bonitasoft.studio.common.jface.FileActionDialog;
+import org.bonitasoft.studio.common.repository.Repository;
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.importer.bos.operation.ImportBosArchiveOperation;
+import org.bonitasoft.studio.tests.performance.fixture.RepositoryFixtureGenerator;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Measures how the import of a .bos archive scales with the size of the repository. One archive is generated per scale factor of
+ * the {@link BenchmarkOptions}, with the same seed so that runs can be compared.
+ */
+public class RepositoryScaleBenchmarks {
+
+    @ClassRule
+    public static TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static BenchmarkOptions options;
+    private static BenchmarkRunner runner;
+    private static BenchmarkReport report;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        FileActionDialog.setDisablePopup(true);
+        options = BenchmarkOptions.fromSystemProperties();
+        runner = new BenchmarkRunner(options);
+        report = new BenchmarkReport(options);
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        report.write();
+    }
+
+    @Test
+    public void bos_import_scaling() throws Exception {
+        for (final int scale : options.getScales()) {
+            final File bosFile = new RepositoryFixtureGenerator(options.getSeed())
+                    .diagrams(10 * scale)
+                    .users(100 * scale)
+                    .businessObjects(10 * scale)
+                    .generateArchive(tmpFolder.newFile("Scale" + scale + ".bos"));
+            report.add(runner.run(new Benchmark("bos.import.x" + scale) {
+
+                private Set<IPath> initialFiles;
+
+                @Override
+                public void setUp() throws Exception {
+                    initialFiles = repositoryFiles();
+                }
+
+                @Override
+                public void run() throws Exception {
+                    final ImportBosArchiveOperation importOperation = new ImportBosArchiveOperation().disableValidation();
+                    importOperation.setArchiveFile(bosFile.getAbsolutePath());
+                    importOperation.setCurrentRepository(RepositoryManager.getInstance().getCurrentRepository());
+                    importOperation.run(Repository.NULL_PROGRESS_MONITOR);
+                    assertThat(importOperation.getStatus().isOK()).isTrue();
+                }
+
+                /**
+                 * The next forks and benchmarks must run against the repository as it was before the import
+                 */
+                @Override
+                public void tearDown() throws Exception {
+                    final IProject project = RepositoryManager.getInstance().getCurrentRepository().getProject();
+                    for (final IPath file : repositoryFiles()) {
+                        if (!initialFiles.contains(file)) {
+                            project.getFile(file).delete(true, Repository.NULL_PROGRESS_MONITOR);
+                        }
+                    }
+                }
+            }));
+        }
+    }
+
+    private static Set<IPath> repositoryFiles() throws CoreException {
+        final Set<IPath> files = new HashSet<IPath>();
+        RepositoryManager.getInstance().getCurrentRepository().getProject().accept(new IResourceVisitor() {
+
+            @Override
+            public boolean visit(final IResource resource) throws CoreException {
+                if (resource.getType() == IResource.FILE && !resource.isDerived()) {
+                    files.add(resource.getProjectRelativePath());
+                }
+                return true;
+            }
+        });
+        return files;
+    }
+
+}
@@ -0,0 +1,326 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bonitasoft.studio.actors.model.organization.Organization;
+import org.bonitasoft.studio.actors.validator.OrganizationValidator;
+import org.bonitasoft.studio.common.emf.tools.ModelHelper;
+import org.bonitasoft.studio.common.jface.FileActionDialog;
+import org.bonitasoft.studio.common.repository.Repository;
+import org.bonitasoft.studio.common.repository.RepositoryManager;
+import org.bonitasoft.studio.common.repository.operation.ExportBosArchiveOperation;
+import org.bonitasoft.studio.configuration.preferences.ConfigurationPreferenceConstants;
+import org.bonitasoft.studio.diagram.custom.operation.DuplicateDiagramOperation;
+import org.bonitasoft.studio.diagram.custom.repository.DiagramBinaryCache;
+import org.bonitasoft.studio.diagram.custom.repository.DiagramFileStore;
+import org.bonitasoft.studio.diagram.custom.repository.DiagramRepositoryStore;
+import org.bonitasoft.studio.engine.export.BarExporter;
+import org.bonitasoft.studio.exporter.bpmn.transfo.BonitaToBPMN;
+import org.bonitasoft.studio.exporter.extension.BonitaModelExporterImpl;
+import org.bonitasoft.studio.importer.bos.operation.ImportBosArchiveOperation;
+import org.bonitasoft.studio.importer.bpmn.BPMNToProc;
+import org.bonitasoft.studio.model.process.AbstractProcess;
+import org.bonitasoft.studio.model.process.MainProcess;
+import org.bonitasoft.studio.model.process.ProcessPackage;
+import org.bonitasoft.studio.model.process.Task;
+import org.bonitasoft.studio.model.process.diagram.edit.parts.MainProcessEditPart;
+import org.bonitasoft.studio.tests.performance.fixture.BPMNFixtureGenerator;
+import org.bonitasoft.studio.tests.performance.fixture.OrganizationFixtureGenerator;
+import org.bonitasoft.studio.validation.common.operation.BatchValidationOperation;
+import org.bonitasoft.studio.validation.common.operation.ValidationMarkerProvider;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.gmf.runtime.notation.Diagram;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Benchmarks of the core Studio operations on generated fixtures, sized with {@link BenchmarkOptions}.
+ * Results are written in the output folder of the options once all benchmarks ran.
+ */
+public class StudioBenchmarks {
+
+    @ClassRule
+    public static TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static BenchmarkOptions options;
+    private static BenchmarkRunner runner;
+    private static BenchmarkReport report;
+    private static File bpmnFile;
+    private static DiagramFileStore diagramFileStore;
+    private static Organization organization;
+
+    @BeforeClass
+    public static void generateFixtures() throws Exception {
+        FileActionDialog.setDisablePopup(true);
+        options = BenchmarkOptions.fromSystemProperties();
+        runner = new BenchmarkRunner(options);
+        report = new BenchmarkReport(options);
+
+        bpmnFile = new BPMNFixtureGenerator(options.getPools(), options.getTasksPerPool()).generate(tmpFolder.newFile("Benchmark.bpmn"));
+        final File procFile = importBPMN();
+        final DiagramRepositoryStore diagramStore = RepositoryManager.getInstance().getRepositoryStore(DiagramRepositoryStore.class);
+        try (InputStream is = new FileInputStream(procFile)) {
+            diagramFileStore = diagramStore.importInputStream(procFile.getName(), is);
+        }
+        organization = new OrganizationFixtureGenerator(options.getUsers()).generate();
+    }
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        if (diagramFileStore != null) {
+            diagramFileStore.delete();
+        }
+        report.write();
+    }
+
+    @Test
+    public void diagram_load() throws Exception {
+        final URI uri = URI.createFileURI(diagramFileStore.getResource().getLocation().toFile().getAbsolutePath());
+        report.add(runner.run(new Benchmark("diagram.load") {
+
+            @Override
+            public void run() throws Exception {
+                final Resource resource = new ResourceSetImpl().getResource(uri, true);
+                assertThat(resource.getContents()).isNotEmpty();
+                resource.unload();
+            }
+        }));
+    }
+
+    @Test
+    public void diagram_load_binary() throws Exception {
+        final File file = diagramFileStore.getResource().getLocation().toFile();
+        final URI uri = URI.createFileURI(file.getAbsolutePath());
+        final DiagramBinaryCache cache = new DiagramBinaryCache(tmpFolder.newFolder("diagram-cache"));
+        report.add(runner.run(new Benchmark("diagram.load.binary") {
+
+            @Override
+            public void setUp() throws Exception {
+                final XMLResource resource = (XMLResource) new ResourceSetImpl().getResource(uri, true);
+                cache.store(file, DiagramBinaryCache.keyOf(file), resource);
+                resource.unload();
+            }
+
+            @Override
+            public void run() throws Exception {
+                final XMLResource resource = (XMLResource) new ResourceSetImpl().createResource(uri);
+                assertThat(cache.load(file, DiagramBinaryCache.keyOf(file), resource)).isTrue();
+                assertThat(resource.getContents()).isNotEmpty();
+                resource.unload();
+            }
+        }));
+    }
+
+    @Test
+    public void diagram_save() throws Exception {
+        final Resource resource = diagramFileStore.getContent().eResource();
+        report.add(runner.run(new Benchmark("diagram.save") {
+
+            @Override
+            public void run() throws Exception {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                resource.save(out, Collections.emptyMap());
+                assertThat(out.size()).isPositive();
+            }
+        }));
+    }
+
+    @Test
+    public void modelHelper_traversals() throws Exception {
+        final MainProcess mainProcess = diagramFileStore.getContent();
+        report.add(runner.run(new Benchmark("modelhelper.traversals") {
+
+            @Override
+            public void run() throws Exception {
+                final List<Task> tasks = ModelHelper.getAllItemsOfType(mainProcess, ProcessPackage.Literals.TASK);
+                for (final Task task : tasks) {
+                    ModelHelper.getAccessibleData(task);
+                    ModelHelper.getParentProcess(task);
+                    ModelHelper.getMainProcess(task);
+                }
+                assertThat(ModelHelper.getAllProcesses(mainProcess)).isNotEmpty();
+            }
+        }));
+    }
+
+    @Test
+    public void bar_build() throws Exception {
+        final List<AbstractProcess> processes = diagramFileStore.getProcesses();
+        report.add(runner.run(new Benchmark("bar.build") {
+
+            @Override
+            public void run() throws Exception {
+                for (final AbstractProcess process : processes) {
+                    assertThat(BarExporter.getInstance().createBusinessArchive(process, ConfigurationPreferenceConstants.LOCAL_CONFIGURAITON,
+                            Collections.<EObject> emptySet())).isNotNull();
+                }
+            }
+        }));
+    }
+
+    @Test
+    public void diagram_duplicate() throws Exception {
+        final MainProcess mainProcess = diagramFileStore.getContent();
+        final DiagramRepositoryStore diagramStore = RepositoryManager.getInstance().getRepositoryStore(DiagramRepositoryStore.class);
+        report.add(runner.run(new Benchmark("diagram.duplicate") {
+
+            private int copies = 0;
+
+            @Override
+            public void run() throws Exception {
+                copies++;
+                final DuplicateDiagramOperation operation = new DuplicateDiagramOperation();
+                operation.setDiagramToDuplicate(mainProcess);
+                operation.setNewDiagramName(mainProcess.getName());
+                operation.setNewDiagramVersion(copyVersion(copies));
+                operation.run(Repository.NULL_PROGRESS_MONITOR);
+            }
+
+            @Override
+            public void tearDown() throws Exception {
+                for (int i = 1; i <= copies; i++) {
+                    final DiagramFileStore copy = diagramStore.getDiagram(mainProcess.getName(), copyVersion(i));
+                    if (copy != null) {
+                        copy.delete();
+                    }
+                }
+            }
+
+            private String copyVersion(final int index) {
+                return mainProcess.getVersion() + "." + index;
+            }
+        }));
+    }
+
+    @Test
+    public void bpmn_import() throws Exception {
+        report.add(runner.run(new Benchmark("bpmn.import") {
+
+            @Override
+            public void run() throws Exception {
+                assertThat(importBPMN().delete()).isTrue();
+            }
+        }));
+    }
+
+    @Test
+    public void bpmn_export() throws Exception {
+        report.add(runner.run(new Benchmark("bpmn.export") {
+
+            private Shell shell;
+            private MainProcessEditPart editPart;
+
+            @Override
+            public void setUp() throws Exception {
+                shell = new Shell(Display.getDefault());
+                final Diagram diagram = ModelHelper.getDiagramFor(diagramFileStore.getContent());
+                editPart = (MainProcessEditPart) org.eclipse.gmf.runtime.diagram.ui.OffscreenEditPartFactory.getInstance().createDiagramEditPart(
+                        diagram, shell);
+            }
+
+            @Override
+            public void run() throws Exception {
+                final File target = tmpFolder.newFile();
+                assertThat(new BonitaToBPMN().transform(new BonitaModelExporterImpl(editPart), target, Repository.NULL_PROGRESS_MONITOR)).isTrue();
+                target.delete();
+            }
+
+            @Override
+            public void tearDown() throws Exception {
+                shell.dispose();
+            }
+        }));
+    }
+
+    @Test
+    public void diagram_validation() throws Exception {
+        final Diagram diagram = ModelHelper.getDiagramFor(diagramFileStore.getContent());
+        report.add(runner.run(new Benchmark("diagram.validation") {
+
+            @Override
+            public void run() throws Exception {
+                final BatchValidationOperation validationOperation = new BatchValidationOperation(new ValidationMarkerProvider());
+                validationOperation.addDiagram(diagram);
+                validationOperation.run(Repository.NULL_PROGRESS_MONITOR);
+            }
+        }));
+    }
+
+    @Test
+    public void bos_export_import() throws Exception {
+        final File bosFile = new File(tmpFolder.getRoot(), "Benchmark.bos");
+        final Set<IResource> resources = new HashSet<IResource>();
+        resources.add(diagramFileStore.getResource());
+        report.add(runner.run(new Benchmark("bos.export") {
+
+            @Override
+            public void run() throws Exception {
+                bosFile.delete();
+                final ExportBosArchiveOperation exportOperation = new ExportBosArchiveOperation();
+                exportOperation.setDestinationPath(bosFile.getAbsolutePath());
+                exportOperation.setResources(resources);
+                assertThat(exportOperation.run(Repository.NULL_PROGRESS_MONITOR).isOK()).isTrue();
+            }
+        }));
+        report.add(runner.run(new Benchmark("bos.import") {
+
+            @Override
+            public void run() throws Exception {
+                final ImportBosArchiveOperation importOperation = new ImportBosArchiveOperation().disableValidation();
+                importOperation.setArchiveFile(bosFile.getAbsolutePath());
+                importOperation.setCurrentRepository(RepositoryManager.getInstance().getCurrentRepository());
+                importOperation.run(Repository.NULL_PROGRESS_MONITOR);
+                assertThat(importOperation.getStatus().isOK()).isTrue();
+            }
+        }));
+    }
+
+    @Test
+    public void organization_validation() throws Exception {
+        report.add(runner.run(new Benchmark("organization.validation") {
+
+            @Override
+            public void run() throws Exception {
+                assertThat(new OrganizationValidator().validate(organization).isOK()).isTrue();
+            }
+        }));
+    }
+
+    private static File importBPMN() throws Exception {
+        return new BPMNToProc(bpmnFile.getAbsolutePath()).createDiagram(bpmnFile.toURI().toURL(), Repository.NULL_PROGRESS_MONITOR);
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance.fixture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes a BPMN 2.0 file with the given number of processes, each one being a sequence of user tasks between a start and an end event
+ * with an exclusive gateway every ten tasks.
+ * Once imported with the BPMN importer, it gives a diagram with one pool per process.
+ */
+public class BPMNFixtureGenerator {
+
+    private final int processes;
+    private final int tasksPerProcess;
+
+    public BPMNFixtureGenerator(final int processes, final int tasksPerProcess) {
+        this.processes = processes;
+        this.tasksPerProcess = tasksPerProcess;
+    }
+
+    public File generate(final File targetFile) throws IOException {
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(targetFile.toPath()), StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" "
+                    + "targetNamespace=\"http://bonitasoft.com/benchmark\" id=\"BenchmarkDefinitions\">\n");
+            for (int p = 0; p < processes; p++) {
+                writeProcess(writer, p);
+            }
+            writer.write("</bpmn:definitions>\n");
+        }
+        return targetFile;
+    }
+
+    private void writeProcess(final Writer writer, final int p) throws IOException {
+        final String prefix = "P" + p + "_";
+        writer.write(String.format("  <bpmn:process id=\"%sprocess\" name=\"Pool%d\" processType=\"None\" isClosed=\"false\">\n", prefix, p));
+        writer.write(String.format("    <bpmn:startEvent id=\"%sstart\" name=\"Start\"/>\n", prefix));
+        String previous = prefix + "start";
+        int flow = 0;
+        for (int t = 0; t < tasksPerProcess; t++) {
+            final String task = prefix + "task" + t;
+            writer.write(String.format("    <bpmn:userTask id=\"%s\" name=\"Step %d\"/>\n", task, t));
+            writer.write(sequenceFlow(prefix + "flow" + flow++, previous, task));
+            previous = task;
+            if (t % 10 == 9 && t < tasksPerProcess - 1) {
+                final String gateway = prefix + "gateway" + t;
+                writer.write(String.format("    <bpmn:exclusiveGateway id=\"%s\" name=\"Gateway %d\"/>\n", gateway, t));
+                writer.write(sequenceFlow(prefix + "flow" + flow++, previous, gateway));
+                previous = gateway;
+            }
+        }
+        writer.write(String.format("    <bpmn:endEvent id=\"%send\" name=\"End\"/>\n", prefix));
+        writer.write(sequenceFlow(prefix + "flow" + flow, previous, prefix + "end"));
+        writer.write("  </bpmn:process>\n");
+    }
+
+    private String sequenceFlow(final String id, final String source, final String target) {
+        return String.format("    <bpmn:sequenceFlow id=\"%s\" sourceRef=\"%s\" targetRef=\"%s\"/>\n", id, source, target);
+    }
+
+}
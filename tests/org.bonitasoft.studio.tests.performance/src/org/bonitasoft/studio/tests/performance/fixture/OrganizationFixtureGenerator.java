@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance.fixture;
+
+import org.bonitasoft.studio.actors.model.organization.Group;
+import org.bonitasoft.studio.actors.model.organization.Groups;
+import org.bonitasoft.studio.actors.model.organization.Membership;
+import org.bonitasoft.studio.actors.model.organization.Memberships;
+import org.bonitasoft.studio.actors.model.organization.Organization;
+import org.bonitasoft.studio.actors.model.organization.OrganizationFactory;
+import org.bonitasoft.studio.actors.model.organization.PasswordType;
+import org.bonitasoft.studio.actors.model.organization.Role;
+import org.bonitasoft.studio.actors.model.organization.Roles;
+import org.bonitasoft.studio.actors.model.organization.User;
+import org.bonitasoft.studio.actors.model.organization.Users;
+
+/**
+ * Builds a valid organization with the given number of users: one group every ten users, a manager hierarchy where each manager has
+ * five reports, and one membership per user.
+ */
+public class OrganizationFixtureGenerator {
+
+    private static final String ROOT_GROUP = "acme";
+    private static final String MEMBER_ROLE = "member";
+
+    private final int userCount;
+
+    public OrganizationFixtureGenerator(final int userCount) {
+        this.userCount = userCount;
+    }
+
+    public Organization generate() {
+        final int groupCount = Math.max(1, userCount / 10);
+        final Organization organization = OrganizationFactory.eINSTANCE.createOrganization();
+        organization.setName("Benchmark");
+
+        final Groups groups = OrganizationFactory.eINSTANCE.createGroups();
+        groups.getGroup().add(createGroup(null, ROOT_GROUP));
+        for (int g = 0; g < groupCount; g++) {
+            groups.getGroup().add(createGroup("/" + ROOT_GROUP, groupName(g)));
+        }
+        organization.setGroups(groups);
+
+        final Roles roles = OrganizationFactory.eINSTANCE.createRoles();
+        final Role role = OrganizationFactory.eINSTANCE.createRole();
+        role.setName(MEMBER_ROLE);
+        role.setDisplayName("Member");
+        roles.getRole().add(role);
+        organization.setRoles(roles);
+
+        final Users users = OrganizationFactory.eINSTANCE.createUsers();
+        final Memberships memberships = OrganizationFactory.eINSTANCE.createMemberships();
+        for (int u = 0; u < userCount; u++) {
+            users.getUser().add(createUser(userName(u), u > 0 ? userName((u - 1) / 5) : null));
+            memberships.getMembership().add(createMembership(userName(u), groupName(u % groupCount)));
+        }
+        organization.setUsers(users);
+        organization.setMemberships(memberships);
+        return organization;
+    }
+
+    private Group createGroup(final String parentPath, final String name) {
+        final Group group = OrganizationFactory.eINSTANCE.createGroup();
+        group.setName(name);
+        group.setDisplayName(name);
+        group.setParentPath(parentPath);
+        return group;
+    }
+
+    private User createUser(final String userName, final String manager) {
+        final User user = OrganizationFactory.eINSTANCE.createUser();
+        user.setUserName(userName);
+        user.setFirstName(userName);
+        user.setLastName(userName);
+        user.setManager(manager);
+        user.setEnabled(true);
+        final PasswordType password = OrganizationFactory.eINSTANCE.createPasswordType();
+        password.setValue("bpm");
+        password.setEncrypted(false);
+        user.setPassword(password);
+        return user;
+    }
+
+    private Membership createMembership(final String userName, final String groupName) {
+        final Membership membership = OrganizationFactory.eINSTANCE.createMembership();
+        membership.setUserName(userName);
+        membership.setGroupParentPath("/" + ROOT_GROUP);
+        membership.setGroupName(groupName);
+        membership.setRoleName(MEMBER_ROLE);
+        return membership;
+    }
+
+    private String userName(final int index) {
+        return "user" + index;
+    }
+
+    private String groupName(final int index) {
+        return "group" + index;
+    }
+
+}
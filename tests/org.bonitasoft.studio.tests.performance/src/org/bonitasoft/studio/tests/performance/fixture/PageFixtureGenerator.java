@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance.fixture;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes UI designer pages in the layout of the <code>web_page</code> store: one folder per page, holding the JSON of the page. Each
+ * page has rows of standard widgets so that its size is close to a real form.
+ */
+public class PageFixtureGenerator {
+
+    private final int pageCount;
+    private final int componentsPerPage;
+
+    public PageFixtureGenerator(final int pageCount, final int componentsPerPage) {
+        this.pageCount = pageCount;
+        this.componentsPerPage = componentsPerPage;
+    }
+
+    /**
+     * @return the folders of the generated pages
+     */
+    public List<File> generate(final File storeFolder) throws IOException {
+        final List<File> pageFolders = new ArrayList<File>();
+        for (int p = 0; p < pageCount; p++) {
+            final String pageId = pageId(p);
+            final File pageFolder = new File(storeFolder, pageId);
+            pageFolder.mkdirs();
+            Files.write(new File(pageFolder, pageId + ".json").toPath(), pageJSON(pageId).getBytes(StandardCharsets.UTF_8));
+            pageFolders.add(pageFolder);
+        }
+        return pageFolders;
+    }
+
+    private String pageJSON(final String pageId) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\":\"").append(pageId).append("\",\"name\":\"").append(pageId).append("\",\"type\":\"form\",\"rows\":[");
+        for (int c = 0; c < componentsPerPage; c++) {
+            if (c > 0) {
+                sb.append(',');
+            }
+            sb.append("[{\"type\":\"component\",\"id\":\"pbInput\",\"dimension\":{\"md\":12},\"propertyValues\":{")
+                    .append("\"label\":{\"type\":\"interpolation\",\"value\":\"Field ").append(c).append("\"},")
+                    .append("\"value\":{\"type\":\"variable\",\"value\":\"formInput.field").append(c).append("\"},")
+                    .append("\"required\":{\"type\":\"constant\",\"value\":false}}}]");
+        }
+        sb.append("],\"assets\":[],\"data\":{}}");
+        return sb.toString();
+    }
+
+    private String pageId(final int index) {
+        return "benchmarkPage" + index;
+    }
+
+}
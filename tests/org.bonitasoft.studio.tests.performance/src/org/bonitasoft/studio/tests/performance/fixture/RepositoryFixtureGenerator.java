@@ -0,0 +1,307 @@
+/**
+ * Copyright (C) 2016 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.studio.tests.performance.fixture;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.bonitasoft.engine.bdm.BusinessObjectModelConverter;
+import org.bonitasoft.engine.bdm.model.BusinessObject;
+import org.bonitasoft.engine.bdm.model.BusinessObjectModel;
+import org.bonitasoft.engine.bdm.model.field.FieldType;
+import org.bonitasoft.engine.bdm.model.field.RelationField;
+import org.bonitasoft.engine.bdm.model.field.SimpleField;
+import org.bonitasoft.engine.bpm.connector.ConnectorEvent;
+import org.bonitasoft.studio.actors.model.organization.DocumentRoot;
+import org.bonitasoft.studio.actors.model.organization.OrganizationFactory;
+import org.bonitasoft.studio.actors.model.organization.util.OrganizationResourceFactoryImpl;
+import org.bonitasoft.studio.common.ExpressionConstants;
+import org.bonitasoft.studio.common.ProductVersion;
+import org.bonitasoft.studio.common.repository.operation.ExportBosArchiveOperation;
+import org.bonitasoft.studio.importer.builder.IProcBuilder;
+import org.bonitasoft.studio.importer.builder.IProcBuilder.DataType;
+import org.bonitasoft.studio.importer.builder.IProcBuilder.EventType;
+import org.bonitasoft.studio.importer.builder.IProcBuilder.GatewayType;
+import org.bonitasoft.studio.importer.builder.IProcBuilder.TaskType;
+import org.bonitasoft.studio.importer.builder.ProcBuilder;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * Generates a repository content at a given scale: diagrams built with the {@link ProcBuilder} (tasks, data, gateways and connectors), an
+ * organization and a business data model. The same seed always gives the same content (names, sizes, types and relations), only the
+ * technical ids generated by EMF differ.
+ * The content can be written as the store folders of a repository ({@link #generate(File)}) or as a .bos archive
+ * ({@link #generateArchive(File)}).
+ */
+public class RepositoryFixtureGenerator {
+
+    public static final String DIAGRAMS_FOLDER = "diagrams";
+    public static final String ORGANIZATIONS_FOLDER = "organizations";
+    public static final String BDM_FOLDER = "bdm";
+
+    private static final String EMAIL_CONNECTOR_ID = "email";
+    private static final String EMAIL_CONNECTOR_VERSION = "1.0.0";
+    private static final int TASK_SPACING = 150;
+    private static final DataType[] DATA_TYPES = { DataType.STRING, DataType.INTEGER, DataType.BOOLEAN, DataType.DATE, DataType.LONG, DataType.DOUBLE };
+    private static final FieldType[] FIELD_TYPES = { FieldType.STRING, FieldType.TEXT, FieldType.INTEGER, FieldType.LONG, FieldType.DOUBLE,
+            FieldType.BOOLEAN, FieldType.DATE };
+
+    private final long seed;
+    private int diagrams = 10;
+    private int tasksPerDiagram = 20;
+    private int dataPerDiagram = 5;
+    private int connectorsPerDiagram = 2;
+    private int users = 100;
+    private int businessObjects = 10;
+
+    public RepositoryFixtureGenerator(final long seed) {
+        this.seed = seed;
+    }
+
+    public RepositoryFixtureGenerator diagrams(final int diagrams) {
+        this.diagrams = diagrams;
+        return this;
+    }
+
+    /**
+     * Average number of tasks of a diagram, the actual number varies between half and one and a half times this value
+     */
+    public RepositoryFixtureGenerator tasksPerDiagram(final int tasksPerDiagram) {
+        this.tasksPerDiagram = tasksPerDiagram;
+        return this;
+    }
+
+    public RepositoryFixtureGenerator dataPerDiagram(final int dataPerDiagram) {
+        this.dataPerDiagram = dataPerDiagram;
+        return this;
+    }
+
+    public RepositoryFixtureGenerator connectorsPerDiagram(final int connectorsPerDiagram) {
+        this.connectorsPerDiagram = connectorsPerDiagram;
+        return this;
+    }
+
+    public RepositoryFixtureGenerator users(final int users) {
+        this.users = users;
+        return this;
+    }
+
+    public RepositoryFixtureGenerator businessObjects(final int businessObjects) {
+        this.businessObjects = businessObjects;
+        return this;
+    }
+
+    /**
+     * Writes the store folders (diagrams, organizations, bdm) in the given folder
+     *
+     * @return the written files
+     */
+    public List<File> generate(final File targetFolder) throws Exception {
+        final Random random = new Random(seed);
+        final List<File> files = new ArrayList<File>();
+        final File diagramsFolder = mkdirs(new File(targetFolder, DIAGRAMS_FOLDER));
+        for (int i = 0; i < diagrams; i++) {
+            files.add(generateDiagram(diagramsFolder, i, random));
+        }
+        files.add(generateOrganization(mkdirs(new File(targetFolder, ORGANIZATIONS_FOLDER))));
+        if (businessObjects > 0) {
+            files.add(generateBusinessObjectModel(mkdirs(new File(targetFolder, BDM_FOLDER)), random));
+        }
+        return files;
+    }
+
+    /**
+     * Writes the content in a .bos archive that can be imported with the ImportBosArchiveOperation
+     */
+    public File generateArchive(final File bosFile) throws Exception {
+        final File contentFolder = Files.createTempDirectory("fixture").toFile();
+        try {
+            generate(contentFolder);
+            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(bosFile))) {
+                addManifest(zos);
+                addToArchive(zos, contentFolder, "");
+            }
+        } finally {
+            delete(contentFolder);
+        }
+        return bosFile;
+    }
+
+    protected File generateDiagram(final File diagramsFolder, final int index, final Random random) throws Exception {
+        final String name = String.format("Diagram%04d", index);
+        final File diagramFile = new File(diagramsFolder, name + "-1.0.proc");
+        final int taskCount = Math.max(1, tasksPerDiagram / 2 + random.nextInt(tasksPerDiagram + 1));
+
+        final IProcBuilder builder = new ProcBuilder();
+        builder.createDiagram(name, name, "1.0", diagramFile);
+        builder.addPool(name + "Pool", name + " pool", "1.0", new Point(0, 0), new Dimension(300 + (taskCount + taskCount / 10) * TASK_SPACING, 250));
+        builder.addActor("Employee", "Generated actor");
+        for (int d = 0; d < dataPerDiagram; d++) {
+            builder.addData("data" + d, "data" + d, null, random.nextInt(10) == 0, DATA_TYPES[random.nextInt(DATA_TYPES.length)]);
+        }
+
+        final Map<Integer, Integer> connectorsByTask = new HashMap<Integer, Integer>();
+        for (int c = 0; c < connectorsPerDiagram; c++) {
+            final Integer task = random.nextInt(taskCount);
+            connectorsByTask.put(task, connectorsByTask.containsKey(task) ? connectorsByTask.get(task) + 1 : 1);
+        }
+
+        final List<String> nodes = new ArrayList<String>();
+        int x = 20;
+        builder.addEvent("start", "Start", new Point(x, 100), new Dimension(30, 30), EventType.START);
+        nodes.add("start");
+        for (int t = 0; t < taskCount; t++) {
+            x += TASK_SPACING;
+            final String taskId = "step" + t;
+            builder.addTask(taskId, "Step " + t, new Point(x, 80), new Dimension(100, 50), random.nextInt(4) == 0 ? TaskType.SERVICE : TaskType.HUMAN);
+            nodes.add(taskId);
+            final Integer connectors = connectorsByTask.get(t);
+            for (int c = 0; connectors != null && c < connectors; c++) {
+                addConnector(builder, taskId + "Connector" + c);
+            }
+            if (t % 10 == 9 && t < taskCount - 1) {
+                x += TASK_SPACING;
+                final String gatewayId = "gateway" + t;
+                builder.addGateway(gatewayId, gatewayId, new Point(x, 90), new Dimension(40, 40),
+                        random.nextBoolean() ? GatewayType.XOR : GatewayType.AND);
+                nodes.add(gatewayId);
+            }
+        }
+        x += TASK_SPACING;
+        builder.addEvent("end", "End", new Point(x, 100), new Dimension(30, 30), EventType.END);
+        nodes.add("end");
+
+        for (int n = 1; n < nodes.size(); n++) {
+            builder.addSequenceFlow("flow" + n, nodes.get(n - 1), nodes.get(n), false, null, null, null);
+        }
+        builder.done();
+        return diagramFile;
+    }
+
+    private void addConnector(final IProcBuilder builder, final String connectorName) throws Exception {
+        builder.addConnector(connectorName, connectorName, EMAIL_CONNECTOR_ID, EMAIL_CONNECTOR_VERSION, ConnectorEvent.ON_ENTER, false);
+        addConstantParameter(builder, "smtpHost", "localhost");
+        addConstantParameter(builder, "smtpPort", "25");
+        addConstantParameter(builder, "from", "studio@acme.com");
+        addConstantParameter(builder, "to", "walter.bates@acme.com");
+        addConstantParameter(builder, "subject", connectorName);
+        addConstantParameter(builder, "message", "Generated by " + getClass().getSimpleName());
+    }
+
+    private void addConstantParameter(final IProcBuilder builder, final String key, final String value) throws Exception {
+        builder.addConnectorParameter(key, value, String.class.getName(), null, ExpressionConstants.CONSTANT_TYPE);
+    }
+
+    protected File generateOrganization(final File organizationsFolder) throws IOException {
+        final File organizationFile = new File(organizationsFolder, "Generated.organization");
+        final Resource resource = new OrganizationResourceFactoryImpl().createResource(URI.createFileURI(organizationFile.getAbsolutePath()));
+        final DocumentRoot root = OrganizationFactory.eINSTANCE.createDocumentRoot();
+        root.setOrganization(new OrganizationFixtureGenerator(users).generate());
+        resource.getContents().add(root);
+        final Map<Object, Object> options = new HashMap<Object, Object>();
+        options.put(XMLResource.OPTION_ENCODING, "UTF-8");
+        options.put(XMLResource.OPTION_XML_VERSION, "1.0");
+        resource.save(options);
+        return organizationFile;
+    }
+
+    protected File generateBusinessObjectModel(final File bdmFolder, final Random random) throws Exception {
+        final BusinessObjectModel model = new BusinessObjectModel();
+        for (int i = 0; i < businessObjects; i++) {
+            final BusinessObject businessObject = new BusinessObject();
+            businessObject.setQualifiedName(String.format("com.company.model.Entity%04d", i));
+            final int fieldCount = 5 + random.nextInt(11);
+            for (int f = 0; f < fieldCount; f++) {
+                final SimpleField field = new SimpleField();
+                field.setName("attribute" + f);
+                field.setType(FIELD_TYPES[random.nextInt(FIELD_TYPES.length)]);
+                if (field.getType() == FieldType.STRING) {
+                    field.setLength(255);
+                }
+                field.setNullable(true);
+                field.setCollection(random.nextInt(10) == 0);
+                businessObject.getFields().add(field);
+            }
+            if (i > 0 && random.nextInt(3) == 0) {
+                final RelationField relation = new RelationField();
+                relation.setName("related");
+                relation.setType(RelationField.Type.AGGREGATION);
+                relation.setFetchType(RelationField.FetchType.LAZY);
+                relation.setReference(model.getBusinessObjects().get(random.nextInt(i)));
+                relation.setNullable(true);
+                businessObject.getFields().add(relation);
+            }
+            model.getBusinessObjects().add(businessObject);
+        }
+        final File bdmFile = new File(bdmFolder, "bdm.zip");
+        Files.write(bdmFile.toPath(), new BusinessObjectModelConverter().zip(model));
+        return bdmFile;
+    }
+
+    private void addManifest(final ZipOutputStream zos) throws IOException {
+        final Properties manifest = new Properties();
+        manifest.put(ExportBosArchiveOperation.VERSION, ProductVersion.CURRENT_VERSION);
+        manifest.put(ExportBosArchiveOperation.TO_OPEN, ExportBosArchiveOperation.NONE);
+        zos.putNextEntry(new ZipEntry(ExportBosArchiveOperation.BOS_ARCHIVE_MANIFEST));
+        manifest.store(zos, getClass().getSimpleName());
+        zos.closeEntry();
+    }
+
+    private void addToArchive(final ZipOutputStream zos, final File folder, final String path) throws IOException {
+        final File[] children = folder.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (final File child : children) {
+            if (child.isDirectory()) {
+                addToArchive(zos, child, path + child.getName() + "/");
+            } else {
+                zos.putNextEntry(new ZipEntry(path + child.getName()));
+                Files.copy(child.toPath(), zos);
+                zos.closeEntry();
+            }
+        }
+    }
+
+    private static File mkdirs(final File folder) {
+        folder.mkdirs();
+        return folder;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}